@@ -0,0 +1,36 @@
+package com.stagllc.staginfra.benchmarks;
+
+import com.stagllc.staginfra.dto.component.ComponentType;
+
+// Components laid out column-wise for ColumnarCostEvaluator. Components are grouped by resource type, and each
+// cost term is split into three parallel double columns (unit price, quantity, scale), one set per term position.
+// Components with fewer terms than the widest one are padded with zero terms, which add exactly nothing.
+// Prices are resolved against one catalog when the batch is built.
+public final class ColumnarBatch {
+    final double[][] prices;
+    final double[][] quantities;
+    final double[][] scales;
+    // Components of type t are [typeStart[t], typeStart[t + 1])
+    final int[] typeStart;
+    final String catalogVersion;
+
+    ColumnarBatch(double[][] prices, double[][] quantities, double[][] scales, int[] typeStart, String catalogVersion) {
+        this.prices = prices;
+        this.quantities = quantities;
+        this.scales = scales;
+        this.typeStart = typeStart;
+        this.catalogVersion = catalogVersion;
+    }
+
+    public int size() {
+        return typeStart[typeStart.length - 1];
+    }
+
+    public int count(ComponentType type) {
+        return typeStart[type.ordinal() + 1] - typeStart[type.ordinal()];
+    }
+
+    public String getCatalogVersion() {
+        return catalogVersion;
+    }
+}
@@ -0,0 +1,70 @@
+package com.stagllc.staginfra.benchmarks;
+
+import com.stagllc.staginfra.dto.component.Component;
+import com.stagllc.staginfra.service.cost.CostEstimator;
+import com.stagllc.staginfra.service.cost.calculator.CostCalculatorRegistry;
+import com.stagllc.staginfra.service.pricing.PriceCatalog;
+import com.stagllc.staginfra.service.pricing.PriceCatalogService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Fleet-sized batches: columnar evaluation with the SIMD and scalar kernels against the per-component estimator.
+// Throughput in components per second is size / score.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g", "--add-modules", "jdk.incubator.vector"})
+public class ColumnarCostBenchmark {
+
+    @Param({"100000", "1000000", "5000000"})
+    public int size;
+
+    @Param({"true", "false"})
+    public boolean vector;
+
+    private CostEstimator costEstimator;
+    private ColumnarCostEvaluator evaluator;
+    private PriceCatalog catalog;
+    private List<Component> design;
+    private ColumnarBatch batch;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        costEstimator = new CostEstimator(new PriceCatalogService("", false), CostCalculatorRegistry.withDefaults());
+        evaluator = new ColumnarCostEvaluator(costEstimator, vector);
+        catalog = costEstimator.getCatalog();
+        design = SyntheticDesignGenerator.generate(size, 42);
+        batch = evaluator.load(design);
+    }
+
+    @Benchmark
+    public long columnarEvaluate() {
+        return evaluator.evaluate(batch);
+    }
+
+    // Building the columns, for the break-even point against estimateMicros
+    @Benchmark
+    public ColumnarBatch columnarLoad() {
+        return evaluator.load(design, catalog);
+    }
+
+    @Benchmark
+    public long estimateMicros() {
+        return costEstimator.estimateMicros(design, catalog);
+    }
+}
@@ -0,0 +1,118 @@
+package com.stagllc.staginfra.benchmarks;
+
+import com.stagllc.staginfra.dto.component.Component;
+import com.stagllc.staginfra.dto.component.ComponentType;
+import com.stagllc.staginfra.service.cost.CostEstimator;
+import com.stagllc.staginfra.service.cost.CostPlan;
+import com.stagllc.staginfra.service.cost.Money;
+import com.stagllc.staginfra.service.pricing.PriceCatalog;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+
+// Columnar evaluation for fleet-wide reporting over millions of components. A batch is compiled once into
+// per-type primitive columns (see ColumnarBatch); evaluating it streams those columns through a SIMD kernel built
+// on jdk.incubator.vector when the JVM runs with --add-modules jdk.incubator.vector, or a scalar loop otherwise.
+// Rounding to micro-cents stays per component, so totals are identical to CostEstimator's.
+// Building the columns costs more than pricing a design once, so it only pays off when one batch is evaluated
+// repeatedly (see ColumnarCostBenchmark). It lives with the benchmarks so the application never compiles against
+// the incubator module; request paths use CostEstimator.
+public class ColumnarCostEvaluator {
+    private static final Logger logger = LoggerFactory.getLogger(ColumnarCostEvaluator.class);
+
+    private static final String VECTOR_MODULE = "jdk.incubator.vector";
+    // Components per kernel call; the unrounded costs of one chunk stay in L1
+    private static final int CHUNK_SIZE = 1024;
+
+    private final CostEstimator costEstimator;
+    private final CostKernel kernel;
+
+    public ColumnarCostEvaluator(CostEstimator costEstimator, boolean vectorEnabled) {
+        this.costEstimator = costEstimator;
+        this.kernel = vectorEnabled ? loadVectorKernel() : CostKernel.SCALAR;
+        logger.info("Columnar cost evaluator using the {} kernel", kernel.name());
+    }
+
+    public String getKernelName() {
+        return kernel.name();
+    }
+
+    public ColumnarBatch load(List<Component> components) {
+        return load(components, costEstimator.getCatalog());
+    }
+
+    public ColumnarBatch load(List<Component> components, PriceCatalog catalog) {
+        CostPlan plan = costEstimator.compile(components);
+        double[] prices = plan.prices(catalog);
+
+        // Counting sort by type so each type's components are contiguous
+        int types = ComponentType.values().length;
+        int[] typeStart = new int[types + 1];
+        int width = 0;
+        for (int c = 0; c < components.size(); c++) {
+            typeStart[components.get(c).kind().ordinal() + 1]++;
+            width = Math.max(width, plan.termEnd(c) - plan.termStart(c));
+        }
+        for (int t = 0; t < types; t++) {
+            typeStart[t + 1] += typeStart[t];
+        }
+        int[] next = typeStart.clone();
+
+        int n = components.size();
+        double[][] priceColumns = new double[width][n];
+        double[][] quantityColumns = new double[width][n];
+        double[][] scaleColumns = new double[width][n];
+        for (int c = 0; c < n; c++) {
+            int row = next[components.get(c).kind().ordinal()]++;
+            for (int t = plan.termStart(c), k = 0; t < plan.termEnd(c); t++, k++) {
+                priceColumns[k][row] = prices[plan.firstPrice(t)];
+                quantityColumns[k][row] = plan.quantity(t);
+                scaleColumns[k][row] = prices[plan.secondPrice(t)];
+            }
+        }
+        return new ColumnarBatch(priceColumns, quantityColumns, scaleColumns, typeStart, catalog.getVersion());
+    }
+
+    // Total in micro-cents
+    public long evaluate(ColumnarBatch batch) {
+        return evaluate(batch, null);
+    }
+
+    // Also adds each type's subtotal in micro-cents to byType, indexed by ComponentType ordinal
+    public long evaluate(ColumnarBatch batch, long[] byType) {
+        double[] costs = new double[CHUNK_SIZE];
+        long total = 0;
+        for (int t = 0; t + 1 < batch.typeStart.length; t++) {
+            long subtotal = 0;
+            for (int from = batch.typeStart[t], end = batch.typeStart[t + 1]; from < end; from += CHUNK_SIZE) {
+                int to = Math.min(end, from + CHUNK_SIZE);
+                kernel.componentCosts(batch.prices, batch.quantities, batch.scales, from, to, costs);
+                for (int i = 0; i < to - from; i++) {
+                    subtotal = Money.add(subtotal, Money.fromMicros(costs[i]));
+                }
+            }
+            if (byType != null) {
+                byType[t] = Money.add(byType[t], subtotal);
+            }
+            total = Money.add(total, subtotal);
+        }
+        return total;
+    }
+
+    private static CostKernel loadVectorKernel() {
+        if (ModuleLayer.boot().findModule(VECTOR_MODULE).isEmpty()) {
+            logger.info("{} is not available; start the JVM with --add-modules {} for SIMD cost evaluation",
+                    VECTOR_MODULE, VECTOR_MODULE);
+            return CostKernel.SCALAR;
+        }
+        try {
+            // Loaded reflectively so this class links without the incubator module
+            return (CostKernel) Class.forName(ColumnarCostEvaluator.class.getPackageName() + ".VectorCostKernel")
+                    .getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            logger.warn("Could not load the vector cost kernel, using the scalar loop", e);
+            return CostKernel.SCALAR;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.stagllc.staginfra.benchmarks;
+
+import com.stagllc.staginfra.dto.CostEstimateResponse;
+import com.stagllc.staginfra.dto.RegionComparisonResponse;
+import com.stagllc.staginfra.dto.component.Component;
+import com.stagllc.staginfra.service.cost.CostEstimator;
+import com.stagllc.staginfra.service.cost.CostPlan;
+import com.stagllc.staginfra.service.cost.EstimateCache;
+import com.stagllc.staginfra.service.cost.calculator.CostCalculatorRegistry;
+import com.stagllc.staginfra.service.pricing.PriceCatalogService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Stateless estimation (POST /api/cost/estimate) over synthetic designs of increasing size
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class CostEstimatorBenchmark {
+
+    @Param({"10", "1000", "100000", "1000000"})
+    public int size;
+
+    private CostEstimator costEstimator;
+    private EstimateCache estimateCache;
+    private List<Component> design;
+    private CostPlan plan;
+    private double[] prices;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        costEstimator = new CostEstimator(new PriceCatalogService("", false), CostCalculatorRegistry.withDefaults());
+        estimateCache = new EstimateCache(costEstimator, 1_000_000);
+        design = SyntheticDesignGenerator.generate(size, 42);
+        // Prime the cache so cachedEstimate measures the hit path: key construction, lookup and equals
+        estimateCache.estimate(design, false);
+        plan = costEstimator.compile(design);
+        prices = plan.prices(costEstimator.getCatalog());
+    }
+
+    @Benchmark
+    public BigDecimal estimate() {
+        return costEstimator.estimate(design);
+    }
+
+    @Benchmark
+    public CostEstimateResponse estimateWithBreakdown() {
+        return costEstimator.estimateWithBreakdown(design);
+    }
+
+    @Benchmark
+    public RegionComparisonResponse compareRegions() {
+        return costEstimator.compareRegions(design);
+    }
+
+    // Re-evaluation of an already compiled design, as sweeps and what-if edits do
+    @Benchmark
+    public long planEvaluate() {
+        return plan.evaluate(prices);
+    }
+
+    @Benchmark
+    public CostPlan compile() {
+        return costEstimator.compile(design);
+    }
+
+    @Benchmark
+    public CostEstimateResponse cachedEstimate() {
+        return estimateCache.estimate(design, false);
+    }
+}
@@ -0,0 +1,32 @@
+package com.stagllc.staginfra.benchmarks;
+
+import com.stagllc.staginfra.service.cost.Money;
+
+// Inner loop of the columnar evaluator: the unrounded cost in micro-cents of components [from, to) of a batch,
+// summing price * quantity * scale over the term columns in column order, exactly as CostPlan does per component
+interface CostKernel {
+
+    void componentCosts(double[][] prices, double[][] quantities, double[][] scales, int from, int to, double[] out);
+
+    String name();
+
+    // Plain loop, used when the Vector API module isn't available
+    CostKernel SCALAR = new CostKernel() {
+        @Override
+        public void componentCosts(double[][] prices, double[][] quantities, double[][] scales,
+                                   int from, int to, double[] out) {
+            for (int i = from; i < to; i++) {
+                double cost = 0;
+                for (int k = 0; k < prices.length; k++) {
+                    cost += prices[k][i] * quantities[k][i] * scales[k][i];
+                }
+                out[i - from] = cost * Money.MICROS_PER_DOLLAR;
+            }
+        }
+
+        @Override
+        public String name() {
+            return "scalar";
+        }
+    };
+}
@@ -0,0 +1,75 @@
+package com.stagllc.staginfra.benchmarks;
+
+import com.stagllc.staginfra.dto.component.Component;
+import com.stagllc.staginfra.dto.component.Ec2Component;
+import com.stagllc.staginfra.service.cost.CostEstimator;
+import com.stagllc.staginfra.service.cost.DesignKey;
+import com.stagllc.staginfra.service.cost.DesignSnapshot;
+import com.stagllc.staginfra.service.cost.DesignStore;
+import com.stagllc.staginfra.service.cost.calculator.CostCalculatorRegistry;
+import com.stagllc.staginfra.service.pricing.PriceCatalogService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+// Stored-design paths behind CostController: GET /api/cost (getCost), POST /api/cost (full replace) and a
+// single-component PATCH. The controller itself only adds request mapping around these calls.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class DesignStoreBenchmark {
+    private static final DesignKey KEY = new DesignKey("benchmark", "default");
+
+    @Param({"10", "1000", "100000", "1000000"})
+    public int size;
+
+    private DesignStore designStore;
+    private List<Component> design;
+    private Component small;
+    private Component large;
+    private boolean toggle;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        CostEstimator costEstimator =
+                new CostEstimator(new PriceCatalogService("", false), CostCalculatorRegistry.withDefaults());
+        designStore = new DesignStore(costEstimator);
+        design = SyntheticDesignGenerator.generate(size, 42);
+        designStore.replace(KEY, design);
+        small = new Ec2Component("c-0", 1, "t2.micro");
+        large = new Ec2Component("c-0", 4, "t2.large");
+    }
+
+    @Benchmark
+    public BigDecimal getCost() {
+        return designStore.get(KEY).getTotal();
+    }
+
+    @Benchmark
+    public DesignSnapshot replaceDesign() {
+        return designStore.replace(KEY, design);
+    }
+
+    @Benchmark
+    public Optional<DesignSnapshot> updateComponent() {
+        Component next = (toggle = !toggle) ? large : small;
+        return designStore.updateComponent(KEY, "c-0", component -> next);
+    }
+}
@@ -0,0 +1,85 @@
+package com.stagllc.staginfra.benchmarks;
+
+import com.stagllc.staginfra.dto.CostEstimateResponse;
+import com.stagllc.staginfra.dto.component.Component;
+import com.stagllc.staginfra.service.cost.CostEstimator;
+import com.stagllc.staginfra.service.cost.CostPlan;
+import com.stagllc.staginfra.service.cost.EstimateCache;
+import com.stagllc.staginfra.service.cost.Money;
+import com.stagllc.staginfra.service.cost.calculator.CostCalculatorRegistry;
+import com.stagllc.staginfra.service.pricing.PriceCatalogService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Whether a cache hit is cheaper than pricing the design again. The cached design is looked up with an equal copy,
+// as a re-posted request would be, so every hit pays for hashing and comparing all components.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class EstimateCacheBenchmark {
+
+    @Param({"10", "100", "1000", "100000"})
+    public int size;
+
+    private CostEstimator costEstimator;
+    private EstimateCache estimateCache;
+    private List<Component> repost;
+    private CostPlan plan;
+    private double[] prices;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        costEstimator = new CostEstimator(new PriceCatalogService("", false), CostCalculatorRegistry.withDefaults());
+        estimateCache = new EstimateCache(costEstimator, 1_000_000);
+        List<Component> design = SyntheticDesignGenerator.generate(size, 42);
+        estimateCache.estimate(design, false);
+        estimateCache.estimate(design, true);
+        repost = SyntheticDesignGenerator.generate(size, 42);
+        plan = costEstimator.compile(repost);
+        prices = plan.prices(costEstimator.getCatalog());
+    }
+
+    @Benchmark
+    public CostEstimateResponse cachedTotal() {
+        return estimateCache.estimate(repost, false);
+    }
+
+    @Benchmark
+    public CostEstimateResponse cachedBreakdown() {
+        return estimateCache.estimate(repost, true);
+    }
+
+    // What a miss costs for a total
+    @Benchmark
+    public BigDecimal evaluateTotal() {
+        return Money.toDecimal(costEstimator.estimateMicros(repost, costEstimator.getCatalog()));
+    }
+
+    @Benchmark
+    public CostEstimateResponse evaluateBreakdown() {
+        return costEstimator.estimateWithBreakdown(repost);
+    }
+
+    // Lower bound: pricing a design that is already compiled
+    @Benchmark
+    public long evaluatePlan() {
+        return plan.evaluate(prices);
+    }
+}
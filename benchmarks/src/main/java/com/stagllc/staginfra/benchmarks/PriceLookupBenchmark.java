@@ -0,0 +1,73 @@
+package com.stagllc.staginfra.benchmarks;
+
+import com.stagllc.staginfra.service.pricing.PriceCatalog;
+import com.stagllc.staginfra.service.pricing.PriceCatalogLoader;
+import com.stagllc.staginfra.service.pricing.PriceTable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// EC2, RDS and EBS price lookups. Each invocation resolves one SKU from a rotating set that includes an unknown
+// SKU, so both the hit and the default-fallback paths are measured.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PriceLookupBenchmark {
+    private static final int MASK = 7;
+
+    private PriceTable ec2;
+    private PriceTable rds;
+    private PriceTable ebs;
+    private String[] ec2Skus;
+    private String[] rdsSkus;
+    private String[] ebsSkus;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        PriceCatalog catalog = PriceCatalogLoader.loadDefault();
+        ec2 = catalog.getEc2();
+        rds = catalog.getRds();
+        ebs = catalog.getEbs();
+        // Fresh String instances so lookups hash and compare like SKUs parsed from a request
+        ec2Skus = copies("t2.nano", "t2.micro", "t2.small", "t2.medium", "t2.large", "m5.large", "t2.micro", "t2.small");
+        rdsSkus = copies("db.t2.micro", "db.t2.small", "db.t2.medium", "db.m5.large", "db.r5.large", "db.t2.micro",
+                "db.t2.small", "db.t2.micro");
+        ebsSkus = copies("gp2", "gp3", "io1", "st1", "sc1", "io2", "gp2", "gp3");
+    }
+
+    @Benchmark
+    public double ec2Price() {
+        return ec2.price(ec2Skus[next++ & MASK]);
+    }
+
+    @Benchmark
+    public double rdsPrice() {
+        return rds.price(rdsSkus[next++ & MASK]);
+    }
+
+    @Benchmark
+    public double ebsPrice() {
+        return ebs.price(ebsSkus[next++ & MASK]);
+    }
+
+    private static String[] copies(String... skus) {
+        String[] copies = new String[skus.length];
+        for (int i = 0; i < skus.length; i++) {
+            copies[i] = new String(skus[i].toCharArray());
+        }
+        return copies;
+    }
+}
@@ -0,0 +1,74 @@
+package com.stagllc.staginfra.benchmarks;
+
+import com.stagllc.staginfra.dto.component.Component;
+import com.stagllc.staginfra.dto.component.ComponentType;
+import com.stagllc.staginfra.dto.component.DynamoDbComponent;
+import com.stagllc.staginfra.dto.component.EbsComponent;
+import com.stagllc.staginfra.dto.component.Ec2Component;
+import com.stagllc.staginfra.dto.component.LambdaComponent;
+import com.stagllc.staginfra.dto.component.LoadBalancerComponent;
+import com.stagllc.staginfra.dto.component.NetworkComponent;
+import com.stagllc.staginfra.dto.component.RdsComponent;
+import com.stagllc.staginfra.dto.component.S3Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+// Deterministic designs with a component mix resembling what users draw: mostly compute and storage, some
+// networking, a few databases and load balancers. The same size and seed always produce the same design.
+public final class SyntheticDesignGenerator {
+    private static final String[] INSTANCE_TYPES = {"t2.nano", "t2.micro", "t2.micro", "t2.small", "t2.medium", "t2.large"};
+    private static final String[] DB_CLASSES = {"db.t2.micro", "db.t2.small", "db.t2.medium", "db.m5.large"};
+    private static final String[] VOLUME_TYPES = {"gp2", "gp2", "gp3", "io1", "st1", "sc1"};
+    private static final String[] LB_TYPES = {"application", "application", "network", "classic"};
+    private static final int[] LAMBDA_MEMORY = {128, 256, 512, 1024, 2048};
+
+    // Cumulative weights (percent) for EC2, EBS, S3, Lambda, network, RDS, DynamoDB, load balancer
+    private static final int[] MIX = {25, 45, 60, 75, 87, 94, 98, 100};
+
+    private SyntheticDesignGenerator() {
+    }
+
+    public static List<Component> generate(int size, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        List<Component> components = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            components.add(component("c-" + i, random));
+        }
+        return components;
+    }
+
+    static Component component(String id, SplittableRandom random) {
+        int roll = random.nextInt(100);
+        if (roll < MIX[0]) {
+            return new Ec2Component(id, 1 + random.nextInt(8), pick(INSTANCE_TYPES, random));
+        } else if (roll < MIX[1]) {
+            String volumeType = pick(VOLUME_TYPES, random);
+            return new EbsComponent(id, 8 + random.nextInt(2000), volumeType, "io1".equals(volumeType) ? 100 + random.nextInt(5000) : 100);
+        } else if (roll < MIX[2]) {
+            return new S3Component(id, 1 + random.nextInt(10000));
+        } else if (roll < MIX[3]) {
+            return new LambdaComponent(id, LAMBDA_MEMORY[random.nextInt(LAMBDA_MEMORY.length)]);
+        } else if (roll < MIX[4]) {
+            ComponentType kind = switch (random.nextInt(3)) {
+                case 0 -> ComponentType.VPC;
+                case 1 -> ComponentType.SUBNET;
+                default -> ComponentType.SECURITY_GROUP;
+            };
+            return new NetworkComponent(id, kind);
+        } else if (roll < MIX[5]) {
+            return new RdsComponent(id, pick(DB_CLASSES, random), 20 + random.nextInt(1000), random.nextInt(4) == 0);
+        } else if (roll < MIX[6]) {
+            boolean onDemand = random.nextBoolean();
+            return new DynamoDbComponent(id, onDemand ? "PAY_PER_REQUEST" : "PROVISIONED",
+                    1 + random.nextInt(100), 1 + random.nextInt(100));
+        } else {
+            return new LoadBalancerComponent(id, pick(LB_TYPES, random));
+        }
+    }
+
+    private static String pick(String[] values, SplittableRandom random) {
+        return values[random.nextInt(values.length)];
+    }
+}
@@ -0,0 +1,40 @@
+package com.stagllc.staginfra.benchmarks;
+
+import com.stagllc.staginfra.service.cost.Money;
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorSpecies;
+
+// SIMD kernel over jdk.incubator.vector. Only loaded when the module is present (--add-modules jdk.incubator.vector);
+// ColumnarCostEvaluator falls back to CostKernel.SCALAR otherwise. Lanes use the same multiply and add order as the
+// scalar loop and are never fused, so both kernels produce identical bits.
+final class VectorCostKernel implements CostKernel {
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+    @Override
+    public void componentCosts(double[][] prices, double[][] quantities, double[][] scales,
+                               int from, int to, double[] out) {
+        int i = from;
+        for (int bound = from + SPECIES.loopBound(to - from); i < bound; i += SPECIES.length()) {
+            DoubleVector cost = DoubleVector.zero(SPECIES);
+            for (int k = 0; k < prices.length; k++) {
+                DoubleVector price = DoubleVector.fromArray(SPECIES, prices[k], i);
+                DoubleVector quantity = DoubleVector.fromArray(SPECIES, quantities[k], i);
+                DoubleVector scale = DoubleVector.fromArray(SPECIES, scales[k], i);
+                cost = cost.add(price.mul(quantity).mul(scale));
+            }
+            cost.mul((double) Money.MICROS_PER_DOLLAR).intoArray(out, i - from);
+        }
+        for (; i < to; i++) {
+            double cost = 0;
+            for (int k = 0; k < prices.length; k++) {
+                cost += prices[k][i] * quantities[k][i] * scales[k][i];
+            }
+            out[i - from] = cost * Money.MICROS_PER_DOLLAR;
+        }
+    }
+
+    @Override
+    public String name() {
+        return "vector (" + SPECIES.length() + " lanes)";
+    }
+}
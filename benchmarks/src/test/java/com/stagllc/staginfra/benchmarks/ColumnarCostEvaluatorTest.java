@@ -0,0 +1,75 @@
+package com.stagllc.staginfra.benchmarks;
+
+import com.stagllc.staginfra.dto.component.Component;
+import com.stagllc.staginfra.dto.component.ComponentType;
+import com.stagllc.staginfra.dto.component.NetworkComponent;
+import com.stagllc.staginfra.service.cost.CostEstimator;
+import com.stagllc.staginfra.service.cost.DesignKey;
+import com.stagllc.staginfra.service.cost.DesignStore;
+import com.stagllc.staginfra.service.cost.Money;
+import com.stagllc.staginfra.service.cost.calculator.CostCalculatorRegistry;
+import com.stagllc.staginfra.service.pricing.PriceCatalogService;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class ColumnarCostEvaluatorTest {
+
+    private final CostEstimator costEstimator =
+            new CostEstimator(new PriceCatalogService("", false), CostCalculatorRegistry.withDefaults());
+    private final ColumnarCostEvaluator vector = new ColumnarCostEvaluator(costEstimator, true);
+    private final ColumnarCostEvaluator scalar = new ColumnarCostEvaluator(costEstimator, false);
+
+    @Test
+    void testTotalsMatchStoredDesignTotal() {
+        // GET /api/cost reports the stored design's total
+        DesignStore designStore = new DesignStore(costEstimator);
+        DesignKey key = new DesignKey("alice@example.com", "fleet");
+        List<Component> design = SyntheticDesignGenerator.generate(50_003, 3);
+        designStore.replace(key, design);
+        long expected = costEstimator.estimateMicros(design, costEstimator.getCatalog());
+
+        for (ColumnarCostEvaluator evaluator : List.of(vector, scalar)) {
+            long total = evaluator.evaluate(evaluator.load(design));
+            assertEquals(expected, total, evaluator.getKernelName());
+            assertEquals(designStore.get(key).getTotal(), Money.toDecimal(total), evaluator.getKernelName());
+        }
+    }
+
+    @Test
+    void testSubtotalsPerType() {
+        List<Component> design = SyntheticDesignGenerator.generate(10_000, 5);
+        ColumnarBatch batch = vector.load(design);
+        long[] byType = new long[ComponentType.values().length];
+
+        long total = vector.evaluate(batch, byType);
+
+        assertEquals(design.size(), batch.size());
+        assertEquals(costEstimator.getCatalog().getVersion(), batch.getCatalogVersion());
+        long sum = 0;
+        for (ComponentType type : ComponentType.values()) {
+            List<Component> ofType = design.stream().filter(c -> c.kind() == type).toList();
+            assertEquals(ofType.size(), batch.count(type), type.name());
+            assertEquals(costEstimator.estimateMicros(ofType, costEstimator.getCatalog()), byType[type.ordinal()], type.name());
+            sum += byType[type.ordinal()];
+        }
+        assertEquals(total, sum);
+    }
+
+    @Test
+    void testUnpricedAndEmptyBatches() {
+        assertEquals(0, scalar.evaluate(scalar.load(List.of())));
+        assertEquals(0, vector.evaluate(vector.load(List.of(new NetworkComponent("vpc", ComponentType.VPC)))));
+    }
+
+    @Test
+    void testVectorKernelIsUsedWhenModuleIsPresent() {
+        assumeTrue(ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent());
+
+        assertTrue(vector.getKernelName().startsWith("vector"), vector.getKernelName());
+        assertEquals("scalar", scalar.getKernelName());
+    }
+}
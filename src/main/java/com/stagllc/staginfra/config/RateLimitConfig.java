@@ -0,0 +1,74 @@
+package com.stagllc.staginfra.config;
+
+import com.stagllc.staginfra.security.ClientAddressResolver;
+import com.stagllc.staginfra.security.RateLimitInterceptor;
+import com.stagllc.staginfra.service.ratelimit.HeavyHitterTracker;
+import com.stagllc.staginfra.service.ratelimit.InMemoryRateLimitBackend;
+import com.stagllc.staginfra.service.ratelimit.JdbcRateLimitBackend;
+import com.stagllc.staginfra.service.ratelimit.RateLimitBackend;
+import com.stagllc.staginfra.service.ratelimit.RateLimits;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+import java.util.Arrays;
+
+// Registers the @RateLimited interceptor. It only needs the environment, so controller test slices get it as well.
+// app.rate-limit.cluster.backend picks where login and registration attempts are counted: unset keeps them per node,
+// "jdbc" shares them through the application database and "memory" runs the shared path inside this JVM.
+@Configuration
+public class RateLimitConfig implements WebMvcConfigurer {
+
+    private final Environment environment;
+
+    public RateLimitConfig(Environment environment) {
+        this.environment = environment;
+    }
+
+    @Bean
+    public RateLimits rateLimits() {
+        return new RateLimits(environment);
+    }
+
+    // Top clients per limit, fed by every decision of the interceptor and of RateLimiterService
+    @Bean
+    public HeavyHitterTracker heavyHitterTracker() {
+        return new HeavyHitterTracker(
+                environment.getProperty("app.rate-limit.heavy-hitters.capacity", Integer.class, 100),
+                environment.getProperty("app.rate-limit.heavy-hitters.stripes", Integer.class, 8),
+                environment.getProperty("app.rate-limit.heavy-hitters.slices", Integer.class, 60),
+                DurationStyle.detectAndParse(environment.getProperty("app.rate-limit.heavy-hitters.slice", "1m"))
+                        .toMillis());
+    }
+
+    // Proxies whose X-Forwarded-For is believed. The list lives in application.properties; without the property no
+    // proxy is trusted and every client is its connection's address.
+    @Bean
+    public ClientAddressResolver clientAddressResolver() {
+        return new ClientAddressResolver(Arrays.asList(environment.getProperty("app.rate-limit.trusted-proxies",
+                String[].class, new String[0])));
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.rate-limit.cluster.backend", havingValue = "jdbc")
+    public RateLimitBackend jdbcRateLimitBackend(DataSource dataSource) {
+        return new JdbcRateLimitBackend(dataSource);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.rate-limit.cluster.backend", havingValue = "memory")
+    public RateLimitBackend inMemoryRateLimitBackend() {
+        return new InMemoryRateLimitBackend();
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new RateLimitInterceptor(rateLimits(), heavyHitterTracker(),
+                clientAddressResolver()));
+    }
+}
@@ -1,23 +1,38 @@
 package com.stagllc.staginfra.controller;
 
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
 import com.stagllc.staginfra.dto.UserDTO;
+import com.stagllc.staginfra.security.RateLimited;
 import com.stagllc.staginfra.service.UserService;
+import com.stagllc.staginfra.service.cost.EstimateCache;
+import com.stagllc.staginfra.service.ratelimit.HeavyHitterTracker;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.convert.DurationStyle;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/admin")
+@RateLimited(key = "admin", permits = 60)
 public class AdminController {
     private static final Logger logger = LoggerFactory.getLogger(AdminController.class);
 
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private EstimateCache estimateCache;
+
+    @Autowired
+    private HeavyHitterTracker heavyHitterTracker;
+
     @GetMapping(value = "/users", produces = MediaType.APPLICATION_JSON_VALUE)
     public List<UserDTO> getAllUsers() {
         logger.info("Admin request to get all users");
@@ -42,4 +57,49 @@ public class AdminController {
             return null; // This will result in a 200 OK with no content
         }
     }
-}
\ No newline at end of file
+
+    @GetMapping(value = "/cost-cache", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Map<String, Object> getEstimateCacheStats() {
+        CacheStats stats = estimateCache.stats();
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("enabled", estimateCache.isEnabled());
+        response.put("size", estimateCache.size());
+        response.put("hits", stats.hitCount());
+        response.put("misses", stats.missCount());
+        response.put("evictions", stats.evictionCount());
+        response.put("hitRate", stats.hitRate());
+        return response;
+    }
+
+    // Clients with the most attempts and rejections per rate limit over the last window (for example 5m or 1h)
+    @GetMapping(value = "/rate-limits/heavy-hitters", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<Map<String, Object>> getHeavyHitters(
+            @RequestParam(defaultValue = "5m") String window,
+            @RequestParam(defaultValue = "10") int top,
+            @RequestParam(required = false) String limit) {
+        Map<String, Object> response = new LinkedHashMap<>();
+        long windowMillis;
+        try {
+            windowMillis = DurationStyle.detectAndParse(window).toMillis();
+        } catch (IllegalArgumentException e) {
+            response.put("error", "Invalid window: " + window);
+            return ResponseEntity.badRequest().body(response);
+        }
+        if (windowMillis <= 0 || windowMillis > heavyHitterTracker.getHorizonMillis() || top <= 0) {
+            response.put("error", "Window must be positive and at most " + heavyHitterTracker.getHorizonMillis() / 1000
+                    + " seconds, and top must be positive");
+            return ResponseEntity.badRequest().body(response);
+        }
+
+        Map<String, Object> limits = new LinkedHashMap<>();
+        for (String name : limit != null ? List.of(limit) : heavyHitterTracker.getLimits()) {
+            Map<String, Object> hitters = new LinkedHashMap<>();
+            hitters.put("attempts", heavyHitterTracker.topAttempts(name, top, windowMillis));
+            hitters.put("rejections", heavyHitterTracker.topRejections(name, top, windowMillis));
+            limits.put(name, hitters);
+        }
+        response.put("windowSeconds", windowMillis / 1000);
+        response.put("limits", limits);
+        return ResponseEntity.ok(response);
+    }
+}
@@ -6,9 +6,12 @@ import com.stagllc.staginfra.dto.RegistrationRequest;
 import com.stagllc.staginfra.dto.UserDTO;
 import com.stagllc.staginfra.model.User;
 import com.stagllc.staginfra.repository.UserRepository;
+import com.stagllc.staginfra.security.ClientAddressResolver;
+import com.stagllc.staginfra.security.RateLimited;
 import com.stagllc.staginfra.service.JwtService;
 import com.stagllc.staginfra.service.RateLimiterService;
 import com.stagllc.staginfra.service.UserService;
+import com.stagllc.staginfra.service.ratelimit.IpAddresses;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
@@ -36,6 +39,9 @@ public class AuthController {
     @Autowired
     private RateLimiterService rateLimiterService;
 
+    @Autowired
+    private ClientAddressResolver clientAddressResolver;
+
     @Autowired
     private JwtService jwtService;
 
@@ -51,11 +57,13 @@ public class AuthController {
             HttpServletRequest httpRequest) {
 
         // Get client IP address for rate limiting
-        String clientIp = getClientIp(httpRequest);
+        long[] clientIp = clientAddressResolver.resolve(httpRequest);
+        long ipHi = clientIp[0];
+        long ipLo = clientIp[1];
 
         // Check rate limits
-        if (!rateLimiterService.allowRegistration(clientIp)) {
-            logger.warn("Registration rate limit exceeded for IP: {}", clientIp);
+        if (!rateLimiterService.allowRegistration(ipHi, ipLo)) {
+            logger.warn("Registration rate limit exceeded for IP: {}", IpAddresses.format(ipHi, ipLo));
             return ResponseEntity.status(429)
                     .body(AuthResponse.error("Too many registration attempts. Please try again later."));
         }
@@ -80,11 +88,13 @@ public class AuthController {
             HttpServletRequest httpRequest) {
 
         // Get client IP address for rate limiting
-        String clientIp = getClientIp(httpRequest);
+        long[] clientIp = clientAddressResolver.resolve(httpRequest);
+        long ipHi = clientIp[0];
+        long ipLo = clientIp[1];
 
         // Check rate limits
-        if (!rateLimiterService.allowLogin(clientIp)) {
-            logger.warn("Login rate limit exceeded for IP: {}", clientIp);
+        if (!rateLimiterService.allowLogin(ipHi, ipLo)) {
+            logger.warn("Login rate limit exceeded for IP: {}", IpAddresses.format(ipHi, ipLo));
             return ResponseEntity.status(429)
                     .body(AuthResponse.error("Too many login attempts. Please try again later."));
         }
@@ -128,7 +138,7 @@ public class AuthController {
             userService.updateUser(user);
 
             // Reset rate limiter on successful login
-            rateLimiterService.resetLimiter(clientIp, "LOGIN");
+            rateLimiterService.resetLimiter(ipHi, ipLo, "LOGIN");
 
             // Reset failed login attempts
             userService.resetFailedLoginAttempts(user.getEmail());
@@ -182,11 +192,13 @@ public class AuthController {
             HttpServletRequest httpRequest) {
 
         // Get client IP address for rate limiting
-        String clientIp = getClientIp(httpRequest);
+        long[] clientIp = clientAddressResolver.resolve(httpRequest);
+        long ipHi = clientIp[0];
+        long ipLo = clientIp[1];
 
         // Check rate limits
-        if (!rateLimiterService.allowRegistration(clientIp)) {
-            logger.warn("Verification email rate limit exceeded for IP: {}", clientIp);
+        if (!rateLimiterService.allowRegistration(ipHi, ipLo)) {
+            logger.warn("Verification email rate limit exceeded for IP: {}", IpAddresses.format(ipHi, ipLo));
             return ResponseEntity.status(429)
                     .body(AuthResponse.error("Too many requests. Please try again later."));
         }
@@ -201,6 +213,7 @@ public class AuthController {
     }
 
     @PostMapping("/refresh-token")
+    @RateLimited(key = "refresh-token", permits = 10)
     public ResponseEntity<AuthResponse> refreshToken(@RequestParam String refreshToken) {
         try {
             // Validate refresh token
@@ -260,14 +273,4 @@ public class AuthController {
         logger.info("User logged out");
         return ResponseEntity.ok(AuthResponse.success("Successfully logged out"));
     }
-
-    // Helper method to get client IP address
-    private String getClientIp(HttpServletRequest request) {
-        String xForwardedFor = request.getHeader("X-Forwarded-For");
-        if (xForwardedFor != null && !xForwardedFor.isEmpty()) {
-            // Get first IP in case of proxies
-            return xForwardedFor.split(",")[0].trim();
-        }
-        return request.getRemoteAddr();
-    }
 }
\ No newline at end of file
@@ -1,120 +1,322 @@
 package com.stagllc.staginfra.controller;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.stagllc.staginfra.dto.CostEstimateResponse;
 import com.stagllc.staginfra.dto.CostRequest;
+import com.stagllc.staginfra.dto.DesignCostResponse;
+import com.stagllc.staginfra.dto.DiffRequest;
+import com.stagllc.staginfra.dto.ProjectionRequest;
+import com.stagllc.staginfra.dto.RegionComparisonResponse;
+import com.stagllc.staginfra.dto.SweepRequest;
+import com.stagllc.staginfra.dto.component.Component;
+import com.stagllc.staginfra.security.AnonymousClient;
+import com.stagllc.staginfra.security.RateLimited;
+import com.stagllc.staginfra.service.cost.BatchCostService;
+import com.stagllc.staginfra.service.cost.ComponentPatcher;
+import com.stagllc.staginfra.service.cost.CostEstimator;
+import com.stagllc.staginfra.service.cost.CostEventService;
+import com.stagllc.staginfra.service.cost.CostInputLimitException;
+import com.stagllc.staginfra.service.cost.CostOverflowException;
+import com.stagllc.staginfra.service.cost.DesignDiffService;
+import com.stagllc.staginfra.service.cost.DesignKey;
+import com.stagllc.staginfra.service.cost.DesignSnapshot;
+import com.stagllc.staginfra.service.cost.DesignStore;
+import com.stagllc.staginfra.service.cost.EstimateCache;
+import com.stagllc.staginfra.service.cost.ProjectionService;
+import com.stagllc.staginfra.service.cost.StreamingCostIngester;
+import com.stagllc.staginfra.service.cost.StreamingEstimate;
+import com.stagllc.staginfra.service.cost.SweepService;
+import com.stagllc.staginfra.service.pricing.UnknownRegionException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.security.Principal;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api")
+@RateLimited(key = "cost", permits = 120)
 public class CostController {
-    private List<Map<String, Object>> components = List.of();
+    private static final Logger logger = LoggerFactory.getLogger(CostController.class);
+
+    static final String DEFAULT_DESIGN_ID = "default";
+
+    @Autowired
+    private CostEstimator costEstimator;
+
+    @Autowired
+    private DesignStore designStore;
+
+    @Autowired
+    private EstimateCache estimateCache;
+
+    @Autowired
+    private BatchCostService batchCostService;
+
+    @Autowired
+    private StreamingCostIngester streamingCostIngester;
+
+    @Autowired
+    private SweepService sweepService;
+
+    @Autowired
+    private ProjectionService projectionService;
+
+    @Autowired
+    private CostEventService costEventService;
+
+    @Autowired
+    private DesignDiffService designDiffService;
 
     @GetMapping("/cost")
-    public Map<String, Double> getCost() {
-        double total = 0.0;
-        for (Map<String, Object> comp : components) {
-            String type = (String) comp.get("type");
-            if ("ec2".equals(type)) {
-                int instances = (int) comp.getOrDefault("instances", 1);
-                String instanceType = (String) comp.getOrDefault("instance_type", "t2.micro");
-                // Add instance type based pricing
-                double basePrice = getEC2Price(instanceType);
-                total += basePrice * instances;
-            } else if ("s3".equals(type)) {
-                int storage = (int) comp.getOrDefault("storage", 10);
-                total += 0.023 * storage;
-            } else if ("lambda".equals(type)) {
-                int memory = (int) comp.getOrDefault("memory", 128);
-                // $0.0000166667 per GB-second, estimated for 100,000 invocations/month
-                double memoryGB = memory / 1024.0;
-                double invocations = 100000;
-                double avgDuration = 0.5; // 500ms
-                total += 0.0000166667 * memoryGB * avgDuration * invocations;
-            } else if ("rds".equals(type)) {
-                String instanceClass = (String) comp.getOrDefault("instance_class", "db.t2.micro");
-                int storage = (int) comp.getOrDefault("allocated_storage", 20);
-                boolean multiAZ = (boolean) comp.getOrDefault("multi_az", false);
-
-                double instancePrice = getRDSPrice(instanceClass);
-                double storagePrice = 0.115 * storage; // $0.115 per GB-month
-
-                total += (instancePrice * (multiAZ ? 2 : 1)) + storagePrice;
-            } else if ("dynamodb".equals(type)) {
-                String billingMode = (String) comp.getOrDefault("billing_mode", "PROVISIONED");
-
-                if ("PAY_PER_REQUEST".equals(billingMode)) {
-                    // Assume 1M reads, 0.5M writes per month
-                    total += 0.25 * 1 + 1.25 * 0.5; // $0.25 per 1M reads, $1.25 per 1M writes
-                } else {
-                    int readCapacity = (int) comp.getOrDefault("read_capacity", 5);
-                    int writeCapacity = (int) comp.getOrDefault("write_capacity", 5);
-                    total += (0.00013 * readCapacity + 0.00065 * writeCapacity) * 730; // Cost per hour * hours per month
-                }
-            } else if ("ebs".equals(type)) {
-                int size = (int) comp.getOrDefault("size", 20);
-                String volumeType = (String) comp.getOrDefault("volume_type", "gp2");
-
-                double gbMonthPrice = getEBSPrice(volumeType);
-                total += size * gbMonthPrice;
-
-                if ("io1".equals(volumeType)) {
-                    int iops = (int) comp.getOrDefault("iops", 100);
-                    total += iops * 0.065; // $0.065 per provisioned IOPS-month
-                }
-            } else if ("loadBalancer".equals(type)) {
-                String lbType = (String) comp.getOrDefault("lb_type", "application");
-
-                if ("application".equals(lbType)) {
-                    total += 0.0225 * 730 + 0.008 * 3 * 730; // $0.0225 per hour + $0.008 per LCU-hour (assuming 3 LCUs)
-                } else if ("network".equals(lbType)) {
-                    total += 0.0225 * 730 + 0.006 * 3 * 730; // $0.0225 per hour + $0.006 per LCU-hour (assuming 3 LCUs)
-                } else {
-                    total += 0.025 * 730; // $0.025 per hour for classic ELB
-                }
-            }
-            // VPC, subnet, security group components have no cost
-        }
-        total = Math.round(total * 100.0) / 100.0;
-        Map<String, Double> response = new HashMap<>();
-        response.put("total", total);
+    public Map<String, BigDecimal> getCost(
+            @RequestParam(defaultValue = DEFAULT_DESIGN_ID) String designId,
+            Principal principal,
+            HttpServletRequest httpRequest,
+            HttpServletResponse httpResponse) {
+        Map<String, BigDecimal> response = new HashMap<>();
+        DesignKey key = designKey(principal, designId, httpRequest, httpResponse);
+        response.put("total", designStore.get(key).getTotal());
         return response;
     }
 
     @PostMapping("/cost")
-    public Map<String, String> updateCost(@RequestBody CostRequest request) {
-        this.components = request.getComponents() != null ? request.getComponents() : List.of();
+    public ResponseEntity<Map<String, String>> updateCost(
+            @RequestBody CostRequest request,
+            @RequestParam(defaultValue = DEFAULT_DESIGN_ID) String designId,
+            Principal principal,
+            HttpServletRequest httpRequest,
+            HttpServletResponse httpResponse) {
         Map<String, String> response = new HashMap<>();
+        try {
+            designStore.replace(designKey(principal, designId, httpRequest, httpResponse), componentsOf(request));
+        } catch (IllegalArgumentException e) {
+            response.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+        }
         response.put("status", "success");
+        return ResponseEntity.ok(response);
+    }
+
+    // Stateless: prices the posted components and returns the total without touching any stored design.
+    // With breakdown=true the response also lists each component's cost and a subtotal per resource type.
+    // With purchaseOptions=true it also has the total under on-demand, reserved, savings plan and spot pricing.
+    @PostMapping("/cost/estimate")
+    public CostEstimateResponse estimateCost(
+            @RequestBody CostRequest request,
+            @RequestParam(defaultValue = "false") boolean breakdown,
+            @RequestParam(defaultValue = "false") boolean purchaseOptions) {
+        // Repeated designs are answered from the estimate cache
+        return estimateCache.estimate(componentsOf(request), breakdown, purchaseOptions);
+    }
+
+    // Prices the posted design in every catalog region to compare where it would be cheapest to run
+    @PostMapping("/cost/estimate/regions")
+    public RegionComparisonResponse compareRegions(@RequestBody CostRequest request) {
+        return costEstimator.compareRegions(componentsOf(request));
+    }
+
+    // Bounded-memory variant of /cost/estimate for very large designs: components are priced as they are parsed
+    @PostMapping(value = "/cost/estimate/stream", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<Map<String, Object>> estimateCostStreaming(HttpServletRequest request) throws IOException {
+        Map<String, Object> response = new HashMap<>();
+        if (request.getContentLengthLong() > streamingCostIngester.getMaxBytes()) {
+            response.put("error", "Request body exceeds the limit of " + streamingCostIngester.getMaxBytes() + " bytes");
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).body(response);
+        }
+        try {
+            StreamingEstimate estimate = streamingCostIngester.estimate(request.getInputStream());
+            response.put("total", estimate.total());
+            response.put("componentCount", estimate.componentCount());
+            return ResponseEntity.ok(response);
+        } catch (CostInputLimitException e) {
+            logger.warn("Streaming estimate rejected: {}", e.getMessage());
+            response.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).body(response);
+        } catch (JsonProcessingException | IllegalArgumentException e) {
+            response.put("error", "Invalid cost request: " + e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+
+    // Streams one NDJSON line per design as soon as it is priced; the body is read incrementally as well
+    @PostMapping(value = "/cost/batch",
+            consumes = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE},
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> estimateBatch(HttpServletRequest request) {
+        StreamingResponseBody body = out -> {
+            int count = batchCostService.estimate(request.getInputStream(), out);
+            logger.info("Batch estimate completed for {} designs", count);
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    // Prices every combination of the requested axes in one call and returns the cost surface
+    @PostMapping("/cost/sweep")
+    public ResponseEntity<?> sweep(@RequestBody SweepRequest request) {
+        List<Component> components = request.getComponents() != null ? request.getComponents() : List.of();
+        try {
+            return ResponseEntity.ok(sweepService.sweep(components, request.getAxes()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(error(e.getMessage()));
+        }
+    }
+
+    // Added, removed and changed components between two versions of a design, each with its cost delta
+    @PostMapping("/cost/diff")
+    public ResponseEntity<?> diff(@RequestBody DiffRequest request) {
+        List<Component> before = request.getBefore() != null ? request.getBefore() : List.of();
+        List<Component> after = request.getAfter() != null ? request.getAfter() : List.of();
+        try {
+            return ResponseEntity.ok(designDiffService.diff(before, after));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(error(e.getMessage()));
+        }
+    }
+
+    // Month-by-month cost series for the posted design under per-component growth curves
+    @PostMapping("/cost/projection")
+    public ResponseEntity<?> project(@RequestBody ProjectionRequest request) {
+        List<Component> components = request.getComponents() != null ? request.getComponents() : List.of();
+        try {
+            return ResponseEntity.ok(projectionService.project(components, request.getMonths(), request.getGrowth()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(error(e.getMessage()));
+        }
+    }
+
+    @GetMapping("/cost/designs/{designId}")
+    public DesignCostResponse getDesign(
+            @PathVariable String designId,
+            Principal principal,
+            HttpServletRequest httpRequest,
+            HttpServletResponse httpResponse) {
+        DesignKey key = designKey(principal, designId, httpRequest, httpResponse);
+        DesignCostResponse response = toResponse(designId, designStore.get(key));
+        response.setComponents(designStore.getComponents(key));
         return response;
     }
 
-    // Helper methods for pricing
-    private double getEC2Price(String instanceType) {
-        if ("t2.nano".equals(instanceType)) return 5.0;
-        if ("t2.micro".equals(instanceType)) return 8.5;
-        if ("t2.small".equals(instanceType)) return 17.0;
-        if ("t2.medium".equals(instanceType)) return 34.0;
-        if ("t2.large".equals(instanceType)) return 68.0;
-        return 8.5; // Default to t2.micro pricing
+    // Server-sent events with the design's total and breakdown: one on connect, then one per burst of changes
+    @GetMapping(value = "/cost/designs/{designId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamDesignCost(
+            @PathVariable String designId,
+            Principal principal,
+            HttpServletRequest httpRequest,
+            HttpServletResponse httpResponse) {
+        return costEventService.subscribe(designKey(principal, designId, httpRequest, httpResponse), httpRequest);
+    }
+
+    @DeleteMapping("/cost/designs/{designId}")
+    public ResponseEntity<Void> deleteDesign(
+            @PathVariable String designId,
+            Principal principal,
+            HttpServletRequest httpRequest,
+            HttpServletResponse httpResponse) {
+        if (!designStore.remove(designKey(principal, designId, httpRequest, httpResponse))) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.noContent().build();
+    }
+
+    // Delta endpoints: each call re-prices only the affected component and adjusts the running total
+
+    @PostMapping("/cost/designs/{designId}/components")
+    public ResponseEntity<?> addComponent(
+            @PathVariable String designId,
+            @RequestBody Component component,
+            Principal principal,
+            HttpServletRequest httpRequest,
+            HttpServletResponse httpResponse) {
+        try {
+            DesignKey key = designKey(principal, designId, httpRequest, httpResponse);
+            DesignSnapshot snapshot = designStore.addComponent(key, component);
+            return ResponseEntity.status(HttpStatus.CREATED).body(toResponse(designId, snapshot));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(error(e.getMessage()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(error(e.getMessage()));
+        }
+    }
+
+    @PatchMapping("/cost/designs/{designId}/components/{componentId}")
+    public ResponseEntity<?> patchComponent(
+            @PathVariable String designId,
+            @PathVariable String componentId,
+            @RequestBody JsonNode patch,
+            Principal principal,
+            HttpServletRequest httpRequest,
+            HttpServletResponse httpResponse) {
+        try {
+            DesignKey key = designKey(principal, designId, httpRequest, httpResponse);
+            Optional<DesignSnapshot> snapshot = designStore.updateComponent(key, componentId,
+                    component -> ComponentPatcher.apply(component, patch));
+            if (snapshot.isEmpty()) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error("Component not found: " + componentId));
+            }
+            return ResponseEntity.ok(toResponse(designId, snapshot.get()));
+        } catch (IllegalArgumentException e) {
+            logger.warn("Rejected patch for component {} in design {}: {}", componentId, designId, e.getMessage());
+            return ResponseEntity.badRequest().body(error(e.getMessage()));
+        }
+    }
+
+    @DeleteMapping("/cost/designs/{designId}/components/{componentId}")
+    public ResponseEntity<?> removeComponent(
+            @PathVariable String designId,
+            @PathVariable String componentId,
+            Principal principal,
+            HttpServletRequest httpRequest,
+            HttpServletResponse httpResponse) {
+        DesignKey key = designKey(principal, designId, httpRequest, httpResponse);
+        Optional<DesignSnapshot> snapshot = designStore.removeComponent(key, componentId);
+        if (snapshot.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error("Component not found: " + componentId));
+        }
+        return ResponseEntity.ok(toResponse(designId, snapshot.get()));
+    }
+
+    // Endpoints that don't validate their input themselves still answer 400 when a cost is out of range or a
+    // component names a region the catalog doesn't list
+    @ExceptionHandler({CostOverflowException.class, UnknownRegionException.class})
+    public ResponseEntity<Map<String, String>> invalidCostInput(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(error(e.getMessage()));
+    }
+
+    // Signed-in users own their designs by name; anonymous clients by the ID in their cookie, never a shared owner
+    static DesignKey designKey(Principal principal, String designId, HttpServletRequest request,
+                               HttpServletResponse response) {
+        return principal != null
+                ? new DesignKey(principal.getName(), designId)
+                : DesignKey.anonymous(AnonymousClient.id(request, response), designId);
     }
 
-    private double getRDSPrice(String instanceClass) {
-        if ("db.t2.micro".equals(instanceClass)) return 12.41;
-        if ("db.t2.small".equals(instanceClass)) return 24.82;
-        if ("db.t2.medium".equals(instanceClass)) return 49.64;
-        if ("db.m5.large".equals(instanceClass)) return 138.7;
-        return 12.41; // Default to db.t2.micro pricing
+    private static DesignCostResponse toResponse(String designId, DesignSnapshot snapshot) {
+        return new DesignCostResponse(designId, snapshot.getVersion(), snapshot.getTotal(), snapshot.getComponentCount());
+    }
+
+    private static Map<String, String> error(String message) {
+        Map<String, String> response = new HashMap<>();
+        response.put("error", message);
+        return response;
     }
 
-    private double getEBSPrice(String volumeType) {
-        if ("gp2".equals(volumeType)) return 0.10;
-        if ("gp3".equals(volumeType)) return 0.08;
-        if ("io1".equals(volumeType)) return 0.125;
-        if ("st1".equals(volumeType)) return 0.045;
-        if ("sc1".equals(volumeType)) return 0.025;
-        return 0.10; // Default to gp2 pricing
+    private static List<Component> componentsOf(CostRequest request) {
+        return request.getComponents() != null ? request.getComponents() : List.of();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,77 @@
+package com.stagllc.staginfra.controller;
+
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.stagllc.staginfra.dto.DesignRequest;
+import com.stagllc.staginfra.dto.DesignResponse;
+import com.stagllc.staginfra.dto.DesignSummary;
+import com.stagllc.staginfra.service.design.DesignService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.security.Principal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+// Saved designs of the authenticated user
+@RestController
+@RequestMapping("/api/designs")
+public class DesignController {
+
+    @Autowired
+    private DesignService designService;
+
+    @GetMapping
+    public List<DesignSummary> listDesigns(Principal principal) {
+        return designService.list(principal.getName());
+    }
+
+    @PostMapping
+    public ResponseEntity<?> createDesign(@RequestBody DesignRequest request, Principal principal) {
+        try {
+            DesignSummary created = designService.create(principal.getName(), request.getName(),
+                    request.getComponents() != null ? request.getComponents() : JsonNodeFactory.instance.arrayNode());
+            return ResponseEntity.status(HttpStatus.CREATED).body(created);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(error(e.getMessage()));
+        }
+    }
+
+    @GetMapping("/{designId}")
+    public ResponseEntity<DesignResponse> getDesign(@PathVariable Long designId, Principal principal) {
+        return ResponseEntity.of(designService.get(principal.getName(), designId));
+    }
+
+    // Fields left out of the request keep their saved values
+    @PutMapping("/{designId}")
+    public ResponseEntity<?> updateDesign(@PathVariable Long designId, @RequestBody DesignRequest request,
+                                          Principal principal) {
+        try {
+            Optional<DesignSummary> updated = designService.update(principal.getName(), designId,
+                    request.getName(), request.getComponents());
+            if (updated.isEmpty()) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error("Design not found: " + designId));
+            }
+            return ResponseEntity.ok(updated.get());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(error(e.getMessage()));
+        }
+    }
+
+    @DeleteMapping("/{designId}")
+    public ResponseEntity<Void> deleteDesign(@PathVariable Long designId, Principal principal) {
+        if (!designService.delete(principal.getName(), designId)) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.noContent().build();
+    }
+
+    private static Map<String, String> error(String message) {
+        Map<String, String> response = new HashMap<>();
+        response.put("error", message);
+        return response;
+    }
+}
@@ -0,0 +1,27 @@
+package com.stagllc.staginfra.dto;
+
+import com.stagllc.staginfra.dto.component.Component;
+
+import java.util.List;
+
+// One design in a batch estimate request
+public class BatchCostItem {
+    private String id;
+    private List<Component> components;
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public List<Component> getComponents() {
+        return components;
+    }
+
+    public void setComponents(List<Component> components) {
+        this.components = components;
+    }
+}
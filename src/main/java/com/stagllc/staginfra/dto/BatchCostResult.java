@@ -0,0 +1,54 @@
+package com.stagllc.staginfra.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.math.BigDecimal;
+
+// One NDJSON line of a batch estimate response: either a total or an error for the design
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchCostResult {
+    private String id;
+    private BigDecimal total;
+    private String error;
+
+    public BatchCostResult() {
+    }
+
+    public static BatchCostResult success(String id, BigDecimal total) {
+        BatchCostResult result = new BatchCostResult();
+        result.id = id;
+        result.total = total;
+        return result;
+    }
+
+    public static BatchCostResult error(String id, String error) {
+        BatchCostResult result = new BatchCostResult();
+        result.id = id;
+        result.error = error;
+        return result;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public BigDecimal getTotal() {
+        return total;
+    }
+
+    public void setTotal(BigDecimal total) {
+        this.total = total;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
@@ -0,0 +1,68 @@
+package com.stagllc.staginfra.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.stagllc.staginfra.dto.component.Component;
+
+import java.math.BigDecimal;
+
+// One added, removed or changed component of a diff. before is absent for added components and after for removed
+// ones; delta is the change in monthly cost.
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ComponentChange {
+    private String id;
+    private String type;
+    private Component before;
+    private Component after;
+    private BigDecimal delta;
+
+    public ComponentChange() {
+    }
+
+    public ComponentChange(String id, String type, Component before, Component after, BigDecimal delta) {
+        this.id = id;
+        this.type = type;
+        this.before = before;
+        this.after = after;
+        this.delta = delta;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public Component getBefore() {
+        return before;
+    }
+
+    public void setBefore(Component before) {
+        this.before = before;
+    }
+
+    public Component getAfter() {
+        return after;
+    }
+
+    public void setAfter(Component after) {
+        this.after = after;
+    }
+
+    public BigDecimal getDelta() {
+        return delta;
+    }
+
+    public void setDelta(BigDecimal delta) {
+        this.delta = delta;
+    }
+}
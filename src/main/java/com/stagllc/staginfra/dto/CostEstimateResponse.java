@@ -0,0 +1,56 @@
+package com.stagllc.staginfra.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+// Monthly estimate; the line items and per-type subtotals are only present when a breakdown was requested,
+// and the per-option totals only when purchase options were requested
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CostEstimateResponse {
+    private BigDecimal total;
+    private List<CostLineItem> lineItems;
+    private Map<String, BigDecimal> byType;
+    private Map<String, BigDecimal> purchaseOptions;
+
+    public CostEstimateResponse() {
+    }
+
+    public CostEstimateResponse(BigDecimal total) {
+        this.total = total;
+    }
+
+    public BigDecimal getTotal() {
+        return total;
+    }
+
+    public void setTotal(BigDecimal total) {
+        this.total = total;
+    }
+
+    public List<CostLineItem> getLineItems() {
+        return lineItems;
+    }
+
+    public void setLineItems(List<CostLineItem> lineItems) {
+        this.lineItems = lineItems;
+    }
+
+    public Map<String, BigDecimal> getByType() {
+        return byType;
+    }
+
+    public void setByType(Map<String, BigDecimal> byType) {
+        this.byType = byType;
+    }
+
+    public Map<String, BigDecimal> getPurchaseOptions() {
+        return purchaseOptions;
+    }
+
+    public void setPurchaseOptions(Map<String, BigDecimal> purchaseOptions) {
+        this.purchaseOptions = purchaseOptions;
+    }
+}
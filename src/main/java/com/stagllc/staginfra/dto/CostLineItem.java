@@ -0,0 +1,46 @@
+package com.stagllc.staginfra.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.math.BigDecimal;
+
+// Monthly cost of one component within an estimate
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CostLineItem {
+    private String id;
+    private String type;
+    private BigDecimal cost;
+
+    public CostLineItem() {
+    }
+
+    public CostLineItem(String id, String type, BigDecimal cost) {
+        this.id = id;
+        this.type = type;
+        this.cost = cost;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public BigDecimal getCost() {
+        return cost;
+    }
+
+    public void setCost(BigDecimal cost) {
+        this.cost = cost;
+    }
+}
@@ -1,16 +1,17 @@
 package com.stagllc.staginfra.dto;
 
+import com.stagllc.staginfra.dto.component.Component;
+
 import java.util.List;
-import java.util.Map;
 
 public class CostRequest {
-    private List<Map<String, Object>> components;
+    private List<Component> components;
 
-    public List<Map<String, Object>> getComponents() {
+    public List<Component> getComponents() {
         return components;
     }
 
-    public void setComponents(List<Map<String, Object>> components) {
+    public void setComponents(List<Component> components) {
         this.components = components;
     }
-}
\ No newline at end of file
+}
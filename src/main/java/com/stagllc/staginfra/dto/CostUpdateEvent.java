@@ -0,0 +1,34 @@
+package com.stagllc.staginfra.dto;
+
+// Data of one SSE event on a design's cost stream: the design's version plus its total and full breakdown
+public class CostUpdateEvent extends CostEstimateResponse {
+    private String designId;
+    private long version;
+
+    public CostUpdateEvent() {
+    }
+
+    public CostUpdateEvent(String designId, long version, CostEstimateResponse estimate) {
+        super(estimate.getTotal());
+        this.designId = designId;
+        this.version = version;
+        setLineItems(estimate.getLineItems());
+        setByType(estimate.getByType());
+    }
+
+    public String getDesignId() {
+        return designId;
+    }
+
+    public void setDesignId(String designId) {
+        this.designId = designId;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+}
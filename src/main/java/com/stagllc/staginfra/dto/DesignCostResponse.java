@@ -0,0 +1,66 @@
+package com.stagllc.staginfra.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.stagllc.staginfra.dto.component.Component;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class DesignCostResponse {
+    private String designId;
+    private long version;
+    private BigDecimal total;
+    private int componentCount;
+    private List<Component> components;
+
+    public DesignCostResponse() {
+    }
+
+    public DesignCostResponse(String designId, long version, BigDecimal total, int componentCount) {
+        this.designId = designId;
+        this.version = version;
+        this.total = total;
+        this.componentCount = componentCount;
+    }
+
+    public String getDesignId() {
+        return designId;
+    }
+
+    public void setDesignId(String designId) {
+        this.designId = designId;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    public BigDecimal getTotal() {
+        return total;
+    }
+
+    public void setTotal(BigDecimal total) {
+        this.total = total;
+    }
+
+    public int getComponentCount() {
+        return componentCount;
+    }
+
+    public void setComponentCount(int componentCount) {
+        this.componentCount = componentCount;
+    }
+
+    public List<Component> getComponents() {
+        return components;
+    }
+
+    public void setComponents(List<Component> components) {
+        this.components = components;
+    }
+}
@@ -0,0 +1,25 @@
+package com.stagllc.staginfra.dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+// Name and components of a design to save; components are kept as sent, including designer-only attributes
+public class DesignRequest {
+    private String name;
+    private JsonNode components;
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public JsonNode getComponents() {
+        return components;
+    }
+
+    public void setComponents(JsonNode components) {
+        this.components = components;
+    }
+}
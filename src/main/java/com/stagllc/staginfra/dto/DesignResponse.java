@@ -0,0 +1,37 @@
+package com.stagllc.staginfra.dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.math.BigDecimal;
+
+// A saved design with its components and current monthly cost
+public class DesignResponse extends DesignSummary {
+    private BigDecimal total;
+    private JsonNode components;
+
+    public DesignResponse() {
+    }
+
+    public DesignResponse(DesignSummary summary, BigDecimal total, JsonNode components) {
+        super(summary.getId(), summary.getName(), summary.getComponentCount(), summary.getCreatedAt(),
+                summary.getUpdatedAt());
+        this.total = total;
+        this.components = components;
+    }
+
+    public BigDecimal getTotal() {
+        return total;
+    }
+
+    public void setTotal(BigDecimal total) {
+        this.total = total;
+    }
+
+    public JsonNode getComponents() {
+        return components;
+    }
+
+    public void setComponents(JsonNode components) {
+        this.components = components;
+    }
+}
@@ -0,0 +1,63 @@
+package com.stagllc.staginfra.dto;
+
+import java.time.LocalDateTime;
+
+// One row of a design listing; carries no component data
+public class DesignSummary {
+    private Long id;
+    private String name;
+    private int componentCount;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+
+    public DesignSummary() {
+    }
+
+    public DesignSummary(Long id, String name, int componentCount, LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this.id = id;
+        this.name = name;
+        this.componentCount = componentCount;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public int getComponentCount() {
+        return componentCount;
+    }
+
+    public void setComponentCount(int componentCount) {
+        this.componentCount = componentCount;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
@@ -0,0 +1,27 @@
+package com.stagllc.staginfra.dto;
+
+import com.stagllc.staginfra.dto.component.Component;
+
+import java.util.List;
+
+// Two versions of a design to compare
+public class DiffRequest {
+    private List<Component> before;
+    private List<Component> after;
+
+    public List<Component> getBefore() {
+        return before;
+    }
+
+    public void setBefore(List<Component> before) {
+        this.before = before;
+    }
+
+    public List<Component> getAfter() {
+        return after;
+    }
+
+    public void setAfter(List<Component> after) {
+        this.after = after;
+    }
+}
@@ -0,0 +1,72 @@
+package com.stagllc.staginfra.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+// Structural and cost difference between two versions of a design
+public class DiffResponse {
+    private BigDecimal beforeTotal;
+    private BigDecimal afterTotal;
+    private BigDecimal delta;
+    private List<ComponentChange> added;
+    private List<ComponentChange> removed;
+    private List<ComponentChange> changed;
+    private int unchanged;
+
+    public BigDecimal getBeforeTotal() {
+        return beforeTotal;
+    }
+
+    public void setBeforeTotal(BigDecimal beforeTotal) {
+        this.beforeTotal = beforeTotal;
+    }
+
+    public BigDecimal getAfterTotal() {
+        return afterTotal;
+    }
+
+    public void setAfterTotal(BigDecimal afterTotal) {
+        this.afterTotal = afterTotal;
+    }
+
+    public BigDecimal getDelta() {
+        return delta;
+    }
+
+    public void setDelta(BigDecimal delta) {
+        this.delta = delta;
+    }
+
+    public List<ComponentChange> getAdded() {
+        return added;
+    }
+
+    public void setAdded(List<ComponentChange> added) {
+        this.added = added;
+    }
+
+    public List<ComponentChange> getRemoved() {
+        return removed;
+    }
+
+    public void setRemoved(List<ComponentChange> removed) {
+        this.removed = removed;
+    }
+
+    public List<ComponentChange> getChanged() {
+        return changed;
+    }
+
+    public void setChanged(List<ComponentChange> changed) {
+        this.changed = changed;
+    }
+
+    // Number of components present and identical in both versions
+    public int getUnchanged() {
+        return unchanged;
+    }
+
+    public void setUnchanged(int unchanged) {
+        this.unchanged = unchanged;
+    }
+}
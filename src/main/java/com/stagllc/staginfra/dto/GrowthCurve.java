@@ -0,0 +1,60 @@
+package com.stagllc.staginfra.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+// How one component's monthly cost grows over a projection. Applies either to the component with componentId or
+// to every component of componentType; an ID match wins over a type match.
+//   linear:   cost(m) = base * (1 + rate * m)
+//   compound: cost(m) = base * (1 + rate)^m
+//   step:     cost(m) = base * (1 + rate * floor(m / every))
+// where m is the month index starting at 0. Rates are fractions per month (0.05 = 5%) and may be negative;
+// costs never drop below zero.
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class GrowthCurve {
+    private String componentId;
+    private String componentType;
+    private String model;
+    private double rate;
+    private Integer every;
+
+    public String getComponentId() {
+        return componentId;
+    }
+
+    public void setComponentId(String componentId) {
+        this.componentId = componentId;
+    }
+
+    public String getComponentType() {
+        return componentType;
+    }
+
+    public void setComponentType(String componentType) {
+        this.componentType = componentType;
+    }
+
+    public String getModel() {
+        return model;
+    }
+
+    public void setModel(String model) {
+        this.model = model;
+    }
+
+    public double getRate() {
+        return rate;
+    }
+
+    public void setRate(double rate) {
+        this.rate = rate;
+    }
+
+    // Months between steps, for the step model
+    public Integer getEvery() {
+        return every;
+    }
+
+    public void setEvery(Integer every) {
+        this.every = every;
+    }
+}
@@ -0,0 +1,37 @@
+package com.stagllc.staginfra.dto;
+
+import com.stagllc.staginfra.dto.component.Component;
+
+import java.util.List;
+
+// Design plus the horizon and growth curves for a month-by-month cost projection. Components without a curve
+// keep a flat monthly cost.
+public class ProjectionRequest {
+    private List<Component> components;
+    private int months = 12;
+    private List<GrowthCurve> growth;
+
+    public List<Component> getComponents() {
+        return components;
+    }
+
+    public void setComponents(List<Component> components) {
+        this.components = components;
+    }
+
+    public int getMonths() {
+        return months;
+    }
+
+    public void setMonths(int months) {
+        this.months = months;
+    }
+
+    public List<GrowthCurve> getGrowth() {
+        return growth;
+    }
+
+    public void setGrowth(List<GrowthCurve> growth) {
+        this.growth = growth;
+    }
+}
@@ -0,0 +1,44 @@
+package com.stagllc.staginfra.dto;
+
+import java.math.BigDecimal;
+
+// Month-by-month cost series; monthlyTotals[0] is the first month, priced with no growth applied
+public class ProjectionResponse {
+    private int months;
+    private BigDecimal[] monthlyTotals;
+    private BigDecimal total;
+
+    public ProjectionResponse() {
+    }
+
+    public ProjectionResponse(BigDecimal[] monthlyTotals, BigDecimal total) {
+        this.months = monthlyTotals.length;
+        this.monthlyTotals = monthlyTotals;
+        this.total = total;
+    }
+
+    public int getMonths() {
+        return months;
+    }
+
+    public void setMonths(int months) {
+        this.months = months;
+    }
+
+    public BigDecimal[] getMonthlyTotals() {
+        return monthlyTotals;
+    }
+
+    public void setMonthlyTotals(BigDecimal[] monthlyTotals) {
+        this.monthlyTotals = monthlyTotals;
+    }
+
+    // Sum of every month in the horizon
+    public BigDecimal getTotal() {
+        return total;
+    }
+
+    public void setTotal(BigDecimal total) {
+        this.total = total;
+    }
+}
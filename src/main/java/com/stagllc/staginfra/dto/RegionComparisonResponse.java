@@ -0,0 +1,44 @@
+package com.stagllc.staginfra.dto;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+// Monthly total of one design priced in each catalog region, ignoring the regions set on its components
+public class RegionComparisonResponse {
+    private String defaultRegion;
+    private String cheapestRegion;
+    private Map<String, BigDecimal> totals;
+
+    public RegionComparisonResponse() {
+    }
+
+    public RegionComparisonResponse(String defaultRegion, String cheapestRegion, Map<String, BigDecimal> totals) {
+        this.defaultRegion = defaultRegion;
+        this.cheapestRegion = cheapestRegion;
+        this.totals = totals;
+    }
+
+    public String getDefaultRegion() {
+        return defaultRegion;
+    }
+
+    public void setDefaultRegion(String defaultRegion) {
+        this.defaultRegion = defaultRegion;
+    }
+
+    public String getCheapestRegion() {
+        return cheapestRegion;
+    }
+
+    public void setCheapestRegion(String cheapestRegion) {
+        this.cheapestRegion = cheapestRegion;
+    }
+
+    public Map<String, BigDecimal> getTotals() {
+        return totals;
+    }
+
+    public void setTotals(Map<String, BigDecimal> totals) {
+        this.totals = totals;
+    }
+}
@@ -0,0 +1,48 @@
+package com.stagllc.staginfra.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.List;
+
+// One dimension of a what-if sweep: a component field and the values to try. The axis applies either to the
+// component with componentId or to every component of componentType.
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class SweepAxis {
+    private String componentId;
+    private String componentType;
+    private String field;
+    private List<JsonNode> values;
+
+    public String getComponentId() {
+        return componentId;
+    }
+
+    public void setComponentId(String componentId) {
+        this.componentId = componentId;
+    }
+
+    public String getComponentType() {
+        return componentType;
+    }
+
+    public void setComponentType(String componentType) {
+        this.componentType = componentType;
+    }
+
+    public String getField() {
+        return field;
+    }
+
+    public void setField(String field) {
+        this.field = field;
+    }
+
+    public List<JsonNode> getValues() {
+        return values;
+    }
+
+    public void setValues(List<JsonNode> values) {
+        this.values = values;
+    }
+}
@@ -0,0 +1,36 @@
+package com.stagllc.staginfra.dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+// One grid point of a sweep: the chosen value on each axis and the resulting monthly total
+public class SweepPoint {
+    private List<JsonNode> values;
+    private BigDecimal total;
+
+    public SweepPoint() {
+    }
+
+    public SweepPoint(List<JsonNode> values, BigDecimal total) {
+        this.values = values;
+        this.total = total;
+    }
+
+    public List<JsonNode> getValues() {
+        return values;
+    }
+
+    public void setValues(List<JsonNode> values) {
+        this.values = values;
+    }
+
+    public BigDecimal getTotal() {
+        return total;
+    }
+
+    public void setTotal(BigDecimal total) {
+        this.total = total;
+    }
+}
@@ -0,0 +1,27 @@
+package com.stagllc.staginfra.dto;
+
+import com.stagllc.staginfra.dto.component.Component;
+
+import java.util.List;
+
+// Base design plus the axes whose full grid should be priced
+public class SweepRequest {
+    private List<Component> components;
+    private List<SweepAxis> axes;
+
+    public List<Component> getComponents() {
+        return components;
+    }
+
+    public void setComponents(List<Component> components) {
+        this.components = components;
+    }
+
+    public List<SweepAxis> getAxes() {
+        return axes;
+    }
+
+    public void setAxes(List<SweepAxis> axes) {
+        this.axes = axes;
+    }
+}
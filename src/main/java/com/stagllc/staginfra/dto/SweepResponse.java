@@ -0,0 +1,56 @@
+package com.stagllc.staginfra.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+// Cost surface of a sweep. totals is the flattened grid in row-major order: the last axis varies fastest, so the
+// point with value indexes (i0, i1, ..., in) is at i0 * stride0 + ... + in, where each stride is the product of
+// the sizes of the axes after it.
+public class SweepResponse {
+    private List<Integer> shape;
+    private BigDecimal baseTotal;
+    private BigDecimal[] totals;
+    private SweepPoint min;
+    private SweepPoint max;
+
+    public List<Integer> getShape() {
+        return shape;
+    }
+
+    public void setShape(List<Integer> shape) {
+        this.shape = shape;
+    }
+
+    // Cost of the components no axis touches, shared by every grid point
+    public BigDecimal getBaseTotal() {
+        return baseTotal;
+    }
+
+    public void setBaseTotal(BigDecimal baseTotal) {
+        this.baseTotal = baseTotal;
+    }
+
+    public BigDecimal[] getTotals() {
+        return totals;
+    }
+
+    public void setTotals(BigDecimal[] totals) {
+        this.totals = totals;
+    }
+
+    public SweepPoint getMin() {
+        return min;
+    }
+
+    public void setMin(SweepPoint min) {
+        this.min = min;
+    }
+
+    public SweepPoint getMax() {
+        return max;
+    }
+
+    public void setMax(SweepPoint max) {
+        this.max = max;
+    }
+}
@@ -0,0 +1,26 @@
+package com.stagllc.staginfra.dto.component;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+
+// One resource in an architecture design. Bound directly from JSON by ComponentDeserializer.
+@JsonDeserialize(using = ComponentDeserializer.class)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public sealed interface Component permits Ec2Component, S3Component, LambdaComponent, RdsComponent,
+        DynamoDbComponent, EbsComponent, LoadBalancerComponent, NetworkComponent, UnknownComponent {
+
+    @JsonProperty("id")
+    String id();
+
+    @JsonProperty("type")
+    String type();
+
+    // Region code such as "eu-west-1"; null means the pricing catalog's default region
+    @JsonProperty("region")
+    String region();
+
+    @JsonIgnore
+    ComponentType kind();
+}
@@ -0,0 +1,46 @@
+package com.stagllc.staginfra.dto.component;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+
+import java.io.IOException;
+
+// Binds a component object straight from the token stream into its record, without an intermediate Map.
+// Numeric fields accept any JSON number (or numeric string); missing or null fields take the engine defaults.
+// Values that don't bind fail the whole request rather than falling back to a default.
+public class ComponentDeserializer extends StdDeserializer<Component> {
+
+    public ComponentDeserializer() {
+        super(Component.class);
+    }
+
+    @Override
+    public Component deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+        if (p.currentToken() != JsonToken.START_OBJECT) {
+            return (Component) ctxt.handleUnexpectedToken(Component.class, p);
+        }
+
+        ComponentFields fields = new ComponentFields();
+        for (String field = p.nextFieldName(); field != null; field = p.nextFieldName()) {
+            JsonToken token = p.nextToken();
+            if (token == JsonToken.VALUE_NULL) {
+                continue;
+            }
+            if (token.isStructStart()) {
+                // Objects and arrays never carry a priced attribute; saved designs keep them in their stored JSON
+                p.skipChildren();
+                continue;
+            }
+            // Designer-only scalar attributes (labels, names) don't affect pricing
+            try {
+                fields.read(field, p);
+            } catch (IllegalArgumentException e) {
+                throw JsonMappingException.from(p, e.getMessage(), e);
+            }
+        }
+        return fields.build();
+    }
+}
@@ -0,0 +1,224 @@
+package com.stagllc.staginfra.dto.component;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+
+// Every attribute a component can have, starting at the engine defaults. ComponentDeserializer reads request JSON
+// into these fields and ComponentPatcher overwrites some of them on an existing component, so both bind values the
+// same way and build the same records.
+public final class ComponentFields {
+    private static final ComponentFields DEFAULTS = new ComponentFields();
+
+    String type;
+    String id;
+    String region;
+    int instances = 1;
+    String instanceType = "t2.micro";
+    int storage = 10;
+    int memory = 128;
+    long invocations = LambdaComponent.DEFAULT_INVOCATIONS;
+    int durationMs = LambdaComponent.DEFAULT_DURATION_MS;
+    String instanceClass = "db.t2.micro";
+    int allocatedStorage = 20;
+    boolean multiAz = false;
+    String billingMode = "PROVISIONED";
+    int readCapacity = 5;
+    int writeCapacity = 5;
+    long readRequests = DynamoDbComponent.DEFAULT_READ_REQUESTS;
+    long writeRequests = DynamoDbComponent.DEFAULT_WRITE_REQUESTS;
+    int size = 20;
+    String volumeType = "gp2";
+    int iops = 100;
+    String lbType = "application";
+    double lcus = LoadBalancerComponent.DEFAULT_LCUS;
+
+    public ComponentFields() {
+    }
+
+    // The fields of an existing component; attributes its type doesn't have keep their defaults
+    public static ComponentFields of(Component component) {
+        ComponentFields fields = new ComponentFields();
+        fields.type = component.type();
+        fields.id = component.id();
+        fields.region = component.region();
+        if (component instanceof Ec2Component ec2) {
+            fields.instances = ec2.instances();
+            fields.instanceType = ec2.instanceType();
+        } else if (component instanceof S3Component s3) {
+            fields.storage = s3.storage();
+        } else if (component instanceof LambdaComponent lambda) {
+            fields.memory = lambda.memory();
+            fields.invocations = lambda.invocations();
+            fields.durationMs = lambda.durationMs();
+        } else if (component instanceof RdsComponent rds) {
+            fields.instanceClass = rds.instanceClass();
+            fields.allocatedStorage = rds.allocatedStorage();
+            fields.multiAz = rds.multiAz();
+        } else if (component instanceof DynamoDbComponent dynamoDb) {
+            fields.billingMode = dynamoDb.billingMode();
+            fields.readCapacity = dynamoDb.readCapacity();
+            fields.writeCapacity = dynamoDb.writeCapacity();
+            fields.readRequests = dynamoDb.readRequests();
+            fields.writeRequests = dynamoDb.writeRequests();
+        } else if (component instanceof EbsComponent ebs) {
+            fields.size = ebs.size();
+            fields.volumeType = ebs.volumeType();
+            fields.iops = ebs.iops();
+        } else if (component instanceof LoadBalancerComponent lb) {
+            fields.lbType = lb.lbType();
+            fields.lcus = lb.lcus();
+        }
+        return fields;
+    }
+
+    // Sets one attribute from the parser's current scalar value. Numeric fields accept any JSON number or numeric
+    // string, fractions of counts are truncated, and booleans accept true/false in either form. Values that don't
+    // parse or are negative throw IllegalArgumentException. Returns false for names that aren't component attributes.
+    public boolean read(String field, JsonParser p) throws IOException {
+        switch (field) {
+            case "type" -> type = p.getValueAsString();
+            case "id" -> id = p.getValueAsString();
+            case "region" -> region = p.getValueAsString();
+            case "instances" -> instances = intCount(field, p);
+            case "instance_type" -> instanceType = p.getValueAsString(instanceType);
+            case "storage" -> storage = intCount(field, p);
+            case "memory" -> memory = intCount(field, p);
+            case "invocations" -> invocations = count(field, p, Long.MAX_VALUE);
+            case "duration_ms" -> durationMs = intCount(field, p);
+            case "instance_class" -> instanceClass = p.getValueAsString(instanceClass);
+            case "allocated_storage" -> allocatedStorage = intCount(field, p);
+            case "multi_az" -> multiAz = bool(field, p);
+            case "billing_mode" -> billingMode = p.getValueAsString(billingMode);
+            case "read_capacity" -> readCapacity = intCount(field, p);
+            case "write_capacity" -> writeCapacity = intCount(field, p);
+            case "read_requests" -> readRequests = count(field, p, Long.MAX_VALUE);
+            case "write_requests" -> writeRequests = count(field, p, Long.MAX_VALUE);
+            case "size" -> size = intCount(field, p);
+            case "volume_type" -> volumeType = p.getValueAsString(volumeType);
+            case "iops" -> iops = intCount(field, p);
+            case "lb_type" -> lbType = p.getValueAsString(lbType);
+            case "lcus" -> lcus = number(field, p);
+            default -> {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Restores one attribute to its default, as a null value in JSON does. Returns false like read.
+    public boolean reset(String field) {
+        switch (field) {
+            case "type" -> type = DEFAULTS.type;
+            case "id" -> id = DEFAULTS.id;
+            case "region" -> region = DEFAULTS.region;
+            case "instances" -> instances = DEFAULTS.instances;
+            case "instance_type" -> instanceType = DEFAULTS.instanceType;
+            case "storage" -> storage = DEFAULTS.storage;
+            case "memory" -> memory = DEFAULTS.memory;
+            case "invocations" -> invocations = DEFAULTS.invocations;
+            case "duration_ms" -> durationMs = DEFAULTS.durationMs;
+            case "instance_class" -> instanceClass = DEFAULTS.instanceClass;
+            case "allocated_storage" -> allocatedStorage = DEFAULTS.allocatedStorage;
+            case "multi_az" -> multiAz = DEFAULTS.multiAz;
+            case "billing_mode" -> billingMode = DEFAULTS.billingMode;
+            case "read_capacity" -> readCapacity = DEFAULTS.readCapacity;
+            case "write_capacity" -> writeCapacity = DEFAULTS.writeCapacity;
+            case "read_requests" -> readRequests = DEFAULTS.readRequests;
+            case "write_requests" -> writeRequests = DEFAULTS.writeRequests;
+            case "size" -> size = DEFAULTS.size;
+            case "volume_type" -> volumeType = DEFAULTS.volumeType;
+            case "iops" -> iops = DEFAULTS.iops;
+            case "lb_type" -> lbType = DEFAULTS.lbType;
+            case "lcus" -> lcus = DEFAULTS.lcus;
+            default -> {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int intCount(String field, JsonParser p) throws IOException {
+        return (int) count(field, p, Integer.MAX_VALUE);
+    }
+
+    private static long count(String field, JsonParser p, long max) throws IOException {
+        if (p.currentToken() == JsonToken.VALUE_NUMBER_INT && p.getNumberType() != JsonParser.NumberType.BIG_INTEGER) {
+            long value = p.getLongValue();
+            if (value < 0 || value > max) {
+                throw outOfRange(field, p, max);
+            }
+            return value;
+        }
+        double value = number(field, p);
+        if (value > max) {
+            throw outOfRange(field, p, max);
+        }
+        return (long) value;
+    }
+
+    // A finite, non-negative JSON number or numeric string
+    private static double number(String field, JsonParser p) throws IOException {
+        double value;
+        JsonToken token = p.currentToken();
+        if (token == JsonToken.VALUE_NUMBER_INT || token == JsonToken.VALUE_NUMBER_FLOAT) {
+            value = p.getDoubleValue();
+        } else if (token == JsonToken.VALUE_STRING) {
+            try {
+                value = Double.parseDouble(p.getText().trim());
+            } catch (NumberFormatException e) {
+                throw invalid(field, p);
+            }
+        } else {
+            throw invalid(field, p);
+        }
+        if (!Double.isFinite(value)) {
+            throw invalid(field, p);
+        }
+        if (value < 0) {
+            throw new IllegalArgumentException("Component field " + field + " must not be negative: " + p.getText());
+        }
+        return value;
+    }
+
+    private static boolean bool(String field, JsonParser p) throws IOException {
+        JsonToken token = p.currentToken();
+        if (token == JsonToken.VALUE_TRUE || token == JsonToken.VALUE_FALSE) {
+            return token == JsonToken.VALUE_TRUE;
+        }
+        if (token == JsonToken.VALUE_STRING) {
+            String text = p.getText().trim();
+            if ("true".equalsIgnoreCase(text) || "false".equalsIgnoreCase(text)) {
+                return "true".equalsIgnoreCase(text);
+            }
+        }
+        throw invalid(field, p);
+    }
+
+    private static IllegalArgumentException invalid(String field, JsonParser p) throws IOException {
+        return new IllegalArgumentException("Invalid value for component field " + field + ": " + p.getText());
+    }
+
+    private static IllegalArgumentException outOfRange(String field, JsonParser p, long max) throws IOException {
+        return new IllegalArgumentException("Component field " + field + " must be between 0 and " + max + ": "
+                + p.getText());
+    }
+
+    // The record for the current type, taking the attributes that type has
+    public Component build() {
+        ComponentType kind = ComponentType.fromJsonName(type);
+        return switch (kind) {
+            case EC2 -> new Ec2Component(id, instances, instanceType, region);
+            case S3 -> new S3Component(id, storage, region);
+            case LAMBDA -> new LambdaComponent(id, memory, invocations, durationMs, region);
+            case RDS -> new RdsComponent(id, instanceClass, allocatedStorage, multiAz, region);
+            case DYNAMODB -> new DynamoDbComponent(id, billingMode, readCapacity, writeCapacity, readRequests, writeRequests,
+                    region);
+            case EBS -> new EbsComponent(id, size, volumeType, iops, region);
+            case LOAD_BALANCER -> new LoadBalancerComponent(id, lbType, lcus, region);
+            case VPC, SUBNET, SECURITY_GROUP -> new NetworkComponent(id, kind, region);
+            case UNKNOWN -> new UnknownComponent(id, type, region);
+        };
+    }
+}
@@ -0,0 +1,44 @@
+package com.stagllc.staginfra.dto.component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// Resource types understood by the cost engine, keyed by the "type" string the designer sends
+public enum ComponentType {
+    EC2("ec2"),
+    S3("s3"),
+    LAMBDA("lambda"),
+    RDS("rds"),
+    DYNAMODB("dynamodb"),
+    EBS("ebs"),
+    LOAD_BALANCER("loadBalancer"),
+    VPC("vpc"),
+    SUBNET("subnet"),
+    SECURITY_GROUP("securityGroup"),
+    UNKNOWN(null);
+
+    private static final Map<String, ComponentType> BY_JSON_NAME = new HashMap<>();
+
+    static {
+        for (ComponentType type : values()) {
+            if (type.jsonName != null) {
+                BY_JSON_NAME.put(type.jsonName, type);
+            }
+        }
+    }
+
+    private final String jsonName;
+
+    ComponentType(String jsonName) {
+        this.jsonName = jsonName;
+    }
+
+    public String getJsonName() {
+        return jsonName;
+    }
+
+    public static ComponentType fromJsonName(String jsonName) {
+        ComponentType type = jsonName != null ? BY_JSON_NAME.get(jsonName) : null;
+        return type != null ? type : UNKNOWN;
+    }
+}
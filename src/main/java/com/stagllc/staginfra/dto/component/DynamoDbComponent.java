@@ -0,0 +1,38 @@
+package com.stagllc.staginfra.dto.component;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+public record DynamoDbComponent(
+        @JsonProperty("id") String id,
+        @JsonProperty("billing_mode") String billingMode,
+        @JsonProperty("read_capacity") int readCapacity,
+        @JsonProperty("write_capacity") int writeCapacity,
+        @JsonProperty("read_requests") long readRequests,
+        @JsonProperty("write_requests") long writeRequests,
+        @JsonProperty("region") String region
+) implements Component {
+
+    // Monthly on-demand requests assumed when a design doesn't specify them
+    public static final long DEFAULT_READ_REQUESTS = 1_000_000;
+    public static final long DEFAULT_WRITE_REQUESTS = 500_000;
+
+    // Component in the catalog's default region
+    public DynamoDbComponent(String id, String billingMode, int readCapacity, int writeCapacity) {
+        this(id, billingMode, readCapacity, writeCapacity, null);
+    }
+
+    // Component with the default usage profile
+    public DynamoDbComponent(String id, String billingMode, int readCapacity, int writeCapacity, String region) {
+        this(id, billingMode, readCapacity, writeCapacity, DEFAULT_READ_REQUESTS, DEFAULT_WRITE_REQUESTS, region);
+    }
+
+    @Override
+    public String type() {
+        return ComponentType.DYNAMODB.getJsonName();
+    }
+
+    @Override
+    public ComponentType kind() {
+        return ComponentType.DYNAMODB;
+    }
+}
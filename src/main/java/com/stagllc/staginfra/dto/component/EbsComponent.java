@@ -0,0 +1,27 @@
+package com.stagllc.staginfra.dto.component;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+public record EbsComponent(
+        @JsonProperty("id") String id,
+        @JsonProperty("size") int size,
+        @JsonProperty("volume_type") String volumeType,
+        @JsonProperty("iops") int iops,
+        @JsonProperty("region") String region
+) implements Component {
+
+    // Component in the catalog's default region
+    public EbsComponent(String id, int size, String volumeType, int iops) {
+        this(id, size, volumeType, iops, null);
+    }
+
+    @Override
+    public String type() {
+        return ComponentType.EBS.getJsonName();
+    }
+
+    @Override
+    public ComponentType kind() {
+        return ComponentType.EBS;
+    }
+}
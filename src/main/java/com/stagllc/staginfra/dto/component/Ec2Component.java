@@ -0,0 +1,26 @@
+package com.stagllc.staginfra.dto.component;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+public record Ec2Component(
+        @JsonProperty("id") String id,
+        @JsonProperty("instances") int instances,
+        @JsonProperty("instance_type") String instanceType,
+        @JsonProperty("region") String region
+) implements Component {
+
+    // Component in the catalog's default region
+    public Ec2Component(String id, int instances, String instanceType) {
+        this(id, instances, instanceType, null);
+    }
+
+    @Override
+    public String type() {
+        return ComponentType.EC2.getJsonName();
+    }
+
+    @Override
+    public ComponentType kind() {
+        return ComponentType.EC2;
+    }
+}
@@ -0,0 +1,36 @@
+package com.stagllc.staginfra.dto.component;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+public record LambdaComponent(
+        @JsonProperty("id") String id,
+        @JsonProperty("memory") int memory,
+        @JsonProperty("invocations") long invocations,
+        @JsonProperty("duration_ms") int durationMs,
+        @JsonProperty("region") String region
+) implements Component {
+
+    // Usage assumed when a design doesn't specify it
+    public static final long DEFAULT_INVOCATIONS = 100_000;
+    public static final int DEFAULT_DURATION_MS = 500;
+
+    // Component in the catalog's default region
+    public LambdaComponent(String id, int memory) {
+        this(id, memory, null);
+    }
+
+    // Component with the default usage profile
+    public LambdaComponent(String id, int memory, String region) {
+        this(id, memory, DEFAULT_INVOCATIONS, DEFAULT_DURATION_MS, region);
+    }
+
+    @Override
+    public String type() {
+        return ComponentType.LAMBDA.getJsonName();
+    }
+
+    @Override
+    public ComponentType kind() {
+        return ComponentType.LAMBDA;
+    }
+}
@@ -0,0 +1,34 @@
+package com.stagllc.staginfra.dto.component;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+public record LoadBalancerComponent(
+        @JsonProperty("id") String id,
+        @JsonProperty("lb_type") String lbType,
+        @JsonProperty("lcus") double lcus,
+        @JsonProperty("region") String region
+) implements Component {
+
+    // Load balancer capacity units assumed when a design doesn't specify them
+    public static final double DEFAULT_LCUS = 3;
+
+    // Component in the catalog's default region
+    public LoadBalancerComponent(String id, String lbType) {
+        this(id, lbType, null);
+    }
+
+    // Component with the default usage profile
+    public LoadBalancerComponent(String id, String lbType, String region) {
+        this(id, lbType, DEFAULT_LCUS, region);
+    }
+
+    @Override
+    public String type() {
+        return ComponentType.LOAD_BALANCER.getJsonName();
+    }
+
+    @Override
+    public ComponentType kind() {
+        return ComponentType.LOAD_BALANCER;
+    }
+}
@@ -0,0 +1,28 @@
+package com.stagllc.staginfra.dto.component;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+// VPCs, subnets and security groups: part of the design but free of charge
+public record NetworkComponent(
+        @JsonProperty("id") String id,
+        @JsonIgnore ComponentType kind,
+        @JsonProperty("region") String region
+) implements Component {
+
+    // Component in the catalog's default region
+    public NetworkComponent(String id, ComponentType kind) {
+        this(id, kind, null);
+    }
+
+    public NetworkComponent {
+        if (kind != ComponentType.VPC && kind != ComponentType.SUBNET && kind != ComponentType.SECURITY_GROUP) {
+            throw new IllegalArgumentException("Not a network component type: " + kind);
+        }
+    }
+
+    @Override
+    public String type() {
+        return kind.getJsonName();
+    }
+}
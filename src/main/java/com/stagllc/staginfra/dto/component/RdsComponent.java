@@ -0,0 +1,27 @@
+package com.stagllc.staginfra.dto.component;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+public record RdsComponent(
+        @JsonProperty("id") String id,
+        @JsonProperty("instance_class") String instanceClass,
+        @JsonProperty("allocated_storage") int allocatedStorage,
+        @JsonProperty("multi_az") boolean multiAz,
+        @JsonProperty("region") String region
+) implements Component {
+
+    // Component in the catalog's default region
+    public RdsComponent(String id, String instanceClass, int allocatedStorage, boolean multiAz) {
+        this(id, instanceClass, allocatedStorage, multiAz, null);
+    }
+
+    @Override
+    public String type() {
+        return ComponentType.RDS.getJsonName();
+    }
+
+    @Override
+    public ComponentType kind() {
+        return ComponentType.RDS;
+    }
+}
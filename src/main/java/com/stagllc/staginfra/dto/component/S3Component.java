@@ -0,0 +1,25 @@
+package com.stagllc.staginfra.dto.component;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+public record S3Component(
+        @JsonProperty("id") String id,
+        @JsonProperty("storage") int storage,
+        @JsonProperty("region") String region
+) implements Component {
+
+    // Component in the catalog's default region
+    public S3Component(String id, int storage) {
+        this(id, storage, null);
+    }
+
+    @Override
+    public String type() {
+        return ComponentType.S3.getJsonName();
+    }
+
+    @Override
+    public ComponentType kind() {
+        return ComponentType.S3;
+    }
+}
@@ -0,0 +1,21 @@
+package com.stagllc.staginfra.dto.component;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+// A type the cost engine doesn't price; kept so the original type survives a round trip
+public record UnknownComponent(
+        @JsonProperty("id") String id,
+        @JsonProperty("type") String type,
+        @JsonProperty("region") String region
+) implements Component {
+
+    // Component in the catalog's default region
+    public UnknownComponent(String id, String type) {
+        this(id, type, null);
+    }
+
+    @Override
+    public ComponentType kind() {
+        return ComponentType.UNKNOWN;
+    }
+}
@@ -0,0 +1,89 @@
+package com.stagllc.staginfra.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// A saved architecture design. The summary columns (name, component count, timestamps) live here; the
+// components themselves are in a lazily loaded DesignPayload.
+@Entity
+@Table(name = "designs", indexes = @Index(name = "idx_designs_owner", columnList = "owner_id"))
+public class Design {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "owner_id", nullable = false)
+    private User owner;
+
+    @Column(nullable = false)
+    private String name;
+
+    @Column(nullable = false)
+    private int componentCount;
+
+    @OneToOne(fetch = FetchType.LAZY, optional = false, cascade = CascadeType.ALL, orphanRemoval = true)
+    @JoinColumn(name = "payload_id", nullable = false)
+    private DesignPayload payload;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+
+    // Default constructor required by JPA
+    public Design() {
+    }
+
+    public Design(User owner, String name) {
+        this.owner = owner;
+        this.name = name;
+        this.createdAt = LocalDateTime.now();
+        this.updatedAt = createdAt;
+    }
+
+    // Replaces the encoded components, reusing the existing payload row
+    public void setComponents(byte[] encoded, int componentCount) {
+        if (payload == null) {
+            payload = new DesignPayload(encoded);
+        } else {
+            payload.setComponents(encoded);
+        }
+        this.componentCount = componentCount;
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public User getOwner() {
+        return owner;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    public int getComponentCount() {
+        return componentCount;
+    }
+
+    public DesignPayload getPayload() {
+        return payload;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+}
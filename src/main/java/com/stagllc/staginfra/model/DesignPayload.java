@@ -0,0 +1,39 @@
+package com.stagllc.staginfra.model;
+
+import jakarta.persistence.*;
+
+// Encoded components of one design. Kept in its own table so design rows stay small and the payload is only
+// read when a design is actually opened.
+@Entity
+@Table(name = "design_payloads")
+public class DesignPayload {
+    // Upper bound for one encoded design
+    public static final int MAX_BYTES = 16 * 1024 * 1024;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = MAX_BYTES)
+    private byte[] components;
+
+    // Default constructor required by JPA
+    public DesignPayload() {
+    }
+
+    public DesignPayload(byte[] components) {
+        this.components = components;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public byte[] getComponents() {
+        return components;
+    }
+
+    public void setComponents(byte[] components) {
+        this.components = components;
+    }
+}
@@ -0,0 +1,22 @@
+package com.stagllc.staginfra.repository;
+
+import com.stagllc.staginfra.dto.DesignSummary;
+import com.stagllc.staginfra.model.Design;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface DesignRepository extends JpaRepository<Design, Long> {
+
+    // Reads only the summary columns of the designs table; payloads are never joined
+    @Query("select new com.stagllc.staginfra.dto.DesignSummary(d.id, d.name, d.componentCount, d.createdAt, d.updatedAt) "
+            + "from Design d where d.owner.id = :ownerId order by d.updatedAt desc")
+    List<DesignSummary> findSummariesByOwnerId(@Param("ownerId") Long ownerId);
+
+    Optional<Design> findByIdAndOwnerId(Long id, Long ownerId);
+}
@@ -0,0 +1,64 @@
+package com.stagllc.staginfra.security;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+
+// A random, unguessable ID for clients that aren't signed in, kept in an HttpOnly cookie, so anonymous state such as
+// working designs belongs to one browser instead of being shared by everyone. The cookie is SameSite=Strict, so
+// other sites can't act on it.
+public final class AnonymousClient {
+    public static final String COOKIE_NAME = "staginfra_client";
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private static final int ID_BYTES = 16;
+    private static final int ID_LENGTH = 22;
+    private static final Duration MAX_AGE = Duration.ofDays(30);
+
+    private AnonymousClient() {
+    }
+
+    // The caller's ID from its cookie, or a new one that is set on the response
+    public static String id(HttpServletRequest request, HttpServletResponse response) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies != null) {
+            for (Cookie cookie : cookies) {
+                if (COOKIE_NAME.equals(cookie.getName()) && isValid(cookie.getValue())) {
+                    return cookie.getValue();
+                }
+            }
+        }
+        byte[] bytes = new byte[ID_BYTES];
+        RANDOM.nextBytes(bytes);
+        String id = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        ResponseCookie cookie = ResponseCookie.from(COOKIE_NAME, id)
+                .httpOnly(true)
+                .secure(request.isSecure())
+                .sameSite("Strict")
+                .path("/api")
+                .maxAge(MAX_AGE)
+                .build();
+        response.addHeader(HttpHeaders.SET_COOKIE, cookie.toString());
+        return id;
+    }
+
+    // Only IDs in the form we issue, so nobody keys state on short, guessable IDs
+    static boolean isValid(String id) {
+        if (id == null || id.length() != ID_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < id.length(); i++) {
+            char c = id.charAt(i);
+            if (!(c >= 'A' && c <= 'Z' || c >= 'a' && c <= 'z' || c >= '0' && c <= '9' || c == '-' || c == '_')) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
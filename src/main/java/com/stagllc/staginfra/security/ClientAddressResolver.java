@@ -0,0 +1,109 @@
+package com.stagllc.staginfra.security;
+
+import com.stagllc.staginfra.service.ratelimit.IpAddresses;
+import com.stagllc.staginfra.service.ratelimit.TokenBucketLimiter;
+import jakarta.servlet.http.HttpServletRequest;
+
+import java.util.List;
+
+// The client's IP address as two longs (see IpAddresses), for rate limiting without building strings.
+// X-Forwarded-For is only believed when the request comes from a trusted proxy: the header is read from the right,
+// skipping hops that are themselves trusted proxies, and the first other address is the client. Anything a client
+// writes to the left of that is ignored, so it can't pick its own rate limit key.
+public class ClientAddressResolver {
+    private static final String FORWARDED_FOR = "X-Forwarded-For";
+
+    // Trusted networks as (high bits, low bits) of address and mask
+    private final long[] networks;
+    // Per-thread result and scratch space, so resolving allocates nothing
+    private final ThreadLocal<long[][]> buffers =
+            ThreadLocal.withInitial(() -> new long[][] {new long[2], new long[2]});
+
+    // Networks in CIDR notation, e.g. 10.0.0.0/8 or fc00::/7; a bare address trusts just that address
+    public ClientAddressResolver(List<String> trustedProxies) {
+        networks = new long[trustedProxies.size() * 4];
+        long[] address = new long[2];
+        for (int i = 0; i < trustedProxies.size(); i++) {
+            String cidr = trustedProxies.get(i).trim();
+            int slash = cidr.indexOf('/');
+            if (!IpAddresses.parse(cidr, 0, slash < 0 ? cidr.length() : slash, address)) {
+                throw new IllegalArgumentException("Invalid trusted proxy address: " + cidr);
+            }
+            int bits = IpAddresses.isIpv4(address[0], address[1]) ? 32 : 128;
+            int prefix = bits;
+            if (slash >= 0) {
+                try {
+                    prefix = Integer.parseInt(cidr.substring(slash + 1));
+                } catch (NumberFormatException e) {
+                    prefix = -1;
+                }
+                if (prefix < 0 || prefix > bits) {
+                    throw new IllegalArgumentException("Invalid trusted proxy prefix: " + cidr);
+                }
+            }
+            // IPv4 networks are matched in their IPv4-mapped form
+            prefix += 128 - bits;
+            long maskHi = prefix >= 64 ? -1L : prefix == 0 ? 0 : -1L << (64 - prefix);
+            long maskLo = prefix <= 64 ? 0 : prefix == 128 ? -1L : -1L << (128 - prefix);
+            networks[4 * i] = address[0] & maskHi;
+            networks[4 * i + 1] = address[1] & maskLo;
+            networks[4 * i + 2] = maskHi;
+            networks[4 * i + 3] = maskLo;
+        }
+    }
+
+    // The client address; the array belongs to the calling thread and is overwritten by its next call
+    public long[] resolve(HttpServletRequest request) {
+        long[][] buffer = buffers.get();
+        long[] client = buffer[0];
+        String remoteAddr = request.getRemoteAddr();
+        if (remoteAddr == null || !IpAddresses.parse(remoteAddr, client)) {
+            // Not an address (e.g. a unix socket path); key on the text instead
+            String text = remoteAddr != null ? remoteAddr : "";
+            client[0] = TokenBucketLimiter.nameHi(text);
+            client[1] = TokenBucketLimiter.nameLo(text);
+            return client;
+        }
+        if (!isTrusted(client[0], client[1])) {
+            return client;
+        }
+        String forwardedFor = request.getHeader(FORWARDED_FOR);
+        if (forwardedFor == null) {
+            return client;
+        }
+        long[] hop = buffer[1];
+        int end = forwardedFor.length();
+        while (end > 0) {
+            int comma = end - 1;
+            while (comma >= 0 && forwardedFor.charAt(comma) != ',') {
+                comma--;
+            }
+            if (!IpAddresses.parse(forwardedFor, comma + 1, end, hop)) {
+                // Garbled hop: the last address we can vouch for is the best we have
+                break;
+            }
+            client[0] = hop[0];
+            client[1] = hop[1];
+            if (!isTrusted(hop[0], hop[1])) {
+                break;
+            }
+            end = comma;
+        }
+        return client;
+    }
+
+    // Text form of the client address, for logs
+    public String clientIp(HttpServletRequest request) {
+        long[] client = resolve(request);
+        return IpAddresses.format(client[0], client[1]);
+    }
+
+    public boolean isTrusted(long hi, long lo) {
+        for (int i = 0; i < networks.length; i += 4) {
+            if ((hi & networks[i + 2]) == networks[i] && (lo & networks[i + 3]) == networks[i + 1]) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,98 @@
+package com.stagllc.staginfra.security;
+
+import com.stagllc.staginfra.service.ratelimit.HeavyHitterTracker;
+import com.stagllc.staginfra.service.ratelimit.RateLimits;
+import com.stagllc.staginfra.service.ratelimit.TokenBucketLimiter;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.security.Principal;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+// Enforces @RateLimited before the handler runs. Clients are identified by their user name when authenticated,
+// otherwise by IP address (see ClientAddressResolver), which is hashed as two longs without building a string;
+// a rejected request gets 429 with Retry-After in seconds. Every decision is also
+// reported to the heavy hitter tracker under the limit's key. Async re-dispatches (e.g. completing an SSE stream
+// or a deferred result) belong to a request that was already counted, so they pass through.
+public class RateLimitInterceptor implements HandlerInterceptor {
+    // User names and addresses hash differently, so a user named like an address doesn't share its bucket
+    private static final long USER_SEED = 0x5bd1e995L;
+    private static final long ADDRESS_SEED = 0x1b873593L;
+
+    private final RateLimits rateLimits;
+    private final HeavyHitterTracker heavyHitters;
+    private final ClientAddressResolver addresses;
+    // Limit of each handler method, or empty when it isn't rate limited
+    private final Map<Method, Optional<HandlerLimit>> handlerLimits = new ConcurrentHashMap<>();
+
+    public RateLimitInterceptor(RateLimits rateLimits, HeavyHitterTracker heavyHitters,
+                                ClientAddressResolver addresses) {
+        this.rateLimits = rateLimits;
+        this.heavyHitters = heavyHitters;
+        this.addresses = addresses;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+            throws IOException {
+        if (request.getDispatcherType() == DispatcherType.ASYNC) {
+            return true;
+        }
+        if (!rateLimits.isEnabled() || !(handler instanceof HandlerMethod handlerMethod)) {
+            return true;
+        }
+        Optional<HandlerLimit> limit = handlerLimits.computeIfAbsent(handlerMethod.getMethod(),
+                method -> Optional.ofNullable(resolve(handlerMethod)));
+        if (limit.isEmpty()) {
+            return true;
+        }
+
+        long waitMicros;
+        Principal principal = request.getUserPrincipal();
+        if (principal != null) {
+            String user = principal.getName();
+            waitMicros = limit.get().limiter().tryAcquire(TokenBucketLimiter.hash(user, USER_SEED));
+            heavyHitters.record(limit.get().key(), user, waitMicros == 0);
+        } else {
+            long[] address = addresses.resolve(request);
+            waitMicros = limit.get().limiter().tryAcquire(TokenBucketLimiter.hash(address[0], address[1],
+                    ADDRESS_SEED));
+            heavyHitters.record(limit.get().key(), address[0], address[1], waitMicros == 0);
+        }
+        if (waitMicros == 0) {
+            return true;
+        }
+        long retryAfterSeconds = Math.max(1, (waitMicros + TimeUnit.SECONDS.toMicros(1) - 1)
+                / TimeUnit.SECONDS.toMicros(1));
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("{\"error\":\"Too many requests. Please try again later.\"}");
+        return false;
+    }
+
+    private HandlerLimit resolve(HandlerMethod handlerMethod) {
+        RateLimited limit = handlerMethod.getMethodAnnotation(RateLimited.class);
+        if (limit == null) {
+            limit = AnnotatedElementUtils.findMergedAnnotation(handlerMethod.getBeanType(), RateLimited.class);
+        }
+        return limit != null
+                ? new HandlerLimit(limit.key(), rateLimits.limiter(limit.key(), limit.permits(), limit.window()))
+                : null;
+    }
+
+    private record HandlerLimit(String key, TokenBucketLimiter limiter) {
+    }
+}
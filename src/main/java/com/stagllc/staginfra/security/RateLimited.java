@@ -0,0 +1,21 @@
+package com.stagllc.staginfra.security;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Limits how often each client may call the annotated handler, or every handler of the annotated controller.
+// Handlers with the same key share one budget per client. permits and window are defaults that
+// app.rate-limit.limits.<key>.permits and .window override; the window takes values like "30s", "1m" or "PT1H".
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD, ElementType.TYPE})
+public @interface RateLimited {
+    String key();
+
+    int permits() default 60;
+
+    String window() default "1m";
+}
@@ -1,73 +1,260 @@
 // src/main/java/com/stagllc/staginfra/service/RateLimiterService.java
 package com.stagllc.staginfra.service;
 
+import com.stagllc.staginfra.service.ratelimit.AttemptTable;
+import com.stagllc.staginfra.service.ratelimit.HeavyHitterTracker;
+import com.stagllc.staginfra.service.ratelimit.IpAddresses;
+import com.stagllc.staginfra.service.ratelimit.LeasedRateLimiter;
+import com.stagllc.staginfra.service.ratelimit.RateLimitBackend;
+import com.stagllc.staginfra.service.ratelimit.TokenBucketLimiter;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.time.LocalDateTime;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
 
+// Sliding-window limits per IP address and action. Each key keeps a fixed ring of the times of its last allowed
+// attempts, as many as the action permits: an attempt is allowed when the oldest of them has left the window.
+// Addresses are keyed as two longs (see IpAddresses) in an off-heap AttemptTable, so a check is O(1) and allocates
+// nothing. A background sweep drops keys whose attempts have all left their window, and the table's fixed capacity
+// bounds memory even under a flood of addresses.
+// With a RateLimitBackend bean the limits hold across the cluster instead: attempts are counted in shared fixed
+// windows through leases (see LeasedRateLimiter), and this node's rings take over while the backend is unreachable.
+// An outage is logged at most once a minute, with the number of failures since the last warning.
+// Every decision is reported to the heavy hitter tracker, when there is one, under the action's name.
 @Service
 public class RateLimiterService {
+    private static final Logger logger = LoggerFactory.getLogger(RateLimiterService.class);
 
-    // Store IP address and attempt timestamps
-    private final Map<String, RequestLog> requestLogs = new ConcurrentHashMap<>();
+    private static final long DEFAULT_SWEEP_INTERVAL_MILLIS = 60_000;
+    private static final int DEFAULT_TABLE_CAPACITY = 65_536;
+    private static final long DEFAULT_LEASE_IDLE_MILLIS = 60_000;
+    private static final long BACKEND_WARNING_INTERVAL_MILLIS = 60_000;
 
     // Config
-    private static final int MAX_REGISTRATION_ATTEMPTS = 5;
-    private static final int REGISTRATION_WINDOW_MINUTES = 60;
+    enum Action {
+        REGISTRATION(5, 60),
+        LOGIN(5, 15);
 
-    private static final int MAX_LOGIN_ATTEMPTS = 5;
-    private static final int LOGIN_WINDOW_MINUTES = 15;
+        final int maxAttempts;
+        final long windowMillis;
 
+        Action(int maxAttempts, int windowMinutes) {
+            this.maxAttempts = maxAttempts;
+            this.windowMillis = TimeUnit.MINUTES.toMillis(windowMinutes);
+        }
+    }
+
+    private static final Action[] ACTIONS = Action.values();
+
+    private final AttemptTable attempts;
+    private final long[] windowByAction = new long[ACTIONS.length];
+    private final LongSupplier clock;
+    private final LeasedRateLimiter cluster;
+    private final HeavyHitterTracker heavyHitters;
+    private final ScheduledExecutorService sweeper;
+    private final AtomicLong nextBackendWarning = new AtomicLong(Long.MIN_VALUE);
+    private final AtomicLong suppressedBackendWarnings = new AtomicLong();
+
+    public RateLimiterService() {
+        this(DEFAULT_SWEEP_INTERVAL_MILLIS, () -> TimeUnit.NANOSECONDS.toMillis(System.nanoTime()), null, 0, 0,
+                null, DEFAULT_TABLE_CAPACITY);
+    }
+
+    @Autowired
+    public RateLimiterService(
+            @Value("${app.rate-limit.sweep-interval-ms:60000}") long sweepIntervalMillis,
+            @Value("${app.rate-limit.cluster.lease-size:2}") int leaseSize,
+            @Value("${app.rate-limit.cluster.flush-interval-ms:1000}") long flushIntervalMillis,
+            @Value("${app.rate-limit.cluster.lease-idle-ms:60000}") long leaseIdleMillis,
+            @Value("${app.rate-limit.cluster.retry-ms:5000}") long retryMillis,
+            @Value("${app.rate-limit.table-capacity:65536}") int tableCapacity,
+            ObjectProvider<RateLimitBackend> backend,
+            HeavyHitterTracker heavyHitters
+    ) {
+        this(sweepIntervalMillis, () -> TimeUnit.NANOSECONDS.toMillis(System.nanoTime()),
+                cluster(backend.getIfAvailable(), leaseSize, retryMillis), flushIntervalMillis, leaseIdleMillis, heavyHitters,
+                tableCapacity);
+    }
+
+    RateLimiterService(long sweepIntervalMillis, LongSupplier clock) {
+        this(sweepIntervalMillis, clock, null, 0, 0, null, DEFAULT_TABLE_CAPACITY);
+    }
+
+    RateLimiterService(long sweepIntervalMillis, LongSupplier clock, LeasedRateLimiter cluster,
+                       long flushIntervalMillis, HeavyHitterTracker heavyHitters) {
+        this(sweepIntervalMillis, clock, cluster, flushIntervalMillis, DEFAULT_LEASE_IDLE_MILLIS, heavyHitters,
+                DEFAULT_TABLE_CAPACITY);
+    }
+
+    // Intervals of 0 leave sweeping and flushing to the caller
+    RateLimiterService(long sweepIntervalMillis, LongSupplier clock, LeasedRateLimiter cluster,
+                       long flushIntervalMillis, long leaseIdleMillis, HeavyHitterTracker heavyHitters,
+                       int tableCapacity) {
+        this.clock = clock;
+        this.cluster = cluster;
+        this.heavyHitters = heavyHitters;
+        int maxAttempts = 0;
+        for (Action action : ACTIONS) {
+            windowByAction[action.ordinal()] = action.windowMillis;
+            maxAttempts = Math.max(maxAttempts, action.maxAttempts);
+        }
+        this.attempts = new AttemptTable(tableCapacity, maxAttempts);
+        boolean flushing = cluster != null && flushIntervalMillis > 0;
+        if (sweepIntervalMillis > 0 || flushing) {
+            this.sweeper = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "rate-limit-sweeper");
+                thread.setDaemon(true);
+                return thread;
+            });
+        } else {
+            this.sweeper = null;
+        }
+        if (sweepIntervalMillis > 0) {
+            sweeper.scheduleWithFixedDelay(this::sweep, sweepIntervalMillis, sweepIntervalMillis,
+                    TimeUnit.MILLISECONDS);
+        }
+        if (flushing) {
+            // Leases of ended windows are dropped; ones unused for leaseIdleMillis go back to the cluster
+            sweeper.scheduleWithFixedDelay(() -> cluster.flush(leaseIdleMillis), flushIntervalMillis,
+                    flushIntervalMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private static LeasedRateLimiter cluster(RateLimitBackend backend, int leaseSize, long retryMillis) {
+        return backend != null ? new LeasedRateLimiter(backend, leaseSize, retryMillis) : null;
+    }
+
+    // Addresses as parsed by IpAddresses; unless limits are shared, these checks allocate nothing
+    public boolean allowRegistration(long addressHi, long addressLo) {
+        return checkRateLimit(addressHi, addressLo, null, Action.REGISTRATION);
+    }
+
+    public boolean allowLogin(long addressHi, long addressLo) {
+        return checkRateLimit(addressHi, addressLo, null, Action.LOGIN);
+    }
+
+    // Text forms: an IP address is parsed, anything else is keyed by a 128-bit hash of it
     public boolean allowRegistration(String ipAddress) {
-        return checkRateLimit(ipAddress, "REGISTRATION", MAX_REGISTRATION_ATTEMPTS, REGISTRATION_WINDOW_MINUTES);
+        return checkRateLimit(ipAddress, Action.REGISTRATION);
     }
 
     public boolean allowLogin(String ipAddress) {
-        return checkRateLimit(ipAddress, "LOGIN", MAX_LOGIN_ATTEMPTS, LOGIN_WINDOW_MINUTES);
+        return checkRateLimit(ipAddress, Action.LOGIN);
     }
 
-    private boolean checkRateLimit(String ipAddress, String actionType, int maxAttempts, int windowMinutes) {
-        String key = ipAddress + ":" + actionType;
-        RequestLog log = requestLogs.computeIfAbsent(key, k -> new RequestLog());
-
-        // Clean old attempts
-        log.cleanOldAttempts(windowMinutes);
+    private boolean checkRateLimit(String client, Action action) {
+        long[] address = new long[2];
+        if (IpAddresses.parse(client, address)) {
+            return checkRateLimit(address[0], address[1], null, action);
+        }
+        return checkRateLimit(TokenBucketLimiter.nameHi(client), TokenBucketLimiter.nameLo(client), client, action);
+    }
 
-        // Check if under limit
-        if (log.getRecentAttempts(windowMinutes) < maxAttempts) {
-            // Record this attempt
-            log.recordAttempt();
-            return true;
+    // The label is the client's text when it isn't an address
+    private boolean checkRateLimit(long hi, long lo, String label, Action action) {
+        boolean allowed = decide(hi, lo, label, action);
+        if (heavyHitters != null) {
+            if (label != null) {
+                heavyHitters.record(action.name(), label, allowed);
+            } else {
+                heavyHitters.record(action.name(), hi, lo, allowed);
+            }
         }
+        return allowed;
+    }
 
-        return false;
+    private boolean decide(long hi, long lo, String label, Action action) {
+        if (cluster != null) {
+            try {
+                return cluster.tryAcquire(action.name(), clientName(hi, lo, label), action.maxAttempts,
+                        action.windowMillis);
+            } catch (RuntimeException e) {
+                if (shouldWarnAboutBackend()) {
+                    logger.warn("Shared rate limit unavailable, limiting {} on this node only ({} more failures "
+                            + "since the last warning): {}", action, suppressedBackendWarnings.getAndSet(0),
+                            e.getMessage());
+                }
+            }
+        }
+        return attempts.tryAcquire(hi, lo, action.ordinal(), action.maxAttempts, action.windowMillis,
+                clock.getAsLong());
     }
 
     // Reset rate limit for an IP (e.g., after successful login)
-    public void resetLimiter(String ipAddress, String actionType) {
-        String key = ipAddress + ":" + actionType;
-        requestLogs.remove(key);
+    public void resetLimiter(long addressHi, long addressLo, String actionType) {
+        resetLimiter(addressHi, addressLo, null, actionType);
     }
 
-    // Inner class to track request attempts
-    private static class RequestLog {
-        private final Map<LocalDateTime, Integer> attempts = new ConcurrentHashMap<>();
+    public void resetLimiter(String ipAddress, String actionType) {
+        long[] address = new long[2];
+        if (IpAddresses.parse(ipAddress, address)) {
+            resetLimiter(address[0], address[1], null, actionType);
+        } else {
+            resetLimiter(TokenBucketLimiter.nameHi(ipAddress), TokenBucketLimiter.nameLo(ipAddress), ipAddress,
+                    actionType);
+        }
+    }
 
-        public void recordAttempt() {
-            LocalDateTime now = LocalDateTime.now();
-            attempts.put(now, attempts.getOrDefault(now, 0) + 1);
+    private void resetLimiter(long hi, long lo, String label, String actionType) {
+        for (Action action : ACTIONS) {
+            if (action.name().equals(actionType)) {
+                attempts.remove(hi, lo, action.ordinal());
+                if (cluster != null) {
+                    try {
+                        cluster.reset(action.name(), clientName(hi, lo, label));
+                    } catch (RuntimeException e) {
+                        if (shouldWarnAboutBackend()) {
+                            logger.warn("Could not reset shared rate limit for {} ({} more failures since the last "
+                                    + "warning): {}", action, suppressedBackendWarnings.getAndSet(0), e.getMessage());
+                        }
+                    }
+                }
+            }
         }
+    }
 
-        public void cleanOldAttempts(int windowMinutes) {
-            LocalDateTime cutoff = LocalDateTime.now().minusMinutes(windowMinutes);
-            attempts.keySet().removeIf(timestamp -> timestamp.isBefore(cutoff));
+    // One warning per interval while the backend is down; the rest are only counted
+    private boolean shouldWarnAboutBackend() {
+        long now = clock.getAsLong();
+        long next = nextBackendWarning.get();
+        if (now >= next && nextBackendWarning.compareAndSet(next, now + BACKEND_WARNING_INTERVAL_MILLIS)) {
+            return true;
         }
+        suppressedBackendWarnings.incrementAndGet();
+        return false;
+    }
+
+    long suppressedBackendWarnings() {
+        return suppressedBackendWarnings.get();
+    }
+
+    // Shared counters are keyed by text, so nodes agree on keys whatever their address parsing
+    private static String clientName(long hi, long lo, String label) {
+        return label != null ? label : IpAddresses.format(hi, lo);
+    }
+
+    // Drops keys with no attempts left in their window; returns how many were dropped
+    int sweep() {
+        return attempts.sweep(clock.getAsLong(), windowByAction);
+    }
+
+    int trackedKeys() {
+        return attempts.size();
+    }
 
-        public int getRecentAttempts(int windowMinutes) {
-            cleanOldAttempts(windowMinutes);
-            return attempts.values().stream().mapToInt(Integer::intValue).sum();
+    @PreDestroy
+    public void shutdown() {
+        if (sweeper != null) {
+            sweeper.shutdownNow();
         }
     }
-}
\ No newline at end of file
+}
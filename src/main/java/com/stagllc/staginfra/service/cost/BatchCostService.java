@@ -0,0 +1,152 @@
+package com.stagllc.staginfra.service.cost;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.stagllc.staginfra.dto.BatchCostItem;
+import com.stagllc.staginfra.dto.BatchCostResult;
+import com.stagllc.staginfra.dto.component.Component;
+import com.stagllc.staginfra.service.pricing.UnknownRegionException;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+// Estimates many designs from one request body. Designs are read one at a time, priced in parallel on a
+// dedicated fork-join pool and written back as NDJSON lines in completion order by the request thread. At most
+// maxInFlight designs and results are held in memory at once, so neither the request nor the response is ever
+// fully materialized, and a client that reads slowly only stalls its own batch.
+@Service
+public class BatchCostService {
+    private static final Logger logger = LoggerFactory.getLogger(BatchCostService.class);
+    private static final byte[] NEWLINE = {'\n'};
+
+    private final CostEstimator costEstimator;
+    private final ObjectReader itemReader;
+    private final ObjectWriter resultWriter;
+    private final ForkJoinPool pool;
+    private final int maxInFlight;
+
+    public BatchCostService(
+            CostEstimator costEstimator,
+            ObjectMapper objectMapper,
+            @Value("${app.cost.batch.parallelism:0}") int parallelism,
+            @Value("${app.cost.batch.max-in-flight:256}") int maxInFlight
+    ) {
+        this.costEstimator = costEstimator;
+        this.itemReader = objectMapper.readerFor(BatchCostItem.class);
+        this.resultWriter = objectMapper.writerFor(BatchCostResult.class);
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        this.maxInFlight = Math.max(1, maxInFlight);
+    }
+
+    // Accepts a JSON array of designs or newline-delimited designs. Returns the number of designs read.
+    public int estimate(InputStream in, OutputStream out) throws IOException {
+        CompletionService<BatchCostResult> results = new ExecutorCompletionService<>(pool);
+        int pending = 0;
+        int count = 0;
+
+        try (MappingIterator<BatchCostItem> items = itemReader.readValues(in)) {
+            while (items.hasNextValue()) {
+                BatchCostItem item = items.nextValue();
+                // Designs without an ID are reported by their position in the batch
+                String id = item.getId() != null ? item.getId() : String.valueOf(count);
+                count++;
+
+                if (pending == maxInFlight) {
+                    write(out, take(results));
+                    out.flush();
+                    pending--;
+                }
+                results.submit(() -> price(id, item));
+                pending++;
+                pending -= writeCompleted(out, results);
+            }
+        } catch (JsonProcessingException e) {
+            // Malformed input: report it in-band after the designs already accepted
+            logger.warn("Batch estimate input rejected after {} designs: {}", count, e.getMessage());
+            drain(out, results, pending);
+            write(out, BatchCostResult.error(null, "Invalid batch input after " + count + " designs"));
+            out.flush();
+            return count;
+        }
+
+        // Wait for the tail of the batch before the response is completed
+        drain(out, results, pending);
+        out.flush();
+        return count;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    private BatchCostResult price(String id, BatchCostItem item) {
+        try {
+            List<Component> components = item.getComponents() != null ? item.getComponents() : List.of();
+            return BatchCostResult.success(id, costEstimator.estimate(components));
+        } catch (CostOverflowException | UnknownRegionException e) {
+            return BatchCostResult.error(id, e.getMessage());
+        } catch (RuntimeException e) {
+            logger.warn("Batch estimate failed for design {}", id, e);
+            return BatchCostResult.error(id, "Estimation failed");
+        }
+    }
+
+    // Writes every result that is already done without waiting; returns how many were written
+    private int writeCompleted(OutputStream out, CompletionService<BatchCostResult> results) throws IOException {
+        int written = 0;
+        for (Future<BatchCostResult> done = results.poll(); done != null; done = results.poll()) {
+            write(out, result(done));
+            written++;
+        }
+        if (written > 0) {
+            out.flush();
+        }
+        return written;
+    }
+
+    private void drain(OutputStream out, CompletionService<BatchCostResult> results, int pending) throws IOException {
+        for (; pending > 0; pending--) {
+            write(out, take(results));
+        }
+    }
+
+    // Only the request thread writes, so a slow reader holds up its own batch and never the pricing pool
+    private void write(OutputStream out, BatchCostResult result) throws IOException {
+        out.write(resultWriter.writeValueAsBytes(result));
+        out.write(NEWLINE);
+    }
+
+    private static BatchCostResult take(CompletionService<BatchCostResult> results) throws IOException {
+        try {
+            return result(results.take());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for batch estimates", e);
+        }
+    }
+
+    private static BatchCostResult result(Future<BatchCostResult> done) {
+        try {
+            return done.get();
+        } catch (InterruptedException | ExecutionException e) {
+            // price() handles its own failures, so this is an Error or an interrupt already being served
+            throw new IllegalStateException("Batch estimate did not complete", e);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.stagllc.staginfra.service.cost;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.stagllc.staginfra.dto.component.Component;
+import com.stagllc.staginfra.dto.component.ComponentFields;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.Map;
+
+// Applies a partial JSON update to a component by overwriting the given fields of its typed attributes and
+// rebuilding the record; values bind exactly as they do in a request body
+public final class ComponentPatcher {
+
+    private ComponentPatcher() {
+    }
+
+    public static Component apply(Component component, JsonNode patch) {
+        if (patch == null || !patch.isObject()) {
+            throw new IllegalArgumentException("Component patch must be a JSON object");
+        }
+        ComponentFields fields = ComponentFields.of(component);
+        for (Iterator<Map.Entry<String, JsonNode>> it = patch.fields(); it.hasNext(); ) {
+            Map.Entry<String, JsonNode> field = it.next();
+            // The ID addresses the component and can't be changed by a patch
+            if (!"id".equals(field.getKey())) {
+                set(fields, field.getKey(), field.getValue());
+            }
+        }
+        return fields.build();
+    }
+
+    // Sets one attribute; null (or an object or array, which never carries one) restores its default. Returns false
+    // for names that aren't component attributes and throws IllegalArgumentException for values that don't bind.
+    public static boolean set(ComponentFields fields, String field, JsonNode value) {
+        if (value == null || value.isNull() || value.isContainerNode()) {
+            return fields.reset(field);
+        }
+        try (JsonParser p = value.traverse()) {
+            p.nextToken();
+            return fields.read(field, p);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Invalid value for component field " + field, e);
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.stagllc.staginfra.service.cost;
+
+import com.stagllc.staginfra.dto.CostEstimateResponse;
+import com.stagllc.staginfra.dto.CostLineItem;
+import com.stagllc.staginfra.dto.RegionComparisonResponse;
+import com.stagllc.staginfra.dto.component.Component;
+import com.stagllc.staginfra.dto.component.ComponentType;
+import com.stagllc.staginfra.service.cost.calculator.CostCalculatorRegistry;
+import com.stagllc.staginfra.service.pricing.PriceCatalog;
+import com.stagllc.staginfra.service.pricing.PriceCatalogService;
+import com.stagllc.staginfra.service.pricing.PurchaseOption;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Stateless monthly cost calculation shared by every cost endpoint
+@Service
+public class CostEstimator {
+    private final PriceCatalogService priceCatalogService;
+    private final CostCalculatorRegistry calculators;
+
+    public CostEstimator(PriceCatalogService priceCatalogService, CostCalculatorRegistry calculators) {
+        this.priceCatalogService = priceCatalogService;
+        this.calculators = calculators;
+    }
+
+    public BigDecimal estimate(List<Component> components) {
+        // Read the catalog once so a concurrent reload can't mix price versions within one estimate
+        return Money.toDecimal(estimateMicros(components, priceCatalogService.getCatalog()));
+    }
+
+    // Exact total in micro-cents; the sum is plain long arithmetic, so it doesn't depend on component order
+    public long estimateMicros(List<Component> components, PriceCatalog catalog) {
+        long total = 0;
+        for (Component component : components) {
+            total = Money.add(total, componentMicros(component, catalog));
+        }
+        return total;
+    }
+
+    // Same per-component pricing as estimate(), also recording each component's cost and a subtotal per priced type
+    public CostEstimateResponse estimateWithBreakdown(List<Component> components) {
+        return estimateWithBreakdown(components, priceCatalogService.getCatalog());
+    }
+
+    public CostEstimateResponse estimateWithBreakdown(List<Component> components, PriceCatalog catalog) {
+        long[] costs = new long[components.size()];
+        for (int i = 0; i < costs.length; i++) {
+            costs[i] = componentMicros(components.get(i), catalog);
+        }
+        return breakdown(components, costs);
+    }
+
+    // Also prices the design under every purchase option. The design is compiled once and all options are
+    // evaluated in the same pass over its terms, so this costs little more than an on-demand estimate.
+    public CostEstimateResponse estimateWithPurchaseOptions(List<Component> components, boolean breakdown,
+                                                            PriceCatalog catalog) {
+        CostPlan plan = compile(components);
+        long[] costs = breakdown ? new long[components.size()] : null;
+        long[] totals = plan.evaluateOptions(plan.optionPrices(catalog), costs);
+
+        CostEstimateResponse response = breakdown
+                ? breakdown(components, costs)
+                : new CostEstimateResponse(Money.toDecimal(totals[0]));
+        Map<String, BigDecimal> byOption = new LinkedHashMap<>();
+        for (PurchaseOption option : PurchaseOption.values()) {
+            byOption.put(option.getKey(), Money.toDecimal(totals[option.ordinal()]));
+        }
+        response.setPurchaseOptions(byOption);
+        return response;
+    }
+
+    // Total, line items and per-type subtotals from components already priced in micro-cents
+    public CostEstimateResponse breakdown(List<Component> components, long[] costs) {
+        ComponentType[] types = ComponentType.values();
+        long[] byType = new long[types.length];
+        boolean[] seen = new boolean[types.length];
+        List<CostLineItem> lineItems = new ArrayList<>(components.size());
+        long total = 0;
+
+        for (int i = 0; i < costs.length; i++) {
+            Component component = components.get(i);
+            int slot = component.kind().ordinal();
+            byType[slot] = Money.add(byType[slot], costs[i]);
+            seen[slot] = true;
+            total = Money.add(total, costs[i]);
+            lineItems.add(new CostLineItem(component.id(), component.type(), Money.toDecimal(costs[i])));
+        }
+
+        Map<String, BigDecimal> subtotals = new LinkedHashMap<>();
+        for (ComponentType type : types) {
+            if (seen[type.ordinal()] && calculators.isPriced(type)) {
+                subtotals.put(type.getJsonName(), Money.toDecimal(byType[type.ordinal()]));
+            }
+        }
+
+        CostEstimateResponse response = new CostEstimateResponse(Money.toDecimal(total));
+        response.setLineItems(lineItems);
+        response.setByType(subtotals);
+        return response;
+    }
+
+    // Prices the whole design in every catalog region: the design is compiled once and the plan is re-evaluated
+    // with each region's prices
+    public RegionComparisonResponse compareRegions(List<Component> components) {
+        PriceCatalog catalog = priceCatalogService.getCatalog();
+        // Every region is priced by ordinal below, so the components' own regions are checked here
+        for (Component component : components) {
+            catalog.regionIndex(component.region());
+        }
+        CostPlan plan = compile(components);
+        double[] prices = new double[plan.priceCount()];
+        long[] totals = new long[catalog.regionCount()];
+        for (int region = 0; region < totals.length; region++) {
+            plan.prices(catalog, region, prices);
+            totals[region] = plan.evaluate(prices);
+        }
+
+        Map<String, BigDecimal> byRegion = new LinkedHashMap<>();
+        int cheapest = 0;
+        for (int region = 0; region < totals.length; region++) {
+            byRegion.put(catalog.getRegions().get(region), Money.toDecimal(totals[region]));
+            if (totals[region] < totals[cheapest]) {
+                cheapest = region;
+            }
+        }
+        return new RegionComparisonResponse(catalog.getDefaultRegion(), catalog.getRegions().get(cheapest), byRegion);
+    }
+
+    // Flattens a design into a plan for repeated evaluation under different prices or quantities
+    public CostPlan compile(List<Component> components) {
+        CostPlan.Builder plan = CostPlan.builder();
+        for (Component component : components) {
+            plan.beginComponent(component.region());
+            calculators.compile(component, plan);
+            plan.endComponent();
+        }
+        return plan.build();
+    }
+
+    public PriceCatalog getCatalog() {
+        return priceCatalogService.getCatalog();
+    }
+
+    // Monthly cost of a single component in micro-cents
+    public long componentMicros(Component component, PriceCatalog catalog) {
+        return Money.fromDollars(calculators.monthlyCost(component, catalog));
+    }
+}
@@ -0,0 +1,257 @@
+package com.stagllc.staginfra.service.cost;
+
+import com.stagllc.staginfra.dto.CostUpdateEvent;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+
+// Pushes a design's total and breakdown to its SSE subscribers whenever the design changes.
+// Subscribers hold no request thread: the emitters run on servlet async. A change starts a coalescing window;
+// every further change inside it is absorbed, and when it closes the event is built once from the store's
+// per-component costs and handed to each subscriber. Writes happen on a bounded sender pool, at most one at a time
+// per subscriber, and a subscriber that is still behind only gets the newest event. A subscriber whose write has
+// been blocked for longer than sendTimeoutMillis is dropped and its response closed, which fails the blocked write
+// and frees the sender, so one slow client never holds up the others. Designs nobody watches cost nothing.
+@Service
+public class CostEventService {
+    private static final Logger logger = LoggerFactory.getLogger(CostEventService.class);
+
+    static final String EVENT_NAME = "cost";
+
+    private final DesignStore designStore;
+    private final CostEstimator costEstimator;
+    private final long coalesceMillis;
+    private final long timeoutMillis;
+    private final long sendTimeoutMillis;
+    private final LongSupplier clock;
+    private final Map<DesignKey, Subscription> subscriptions = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler;
+    private final ThreadPoolExecutor sender;
+
+    @Autowired
+    public CostEventService(
+            DesignStore designStore,
+            CostEstimator costEstimator,
+            @Value("${app.cost.events.coalesce-ms:200}") long coalesceMillis,
+            @Value("${app.cost.events.timeout-ms:1800000}") long timeoutMillis,
+            @Value("${app.cost.events.send-timeout-ms:10000}") long sendTimeoutMillis,
+            @Value("${app.cost.events.max-senders:32}") int maxSenders
+    ) {
+        this(designStore, costEstimator, coalesceMillis, timeoutMillis, sendTimeoutMillis, maxSenders,
+                Executors.newSingleThreadScheduledExecutor(r -> daemon(r, "cost-events")),
+                () -> TimeUnit.NANOSECONDS.toMillis(System.nanoTime()));
+    }
+
+    CostEventService(DesignStore designStore, CostEstimator costEstimator, long coalesceMillis, long timeoutMillis,
+                     long sendTimeoutMillis, int maxSenders, ScheduledExecutorService scheduler, LongSupplier clock) {
+        if (maxSenders <= 0 || sendTimeoutMillis <= 0) {
+            throw new IllegalArgumentException("Sender count and send timeout must be positive");
+        }
+        this.designStore = designStore;
+        this.costEstimator = costEstimator;
+        this.coalesceMillis = coalesceMillis;
+        this.timeoutMillis = timeoutMillis;
+        this.sendTimeoutMillis = sendTimeoutMillis;
+        this.clock = clock;
+        this.scheduler = scheduler;
+        // Each subscriber queues at most one write, and stuck writes are failed when their subscriber is dropped
+        AtomicInteger senders = new AtomicInteger();
+        this.sender = new ThreadPoolExecutor(maxSenders, maxSenders, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+                r -> daemon(r, "cost-events-send-" + senders.incrementAndGet()));
+        this.sender.allowCoreThreadTimeOut(true);
+        // Streams on designs that stopped changing are checked here rather than at their next event
+        scheduler.scheduleWithFixedDelay(this::dropStuckSubscribers, sendTimeoutMillis, sendTimeoutMillis,
+                TimeUnit.MILLISECONDS);
+        designStore.addListener(this::designChanged);
+    }
+
+    // Opens a stream that starts with the design's current cost; the client reconnects after the timeout
+    public SseEmitter subscribe(DesignKey key, HttpServletRequest request) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        register(key, emitter, () -> closeResponse(request));
+        return emitter;
+    }
+
+    // close fails a write blocked on the stream; the emitter's own complete() would wait for that write to finish
+    void register(DesignKey key, SseEmitter emitter, Runnable close) {
+        Subscriber subscriber = new Subscriber(emitter, close);
+        // Added inside compute so it can't race with the last subscriber of the design leaving
+        subscriptions.compute(key, (k, subscription) -> {
+            Subscription target = subscription != null ? subscription : new Subscription();
+            target.subscribers.put(emitter, subscriber);
+            return target;
+        });
+        emitter.onCompletion(() -> unsubscribe(key, emitter));
+        emitter.onTimeout(() -> unsubscribe(key, emitter));
+        emitter.onError(e -> unsubscribe(key, emitter));
+        scheduler.execute(() -> subscriber.offer(event(key)));
+    }
+
+    public int subscriberCount(DesignKey key) {
+        Subscription subscription = subscriptions.get(key);
+        return subscription != null ? subscription.subscribers.size() : 0;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+        sender.shutdownNow();
+        for (Subscription subscription : subscriptions.values()) {
+            subscription.subscribers.keySet().forEach(SseEmitter::complete);
+        }
+        subscriptions.clear();
+    }
+
+    private void designChanged(DesignKey key) {
+        Subscription subscription = subscriptions.get(key);
+        if (subscription != null && subscription.pending.compareAndSet(false, true)) {
+            scheduler.schedule(() -> flush(key, subscription), coalesceMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void flush(DesignKey key, Subscription subscription) {
+        // Cleared before computing so an edit made while this event is built opens the next window
+        subscription.pending.set(false);
+        if (subscription.subscribers.isEmpty()) {
+            return;
+        }
+        CostUpdateEvent event = event(key);
+        long now = clock.getAsLong();
+        for (Subscriber subscriber : subscription.subscribers.values()) {
+            if (!dropIfStuck(key, subscriber, now)) {
+                subscriber.offer(event);
+            }
+        }
+    }
+
+    void dropStuckSubscribers() {
+        long now = clock.getAsLong();
+        subscriptions.forEach((key, subscription) ->
+                subscription.subscribers.values().forEach(subscriber -> dropIfStuck(key, subscriber, now)));
+    }
+
+    private boolean dropIfStuck(DesignKey key, Subscriber subscriber, long now) {
+        long started = subscriber.sendStarted;
+        if (started == Subscriber.IDLE || now - started <= sendTimeoutMillis) {
+            return false;
+        }
+        logger.debug("Dropping cost event subscriber of design {}: a send has been blocked for {} ms",
+                key.designId(), now - started);
+        unsubscribe(key, subscriber.emitter);
+        subscriber.close.run();
+        return true;
+    }
+
+    private CostUpdateEvent event(DesignKey key) {
+        DesignStore.PricedDesign design = designStore.getPriced(key);
+        return new CostUpdateEvent(key.designId(), design.snapshot().getVersion(),
+                costEstimator.breakdown(design.components(), design.costs()));
+    }
+
+    private void unsubscribe(DesignKey key, SseEmitter emitter) {
+        subscriptions.computeIfPresent(key, (k, subscription) -> {
+            subscription.subscribers.remove(emitter);
+            return subscription.subscribers.isEmpty() ? null : subscription;
+        });
+    }
+
+    // Completing the async request closes the connection under the emitter
+    private static void closeResponse(HttpServletRequest request) {
+        try {
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().complete();
+            }
+        } catch (IllegalStateException e) {
+            // The request already completed on its own
+            logger.debug("Cost event stream already closed: {}", e.getMessage());
+        }
+    }
+
+    private static Thread daemon(Runnable runnable, String name) {
+        Thread thread = new Thread(runnable, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    private static final class Subscription {
+        final Map<SseEmitter, Subscriber> subscribers = new ConcurrentHashMap<>();
+        final AtomicBoolean pending = new AtomicBoolean();
+    }
+
+    // One stream and the newest event it hasn't been sent yet
+    private final class Subscriber {
+        static final long IDLE = Long.MIN_VALUE;
+
+        final SseEmitter emitter;
+        final Runnable close;
+        final AtomicReference<CostUpdateEvent> latest = new AtomicReference<>();
+        final AtomicBoolean sending = new AtomicBoolean();
+        // Clock time when the current write started, IDLE while none is in progress
+        volatile long sendStarted = IDLE;
+
+        Subscriber(SseEmitter emitter, Runnable close) {
+            this.emitter = emitter;
+            this.close = close;
+        }
+
+        void offer(CostUpdateEvent event) {
+            latest.set(event);
+            if (sending.compareAndSet(false, true)) {
+                sender.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            while (true) {
+                CostUpdateEvent event = latest.getAndSet(null);
+                if (event == null) {
+                    sending.set(false);
+                    // An event offered after the check above but before the flag was cleared is sent here
+                    if (latest.get() == null || !sending.compareAndSet(false, true)) {
+                        return;
+                    }
+                    continue;
+                }
+                sendStarted = clock.getAsLong();
+                boolean sent = send(event);
+                sendStarted = IDLE;
+                if (!sent) {
+                    return;
+                }
+            }
+        }
+
+        private boolean send(CostUpdateEvent event) {
+            try {
+                emitter.send(SseEmitter.event()
+                        .name(EVENT_NAME)
+                        .id(String.valueOf(event.getVersion()))
+                        .data(event));
+                return true;
+            } catch (IOException | IllegalStateException e) {
+                // Client disconnected or the emitter already completed
+                logger.debug("Dropping cost event subscriber: {}", e.getMessage());
+                emitter.completeWithError(e);
+                return false;
+            }
+        }
+    }
+}
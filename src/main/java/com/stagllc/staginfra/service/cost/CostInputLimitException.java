@@ -0,0 +1,8 @@
+package com.stagllc.staginfra.service.cost;
+
+// Thrown when a streamed cost payload exceeds the configured component count or byte size
+public class CostInputLimitException extends RuntimeException {
+    public CostInputLimitException(String message) {
+        super(message);
+    }
+}
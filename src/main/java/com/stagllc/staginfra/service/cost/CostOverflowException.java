@@ -0,0 +1,9 @@
+package com.stagllc.staginfra.service.cost;
+
+// Thrown when a cost or total doesn't fit Money's fixed-point range. Only absurd quantities in a request get there,
+// so it is an IllegalArgumentException and reported as a bad request.
+public class CostOverflowException extends IllegalArgumentException {
+    public CostOverflowException() {
+        super("Cost exceeds the supported range of $" + Long.MAX_VALUE / Money.MICROS_PER_DOLLAR);
+    }
+}
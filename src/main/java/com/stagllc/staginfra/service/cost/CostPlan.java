@@ -0,0 +1,277 @@
+package com.stagllc.staginfra.service.cost;
+
+import com.stagllc.staginfra.service.pricing.PriceCatalog;
+import com.stagllc.staginfra.service.pricing.PurchaseOption;
+import com.stagllc.staginfra.service.pricing.Rate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// A design compiled for repeated evaluation. Every calculator's formula is a sum of terms of the form
+// price * quantity * price (the second price is usually the constant 1, or hours per month), so a plan is a set of
+// parallel arrays: two price indexes and a quantity per term, and where each component's terms end.
+// Prices are resolved from a catalog into a double[] once per catalog or region; evaluating is then a branch-free
+// loop over primitive arrays that allocates nothing. Each component is still quantized to micro-cents on its own,
+// so a plan's total is identical to CostEstimator's for the same catalog.
+public final class CostPlan {
+    private final PriceRef[] refs;
+    private final int[] termEnd;
+    private final int[] priceA;
+    private final int[] priceB;
+    private final double[] quantities;
+
+    private CostPlan(PriceRef[] refs, int[] termEnd, int[] priceA, int[] priceB, double[] quantities) {
+        this.refs = refs;
+        this.termEnd = termEnd;
+        this.priceA = priceA;
+        this.priceB = priceB;
+        this.quantities = quantities;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public int componentCount() {
+        return termEnd.length;
+    }
+
+    public int termCount() {
+        return quantities.length;
+    }
+
+    public int priceCount() {
+        return refs.length;
+    }
+
+    // Terms of component c are [termStart(c), termEnd(c))
+    public int termStart(int component) {
+        return component == 0 ? 0 : termEnd[component - 1];
+    }
+
+    public int termEnd(int component) {
+        return termEnd[component];
+    }
+
+    // Price indexes and quantity of one term: the term is prices[firstPrice] * quantity * prices[secondPrice]
+    public int firstPrice(int term) {
+        return priceA[term];
+    }
+
+    public int secondPrice(int term) {
+        return priceB[term];
+    }
+
+    public double quantity(int term) {
+        return quantities[term];
+    }
+
+    // The compiled quantities; callers edit the copy to evaluate what-ifs
+    public double[] quantities() {
+        return quantities.clone();
+    }
+
+    // Prices with every component in its own region
+    public double[] prices(PriceCatalog catalog) {
+        double[] prices = new double[refs.length];
+        prices(catalog, prices);
+        return prices;
+    }
+
+    public void prices(PriceCatalog catalog, double[] out) {
+        for (int p = 0; p < refs.length; p++) {
+            out[p] = refs[p].price(catalog, catalog.regionIndex(refs[p].region()));
+        }
+    }
+
+    // Prices as if every component ran in the given region ordinal
+    public void prices(PriceCatalog catalog, int region, double[] out) {
+        for (int p = 0; p < refs.length; p++) {
+            out[p] = refs[p].price(catalog, region);
+        }
+    }
+
+    // One price vector per purchase option, indexed [option ordinal][price]; row 0 is the on-demand prices.
+    // Each price is the on-demand price times the option's coefficient for its table or rate.
+    public double[][] optionPrices(PriceCatalog catalog) {
+        PurchaseOption[] options = PurchaseOption.values();
+        double[][] prices = new double[options.length][];
+        prices[0] = prices(catalog);
+        for (int o = 1; o < options.length; o++) {
+            prices[o] = new double[refs.length];
+            for (int p = 0; p < refs.length; p++) {
+                String key = refs[p].coefficientKey();
+                prices[o][p] = key != null ? prices[0][p] * catalog.getCoefficient(options[o], key) : prices[0][p];
+            }
+        }
+        return prices;
+    }
+
+    // Totals in micro-cents under every option's prices, in a single pass over the terms. Each component is
+    // rounded per option, so every option total is what evaluate() would return for that option's prices.
+    // When componentCosts is given it receives each component's cost under the first option.
+    public long[] evaluateOptions(double[][] optionPrices, long[] componentCosts) {
+        int options = optionPrices.length;
+        long[] totals = new long[options];
+        double[] costs = new double[options];
+        int t = 0;
+        for (int c = 0; c < termEnd.length; c++) {
+            Arrays.fill(costs, 0);
+            for (int end = termEnd[c]; t < end; t++) {
+                int a = priceA[t];
+                int b = priceB[t];
+                double quantity = quantities[t];
+                for (int o = 0; o < options; o++) {
+                    costs[o] += optionPrices[o][a] * quantity * optionPrices[o][b];
+                }
+            }
+            for (int o = 0; o < options; o++) {
+                long micros = Money.fromDollars(costs[o]);
+                totals[o] = Money.add(totals[o], micros);
+                if (o == 0 && componentCosts != null) {
+                    componentCosts[c] = micros;
+                }
+            }
+        }
+        return totals;
+    }
+
+    // Total in micro-cents with the compiled quantities
+    public long evaluate(double[] prices) {
+        return evaluate(prices, quantities);
+    }
+
+    public long evaluate(double[] prices, double[] quantities) {
+        long total = 0;
+        int t = 0;
+        for (int c = 0; c < termEnd.length; c++) {
+            double cost = 0;
+            for (int end = termEnd[c]; t < end; t++) {
+                cost += prices[priceA[t]] * quantities[t] * prices[priceB[t]];
+            }
+            total = Money.add(total, Money.fromDollars(cost));
+        }
+        return total;
+    }
+
+    // Also writes each component's cost in micro-cents to componentCosts
+    public long evaluate(double[] prices, double[] quantities, long[] componentCosts) {
+        long total = 0;
+        int t = 0;
+        for (int c = 0; c < termEnd.length; c++) {
+            double cost = 0;
+            for (int end = termEnd[c]; t < end; t++) {
+                cost += prices[priceA[t]] * quantities[t] * prices[priceB[t]];
+            }
+            componentCosts[c] = Money.fromDollars(cost);
+            total = Money.add(total, componentCosts[c]);
+        }
+        return total;
+    }
+
+    private enum Source {
+        ONE, EC2, RDS, EBS, RATE
+    }
+
+    // Where a price comes from: a rate or a SKU of one of the catalog's tables, in a component's region
+    private record PriceRef(Source source, String sku, Rate rate, String region) {
+        double price(PriceCatalog catalog, int region) {
+            return switch (source) {
+                case ONE -> 1.0;
+                case EC2 -> catalog.getEc2().price(sku, region);
+                case RDS -> catalog.getRds().price(sku, region);
+                case EBS -> catalog.getEbs().price(sku, region);
+                case RATE -> catalog.getRate(rate, region);
+            };
+        }
+
+        // Key of the purchase option coefficient that applies to this price
+        String coefficientKey() {
+            return switch (source) {
+                case ONE -> null;
+                case EC2 -> "ec2";
+                case RDS -> "rds";
+                case EBS -> "ebs";
+                case RATE -> rate.getKey();
+            };
+        }
+    }
+
+    // Collects terms component by component. Calculators add their terms between beginComponent and endComponent;
+    // identical price references are shared, so a plan has one price per distinct SKU or rate and region.
+    public static final class Builder implements CostTerms {
+        private final Map<PriceRef, Integer> refIndex = new HashMap<>();
+        private final List<PriceRef> refs = new ArrayList<>();
+        private int[] termEnd = new int[16];
+        private int[] priceA = new int[16];
+        private int[] priceB = new int[16];
+        private double[] quantities = new double[16];
+        private int components;
+        private int terms;
+        private String region;
+
+        private Builder() {
+            // Index 0 is CostTerms.ONE
+            ref(new PriceRef(Source.ONE, null, null, null));
+        }
+
+        void beginComponent(String region) {
+            this.region = region;
+        }
+
+        void endComponent() {
+            if (components == termEnd.length) {
+                termEnd = Arrays.copyOf(termEnd, components * 2);
+            }
+            termEnd[components++] = terms;
+        }
+
+        @Override
+        public int ec2(String sku) {
+            return ref(new PriceRef(Source.EC2, sku, null, region));
+        }
+
+        @Override
+        public int rds(String sku) {
+            return ref(new PriceRef(Source.RDS, sku, null, region));
+        }
+
+        @Override
+        public int ebs(String sku) {
+            return ref(new PriceRef(Source.EBS, sku, null, region));
+        }
+
+        @Override
+        public int rate(Rate rate) {
+            return ref(new PriceRef(Source.RATE, null, rate, region));
+        }
+
+        @Override
+        public void add(int price, double quantity, int scale) {
+            if (terms == quantities.length) {
+                priceA = Arrays.copyOf(priceA, terms * 2);
+                priceB = Arrays.copyOf(priceB, terms * 2);
+                quantities = Arrays.copyOf(quantities, terms * 2);
+            }
+            priceA[terms] = price;
+            priceB[terms] = scale;
+            quantities[terms] = quantity;
+            terms++;
+        }
+
+        public CostPlan build() {
+            return new CostPlan(refs.toArray(new PriceRef[0]), Arrays.copyOf(termEnd, components),
+                    Arrays.copyOf(priceA, terms), Arrays.copyOf(priceB, terms), Arrays.copyOf(quantities, terms));
+        }
+
+        private int ref(PriceRef ref) {
+            return refIndex.computeIfAbsent(ref, k -> {
+                refs.add(k);
+                return refs.size() - 1;
+            });
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.stagllc.staginfra.service.cost;
+
+import com.stagllc.staginfra.service.pricing.Rate;
+
+// What a calculator writes its formula against: prices are looked up by reference, and the cost is a sum of
+// price * quantity * price terms. CostPlan.Builder records the terms for later evaluation; a calculator's
+// monthlyCost evaluates them on the spot, so both always use the same formula.
+public interface CostTerms {
+    // Price index of the constant 1
+    int ONE = 0;
+
+    int ec2(String sku);
+
+    int rds(String sku);
+
+    int ebs(String sku);
+
+    int rate(Rate rate);
+
+    // price * quantity * scale, multiplied in that order
+    void add(int price, double quantity, int scale);
+
+    // price * quantity
+    default void add(int price, double quantity) {
+        add(price, quantity, ONE);
+    }
+
+    // A flat monthly amount in dollars, the same in every region
+    default void fixed(double dollars) {
+        add(ONE, dollars, ONE);
+    }
+}
@@ -0,0 +1,120 @@
+package com.stagllc.staginfra.service.cost;
+
+import com.stagllc.staginfra.dto.ComponentChange;
+import com.stagllc.staginfra.dto.DiffResponse;
+import com.stagllc.staginfra.dto.component.Component;
+import com.stagllc.staginfra.service.pricing.PriceCatalog;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Compares two versions of a design and prices the difference.
+// Components with an ID are matched by ID: same attributes is unchanged, different attributes is changed.
+// Components without an ID are matched by their type and attributes, so an identical unnamed component on both
+// sides is unchanged and any other unnamed component is removed or added. Both sides are indexed in hash maps, so
+// a diff is linear in the size of the two designs, and every component is priced exactly once.
+@Service
+public class DesignDiffService {
+
+    private final CostEstimator costEstimator;
+
+    public DesignDiffService(CostEstimator costEstimator) {
+        this.costEstimator = costEstimator;
+    }
+
+    public DiffResponse diff(List<Component> before, List<Component> after) {
+        PriceCatalog catalog = costEstimator.getCatalog();
+        long[] beforeCosts = price(before, catalog);
+        long[] afterCosts = price(after, catalog);
+
+        // Index the old version: by ID, and unnamed components by their attributes (records compare by value)
+        Map<String, Integer> beforeById = new HashMap<>(before.size() * 2);
+        Map<Component, ArrayDeque<Integer>> beforeByAttributes = new HashMap<>();
+        for (int i = 0; i < before.size(); i++) {
+            Component component = before.get(i);
+            if (component.id() == null) {
+                beforeByAttributes.computeIfAbsent(component, k -> new ArrayDeque<>()).add(i);
+            } else if (beforeById.putIfAbsent(component.id(), i) != null) {
+                throw new IllegalArgumentException("Duplicate component id in before: " + component.id());
+            }
+        }
+
+        List<ComponentChange> added = new ArrayList<>();
+        List<ComponentChange> changed = new ArrayList<>();
+        boolean[] matched = new boolean[before.size()];
+        Set<String> afterIds = new HashSet<>(after.size() * 2);
+        int unchanged = 0;
+        for (int j = 0; j < after.size(); j++) {
+            Component component = after.get(j);
+            Integer i;
+            if (component.id() == null) {
+                ArrayDeque<Integer> candidates = beforeByAttributes.get(component);
+                i = candidates != null ? candidates.poll() : null;
+            } else {
+                if (!afterIds.add(component.id())) {
+                    throw new IllegalArgumentException("Duplicate component id in after: " + component.id());
+                }
+                i = beforeById.get(component.id());
+            }
+
+            if (i == null) {
+                added.add(change(null, component, 0, afterCosts[j]));
+                continue;
+            }
+            matched[i] = true;
+            Component previous = before.get(i);
+            if (previous.equals(component)) {
+                unchanged++;
+            } else {
+                changed.add(change(previous, component, beforeCosts[i], afterCosts[j]));
+            }
+        }
+
+        List<ComponentChange> removed = new ArrayList<>();
+        for (int i = 0; i < before.size(); i++) {
+            if (!matched[i]) {
+                removed.add(change(before.get(i), null, beforeCosts[i], 0));
+            }
+        }
+
+        long beforeTotal = sum(beforeCosts);
+        long afterTotal = sum(afterCosts);
+        DiffResponse response = new DiffResponse();
+        response.setBeforeTotal(Money.toDecimal(beforeTotal));
+        response.setAfterTotal(Money.toDecimal(afterTotal));
+        response.setDelta(Money.toDecimal(Money.subtract(afterTotal, beforeTotal)));
+        response.setAdded(added);
+        response.setRemoved(removed);
+        response.setChanged(changed);
+        response.setUnchanged(unchanged);
+        return response;
+    }
+
+    private long[] price(List<Component> components, PriceCatalog catalog) {
+        long[] costs = new long[components.size()];
+        for (int i = 0; i < costs.length; i++) {
+            costs[i] = costEstimator.componentMicros(components.get(i), catalog);
+        }
+        return costs;
+    }
+
+    private static long sum(long[] costs) {
+        long total = 0;
+        for (long cost : costs) {
+            total = Money.add(total, cost);
+        }
+        return total;
+    }
+
+    private static ComponentChange change(Component before, Component after, long beforeCost, long afterCost) {
+        Component subject = after != null ? after : before;
+        return new ComponentChange(subject.id(), subject.type(), before, after,
+                Money.toDecimal(Money.subtract(afterCost, beforeCost)));
+    }
+}
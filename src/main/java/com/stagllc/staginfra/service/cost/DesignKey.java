@@ -0,0 +1,23 @@
+package com.stagllc.staginfra.service.cost;
+
+import java.util.Objects;
+
+// Identifies one working design: the owning user (or anonymous client) plus the client-chosen design ID
+public record DesignKey(String owner, String designId) {
+    // User names are email addresses, so they never start with this
+    private static final String ANONYMOUS_OWNER_PREFIX = "anonymous:";
+
+    public DesignKey {
+        Objects.requireNonNull(owner, "owner");
+        Objects.requireNonNull(designId, "designId");
+    }
+
+    // A design of a client that isn't signed in, owned by the ID in its cookie
+    public static DesignKey anonymous(String clientId, String designId) {
+        return new DesignKey(ANONYMOUS_OWNER_PREFIX + clientId, designId);
+    }
+
+    public boolean isAnonymous() {
+        return owner.startsWith(ANONYMOUS_OWNER_PREFIX);
+    }
+}
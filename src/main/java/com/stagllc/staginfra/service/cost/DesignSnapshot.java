@@ -0,0 +1,35 @@
+package com.stagllc.staginfra.service.cost;
+
+import java.math.BigDecimal;
+
+// Immutable summary of a design at one version, published after every write so reads never take a lock
+public final class DesignSnapshot {
+    static final DesignSnapshot EMPTY = new DesignSnapshot(0, 0, 0);
+
+    private final long totalMicros;
+    private final int componentCount;
+    private final long version;
+
+    DesignSnapshot(long totalMicros, int componentCount, long version) {
+        this.totalMicros = totalMicros;
+        this.componentCount = componentCount;
+        this.version = version;
+    }
+
+    // Monthly total rounded to cents
+    public BigDecimal getTotal() {
+        return Money.toDecimal(totalMicros);
+    }
+
+    public long getTotalMicros() {
+        return totalMicros;
+    }
+
+    public int getComponentCount() {
+        return componentCount;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+}
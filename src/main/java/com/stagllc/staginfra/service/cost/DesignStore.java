@@ -0,0 +1,407 @@
+package com.stagllc.staginfra.service.cost;
+
+import com.stagllc.staginfra.dto.component.Component;
+import com.stagllc.staginfra.service.pricing.PriceCatalog;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+import java.util.function.UnaryOperator;
+
+// In-memory working state for designs, keyed by user and design ID.
+// Each design keeps its components with their individual monthly cost plus a running total, so single-component
+// edits cost O(1). Writers to one design are serialized; readers only see published snapshots and never lock.
+// Components are addressed by their id; ones posted without an id are priced and listed but can't be edited alone.
+// Memory is bounded: designs untouched for idleMillis are dropped, and once maxDesigns are held a new design first
+// pushes out the least recently used one. Anonymous designs have their own, lower cap and push out only each other:
+// a client without a cookie (a script, say) gets a new anonymous ID on every call, and its designs must not crowd
+// out anyone else's. A dropped design is marked under its lock, so a writer that raced with the
+// drop starts over on a fresh design instead of reporting a change that no reader can see.
+@Service
+public class DesignStore {
+    private static final int DEFAULT_MAX_DESIGNS = 10_000;
+    private static final int DEFAULT_MAX_ANONYMOUS_DESIGNS = 1_000;
+    private static final long DEFAULT_IDLE_MILLIS = TimeUnit.HOURS.toMillis(24);
+    private static final long SWEEP_INTERVAL_MILLIS = 60_000;
+
+    private final Map<DesignKey, DesignState> designs = new ConcurrentHashMap<>();
+    private final List<Consumer<DesignKey>> listeners = new CopyOnWriteArrayList<>();
+    private final CostEstimator costEstimator;
+    private final AtomicInteger anonymousDesigns = new AtomicInteger();
+    private final int maxDesigns;
+    private final int maxAnonymousDesigns;
+    private final long idleMillis;
+    private final LongSupplier clock;
+    private volatile long lastSweep;
+
+    public DesignStore(CostEstimator costEstimator) {
+        this(costEstimator, DEFAULT_MAX_DESIGNS, DEFAULT_MAX_ANONYMOUS_DESIGNS, DEFAULT_IDLE_MILLIS);
+    }
+
+    @Autowired
+    public DesignStore(
+            CostEstimator costEstimator,
+            @Value("${app.cost.designs.max:10000}") int maxDesigns,
+            @Value("${app.cost.designs.max-anonymous:1000}") int maxAnonymousDesigns,
+            @Value("${app.cost.designs.idle-timeout-ms:86400000}") long idleMillis
+    ) {
+        this(costEstimator, maxDesigns, maxAnonymousDesigns, idleMillis,
+                () -> TimeUnit.NANOSECONDS.toMillis(System.nanoTime()));
+    }
+
+    DesignStore(CostEstimator costEstimator, int maxDesigns, int maxAnonymousDesigns, long idleMillis,
+                LongSupplier clock) {
+        if (maxDesigns <= 0 || maxAnonymousDesigns <= 0 || idleMillis <= 0) {
+            throw new IllegalArgumentException("Design limits and idle timeout must be positive");
+        }
+        this.costEstimator = costEstimator;
+        this.maxDesigns = maxDesigns;
+        this.maxAnonymousDesigns = maxAnonymousDesigns;
+        this.idleMillis = idleMillis;
+        this.clock = clock;
+        this.lastSweep = clock.getAsLong();
+    }
+
+    // Called with the design's key after every change, on the thread that made it and outside the design's lock
+    public void addListener(Consumer<DesignKey> listener) {
+        listeners.add(listener);
+    }
+
+    public DesignSnapshot get(DesignKey key) {
+        DesignState state = designs.get(key);
+        if (state == null) {
+            return DesignSnapshot.EMPTY;
+        }
+        state.lastUsed = clock.getAsLong();
+        PriceCatalog catalog = costEstimator.getCatalog();
+        if (state.pricedWith != catalog) {
+            // Prices changed since the contributions were computed
+            synchronized (state) {
+                state.repriceIfStale(catalog, costEstimator);
+            }
+        }
+        return state.snapshot;
+    }
+
+    // Components in the order they were added
+    public List<Component> getComponents(DesignKey key) {
+        DesignState state = designs.get(key);
+        if (state == null) {
+            return List.of();
+        }
+        List<Entry> entries = state.ordered();
+        List<Component> components = new ArrayList<>(entries.size());
+        for (Entry entry : entries) {
+            components.add(entry.component());
+        }
+        return components;
+    }
+
+    // The design's components in the order they were added with their cost in micro-cents, consistent with the
+    // snapshot returned alongside; copied under the design's lock, so it costs writers one pass over the design
+    public PricedDesign getPriced(DesignKey key) {
+        DesignState state = designs.get(key);
+        if (state == null) {
+            return new PricedDesign(DesignSnapshot.EMPTY, List.of(), new long[0]);
+        }
+        synchronized (state) {
+            state.repriceIfStale(costEstimator.getCatalog(), costEstimator);
+            List<Entry> entries = state.ordered();
+            List<Component> components = new ArrayList<>(entries.size());
+            long[] costs = new long[entries.size()];
+            for (int i = 0; i < costs.length; i++) {
+                components.add(entries.get(i).component());
+                costs[i] = entries.get(i).cost();
+            }
+            return new PricedDesign(state.snapshot, components, costs);
+        }
+    }
+
+    public DesignSnapshot replace(DesignKey key, List<Component> components) {
+        // Price the new component set before taking the design's lock
+        PriceCatalog catalog = costEstimator.getCatalog();
+        Map<String, Entry> entries = new ConcurrentHashMap<>(Math.max(16, components.size() * 2));
+        List<Entry> unaddressed = new ArrayList<>();
+        long total = 0;
+        long sequence = 0;
+        for (Component component : components) {
+            long cost = costEstimator.componentMicros(component, catalog);
+            Entry entry = new Entry(component, cost, sequence++);
+            if (component.id() == null) {
+                unaddressed.add(entry);
+            } else if (entries.putIfAbsent(component.id(), entry) != null) {
+                throw new IllegalArgumentException("Duplicate component id: " + component.id());
+            }
+            total = Money.add(total, cost);
+        }
+
+        DesignSnapshot snapshot = null;
+        while (snapshot == null) {
+            DesignState state = stateFor(key);
+            synchronized (state) {
+                if (!state.removed) {
+                    state.entries = entries;
+                    state.unaddressed = List.copyOf(unaddressed);
+                    state.total = total;
+                    state.nextSequence = sequence;
+                    state.pricedWith = catalog;
+                    snapshot = state.publish();
+                }
+            }
+        }
+        changed(key);
+        return snapshot;
+    }
+
+    public DesignSnapshot addComponent(DesignKey key, Component component) {
+        if (component.id() == null || component.id().isBlank()) {
+            throw new IllegalArgumentException("Component id is required");
+        }
+        DesignSnapshot snapshot = null;
+        while (snapshot == null) {
+            DesignState state = stateFor(key);
+            synchronized (state) {
+                if (state.removed) {
+                    continue;
+                }
+                state.repriceIfStale(costEstimator.getCatalog(), costEstimator);
+                if (state.entries.containsKey(component.id())) {
+                    throw new IllegalStateException("Component already exists: " + component.id());
+                }
+                long cost = costEstimator.componentMicros(component, state.pricedWith);
+                long total = Money.add(state.total, cost);
+                state.entries.put(component.id(), new Entry(component, cost, state.nextSequence++));
+                state.total = total;
+                snapshot = state.publish();
+            }
+        }
+        changed(key);
+        return snapshot;
+    }
+
+    // Returns empty when the design or component does not exist
+    public Optional<DesignSnapshot> updateComponent(DesignKey key, String componentId, UnaryOperator<Component> update) {
+        DesignState state = designs.get(key);
+        if (state == null) {
+            return Optional.empty();
+        }
+        state.lastUsed = clock.getAsLong();
+        DesignSnapshot snapshot;
+        synchronized (state) {
+            if (state.removed) {
+                // Dropped since we looked it up
+                return Optional.empty();
+            }
+            state.repriceIfStale(costEstimator.getCatalog(), costEstimator);
+            Entry existing = state.entries.get(componentId);
+            if (existing == null) {
+                return Optional.empty();
+            }
+            Component updated = update.apply(existing.component());
+            long cost = costEstimator.componentMicros(updated, state.pricedWith);
+            long total = Money.add(Money.subtract(state.total, existing.cost()), cost);
+            state.entries.put(componentId, new Entry(updated, cost, existing.sequence()));
+            state.total = total;
+            snapshot = state.publish();
+        }
+        changed(key);
+        return Optional.of(snapshot);
+    }
+
+    // Returns empty when the design or component does not exist
+    public Optional<DesignSnapshot> removeComponent(DesignKey key, String componentId) {
+        DesignState state = designs.get(key);
+        if (state == null) {
+            return Optional.empty();
+        }
+        state.lastUsed = clock.getAsLong();
+        DesignSnapshot snapshot;
+        synchronized (state) {
+            if (state.removed) {
+                // Dropped since we looked it up
+                return Optional.empty();
+            }
+            state.repriceIfStale(costEstimator.getCatalog(), costEstimator);
+            Entry removed = state.entries.get(componentId);
+            if (removed == null) {
+                return Optional.empty();
+            }
+            long total = Money.subtract(state.total, removed.cost());
+            state.entries.remove(componentId);
+            state.total = total;
+            snapshot = state.publish();
+        }
+        changed(key);
+        return Optional.of(snapshot);
+    }
+
+    public boolean remove(DesignKey key) {
+        for (DesignState state = designs.get(key); state != null; state = designs.get(key)) {
+            if (drop(key, state)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public int size() {
+        return designs.size();
+    }
+
+    // The design's state, creating it when new; a new design may first evict idle or least recently used ones
+    private DesignState stateFor(DesignKey key) {
+        long now = clock.getAsLong();
+        DesignState state = designs.get(key);
+        if (state == null) {
+            if (now - lastSweep >= SWEEP_INTERVAL_MILLIS || designs.size() >= maxDesigns
+                    || key.isAnonymous() && anonymousDesigns.get() >= maxAnonymousDesigns) {
+                evict(now);
+            }
+            state = designs.computeIfAbsent(key, k -> {
+                if (k.isAnonymous()) {
+                    anonymousDesigns.incrementAndGet();
+                }
+                return new DesignState();
+            });
+        }
+        state.lastUsed = now;
+        return state;
+    }
+
+    // Drops idle designs, then the least recently used anonymous ones while they are at their cap, then the least
+    // recently used of all while the store is full. Concurrent creations can overshoot the caps by a few; the next
+    // eviction catches up.
+    synchronized int evict(long now) {
+        lastSweep = now;
+        int evicted = 0;
+        for (Map.Entry<DesignKey, DesignState> e : designs.entrySet()) {
+            if (now - e.getValue().lastUsed >= idleMillis && drop(e.getKey(), e.getValue())) {
+                evicted++;
+            }
+        }
+        while (anonymousDesigns.get() >= maxAnonymousDesigns) {
+            Map.Entry<DesignKey, DesignState> oldest = leastRecentlyUsed(true);
+            if (oldest == null) {
+                break;
+            }
+            if (drop(oldest.getKey(), oldest.getValue())) {
+                evicted++;
+            }
+        }
+        while (designs.size() >= maxDesigns) {
+            Map.Entry<DesignKey, DesignState> oldest = leastRecentlyUsed(false);
+            if (oldest == null) {
+                break;
+            }
+            if (drop(oldest.getKey(), oldest.getValue())) {
+                evicted++;
+            }
+        }
+        return evicted;
+    }
+
+    private Map.Entry<DesignKey, DesignState> leastRecentlyUsed(boolean anonymousOnly) {
+        Map.Entry<DesignKey, DesignState> oldest = null;
+        for (Map.Entry<DesignKey, DesignState> e : designs.entrySet()) {
+            if ((!anonymousOnly || e.getKey().isAnonymous())
+                    && (oldest == null || e.getValue().lastUsed < oldest.getValue().lastUsed)) {
+                oldest = e;
+            }
+        }
+        return oldest;
+    }
+
+    // Removes the design only if state is still the one stored under key. The mark is set under the design's lock,
+    // so a writer holding the lock finishes first and a later one sees the mark.
+    private boolean drop(DesignKey key, DesignState state) {
+        synchronized (state) {
+            if (state.removed || !designs.remove(key, state)) {
+                return false;
+            }
+            state.removed = true;
+        }
+        if (key.isAnonymous()) {
+            anonymousDesigns.decrementAndGet();
+        }
+        changed(key);
+        return true;
+    }
+
+    private void changed(DesignKey key) {
+        for (Consumer<DesignKey> listener : listeners) {
+            listener.accept(key);
+        }
+    }
+
+    public record PricedDesign(DesignSnapshot snapshot, List<Component> components, long[] costs) {
+    }
+
+    // Cost in micro-cents, so the running total stays exact across any number of edits
+    private record Entry(Component component, long cost, long sequence) {
+    }
+
+    private static final class DesignState {
+        // Swapped wholesale by replace(); mutated in place by single-component edits. Guarded by this for writes.
+        volatile Map<String, Entry> entries = new ConcurrentHashMap<>();
+        // Components without an id, in no map so no key can reach them; only replace() and repricing change them
+        volatile List<Entry> unaddressed = List.of();
+        volatile PriceCatalog pricedWith;
+        volatile DesignSnapshot snapshot = DesignSnapshot.EMPTY;
+        volatile long lastUsed;
+        long total;
+        long nextSequence;
+        long version;
+        // Set once the state has left the store; writers must not publish to it
+        boolean removed;
+
+        DesignSnapshot publish() {
+            snapshot = new DesignSnapshot(total, entries.size() + unaddressed.size(), ++version);
+            return snapshot;
+        }
+
+        // Every component in the order it was added
+        List<Entry> ordered() {
+            List<Entry> ordered = new ArrayList<>(entries.values());
+            ordered.addAll(unaddressed);
+            ordered.sort(Comparator.comparingLong(Entry::sequence));
+            return ordered;
+        }
+
+        void repriceIfStale(PriceCatalog catalog, CostEstimator costEstimator) {
+            if (pricedWith == catalog) {
+                return;
+            }
+            long repriced = 0;
+            for (Map.Entry<String, Entry> e : entries.entrySet()) {
+                Entry entry = e.getValue();
+                long cost = costEstimator.componentMicros(entry.component(), catalog);
+                e.setValue(new Entry(entry.component(), cost, entry.sequence()));
+                repriced = Money.add(repriced, cost);
+            }
+            List<Entry> unaddressedRepriced = new ArrayList<>(unaddressed.size());
+            for (Entry entry : unaddressed) {
+                long cost = costEstimator.componentMicros(entry.component(), catalog);
+                unaddressedRepriced.add(new Entry(entry.component(), cost, entry.sequence()));
+                repriced = Money.add(repriced, cost);
+            }
+            unaddressed = unaddressedRepriced;
+            boolean firstPricing = pricedWith == null;
+            pricedWith = catalog;
+            total = repriced;
+            if (!firstPricing) {
+                publish();
+            }
+        }
+    }
+}
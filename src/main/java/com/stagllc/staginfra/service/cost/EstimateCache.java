@@ -0,0 +1,121 @@
+package com.stagllc.staginfra.service.cost;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.stagllc.staginfra.dto.CostEstimateResponse;
+import com.stagllc.staginfra.dto.component.Component;
+import com.stagllc.staginfra.service.pricing.PriceCatalog;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Content-addressed cache in front of CostEstimator for stateless estimates. Designs are keyed by their normalized
+// components (deserializer defaults applied, unknown fields dropped) plus the catalog they were priced with, so
+// templates and reloads that post the same design hit regardless of JSON formatting. Keys hold the components
+// themselves and hits are confirmed with equals, so two different designs can never share an entry.
+// Totals are keyed by the component multiset; breakdowns also depend on component order.
+// Since keys hold components, the cache is bounded by the components it holds rather than by entries, and a design
+// larger than the whole budget is priced without being cached.
+@Service
+public class EstimateCache {
+    private static final Logger logger = LoggerFactory.getLogger(EstimateCache.class);
+
+    private final CostEstimator costEstimator;
+    private final Cache<EstimateKey, CostEstimateResponse> cache;
+    private final long maxComponents;
+
+    // Catalog the cached entries were priced with; entries of older catalogs are dropped when it changes
+    private volatile PriceCatalog cachedFor;
+
+    public EstimateCache(
+            CostEstimator costEstimator,
+            @Value("${app.cost.cache.max-components:1000000}") long maxComponents
+    ) {
+        this.costEstimator = costEstimator;
+        this.maxComponents = maxComponents;
+        // Eviction bookkeeping runs on the calling thread rather than the common pool
+        this.cache = maxComponents > 0
+                ? Caffeine.newBuilder()
+                        .maximumWeight(maxComponents)
+                        .weigher((EstimateKey key, CostEstimateResponse value) -> key.weight())
+                        .executor(Runnable::run)
+                        .recordStats()
+                        .build()
+                : null;
+    }
+
+    public CostEstimateResponse estimate(List<Component> components, boolean breakdown) {
+        return estimate(components, breakdown, false);
+    }
+
+    public CostEstimateResponse estimate(List<Component> components, boolean breakdown, boolean purchaseOptions) {
+        PriceCatalog catalog = costEstimator.getCatalog();
+        if (cache == null || components.size() >= maxComponents) {
+            return compute(components, breakdown, purchaseOptions, catalog);
+        }
+        if (catalog != cachedFor) {
+            synchronized (this) {
+                if (catalog != cachedFor) {
+                    // Only frees memory: keys hold their catalog, so a result a slow request inserts for the old
+                    // catalog after this can never be served for the new one, even if the version string is the same
+                    cache.invalidateAll();
+                    cachedFor = catalog;
+                    logger.info("Estimate cache cleared for pricing catalog version {}", catalog.getVersion());
+                }
+            }
+        }
+        return cache.get(keyFor(components, breakdown, purchaseOptions, catalog),
+                key -> compute(components, breakdown, purchaseOptions, catalog));
+    }
+
+    public boolean isEnabled() {
+        return cache != null;
+    }
+
+    public long size() {
+        return cache != null ? cache.estimatedSize() : 0;
+    }
+
+    public CacheStats stats() {
+        return cache != null ? cache.stats() : CacheStats.empty();
+    }
+
+    EstimateKey keyFor(List<Component> components, boolean breakdown, boolean purchaseOptions, PriceCatalog catalog) {
+        if (breakdown) {
+            return new EstimateKey(catalog, true, purchaseOptions, List.copyOf(components), null);
+        }
+        Map<Component, Integer> counts = new HashMap<>();
+        for (Component component : components) {
+            counts.merge(component, 1, Integer::sum);
+        }
+        return new EstimateKey(catalog, false, purchaseOptions, null, counts);
+    }
+
+    private CostEstimateResponse compute(List<Component> components, boolean breakdown, boolean purchaseOptions,
+                                         PriceCatalog catalog) {
+        if (purchaseOptions) {
+            return costEstimator.estimateWithPurchaseOptions(components, breakdown, catalog);
+        }
+        if (breakdown) {
+            return costEstimator.estimateWithBreakdown(components, catalog);
+        }
+        return new CostEstimateResponse(Money.toDecimal(costEstimator.estimateMicros(components, catalog)));
+    }
+
+    // Breakdowns are keyed by the ordered components, totals by how often each component occurs. The catalog is
+    // compared by identity.
+    record EstimateKey(PriceCatalog catalog, boolean breakdown, boolean purchaseOptions, List<Component> ordered,
+                       Map<Component, Integer> counts) {
+
+        // Components held by the key (and, for breakdowns, line items in the response), plus one for the entry
+        int weight() {
+            return 1 + (ordered != null ? ordered.size() : counts.size());
+        }
+    }
+}
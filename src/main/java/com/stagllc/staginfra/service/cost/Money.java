@@ -0,0 +1,72 @@
+package com.stagllc.staginfra.service.cost;
+
+import java.math.BigDecimal;
+
+// Fixed-point money for the cost path. Amounts are longs in micro-cents (1 dollar = 100,000,000), which holds
+// totals up to about $92 billion. Each component's cost is quantized once when it leaves its calculator; from
+// there on sums are exact integer additions, so totals are identical regardless of order, design size or batch
+// layout. Rounding to cents happens only when an amount is reported. Amounts outside the range are rejected with
+// CostOverflowException instead of saturating or wrapping, so every sum goes through add.
+public final class Money {
+    public static final long MICROS_PER_CENT = 1_000_000L;
+    public static final long MICROS_PER_DOLLAR = 100 * MICROS_PER_CENT;
+
+    private static final long HALF_CENT = MICROS_PER_CENT / 2;
+    // 2^63: every double of smaller magnitude rounds to a long
+    private static final double LIMIT = 0x1p63;
+
+    private Money() {
+    }
+
+    // Quantizes a calculator result to the nearest micro-cent
+    public static long fromDollars(double dollars) {
+        return fromMicros(dollars * MICROS_PER_DOLLAR);
+    }
+
+    // Quantizes an unrounded amount in micro-cents; NaN and infinities are out of range too
+    public static long fromMicros(double micros) {
+        if (!(Math.abs(micros) < LIMIT)) {
+            throw new CostOverflowException();
+        }
+        return Math.round(micros);
+    }
+
+    public static long add(long a, long b) {
+        try {
+            return Math.addExact(a, b);
+        } catch (ArithmeticException e) {
+            throw new CostOverflowException();
+        }
+    }
+
+    public static long subtract(long a, long b) {
+        try {
+            return Math.subtractExact(a, b);
+        } catch (ArithmeticException e) {
+            throw new CostOverflowException();
+        }
+    }
+
+    // An amount times a count, e.g. one component's cost for each identical copy
+    public static long multiply(long micros, long count) {
+        try {
+            return Math.multiplyExact(micros, count);
+        } catch (ArithmeticException e) {
+            throw new CostOverflowException();
+        }
+    }
+
+    public static double toDollars(long micros) {
+        return micros / (double) MICROS_PER_DOLLAR;
+    }
+
+    // Whole cents, rounding half away from zero so negative deltas round like their positive counterparts
+    public static long toCents(long micros) {
+        return micros >= 0 ? (micros + HALF_CENT) / MICROS_PER_CENT : -((-micros + HALF_CENT) / MICROS_PER_CENT);
+    }
+
+    // Exact two-decimal amount for responses; serializes as e.g. 18.15 or 17.00
+    public static BigDecimal toDecimal(long micros) {
+        return BigDecimal.valueOf(toCents(micros), 2);
+    }
+}
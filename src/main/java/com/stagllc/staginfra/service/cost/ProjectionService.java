@@ -0,0 +1,163 @@
+package com.stagllc.staginfra.service.cost;
+
+import com.stagllc.staginfra.dto.GrowthCurve;
+import com.stagllc.staginfra.dto.ProjectionResponse;
+import com.stagllc.staginfra.dto.component.Component;
+import com.stagllc.staginfra.service.pricing.PriceCatalog;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+// Projects a design's monthly cost over a horizon of months under per-component growth curves.
+// Every component is priced exactly once. Components sharing a curve are summed into one base cost, and each
+// month of the series is then the sum over curves of base * growth factor, so the work per month is one
+// multiply-add per distinct curve no matter how large the design is.
+@Service
+public class ProjectionService {
+
+    private final CostEstimator costEstimator;
+    private final int maxMonths;
+
+    public ProjectionService(
+            CostEstimator costEstimator,
+            @Value("${app.cost.projection.max-months:60}") int maxMonths
+    ) {
+        this.costEstimator = costEstimator;
+        this.maxMonths = maxMonths;
+    }
+
+    public ProjectionResponse project(List<Component> components, int months, List<GrowthCurve> growth) {
+        if (months < 1 || months > maxMonths) {
+            throw new IllegalArgumentException("Projection months must be between 1 and " + maxMonths);
+        }
+        List<GrowthCurve> curves = growth != null ? growth : List.of();
+
+        // Curves with the same shape share a slot; slot 0 is the flat curve for components no curve selects
+        Map<Curve, Integer> slots = new LinkedHashMap<>();
+        slots.put(Curve.FLAT, 0);
+        int[] slotOf = new int[curves.size()];
+        Map<String, Integer> byId = new HashMap<>();
+        Map<String, Integer> byType = new HashMap<>();
+        for (int c = 0; c < curves.size(); c++) {
+            GrowthCurve curve = curves.get(c);
+            slotOf[c] = slots.computeIfAbsent(Curve.of(curve, c), k -> slots.size());
+            boolean duplicate = curve.getComponentId() != null
+                    ? byId.putIfAbsent(curve.getComponentId(), c) != null
+                    : byType.putIfAbsent(curve.getComponentType(), c) != null;
+            if (duplicate) {
+                throw new IllegalArgumentException("Growth curve " + c + " selects the same components as an earlier curve");
+            }
+        }
+
+        PriceCatalog catalog = costEstimator.getCatalog();
+        long[] base = new long[slots.size()];
+        boolean[] matched = new boolean[curves.size()];
+        for (Component component : components) {
+            Integer c = component.id() != null ? byId.get(component.id()) : null;
+            if (c == null) {
+                c = byType.get(component.type());
+            }
+            long cost = costEstimator.componentMicros(component, catalog);
+            if (c == null) {
+                base[0] = Money.add(base[0], cost);
+            } else {
+                base[slotOf[c]] = Money.add(base[slotOf[c]], cost);
+                matched[c] = true;
+            }
+        }
+        for (int c = 0; c < curves.size(); c++) {
+            // A type curve may legitimately match nothing; an unmatched ID is almost certainly a mistake
+            if (!matched[c] && curves.get(c).getComponentId() != null) {
+                throw new IllegalArgumentException("Growth curve " + c + " matches no component");
+            }
+        }
+
+        long[] series = new long[months];
+        double[] factors = new double[months];
+        for (Map.Entry<Curve, Integer> entry : slots.entrySet()) {
+            long curveBase = base[entry.getValue()];
+            if (curveBase == 0) {
+                continue;
+            }
+            entry.getKey().fill(factors);
+            for (int m = 0; m < months; m++) {
+                series[m] = Money.add(series[m], Money.fromMicros(curveBase * factors[m]));
+            }
+        }
+
+        // The horizon total adds the reported cents, so it always matches the sum of the series
+        BigDecimal[] monthlyTotals = new BigDecimal[months];
+        long totalCents = 0;
+        for (int m = 0; m < months; m++) {
+            long cents = Money.toCents(series[m]);
+            monthlyTotals[m] = BigDecimal.valueOf(cents, 2);
+            totalCents += cents;
+        }
+        return new ProjectionResponse(monthlyTotals, BigDecimal.valueOf(totalCents, 2));
+    }
+
+    private enum Model {
+        LINEAR, COMPOUND, STEP
+    }
+
+    // Growth parameters only, so components selected by different curves with the same shape share a slot
+    private record Curve(Model model, double rate, int every) {
+        static final Curve FLAT = new Curve(Model.LINEAR, 0, 1);
+
+        static Curve of(GrowthCurve curve, int index) {
+            boolean byId = curve.getComponentId() != null;
+            boolean byType = curve.getComponentType() != null;
+            if (byId == byType) {
+                throw new IllegalArgumentException("Growth curve " + index + " needs exactly one of componentId or componentType");
+            }
+            if (curve.getModel() == null) {
+                throw new IllegalArgumentException("Growth curve " + index + " needs a model");
+            }
+            Model model;
+            try {
+                model = Model.valueOf(curve.getModel().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Growth curve " + index + " has unknown model: " + curve.getModel());
+            }
+            double rate = curve.getRate();
+            if (!Double.isFinite(rate) || (model == Model.COMPOUND && rate <= -1)) {
+                throw new IllegalArgumentException("Growth curve " + index + " has an invalid rate: " + rate);
+            }
+            int every = 1;
+            if (model == Model.STEP) {
+                if (curve.getEvery() == null || curve.getEvery() < 1) {
+                    throw new IllegalArgumentException("Growth curve " + index + " needs every >= 1 for the step model");
+                }
+                every = curve.getEvery();
+            }
+            return new Curve(model, rate, every);
+        }
+
+        // Growth factor for each month index, never below zero
+        void fill(double[] factors) {
+            switch (model) {
+                case LINEAR -> {
+                    for (int m = 0; m < factors.length; m++) {
+                        factors[m] = Math.max(0, 1 + rate * m);
+                    }
+                }
+                case COMPOUND -> {
+                    for (int m = 0; m < factors.length; m++) {
+                        factors[m] = Math.pow(1 + rate, m);
+                    }
+                }
+                case STEP -> {
+                    for (int m = 0; m < factors.length; m++) {
+                        factors[m] = Math.max(0, 1 + rate * (m / every));
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.stagllc.staginfra.service.cost;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.stagllc.staginfra.dto.component.Component;
+import com.stagllc.staginfra.service.pricing.PriceCatalog;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+// Prices a CostRequest body without materializing it: components are parsed one at a time from the token
+// stream and folded into a running total, so memory stays flat regardless of design size.
+@Service
+public class StreamingCostIngester {
+    private final CostEstimator costEstimator;
+    private final ObjectMapper objectMapper;
+    private final ObjectReader componentReader;
+    private final long maxComponents;
+    private final long maxBytes;
+
+    public StreamingCostIngester(
+            CostEstimator costEstimator,
+            ObjectMapper objectMapper,
+            @Value("${app.cost.ingest.max-components:250000}") long maxComponents,
+            @Value("${app.cost.ingest.max-bytes:134217728}") long maxBytes
+    ) {
+        this.costEstimator = costEstimator;
+        this.objectMapper = objectMapper;
+        this.componentReader = objectMapper.readerFor(Component.class);
+        this.maxComponents = maxComponents;
+        this.maxBytes = maxBytes;
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    // Accepts {"components": [...]} (other top-level fields are skipped) or a bare component array
+    public StreamingEstimate estimate(InputStream in) throws IOException {
+        PriceCatalog catalog = costEstimator.getCatalog();
+        try (JsonParser parser = objectMapper.getFactory().createParser(new LimitedInputStream(in, maxBytes))) {
+            JsonToken token = parser.nextToken();
+            if (token == JsonToken.START_ARRAY) {
+                return foldComponents(parser, catalog);
+            }
+            if (token != JsonToken.START_OBJECT) {
+                throw new IllegalArgumentException("Expected a JSON object or array of components");
+            }
+
+            StreamingEstimate estimate = new StreamingEstimate(0, 0);
+            for (String field = parser.nextFieldName(); field != null; field = parser.nextFieldName()) {
+                token = parser.nextToken();
+                if ("components".equals(field) && token == JsonToken.START_ARRAY) {
+                    estimate = foldComponents(parser, catalog);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            return estimate;
+        }
+    }
+
+    private StreamingEstimate foldComponents(JsonParser parser, PriceCatalog catalog) throws IOException {
+        long total = 0;
+        long count = 0;
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            if (++count > maxComponents) {
+                throw new CostInputLimitException("Design exceeds the limit of " + maxComponents + " components");
+            }
+            Component component = componentReader.readValue(parser);
+            total = Money.add(total, costEstimator.componentMicros(component, catalog));
+        }
+        return new StreamingEstimate(total, count);
+    }
+
+    // Fails the read as soon as more than maxBytes have been consumed, whatever Content-Length claimed
+    private static final class LimitedInputStream extends FilterInputStream {
+        private final long maxBytes;
+        private long consumed;
+
+        LimitedInputStream(InputStream in, long maxBytes) {
+            super(in);
+            this.maxBytes = maxBytes;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int n = super.read(buffer, offset, length);
+            if (n > 0) {
+                count(n);
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            count(skipped);
+            return skipped;
+        }
+
+        private void count(long n) {
+            consumed += n;
+            if (consumed > maxBytes) {
+                throw new CostInputLimitException("Request body exceeds the limit of " + maxBytes + " bytes");
+            }
+        }
+    }
+}
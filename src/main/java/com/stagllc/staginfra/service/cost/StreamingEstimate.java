@@ -0,0 +1,11 @@
+package com.stagllc.staginfra.service.cost;
+
+import java.math.BigDecimal;
+
+// Result of folding a streamed component list into a single estimate
+public record StreamingEstimate(long totalMicros, long componentCount) {
+
+    public BigDecimal total() {
+        return Money.toDecimal(totalMicros);
+    }
+}
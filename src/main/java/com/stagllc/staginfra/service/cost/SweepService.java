@@ -0,0 +1,268 @@
+package com.stagllc.staginfra.service.cost;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.stagllc.staginfra.dto.SweepAxis;
+import com.stagllc.staginfra.dto.SweepPoint;
+import com.stagllc.staginfra.dto.SweepResponse;
+import com.stagllc.staginfra.dto.component.Component;
+import com.stagllc.staginfra.dto.component.ComponentFields;
+import com.stagllc.staginfra.service.pricing.PriceCatalog;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+// Prices every combination of a set of what-if axes over one base design.
+// Components no axis touches are priced once into a base total. Components touched by the same set of axes are
+// folded into one cost table over just those axes (identical components are priced once and multiplied), so each
+// grid point is the base plus one table lookup per group, evaluated in parallel chunks. Building the tables prices
+// each distinct component once per cell, so both the grid and that work are capped.
+@Service
+public class SweepService {
+    private static final Logger logger = LoggerFactory.getLogger(SweepService.class);
+
+    // Grid points per parallel task; smaller grids are evaluated on the calling thread
+    private static final int CHUNK_SIZE = 4096;
+
+    private final CostEstimator costEstimator;
+    private final ForkJoinPool pool;
+    private final int maxPoints;
+    private final long maxEvaluations;
+
+    public SweepService(
+            CostEstimator costEstimator,
+            @Value("${app.cost.sweep.parallelism:0}") int parallelism,
+            @Value("${app.cost.sweep.max-points:100000}") int maxPoints,
+            @Value("${app.cost.sweep.max-evaluations:1000000}") long maxEvaluations
+    ) {
+        this.costEstimator = costEstimator;
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        this.maxPoints = maxPoints;
+        this.maxEvaluations = maxEvaluations;
+    }
+
+    public SweepResponse sweep(List<Component> components, List<SweepAxis> axes) {
+        if (axes == null || axes.isEmpty()) {
+            throw new IllegalArgumentException("At least one sweep axis is required");
+        }
+        int axisCount = axes.size();
+        int[] sizes = new int[axisCount];
+        long points = 1;
+        for (int a = 0; a < axisCount; a++) {
+            validate(axes.get(a), a);
+            sizes[a] = axes.get(a).getValues().size();
+            points *= sizes[a];
+            if (points > maxPoints) {
+                throw new IllegalArgumentException("Sweep grid exceeds the limit of " + maxPoints + " points");
+            }
+        }
+        int[] strides = new int[axisCount];
+        strides[axisCount - 1] = 1;
+        for (int a = axisCount - 2; a >= 0; a--) {
+            strides[a] = strides[a + 1] * sizes[a + 1];
+        }
+
+        // Split the design into the untouched base and groups keyed by the axes that vary them
+        PriceCatalog catalog = costEstimator.getCatalog();
+        long base = 0;
+        Map<List<Integer>, Map<Component, Integer>> groups = new LinkedHashMap<>();
+        boolean[] matched = new boolean[axisCount];
+        for (Component component : components) {
+            List<Integer> own = new ArrayList<>(2);
+            for (int a = 0; a < axisCount; a++) {
+                if (targets(axes.get(a), component)) {
+                    own.add(a);
+                    matched[a] = true;
+                }
+            }
+            if (own.isEmpty()) {
+                base = Money.add(base, costEstimator.componentMicros(component, catalog));
+            } else {
+                groups.computeIfAbsent(own, k -> new HashMap<>()).merge(component, 1, Integer::sum);
+            }
+        }
+        for (int a = 0; a < axisCount; a++) {
+            if (!matched[a]) {
+                throw new IllegalArgumentException("Sweep axis " + a + " matches no component");
+            }
+        }
+
+        // Each table prices its distinct components once per combination of its axes
+        long evaluations = 0;
+        for (Map.Entry<List<Integer>, Map<Component, Integer>> group : groups.entrySet()) {
+            long cells = 1;
+            for (int a : group.getKey()) {
+                cells *= sizes[a];
+            }
+            evaluations += cells * group.getValue().size();
+        }
+        if (evaluations > maxEvaluations) {
+            throw new IllegalArgumentException("Sweep needs " + evaluations
+                    + " component evaluations, more than the limit of " + maxEvaluations);
+        }
+
+        List<CostTable> tables = new ArrayList<>(groups.size());
+        for (Map.Entry<List<Integer>, Map<Component, Integer>> group : groups.entrySet()) {
+            tables.add(buildTable(group.getKey(), group.getValue(), axes, sizes, strides, catalog));
+        }
+
+        long[] totals = evaluate(base, tables.toArray(new CostTable[0]), (int) points);
+        logger.debug("Swept {} grid points over {} axes with {} cost tables", points, axisCount, tables.size());
+
+        SweepResponse response = new SweepResponse();
+        List<Integer> shape = new ArrayList<>(axisCount);
+        for (int size : sizes) {
+            shape.add(size);
+        }
+        response.setShape(shape);
+        response.setBaseTotal(Money.toDecimal(base));
+        BigDecimal[] amounts = new BigDecimal[totals.length];
+        for (int p = 0; p < totals.length; p++) {
+            amounts[p] = Money.toDecimal(totals[p]);
+        }
+        response.setTotals(amounts);
+        int minIndex = 0;
+        int maxIndex = 0;
+        for (int p = 1; p < totals.length; p++) {
+            if (totals[p] < totals[minIndex]) {
+                minIndex = p;
+            }
+            if (totals[p] > totals[maxIndex]) {
+                maxIndex = p;
+            }
+        }
+        response.setMin(point(minIndex, totals, axes, sizes, strides));
+        response.setMax(point(maxIndex, totals, axes, sizes, strides));
+        return response;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    private static void validate(SweepAxis axis, int index) {
+        boolean byId = axis.getComponentId() != null;
+        boolean byType = axis.getComponentType() != null;
+        if (byId == byType) {
+            throw new IllegalArgumentException("Sweep axis " + index + " needs exactly one of componentId or componentType");
+        }
+        String field = axis.getField();
+        if (field == null || field.isBlank() || "id".equals(field) || "type".equals(field)) {
+            throw new IllegalArgumentException("Sweep axis " + index + " needs a component field other than id or type");
+        }
+        if (axis.getValues() == null || axis.getValues().isEmpty()) {
+            throw new IllegalArgumentException("Sweep axis " + index + " has no values");
+        }
+        // Every value is bound once up front, so buildTable never meets a field or value it can't set
+        ComponentFields fields = new ComponentFields();
+        for (JsonNode value : axis.getValues()) {
+            boolean known;
+            try {
+                known = ComponentPatcher.set(fields, field, value);
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Sweep axis " + index + ": " + e.getMessage(), e);
+            }
+            if (!known) {
+                throw new IllegalArgumentException("Sweep axis " + index + " has an unknown component field: " + field);
+            }
+        }
+    }
+
+    private static boolean targets(SweepAxis axis, Component component) {
+        if (axis.getComponentId() != null) {
+            return axis.getComponentId().equals(component.id());
+        }
+        return axis.getComponentType().equals(component.type());
+    }
+
+    private CostTable buildTable(List<Integer> own, Map<Component, Integer> components, List<SweepAxis> axes,
+                                 int[] sizes, int[] strides, PriceCatalog catalog) {
+        int n = own.size();
+        int[] gridStrides = new int[n];
+        int[] ownSizes = new int[n];
+        int[] tableStrides = new int[n];
+        int length = 1;
+        for (int k = n - 1; k >= 0; k--) {
+            int a = own.get(k);
+            gridStrides[k] = strides[a];
+            ownSizes[k] = sizes[a];
+            tableStrides[k] = length;
+            length *= sizes[a];
+        }
+
+        long[] costs = new long[length];
+        for (Map.Entry<Component, Integer> entry : components.entrySet()) {
+            ComponentFields fields = ComponentFields.of(entry.getKey());
+            for (int t = 0; t < length; t++) {
+                // Every cell sets all of the group's axes, so the fields carry nothing over from the previous cell.
+                // validate has already bound each field and value.
+                for (int k = 0; k < n; k++) {
+                    SweepAxis axis = axes.get(own.get(k));
+                    JsonNode value = axis.getValues().get((t / tableStrides[k]) % ownSizes[k]);
+                    ComponentPatcher.set(fields, axis.getField(), value);
+                }
+                long cost = costEstimator.componentMicros(fields.build(), catalog);
+                costs[t] = Money.add(costs[t], Money.multiply(cost, entry.getValue()));
+            }
+        }
+        return new CostTable(gridStrides, ownSizes, tableStrides, costs);
+    }
+
+    private long[] evaluate(long base, CostTable[] tables, int points) {
+        long[] totals = new long[points];
+        if (points <= CHUNK_SIZE) {
+            fill(totals, 0, points, base, tables);
+            return totals;
+        }
+        List<ForkJoinTask<?>> tasks = new ArrayList<>(points / CHUNK_SIZE + 1);
+        for (int start = 0; start < points; start += CHUNK_SIZE) {
+            int from = start;
+            int to = Math.min(points, start + CHUNK_SIZE);
+            tasks.add(pool.submit(() -> fill(totals, from, to, base, tables)));
+        }
+        for (ForkJoinTask<?> task : tasks) {
+            task.join();
+        }
+        return totals;
+    }
+
+    private static void fill(long[] totals, int from, int to, long base, CostTable[] tables) {
+        for (int p = from; p < to; p++) {
+            long total = base;
+            for (CostTable table : tables) {
+                total = Money.add(total, table.costAt(p));
+            }
+            totals[p] = total;
+        }
+    }
+
+    private static SweepPoint point(int index, long[] totals, List<SweepAxis> axes, int[] sizes, int[] strides) {
+        List<JsonNode> values = new ArrayList<>(axes.size());
+        for (int a = 0; a < axes.size(); a++) {
+            values.add(axes.get(a).getValues().get((index / strides[a]) % sizes[a]));
+        }
+        return new SweepPoint(values, Money.toDecimal(totals[index]));
+    }
+
+    // Summed cost in micro-cents of one component group for each combination of the axes that vary it
+    private record CostTable(int[] gridStrides, int[] sizes, int[] tableStrides, long[] costs) {
+        long costAt(int point) {
+            int index = 0;
+            for (int k = 0; k < sizes.length; k++) {
+                index += ((point / gridStrides[k]) % sizes[k]) * tableStrides[k];
+            }
+            return costs[index];
+        }
+    }
+}
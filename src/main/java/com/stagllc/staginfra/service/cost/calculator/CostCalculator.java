@@ -0,0 +1,29 @@
+package com.stagllc.staginfra.service.cost.calculator;
+
+import com.stagllc.staginfra.dto.component.Component;
+import com.stagllc.staginfra.dto.component.ComponentType;
+import com.stagllc.staginfra.service.cost.CostTerms;
+import com.stagllc.staginfra.service.pricing.PriceCatalog;
+
+// Prices one resource type. Implementations are Spring beans collected by CostCalculatorRegistry at startup;
+// supporting a new service means adding a ComponentType, its record and one calculator.
+public interface CostCalculator<C extends Component> {
+
+    ComponentType getType();
+
+    // Unrounded monthly cost in dollars in the component's own region
+    default double monthlyCost(C component, PriceCatalog catalog) {
+        return monthlyCost(component, catalog, catalog.regionIndex(component.region()));
+    }
+
+    // Unrounded monthly cost in dollars as if the component ran in the given region ordinal: the terms of compile,
+    // evaluated directly, so it matches a compiled plan exactly
+    default double monthlyCost(C component, PriceCatalog catalog, int region) {
+        MonthlyCost cost = new MonthlyCost(catalog, region);
+        compile(component, cost);
+        return cost.cost();
+    }
+
+    // The formula, as price * quantity [* price] terms (see CostTerms)
+    void compile(C component, CostTerms terms);
+}
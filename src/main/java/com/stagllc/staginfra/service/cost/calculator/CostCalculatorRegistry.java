@@ -0,0 +1,66 @@
+package com.stagllc.staginfra.service.cost.calculator;
+
+import com.stagllc.staginfra.dto.component.Component;
+import com.stagllc.staginfra.dto.component.ComponentType;
+import com.stagllc.staginfra.service.cost.CostPlan;
+import com.stagllc.staginfra.service.pricing.PriceCatalog;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+// Dispatch table from ComponentType ordinal to its calculator, built once from the discovered calculator beans.
+// Types without a calculator (VPC, subnet, security group, unknown) cost nothing.
+@Service
+public class CostCalculatorRegistry {
+    private static final Logger logger = LoggerFactory.getLogger(CostCalculatorRegistry.class);
+
+    private final CostCalculator<?>[] calculators = new CostCalculator<?>[ComponentType.values().length];
+
+    public CostCalculatorRegistry(List<CostCalculator<?>> discovered) {
+        for (CostCalculator<?> calculator : discovered) {
+            int slot = calculator.getType().ordinal();
+            if (calculators[slot] != null) {
+                throw new IllegalStateException("Multiple cost calculators registered for " + calculator.getType()
+                        + ": " + calculators[slot].getClass().getName() + ", " + calculator.getClass().getName());
+            }
+            calculators[slot] = calculator;
+        }
+        logger.info("Registered {} cost calculators", discovered.size());
+    }
+
+    // The built-in calculators, for use outside a Spring context
+    public static CostCalculatorRegistry withDefaults() {
+        return new CostCalculatorRegistry(List.of(
+                new Ec2CostCalculator(),
+                new S3CostCalculator(),
+                new LambdaCostCalculator(),
+                new RdsCostCalculator(),
+                new DynamoDbCostCalculator(),
+                new EbsCostCalculator(),
+                new LoadBalancerCostCalculator()));
+    }
+
+    public boolean isPriced(ComponentType type) {
+        return calculators[type.ordinal()] != null;
+    }
+
+    public double monthlyCost(Component component, PriceCatalog catalog) {
+        CostCalculator<Component> calculator = calculatorFor(component);
+        return calculator != null ? calculator.monthlyCost(component, catalog) : 0.0;
+    }
+
+    // Adds the component's terms to a plan; unpriced types add none
+    public void compile(Component component, CostPlan.Builder plan) {
+        CostCalculator<Component> calculator = calculatorFor(component);
+        if (calculator != null) {
+            calculator.compile(component, plan);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private CostCalculator<Component> calculatorFor(Component component) {
+        return (CostCalculator<Component>) calculators[component.kind().ordinal()];
+    }
+}
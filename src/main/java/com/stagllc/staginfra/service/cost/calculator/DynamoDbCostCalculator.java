@@ -0,0 +1,29 @@
+package com.stagllc.staginfra.service.cost.calculator;
+
+import com.stagllc.staginfra.dto.component.ComponentType;
+import com.stagllc.staginfra.dto.component.DynamoDbComponent;
+import com.stagllc.staginfra.service.cost.CostTerms;
+import com.stagllc.staginfra.service.pricing.Rate;
+import org.springframework.stereotype.Service;
+
+@Service
+public class DynamoDbCostCalculator implements CostCalculator<DynamoDbComponent> {
+
+    @Override
+    public ComponentType getType() {
+        return ComponentType.DYNAMODB;
+    }
+
+    @Override
+    public void compile(DynamoDbComponent dynamo, CostTerms terms) {
+        if ("PAY_PER_REQUEST".equals(dynamo.billingMode())) {
+            // Billed per million requests of the component's monthly usage
+            terms.add(terms.rate(Rate.DYNAMODB_READ_REQUEST_MILLION), dynamo.readRequests() / 1e6);
+            terms.add(terms.rate(Rate.DYNAMODB_WRITE_REQUEST_MILLION), dynamo.writeRequests() / 1e6);
+            return;
+        }
+        int hoursPerMonth = terms.rate(Rate.HOURS_PER_MONTH);
+        terms.add(terms.rate(Rate.DYNAMODB_RCU_HOUR), dynamo.readCapacity(), hoursPerMonth);
+        terms.add(terms.rate(Rate.DYNAMODB_WCU_HOUR), dynamo.writeCapacity(), hoursPerMonth);
+    }
+}
@@ -0,0 +1,24 @@
+package com.stagllc.staginfra.service.cost.calculator;
+
+import com.stagllc.staginfra.dto.component.ComponentType;
+import com.stagllc.staginfra.dto.component.EbsComponent;
+import com.stagllc.staginfra.service.cost.CostTerms;
+import com.stagllc.staginfra.service.pricing.Rate;
+import org.springframework.stereotype.Service;
+
+@Service
+public class EbsCostCalculator implements CostCalculator<EbsComponent> {
+
+    @Override
+    public ComponentType getType() {
+        return ComponentType.EBS;
+    }
+
+    @Override
+    public void compile(EbsComponent ebs, CostTerms terms) {
+        terms.add(terms.ebs(ebs.volumeType()), ebs.size());
+        if ("io1".equals(ebs.volumeType())) {
+            terms.add(terms.rate(Rate.EBS_IO1_IOPS_MONTH), ebs.iops());
+        }
+    }
+}
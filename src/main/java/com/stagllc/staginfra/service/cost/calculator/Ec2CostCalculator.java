@@ -0,0 +1,20 @@
+package com.stagllc.staginfra.service.cost.calculator;
+
+import com.stagllc.staginfra.dto.component.ComponentType;
+import com.stagllc.staginfra.dto.component.Ec2Component;
+import com.stagllc.staginfra.service.cost.CostTerms;
+import org.springframework.stereotype.Service;
+
+@Service
+public class Ec2CostCalculator implements CostCalculator<Ec2Component> {
+
+    @Override
+    public ComponentType getType() {
+        return ComponentType.EC2;
+    }
+
+    @Override
+    public void compile(Ec2Component ec2, CostTerms terms) {
+        terms.add(terms.ec2(ec2.instanceType()), ec2.instances());
+    }
+}
@@ -0,0 +1,28 @@
+package com.stagllc.staginfra.service.cost.calculator;
+
+import com.stagllc.staginfra.dto.component.ComponentType;
+import com.stagllc.staginfra.dto.component.LambdaComponent;
+import com.stagllc.staginfra.service.cost.CostTerms;
+import com.stagllc.staginfra.service.pricing.Rate;
+import org.springframework.stereotype.Service;
+
+@Service
+public class LambdaCostCalculator implements CostCalculator<LambdaComponent> {
+
+    @Override
+    public ComponentType getType() {
+        return ComponentType.LAMBDA;
+    }
+
+    @Override
+    public void compile(LambdaComponent lambda, CostTerms terms) {
+        // Per GB-second pricing for the component's monthly invocations and average duration
+        terms.add(terms.rate(Rate.LAMBDA_GB_SECOND), gbSeconds(lambda));
+    }
+
+    private static double gbSeconds(LambdaComponent lambda) {
+        double memoryGB = lambda.memory() / 1024.0;
+        double seconds = lambda.durationMs() / 1000.0;
+        return memoryGB * seconds * lambda.invocations();
+    }
+}
@@ -0,0 +1,31 @@
+package com.stagllc.staginfra.service.cost.calculator;
+
+import com.stagllc.staginfra.dto.component.ComponentType;
+import com.stagllc.staginfra.dto.component.LoadBalancerComponent;
+import com.stagllc.staginfra.service.cost.CostTerms;
+import com.stagllc.staginfra.service.pricing.Rate;
+import org.springframework.stereotype.Service;
+
+@Service
+public class LoadBalancerCostCalculator implements CostCalculator<LoadBalancerComponent> {
+
+    @Override
+    public ComponentType getType() {
+        return ComponentType.LOAD_BALANCER;
+    }
+
+    @Override
+    public void compile(LoadBalancerComponent lb, CostTerms terms) {
+        int hoursPerMonth = terms.rate(Rate.HOURS_PER_MONTH);
+        // Hourly charge plus LCU-hours for the component's average LCUs
+        if ("application".equals(lb.lbType())) {
+            terms.add(terms.rate(Rate.ELB_APPLICATION_HOUR), 1, hoursPerMonth);
+            terms.add(terms.rate(Rate.ELB_APPLICATION_LCU_HOUR), lb.lcus(), hoursPerMonth);
+        } else if ("network".equals(lb.lbType())) {
+            terms.add(terms.rate(Rate.ELB_NETWORK_HOUR), 1, hoursPerMonth);
+            terms.add(terms.rate(Rate.ELB_NETWORK_LCU_HOUR), lb.lcus(), hoursPerMonth);
+        } else {
+            terms.add(terms.rate(Rate.ELB_CLASSIC_HOUR), 1, hoursPerMonth);
+        }
+    }
+}
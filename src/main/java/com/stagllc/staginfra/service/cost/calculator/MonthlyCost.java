@@ -0,0 +1,60 @@
+package com.stagllc.staginfra.service.cost.calculator;
+
+import com.stagllc.staginfra.service.cost.CostTerms;
+import com.stagllc.staginfra.service.pricing.PriceCatalog;
+import com.stagllc.staginfra.service.pricing.Rate;
+
+import java.util.Arrays;
+
+// Evaluates one component's terms as the calculator adds them, with prices from a catalog in one region. Terms are
+// multiplied and summed in the same order as CostPlan.evaluate, so the result is bit-for-bit the plan's.
+final class MonthlyCost implements CostTerms {
+    private final PriceCatalog catalog;
+    private final int region;
+    private double[] prices = new double[4];
+    private int priceCount;
+    private double cost;
+
+    MonthlyCost(PriceCatalog catalog, int region) {
+        this.catalog = catalog;
+        this.region = region;
+        price(1.0);
+    }
+
+    double cost() {
+        return cost;
+    }
+
+    @Override
+    public int ec2(String sku) {
+        return price(catalog.getEc2().price(sku, region));
+    }
+
+    @Override
+    public int rds(String sku) {
+        return price(catalog.getRds().price(sku, region));
+    }
+
+    @Override
+    public int ebs(String sku) {
+        return price(catalog.getEbs().price(sku, region));
+    }
+
+    @Override
+    public int rate(Rate rate) {
+        return price(catalog.getRate(rate, region));
+    }
+
+    @Override
+    public void add(int price, double quantity, int scale) {
+        cost += prices[price] * quantity * prices[scale];
+    }
+
+    private int price(double price) {
+        if (priceCount == prices.length) {
+            prices = Arrays.copyOf(prices, priceCount * 2);
+        }
+        prices[priceCount] = price;
+        return priceCount++;
+    }
+}
@@ -0,0 +1,22 @@
+package com.stagllc.staginfra.service.cost.calculator;
+
+import com.stagllc.staginfra.dto.component.ComponentType;
+import com.stagllc.staginfra.dto.component.RdsComponent;
+import com.stagllc.staginfra.service.cost.CostTerms;
+import com.stagllc.staginfra.service.pricing.Rate;
+import org.springframework.stereotype.Service;
+
+@Service
+public class RdsCostCalculator implements CostCalculator<RdsComponent> {
+
+    @Override
+    public ComponentType getType() {
+        return ComponentType.RDS;
+    }
+
+    @Override
+    public void compile(RdsComponent rds, CostTerms terms) {
+        terms.add(terms.rds(rds.instanceClass()), rds.multiAz() ? 2 : 1);
+        terms.add(terms.rate(Rate.RDS_STORAGE_GB_MONTH), rds.allocatedStorage());
+    }
+}
@@ -0,0 +1,21 @@
+package com.stagllc.staginfra.service.cost.calculator;
+
+import com.stagllc.staginfra.dto.component.ComponentType;
+import com.stagllc.staginfra.dto.component.S3Component;
+import com.stagllc.staginfra.service.cost.CostTerms;
+import com.stagllc.staginfra.service.pricing.Rate;
+import org.springframework.stereotype.Service;
+
+@Service
+public class S3CostCalculator implements CostCalculator<S3Component> {
+
+    @Override
+    public ComponentType getType() {
+        return ComponentType.S3;
+    }
+
+    @Override
+    public void compile(S3Component s3, CostTerms terms) {
+        terms.add(terms.rate(Rate.S3_STORAGE_GB_MONTH), s3.storage());
+    }
+}
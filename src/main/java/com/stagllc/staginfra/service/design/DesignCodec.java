@@ -0,0 +1,64 @@
+package com.stagllc.staginfra.service.design;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import com.fasterxml.jackson.dataformat.smile.SmileMapper;
+import com.stagllc.staginfra.dto.component.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+// Binary encoding of a design's components for storage. Smile is the JSON data model in binary form: field names
+// and short repeated values ("t2.micro", "us-east-1") are written once and back-referenced, and numbers are not
+// text, so payloads are smaller than JSON and decode without character parsing.
+// Designs are stored as the component JSON the client sent, so designer attributes the pricing records don't carry
+// (names, labels, layout, connections) survive; typed components are derived from the tree through the same
+// ComponentDeserializer as API requests whenever a design is priced.
+public final class DesignCodec {
+    private static final TypeReference<List<Component>> COMPONENTS = new TypeReference<>() {
+    };
+
+    private static final SmileMapper mapper = new SmileMapper(SmileFactory.builder()
+            .enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES)
+            .build());
+    private static final ObjectWriter writer = mapper.writer();
+    private static final ObjectReader reader = mapper.readerFor(COMPONENTS);
+    private static final ObjectReader treeReader = mapper.readerFor(JsonNode.class);
+
+    private DesignCodec() {
+    }
+
+    public static byte[] encode(JsonNode components) {
+        try {
+            return writer.writeValueAsBytes(components);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not encode design components", e);
+        }
+    }
+
+    // The stored component tree, exactly as saved
+    public static JsonNode decodeTree(byte[] encoded) {
+        try {
+            return treeReader.readValue(encoded);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not decode design components", e);
+        }
+    }
+
+    // Typed components for pricing; throws IllegalArgumentException when the tree isn't an array of components
+    public static List<Component> components(JsonNode tree) {
+        if (tree == null || !tree.isArray()) {
+            throw new IllegalArgumentException("Design components must be an array");
+        }
+        try {
+            return reader.readValue(tree);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Invalid design components: " + e.getMessage(), e);
+        }
+    }
+}
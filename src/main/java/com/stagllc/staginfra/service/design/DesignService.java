@@ -0,0 +1,103 @@
+package com.stagllc.staginfra.service.design;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.stagllc.staginfra.dto.DesignResponse;
+import com.stagllc.staginfra.dto.DesignSummary;
+import com.stagllc.staginfra.dto.component.Component;
+import com.stagllc.staginfra.model.Design;
+import com.stagllc.staginfra.model.DesignPayload;
+import com.stagllc.staginfra.model.User;
+import com.stagllc.staginfra.repository.DesignRepository;
+import com.stagllc.staginfra.repository.UserRepository;
+import com.stagllc.staginfra.service.cost.CostEstimator;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
+
+// Saved designs, scoped to their owner. Listings read summary columns only; the component payload is loaded
+// when a single design is opened. Components are stored as the JSON the client sent (see DesignCodec) and only
+// bound to typed components to validate and price them.
+@Service
+public class DesignService {
+
+    private final DesignRepository designRepository;
+    private final UserRepository userRepository;
+    private final CostEstimator costEstimator;
+
+    public DesignService(DesignRepository designRepository, UserRepository userRepository,
+                         CostEstimator costEstimator) {
+        this.designRepository = designRepository;
+        this.userRepository = userRepository;
+        this.costEstimator = costEstimator;
+    }
+
+    @Transactional(readOnly = true)
+    public List<DesignSummary> list(String email) {
+        return designRepository.findSummariesByOwnerId(owner(email).getId());
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<DesignResponse> get(String email, Long designId) {
+        return designRepository.findByIdAndOwnerId(designId, owner(email).getId()).map(design -> {
+            JsonNode tree = DesignCodec.decodeTree(design.getPayload().getComponents());
+            return new DesignResponse(summary(design), costEstimator.estimate(DesignCodec.components(tree)), tree);
+        });
+    }
+
+    @Transactional
+    public DesignSummary create(String email, String name, JsonNode components) {
+        Design design = new Design(owner(email), validName(name));
+        setComponents(design, components);
+        return summary(designRepository.save(design));
+    }
+
+    // Returns empty when the design does not exist or belongs to someone else
+    @Transactional
+    public Optional<DesignSummary> update(String email, Long designId, String name, JsonNode components) {
+        return designRepository.findByIdAndOwnerId(designId, owner(email).getId()).map(design -> {
+            if (name != null) {
+                design.setName(validName(name));
+            }
+            if (components != null) {
+                setComponents(design, components);
+            }
+            return summary(designRepository.save(design));
+        });
+    }
+
+    @Transactional
+    public boolean delete(String email, Long designId) {
+        Optional<Design> design = designRepository.findByIdAndOwnerId(designId, owner(email).getId());
+        design.ifPresent(designRepository::delete);
+        return design.isPresent();
+    }
+
+    private User owner(String email) {
+        return userRepository.findByEmail(email)
+                .orElseThrow(() -> new IllegalStateException("No user for authenticated principal " + email));
+    }
+
+    private static String validName(String name) {
+        if (name == null || name.isBlank()) {
+            throw new IllegalArgumentException("Design name is required");
+        }
+        return name.trim();
+    }
+
+    // The components must bind as typed components, but are stored as sent
+    private static void setComponents(Design design, JsonNode components) {
+        List<Component> typed = DesignCodec.components(components);
+        byte[] encoded = DesignCodec.encode(components);
+        if (encoded.length > DesignPayload.MAX_BYTES) {
+            throw new IllegalArgumentException("Design exceeds the limit of " + DesignPayload.MAX_BYTES + " encoded bytes");
+        }
+        design.setComponents(encoded, typed.size());
+    }
+
+    private static DesignSummary summary(Design design) {
+        return new DesignSummary(design.getId(), design.getName(), design.getComponentCount(),
+                design.getCreatedAt(), design.getUpdatedAt());
+    }
+}
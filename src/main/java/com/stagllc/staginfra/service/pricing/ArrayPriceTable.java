@@ -0,0 +1,77 @@
+package com.stagllc.staginfra.service.pricing;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+// PriceTable held on the heap. Keys resolve to a slot in a primitive array so a lookup is one hash probe.
+// Prices for every region of a SKU sit next to each other at [slot * regionCount + region], so the number of
+// regions changes neither the lookup cost nor the per-price overhead.
+final class ArrayPriceTable implements PriceTable {
+    private final Map<String, Integer> index;
+    private final String[] skus;
+    private final double[] prices;
+    private final int regionCount;
+    private final int defaultSlot;
+    private final int defaultRegion;
+
+    ArrayPriceTable(Map<String, double[]> pricesBySku, String defaultSku, int regionCount, int defaultRegion) {
+        if (!pricesBySku.containsKey(defaultSku)) {
+            throw new IllegalArgumentException("Default SKU not priced: " + defaultSku);
+        }
+        Map<String, Integer> slots = new HashMap<>(pricesBySku.size() * 2);
+        this.skus = new String[pricesBySku.size()];
+        this.prices = new double[pricesBySku.size() * regionCount];
+        int slot = 0;
+        for (Map.Entry<String, double[]> entry : pricesBySku.entrySet()) {
+            if (entry.getValue().length != regionCount) {
+                throw new IllegalArgumentException("Expected " + regionCount + " regional prices for " + entry.getKey());
+            }
+            String sku = entry.getKey().intern();
+            slots.put(sku, slot);
+            skus[slot] = sku;
+            System.arraycopy(entry.getValue(), 0, prices, slot * regionCount, regionCount);
+            slot++;
+        }
+        this.index = Collections.unmodifiableMap(slots);
+        this.regionCount = regionCount;
+        this.defaultSlot = slots.get(defaultSku);
+        this.defaultRegion = defaultRegion;
+    }
+
+    @Override
+    public double price(String sku) {
+        return price(sku, defaultRegion);
+    }
+
+    @Override
+    public double price(String sku, int region) {
+        return prices[slot(sku) * regionCount + region];
+    }
+
+    @Override
+    public int slot(String sku) {
+        Integer slot = sku != null ? index.get(sku) : null;
+        return slot != null ? slot : defaultSlot;
+    }
+
+    @Override
+    public double priceAt(int slot, int region) {
+        return prices[slot * regionCount + region];
+    }
+
+    @Override
+    public boolean contains(String sku) {
+        return sku != null && index.containsKey(sku);
+    }
+
+    @Override
+    public String getDefaultSku() {
+        return skus[defaultSlot];
+    }
+
+    @Override
+    public int size() {
+        return skus.length;
+    }
+}
@@ -0,0 +1,181 @@
+package com.stagllc.staginfra.service.pricing;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+// Offline import of AWS bulk pricing offer files (the multi-GB offers/v1.0/aws/<service>/current/index.json)
+// into a MappedPriceIndex. Files are streamed token by token: only one product or one SKU's terms is held as a
+// tree at a time, and only products the cost engine can price are kept, so memory stays flat regardless of
+// file size. AWS writes "products" before "terms", which lets a single pass resolve each SKU's price.
+// The command line is in tools.ImportBulkPrices.
+public final class BulkPriceImporter {
+    static final double HOURS_PER_MONTH = 730;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    // Priced products of the files read so far, by AWS SKU
+    private final Map<String, Product> products = new HashMap<>();
+    // table -> SKU name -> region code -> monthly price
+    private final Map<String, Map<String, Map<String, Double>>> prices = new LinkedHashMap<>();
+    private final List<String> versions = new ArrayList<>();
+
+    // Reads one offer file; may be called once per service (EC2, RDS)
+    public void read(InputStream in) throws IOException {
+        try (JsonParser parser = objectMapper.getFactory().createParser(in)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IllegalArgumentException("Offer file must be a JSON object");
+            }
+            String offerCode = null;
+            String version = null;
+            for (String field = parser.nextFieldName(); field != null; field = parser.nextFieldName()) {
+                JsonToken token = parser.nextToken();
+                switch (field) {
+                    case "offerCode" -> offerCode = parser.getValueAsString();
+                    case "version" -> version = parser.getValueAsString();
+                    case "products" -> readProducts(parser);
+                    case "terms" -> readTerms(parser);
+                    default -> {
+                        if (token.isStructStart()) {
+                            parser.skipChildren();
+                        }
+                    }
+                }
+            }
+            versions.add(offerCode + ":" + version);
+        }
+    }
+
+    public void write(Path file) throws IOException {
+        TreeSet<String> regionSet = new TreeSet<>();
+        for (Map<String, Map<String, Double>> table : prices.values()) {
+            for (Map<String, Double> regional : table.values()) {
+                regionSet.addAll(regional.keySet());
+            }
+        }
+        List<String> regions = new ArrayList<>(regionSet);
+
+        Map<String, Map<String, double[]>> tables = new LinkedHashMap<>();
+        for (Map.Entry<String, Map<String, Map<String, Double>>> table : prices.entrySet()) {
+            Map<String, double[]> bySku = new LinkedHashMap<>();
+            for (Map.Entry<String, Map<String, Double>> sku : table.getValue().entrySet()) {
+                double[] regional = new double[regions.size()];
+                Arrays.fill(regional, Double.NaN);
+                sku.getValue().forEach((region, price) -> regional[regions.indexOf(region)] = price);
+                bySku.put(sku.getKey(), regional);
+            }
+            tables.put(table.getKey(), bySku);
+        }
+        MappedPriceIndex.write(file, String.join(",", versions), regions, tables);
+    }
+
+    // Number of SKU names priced in a table
+    public int size(String table) {
+        Map<String, Map<String, Double>> skus = prices.get(table);
+        return skus != null ? skus.size() : 0;
+    }
+
+    private void readProducts(JsonParser parser) throws IOException {
+        for (String sku = parser.nextFieldName(); sku != null; sku = parser.nextFieldName()) {
+            parser.nextToken();
+            Product product = classify(objectMapper.readTree(parser));
+            if (product != null) {
+                products.put(sku, product);
+            }
+        }
+    }
+
+    private void readTerms(JsonParser parser) throws IOException {
+        for (String termType = parser.nextFieldName(); termType != null; termType = parser.nextFieldName()) {
+            parser.nextToken();
+            if (!"OnDemand".equals(termType)) {
+                // Reserved and savings terms are most of the file and aren't used
+                parser.skipChildren();
+                continue;
+            }
+            for (String sku = parser.nextFieldName(); sku != null; sku = parser.nextFieldName()) {
+                parser.nextToken();
+                Product product = products.get(sku);
+                if (product == null) {
+                    parser.skipChildren();
+                    continue;
+                }
+                double unitPrice = onDemandPrice(objectMapper.readTree(parser));
+                if (!Double.isNaN(unitPrice)) {
+                    prices.computeIfAbsent(product.table(), k -> new LinkedHashMap<>())
+                            .computeIfAbsent(product.name(), k -> new HashMap<>())
+                            .merge(product.region(), unitPrice * product.unitsPerMonth(), Math::min);
+                }
+            }
+        }
+    }
+
+    // Keeps the product variants the calculators model: shared-tenancy Linux instances, single-AZ MySQL
+    // database instances and EBS volume types
+    private static Product classify(JsonNode product) {
+        JsonNode attributes = product.path("attributes");
+        String region = attributes.path("regionCode").asText(null);
+        if (region == null) {
+            return null;
+        }
+        switch (product.path("productFamily").asText()) {
+            case "Compute Instance" -> {
+                if (is(attributes, "operatingSystem", "Linux") && is(attributes, "tenancy", "Shared")
+                        && is(attributes, "preInstalledSw", "NA") && isOrMissing(attributes, "capacitystatus", "Used")
+                        && isOrMissing(attributes, "licenseModel", "No License required")) {
+                    return new Product("ec2", attributes.path("instanceType").asText(), region, HOURS_PER_MONTH);
+                }
+            }
+            case "Database Instance" -> {
+                if (is(attributes, "databaseEngine", "MySQL") && is(attributes, "deploymentOption", "Single-AZ")) {
+                    return new Product("rds", attributes.path("instanceType").asText(), region, HOURS_PER_MONTH);
+                }
+            }
+            case "Storage" -> {
+                String volumeType = attributes.path("volumeApiName").asText("");
+                if (!volumeType.isEmpty()) {
+                    return new Product("ebs", volumeType, region, 1);
+                }
+            }
+            default -> {
+            }
+        }
+        return null;
+    }
+
+    // First USD price of the SKU's on-demand offer, or NaN when it has none
+    private static double onDemandPrice(JsonNode offers) {
+        for (JsonNode offer : offers) {
+            for (JsonNode dimension : offer.path("priceDimensions")) {
+                JsonNode usd = dimension.path("pricePerUnit").path("USD");
+                if (usd.isTextual() || usd.isNumber()) {
+                    return Double.parseDouble(usd.asText());
+                }
+            }
+        }
+        return Double.NaN;
+    }
+
+    private static boolean is(JsonNode attributes, String name, String value) {
+        return value.equals(attributes.path(name).asText(null));
+    }
+
+    private static boolean isOrMissing(JsonNode attributes, String name, String value) {
+        return attributes.path(name).isMissingNode() || is(attributes, name, value);
+    }
+
+    // unitsPerMonth turns the offer's unit price (per hour, per GB-month) into the catalog's monthly price
+    private record Product(String table, String name, String region, double unitsPerMonth) {
+    }
+}
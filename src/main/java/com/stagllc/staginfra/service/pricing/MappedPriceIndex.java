@@ -0,0 +1,283 @@
+package com.stagllc.staginfra.service.pricing;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Read-only SKU price index memory-mapped from a file written by BulkPriceImporter.
+// Nothing is copied onto the heap: lookups hash the SKU, probe an open-addressing table and read the price
+// straight from the mapping, so the page cache holds a single copy shared by every JVM on the host.
+//
+// Layout (little-endian):
+//   "STAGPIX1", int regionCount, int tableCount, string version, string[regionCount] regions,
+//   then per table: string name, int skuCount, int bucketCount, int[bucketCount] buckets (entry + 1, 0 = empty),
+//   int[skuCount + 1] name offsets, byte[] ASCII names, padding to 8 bytes, double[skuCount * regionCount] prices.
+// Strings are an int byte length followed by UTF-8. Prices are monthly USD; NaN marks a SKU not sold in a region.
+public final class MappedPriceIndex {
+    private static final byte[] MAGIC = "STAGPIX1".getBytes(StandardCharsets.US_ASCII);
+
+    private final ByteBuffer buffer;
+    private final String version;
+    private final List<String> regions;
+    private final Map<String, Table> tables;
+
+    private MappedPriceIndex(ByteBuffer buffer) {
+        this.buffer = buffer;
+        byte[] magic = new byte[MAGIC.length];
+        buffer.get(0, magic);
+        if (!Arrays.equals(magic, MAGIC)) {
+            throw new IllegalArgumentException("Not a price index file");
+        }
+        int position = MAGIC.length;
+        int regionCount = buffer.getInt(position);
+        int tableCount = buffer.getInt(position + 4);
+        position += 8;
+        this.version = readString(buffer, position);
+        position += 4 + buffer.getInt(position);
+        List<String> regionList = new ArrayList<>(regionCount);
+        for (int r = 0; r < regionCount; r++) {
+            regionList.add(readString(buffer, position));
+            position += 4 + buffer.getInt(position);
+        }
+        this.regions = Collections.unmodifiableList(regionList);
+
+        Map<String, Table> tableMap = new HashMap<>();
+        for (int t = 0; t < tableCount; t++) {
+            String name = readString(buffer, position);
+            position += 4 + buffer.getInt(position);
+            Table table = new Table(position, regionCount);
+            tableMap.put(name, table);
+            position = table.end;
+        }
+        this.tables = Collections.unmodifiableMap(tableMap);
+    }
+
+    public static MappedPriceIndex open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            // The mapping stays valid after the channel is closed
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new MappedPriceIndex(mapped.order(ByteOrder.LITTLE_ENDIAN));
+        }
+    }
+
+    public String getVersion() {
+        return version;
+    }
+
+    public List<String> getRegions() {
+        return regions;
+    }
+
+    // Null when the index has no table of that name
+    public Table table(String name) {
+        return tables.get(name);
+    }
+
+    // Writes an index to a temporary file and moves it into place, so JVMs mapping the previous file keep
+    // reading a complete copy. Prices are keyed by table, then SKU, and hold one value per region (NaN if absent).
+    public static void write(Path file, String version, List<String> regions,
+                             Map<String, Map<String, double[]>> tables) throws IOException {
+        ByteBuffer out = ByteBuffer.allocate(estimateSize(version, regions, tables)).order(ByteOrder.LITTLE_ENDIAN);
+        out.put(MAGIC);
+        out.putInt(regions.size());
+        out.putInt(tables.size());
+        putString(out, version);
+        for (String region : regions) {
+            putString(out, region);
+        }
+        for (Map.Entry<String, Map<String, double[]>> table : tables.entrySet()) {
+            putString(out, table.getKey());
+            writeTable(out, table.getValue(), regions.size());
+        }
+
+        Path temp = Files.createTempFile(file.toAbsolutePath().getParent(), file.getFileName().toString(), ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+            out.flip();
+            while (out.hasRemaining()) {
+                channel.write(out);
+            }
+            channel.force(true);
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // One SKU table inside the mapping
+    public final class Table {
+        private final int skuCount;
+        private final int mask;
+        private final int bucketsOffset;
+        private final int nameOffsetsOffset;
+        private final int namesOffset;
+        private final int pricesOffset;
+        private final int regionCount;
+        private final int end;
+
+        private Table(int position, int regionCount) {
+            this.skuCount = buffer.getInt(position);
+            int bucketCount = buffer.getInt(position + 4);
+            this.mask = bucketCount - 1;
+            this.bucketsOffset = position + 8;
+            this.nameOffsetsOffset = bucketsOffset + bucketCount * 4;
+            this.namesOffset = nameOffsetsOffset + (skuCount + 1) * 4;
+            this.pricesOffset = align8(namesOffset + buffer.getInt(nameOffsetsOffset + skuCount * 4));
+            this.regionCount = regionCount;
+            this.end = pricesOffset + skuCount * regionCount * 8;
+        }
+
+        // Entry of a SKU, or -1 when the table doesn't have it
+        public int find(String sku) {
+            if (sku == null) {
+                return -1;
+            }
+            for (int bucket = hash(sku) & mask; ; bucket = (bucket + 1) & mask) {
+                int slot = buffer.getInt(bucketsOffset + bucket * 4);
+                if (slot == 0) {
+                    return -1;
+                }
+                if (nameEquals(slot - 1, sku)) {
+                    return slot - 1;
+                }
+            }
+        }
+
+        // Monthly price of an entry in an index region, NaN when the SKU isn't sold there
+        public double price(int entry, int region) {
+            return buffer.getDouble(pricesOffset + (entry * regionCount + region) * 8);
+        }
+
+        public String sku(int entry) {
+            int start = buffer.getInt(nameOffsetsOffset + entry * 4);
+            int length = buffer.getInt(nameOffsetsOffset + (entry + 1) * 4) - start;
+            byte[] bytes = new byte[length];
+            buffer.get(namesOffset + start, bytes);
+            return new String(bytes, StandardCharsets.US_ASCII);
+        }
+
+        public int size() {
+            return skuCount;
+        }
+
+        private boolean nameEquals(int entry, String sku) {
+            int start = buffer.getInt(nameOffsetsOffset + entry * 4);
+            int length = buffer.getInt(nameOffsetsOffset + (entry + 1) * 4) - start;
+            if (length != sku.length()) {
+                return false;
+            }
+            for (int i = 0; i < length; i++) {
+                if (buffer.get(namesOffset + start + i) != sku.charAt(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private static void writeTable(ByteBuffer out, Map<String, double[]> prices, int regionCount) {
+        List<String> skus = new ArrayList<>(prices.keySet());
+        int bucketCount = bucketCount(skus.size());
+        int[] buckets = new int[bucketCount];
+        for (int entry = 0; entry < skus.size(); entry++) {
+            String sku = skus.get(entry);
+            if (!sku.chars().allMatch(c -> c > 0 && c < 0x80)) {
+                throw new IllegalArgumentException("SKU names must be ASCII: " + sku);
+            }
+            int bucket = hash(sku) & (bucketCount - 1);
+            while (buckets[bucket] != 0) {
+                bucket = (bucket + 1) & (bucketCount - 1);
+            }
+            buckets[bucket] = entry + 1;
+        }
+
+        out.putInt(skus.size());
+        out.putInt(bucketCount);
+        for (int bucket : buckets) {
+            out.putInt(bucket);
+        }
+        int nameOffset = 0;
+        for (String sku : skus) {
+            out.putInt(nameOffset);
+            nameOffset += sku.length();
+        }
+        out.putInt(nameOffset);
+        for (String sku : skus) {
+            out.put(sku.getBytes(StandardCharsets.US_ASCII));
+        }
+        out.position(align8(out.position()));
+        for (String sku : skus) {
+            double[] regional = prices.get(sku);
+            if (regional.length != regionCount) {
+                throw new IllegalArgumentException("Expected " + regionCount + " regional prices for " + sku);
+            }
+            for (double price : regional) {
+                out.putDouble(price);
+            }
+        }
+    }
+
+    private static int estimateSize(String version, List<String> regions, Map<String, Map<String, double[]>> tables) {
+        long size = MAGIC.length + 8 + 4 + utf8Length(version);
+        for (String region : regions) {
+            size += 4 + utf8Length(region);
+        }
+        for (Map.Entry<String, Map<String, double[]>> table : tables.entrySet()) {
+            int skus = table.getValue().size();
+            size += 4 + utf8Length(table.getKey()) + 8 + bucketCount(skus) * 4L + (skus + 1) * 4L + 8;
+            for (String sku : table.getValue().keySet()) {
+                size += sku.length();
+            }
+            size += (long) skus * regions.size() * 8;
+        }
+        if (size > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Price index would exceed 2 GB");
+        }
+        return (int) size;
+    }
+
+    // Power of two with a load factor of at most one half, so probe chains stay short
+    private static int bucketCount(int skus) {
+        return Integer.highestOneBit(Math.max(1, skus) * 2 - 1) << 1;
+    }
+
+    // FNV-1a over the SKU's ASCII characters
+    private static int hash(String sku) {
+        int hash = 0x811c9dc5;
+        for (int i = 0; i < sku.length(); i++) {
+            hash ^= sku.charAt(i);
+            hash *= 0x01000193;
+        }
+        return hash ^ (hash >>> 16);
+    }
+
+    private static int align8(int position) {
+        return (position + 7) & ~7;
+    }
+
+    private static int utf8Length(String value) {
+        return value.getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    private static void putString(ByteBuffer out, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.putInt(bytes.length);
+        out.put(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer, int position) {
+        byte[] bytes = new byte[buffer.getInt(position)];
+        buffer.get(position + 4, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
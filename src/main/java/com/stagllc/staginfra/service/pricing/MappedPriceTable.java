@@ -0,0 +1,79 @@
+package com.stagllc.staginfra.service.pricing;
+
+// PriceTable read from a MappedPriceIndex, with the catalog's own table behind it for SKUs and regions the
+// index doesn't cover. Slots of indexed SKUs are their index entries; any other SKU gets a negative slot that
+// encodes its slot in the fallback table.
+final class MappedPriceTable implements PriceTable {
+    private final MappedPriceIndex.Table table;
+    private final int[] indexRegions;
+    private final int defaultRegion;
+    private final PriceTable fallback;
+
+    // indexRegions maps each catalog region ordinal to its index region, or -1 when the index lacks it
+    MappedPriceTable(MappedPriceIndex.Table table, int[] indexRegions, int defaultRegion, PriceTable fallback) {
+        this.table = table;
+        this.indexRegions = indexRegions;
+        this.defaultRegion = defaultRegion;
+        this.fallback = fallback;
+    }
+
+    @Override
+    public double price(String sku) {
+        return priceAt(slot(sku), defaultRegion);
+    }
+
+    @Override
+    public double price(String sku, int region) {
+        return priceAt(slot(sku), region);
+    }
+
+    @Override
+    public int slot(String sku) {
+        int entry = table.find(sku);
+        return entry >= 0 ? entry : -1 - fallback.slot(sku);
+    }
+
+    @Override
+    public double priceAt(int slot, int region) {
+        if (slot < 0) {
+            return fallback.priceAt(-1 - slot, region);
+        }
+        double price = indexPrice(slot, region);
+        return Double.isNaN(price) ? unindexedPrice(slot, region) : price;
+    }
+
+    private double indexPrice(int slot, int region) {
+        int indexRegion = indexRegions[region];
+        return indexRegion >= 0 ? table.price(slot, indexRegion) : Double.NaN;
+    }
+
+    // The index has no price for the SKU in this region; rare, so resolving the name here is fine. The catalog's
+    // price for the same SKU comes first, then the index's default-region price. Never another SKU's price: the
+    // fallback table would answer with its default SKU for a SKU it doesn't know.
+    private double unindexedPrice(int slot, int region) {
+        String sku = table.sku(slot);
+        if (fallback.contains(sku)) {
+            return fallback.price(sku, region);
+        }
+        double price = indexPrice(slot, defaultRegion);
+        if (Double.isNaN(price)) {
+            throw new IllegalArgumentException("No price available for " + sku);
+        }
+        return price;
+    }
+
+    @Override
+    public boolean contains(String sku) {
+        return table.find(sku) >= 0 || fallback.contains(sku);
+    }
+
+    @Override
+    public String getDefaultSku() {
+        return fallback.getDefaultSku();
+    }
+
+    @Override
+    public int size() {
+        return table.size();
+    }
+}
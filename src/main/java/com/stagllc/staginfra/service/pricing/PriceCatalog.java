@@ -0,0 +1,117 @@
+package com.stagllc.staginfra.service.pricing;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Immutable snapshot of every rate the cost engine uses. Instances are swapped as a whole on reload,
+// so an estimate that reads the catalog once sees a consistent set of prices.
+// Regions are addressed by ordinal; scalar rates are stored like price tables, at [rate * regionCount + region].
+public final class PriceCatalog {
+    private final String version;
+    private final List<String> regions;
+    private final Map<String, Integer> regionIndex;
+    private final int defaultRegion;
+    private final PriceTable ec2;
+    private final PriceTable rds;
+    private final PriceTable ebs;
+    private final double[] rates;
+    // Per purchase option ordinal: table name or rate key -> coefficient on the on-demand price
+    private final List<Map<String, Double>> coefficients;
+
+    PriceCatalog(String version, List<String> regions, int defaultRegion,
+                 PriceTable ec2, PriceTable rds, PriceTable ebs, double[] rates,
+                 List<Map<String, Double>> coefficients) {
+        if (rates.length != Rate.values().length * regions.size()) {
+            throw new IllegalArgumentException("Expected " + Rate.values().length * regions.size()
+                    + " regional rates but got " + rates.length);
+        }
+        this.version = version;
+        this.regions = List.copyOf(regions);
+        Map<String, Integer> index = new HashMap<>(regions.size() * 2);
+        for (int r = 0; r < regions.size(); r++) {
+            index.put(regions.get(r), r);
+        }
+        this.regionIndex = Collections.unmodifiableMap(index);
+        this.defaultRegion = defaultRegion;
+        this.ec2 = ec2;
+        this.rds = rds;
+        this.ebs = ebs;
+        this.rates = rates.clone();
+        this.coefficients = List.copyOf(coefficients);
+    }
+
+    public String getVersion() {
+        return version;
+    }
+
+    public List<String> getRegions() {
+        return regions;
+    }
+
+    public int regionCount() {
+        return regions.size();
+    }
+
+    public String getDefaultRegion() {
+        return regions.get(defaultRegion);
+    }
+
+    // Ordinal of a region code; components without one are priced in the default region
+    public int regionIndex(String region) {
+        if (region == null) {
+            return defaultRegion;
+        }
+        Integer index = regionIndex.get(region);
+        if (index == null) {
+            throw new UnknownRegionException(region, regions);
+        }
+        return index;
+    }
+
+    // Same regions and rates with the instance and volume tables served from a memory-mapped price index.
+    // Tables the index doesn't contain keep their catalog prices.
+    public PriceCatalog withPriceIndex(MappedPriceIndex index) {
+        int[] indexRegions = new int[regions.size()];
+        for (int r = 0; r < indexRegions.length; r++) {
+            indexRegions[r] = index.getRegions().indexOf(regions.get(r));
+        }
+        return new PriceCatalog(version + "+" + index.getVersion(), regions, defaultRegion,
+                overlay(index.table("ec2"), indexRegions, ec2),
+                overlay(index.table("rds"), indexRegions, rds),
+                overlay(index.table("ebs"), indexRegions, ebs),
+                rates, coefficients);
+    }
+
+    private PriceTable overlay(MappedPriceIndex.Table table, int[] indexRegions, PriceTable fallback) {
+        return table != null ? new MappedPriceTable(table, indexRegions, defaultRegion, fallback) : fallback;
+    }
+
+    public PriceTable getEc2() {
+        return ec2;
+    }
+
+    public PriceTable getRds() {
+        return rds;
+    }
+
+    public PriceTable getEbs() {
+        return ebs;
+    }
+
+    public double getRate(Rate rate) {
+        return getRate(rate, defaultRegion);
+    }
+
+    public double getRate(Rate rate, int region) {
+        return rates[rate.ordinal() * regions.size() + region];
+    }
+
+    // Multiplier on the on-demand price of a table ("ec2") or rate ("lambda.gb_second") under a purchase option;
+    // 1 for on-demand and for prices the option doesn't discount
+    public double getCoefficient(PurchaseOption option, String key) {
+        Double coefficient = coefficients.get(option.ordinal()).get(key);
+        return coefficient != null ? coefficient : 1.0;
+    }
+}
@@ -0,0 +1,190 @@
+package com.stagllc.staginfra.service.pricing;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Parses the versioned pricing catalog file into an immutable PriceCatalog
+public final class PriceCatalogLoader {
+    public static final String DEFAULT_RESOURCE = "pricing/catalog.json";
+    public static final String DEFAULT_REGION = "us-east-1";
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+    private static final Set<String> PRICE_KEYS = priceKeys();
+
+    private PriceCatalogLoader() {
+    }
+
+    public static PriceCatalog loadDefault() {
+        try (InputStream in = PriceCatalogLoader.class.getClassLoader().getResourceAsStream(DEFAULT_RESOURCE)) {
+            if (in == null) {
+                throw new IllegalStateException("Pricing catalog not found on classpath: " + DEFAULT_RESOURCE);
+            }
+            return load(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read pricing catalog " + DEFAULT_RESOURCE, e);
+        }
+    }
+
+    public static PriceCatalog load(Path file) throws IOException {
+        try (InputStream in = Files.newInputStream(file)) {
+            return load(in);
+        }
+    }
+
+    public static PriceCatalog load(InputStream in) throws IOException {
+        JsonNode root = objectMapper.readTree(in);
+        if (root == null || !root.isObject()) {
+            throw new IllegalArgumentException("Pricing catalog must be a JSON object");
+        }
+
+        String version = root.path("version").asText(null);
+        if (version == null || version.isBlank()) {
+            throw new IllegalArgumentException("Pricing catalog is missing a version");
+        }
+
+        // Regions map each code to a price factor relative to the default region. Catalogs without regions
+        // price everything in a single default region.
+        String defaultRegion = root.path("defaultRegion").asText(DEFAULT_REGION);
+        List<String> regions = new ArrayList<>();
+        List<Double> factors = new ArrayList<>();
+        JsonNode regionNodes = root.path("regions");
+        if (regionNodes.isObject()) {
+            Iterator<Map.Entry<String, JsonNode>> fields = regionNodes.fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                if (!field.getValue().isNumber() || field.getValue().doubleValue() <= 0) {
+                    throw new IllegalArgumentException("Region " + field.getKey() + " needs a positive price factor");
+                }
+                regions.add(field.getKey());
+                factors.add(field.getValue().doubleValue());
+            }
+        } else {
+            regions.add(defaultRegion);
+            factors.add(1.0);
+        }
+        int defaultIndex = regions.indexOf(defaultRegion);
+        if (defaultIndex < 0) {
+            throw new IllegalArgumentException("Default region " + defaultRegion + " is not in the region list");
+        }
+        RegionScale scale = new RegionScale(regions, factors, defaultIndex);
+
+        JsonNode tables = root.path("tables");
+        PriceTable ec2 = readTable(tables, "ec2", scale);
+        PriceTable rds = readTable(tables, "rds", scale);
+        PriceTable ebs = readTable(tables, "ebs", scale);
+
+        JsonNode rateNodes = root.path("rates");
+        int regionCount = regions.size();
+        double[] rates = new double[Rate.values().length * regionCount];
+        for (Rate rate : Rate.values()) {
+            JsonNode value = rateNodes.get(rate.getKey());
+            if (value == null) {
+                throw new IllegalArgumentException("Pricing catalog is missing rate: " + rate.getKey());
+            }
+            double[] regional = scale.expand(value, rate.isRegional(), "rate " + rate.getKey());
+            System.arraycopy(regional, 0, rates, rate.ordinal() * regionCount, regionCount);
+        }
+
+        return new PriceCatalog(version, regions, defaultIndex, ec2, rds, ebs, rates,
+                readPurchaseOptions(root.path("purchaseOptions")));
+    }
+
+    // Coefficients per option, keyed by table name or rate key. Options and prices a catalog leaves out cost
+    // the same as on-demand.
+    private static List<Map<String, Double>> readPurchaseOptions(JsonNode options) {
+        List<Map<String, Double>> coefficients = new ArrayList<>();
+        for (PurchaseOption option : PurchaseOption.values()) {
+            JsonNode node = options.path(option.getKey());
+            Map<String, Double> byKey = new LinkedHashMap<>();
+            if (option != PurchaseOption.ON_DEMAND && node.isObject()) {
+                Iterator<Map.Entry<String, JsonNode>> fields = node.fields();
+                while (fields.hasNext()) {
+                    Map.Entry<String, JsonNode> field = fields.next();
+                    if (!PRICE_KEYS.contains(field.getKey())) {
+                        throw new IllegalArgumentException("Purchase option " + option.getKey()
+                                + " names an unknown table or rate: " + field.getKey());
+                    }
+                    if (!field.getValue().isNumber() || field.getValue().doubleValue() <= 0) {
+                        throw new IllegalArgumentException("Purchase option " + option.getKey()
+                                + " needs a positive coefficient for " + field.getKey());
+                    }
+                    byKey.put(field.getKey(), field.getValue().doubleValue());
+                }
+            }
+            coefficients.add(byKey);
+        }
+        return coefficients;
+    }
+
+    private static Set<String> priceKeys() {
+        Set<String> keys = new HashSet<>(List.of("ec2", "rds", "ebs"));
+        for (Rate rate : Rate.values()) {
+            keys.add(rate.getKey());
+        }
+        return keys;
+    }
+
+    private static PriceTable readTable(JsonNode tables, String name, RegionScale scale) {
+        JsonNode table = tables.get(name);
+        if (table == null || !table.path("prices").isObject()) {
+            throw new IllegalArgumentException("Pricing catalog is missing table: " + name);
+        }
+
+        Map<String, double[]> prices = new LinkedHashMap<>();
+        Iterator<Map.Entry<String, JsonNode>> fields = table.get("prices").fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            prices.put(field.getKey(), scale.expand(field.getValue(), true, name + "/" + field.getKey()));
+        }
+
+        String defaultSku = table.path("default").asText(null);
+        if (defaultSku == null) {
+            throw new IllegalArgumentException("Pricing table " + name + " has no default SKU");
+        }
+        return new ArrayPriceTable(prices, defaultSku, scale.regions.size(), scale.defaultIndex);
+    }
+
+    // Turns a catalog price into one value per region. A number is the default-region price, scaled by each
+    // region's factor; an object gives explicit regional prices and regions it omits are scaled the same way.
+    private record RegionScale(List<String> regions, List<Double> factors, int defaultIndex) {
+
+        double[] expand(JsonNode value, boolean regional, String what) {
+            double[] prices = new double[regions.size()];
+            double base;
+            if (value.isNumber()) {
+                base = value.doubleValue();
+            } else if (value.isObject() && value.path(regions.get(defaultIndex)).isNumber()) {
+                base = value.get(regions.get(defaultIndex)).doubleValue();
+            } else {
+                throw new IllegalArgumentException("Price for " + what
+                        + " must be a number or an object with a " + regions.get(defaultIndex) + " price");
+            }
+            double defaultFactor = factors.get(defaultIndex);
+            for (int r = 0; r < prices.length; r++) {
+                JsonNode explicit = value.isObject() ? value.get(regions.get(r)) : null;
+                if (explicit != null) {
+                    if (!explicit.isNumber()) {
+                        throw new IllegalArgumentException("Non-numeric price for " + what + " in " + regions.get(r));
+                    }
+                    prices[r] = explicit.doubleValue();
+                } else {
+                    prices[r] = regional ? base * factors.get(r) / defaultFactor : base;
+                }
+            }
+            return prices;
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.stagllc.staginfra.service.pricing;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+
+@Service
+public class PriceCatalogService {
+    private static final Logger logger = LoggerFactory.getLogger(PriceCatalogService.class);
+
+    private final Path catalogFile;
+    private final boolean watchEnabled;
+    // Optional full price list imported from AWS bulk offer files; overlays the catalog's instance and volume tables
+    private final MappedPriceIndex priceIndex;
+
+    // Readers take a single volatile read per estimate; reloads publish a fully built catalog
+    private volatile PriceCatalog catalog;
+
+    private WatchService watchService;
+    private Thread watcherThread;
+
+    public PriceCatalogService(String catalogFile, boolean watchEnabled) {
+        this(catalogFile, watchEnabled, "");
+    }
+
+    @Autowired
+    public PriceCatalogService(
+            @Value("${app.pricing.catalog-file:}") String catalogFile,
+            @Value("${app.pricing.watch:true}") boolean watchEnabled,
+            @Value("${app.pricing.bulk-index:}") String bulkIndex
+    ) {
+        this.catalogFile = catalogFile == null || catalogFile.isBlank() ? null : Path.of(catalogFile).toAbsolutePath();
+        this.watchEnabled = watchEnabled;
+        this.priceIndex = openPriceIndex(bulkIndex);
+        this.catalog = withPriceIndex(initialCatalog());
+        logger.info("Loaded pricing catalog version {}", catalog.getVersion());
+    }
+
+    public PriceCatalog getCatalog() {
+        return catalog;
+    }
+
+    // Re-read the catalog file. A broken file is logged and the current catalog stays in place.
+    public boolean reload() {
+        if (catalogFile == null) {
+            return false;
+        }
+        try {
+            PriceCatalog updated = withPriceIndex(PriceCatalogLoader.load(catalogFile));
+            PriceCatalog previous = catalog;
+            catalog = updated;
+            logger.info("Reloaded pricing catalog {} (version {} -> {})",
+                    catalogFile, previous.getVersion(), updated.getVersion());
+            return true;
+        } catch (IOException | RuntimeException e) {
+            logger.error("Failed to reload pricing catalog {}, keeping version {}", catalogFile, catalog.getVersion(), e);
+            return false;
+        }
+    }
+
+    @PostConstruct
+    public void startWatcher() {
+        if (catalogFile == null || !watchEnabled) {
+            return;
+        }
+        try {
+            watchService = FileSystems.getDefault().newWatchService();
+            catalogFile.getParent().register(watchService,
+                    StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        } catch (IOException e) {
+            logger.error("Could not watch pricing catalog {}, hot reload disabled", catalogFile, e);
+            return;
+        }
+
+        watcherThread = new Thread(this::watchLoop, "price-catalog-watcher");
+        watcherThread.setDaemon(true);
+        watcherThread.start();
+    }
+
+    @PreDestroy
+    public void stopWatcher() {
+        if (watchService != null) {
+            try {
+                watchService.close();
+            } catch (IOException e) {
+                logger.warn("Error closing pricing catalog watcher", e);
+            }
+        }
+    }
+
+    private static MappedPriceIndex openPriceIndex(String bulkIndex) {
+        if (bulkIndex == null || bulkIndex.isBlank()) {
+            return null;
+        }
+        try {
+            MappedPriceIndex index = MappedPriceIndex.open(Path.of(bulkIndex));
+            logger.info("Mapped price index {} (version {}, {} regions)",
+                    bulkIndex, index.getVersion(), index.getRegions().size());
+            return index;
+        } catch (IOException | RuntimeException e) {
+            // Catalog prices still work without the index
+            logger.error("Failed to map price index {}, using catalog prices only", bulkIndex, e);
+            return null;
+        }
+    }
+
+    private PriceCatalog withPriceIndex(PriceCatalog catalog) {
+        return priceIndex != null ? catalog.withPriceIndex(priceIndex) : catalog;
+    }
+
+    private PriceCatalog initialCatalog() {
+        if (catalogFile == null) {
+            return PriceCatalogLoader.loadDefault();
+        }
+        try {
+            return PriceCatalogLoader.load(catalogFile);
+        } catch (IOException | RuntimeException e) {
+            // Fall back to the bundled catalog so the service still starts
+            logger.error("Failed to load pricing catalog {}, using bundled catalog", catalogFile, e);
+            return PriceCatalogLoader.loadDefault();
+        }
+    }
+
+    private void watchLoop() {
+        Path fileName = catalogFile.getFileName();
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                boolean changed = false;
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (fileName.equals(event.context())) {
+                        changed = true;
+                    }
+                }
+                if (changed) {
+                    reload();
+                }
+                if (!key.reset()) {
+                    logger.warn("Pricing catalog directory is no longer watchable, hot reload stopped");
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            // Shutting down
+        }
+    }
+}
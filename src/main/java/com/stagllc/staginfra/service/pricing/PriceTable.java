@@ -0,0 +1,22 @@
+package com.stagllc.staginfra.service.pricing;
+
+// Immutable SKU -> monthly price table, priced per region
+public interface PriceTable {
+
+    // Unknown or missing SKUs are priced as the table default, matching the old if-chain fallbacks
+    double price(String sku);
+
+    // Region is an ordinal from PriceCatalog.regionIndex
+    double price(String sku, int region);
+
+    // Slot of a SKU, or of the default SKU when unknown; pairs with priceAt for pricing one SKU in many regions
+    int slot(String sku);
+
+    double priceAt(int slot, int region);
+
+    boolean contains(String sku);
+
+    String getDefaultSku();
+
+    int size();
+}
@@ -0,0 +1,20 @@
+package com.stagllc.staginfra.service.pricing;
+
+// Ways of paying for capacity. On-demand is what the catalog's prices are; the other options are expressed in
+// the catalog's "purchaseOptions" section as coefficients on those prices.
+public enum PurchaseOption {
+    ON_DEMAND("onDemand"),
+    RESERVED("reserved"),
+    SAVINGS_PLAN("savingsPlan"),
+    SPOT("spot");
+
+    private final String key;
+
+    PurchaseOption(String key) {
+        this.key = key;
+    }
+
+    public String getKey() {
+        return key;
+    }
+}
@@ -0,0 +1,40 @@
+package com.stagllc.staginfra.service.pricing;
+
+// Scalar rates from the "rates" section of the pricing catalog; the ordinal indexes PriceCatalog's rate array.
+// Regional rates given as a single number are scaled by each region's price factor.
+public enum Rate {
+    HOURS_PER_MONTH("hours_per_month", false),
+    S3_STORAGE_GB_MONTH("s3.storage_gb_month"),
+    LAMBDA_GB_SECOND("lambda.gb_second"),
+    RDS_STORAGE_GB_MONTH("rds.storage_gb_month"),
+    DYNAMODB_READ_REQUEST_MILLION("dynamodb.read_request_million"),
+    DYNAMODB_WRITE_REQUEST_MILLION("dynamodb.write_request_million"),
+    DYNAMODB_RCU_HOUR("dynamodb.rcu_hour"),
+    DYNAMODB_WCU_HOUR("dynamodb.wcu_hour"),
+    EBS_IO1_IOPS_MONTH("ebs.io1_iops_month"),
+    ELB_APPLICATION_HOUR("elb.application_hour"),
+    ELB_APPLICATION_LCU_HOUR("elb.application_lcu_hour"),
+    ELB_NETWORK_HOUR("elb.network_hour"),
+    ELB_NETWORK_LCU_HOUR("elb.network_lcu_hour"),
+    ELB_CLASSIC_HOUR("elb.classic_hour");
+
+    private final String key;
+    private final boolean regional;
+
+    Rate(String key) {
+        this(key, true);
+    }
+
+    Rate(String key, boolean regional) {
+        this.key = key;
+        this.regional = regional;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public boolean isRegional() {
+        return regional;
+    }
+}
@@ -0,0 +1,11 @@
+package com.stagllc.staginfra.service.pricing;
+
+import java.util.List;
+
+// Thrown when a component names a region the pricing catalog doesn't list. The region comes from the request, so
+// it is an IllegalArgumentException and reported as a bad request.
+public class UnknownRegionException extends IllegalArgumentException {
+    public UnknownRegionException(String region, List<String> regions) {
+        super("Unknown region " + region + "; the pricing catalog lists " + String.join(", ", regions));
+    }
+}
@@ -0,0 +1,240 @@
+package com.stagllc.staginfra.service.ratelimit;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+
+// Sliding-window attempt rings for (IP address, action) keys in one off-heap open-addressing table, so tracked
+// clients cost the garbage collector nothing and a check allocates nothing. Each entry is a run of longs:
+// [address high bits, address low bits, meta, last seen, window end, ring of attempt times...], where meta holds the
+// action + 1 (0 marks an empty entry), the ring's next position and its length. Last seen is the latest attempt,
+// allowed or rejected, and window end is when the latest allowed attempt leaves its window. The table is split into
+// segments, each with its own lock and linear-probing region, so checks on different segments don't contend.
+// A segment never fills past three quarters: a new key then takes over an entry on its probe path whose window has
+// ended, or else the one seen least recently. Rejected attempts count as activity, so a flood of new keys pushes
+// out quiet clients before it pushes out the clients being blocked.
+public final class AttemptTable {
+    private static final int SEGMENTS = 64;
+    private static final int HEADER = 5;
+    private static final int LAST_SEEN = 3;
+    private static final int WINDOW_END = 4;
+    private static final int MAX_PROBES = 16;
+
+    private final LongBuffer table;
+    private final int stride;
+    private final int maxAttempts;
+    private final int segmentSlots;
+    private final int segmentMask;
+    private final int segmentLimit;
+    private final Object[] locks = new Object[SEGMENTS];
+    private final int[] counts = new int[SEGMENTS];
+
+    // Capacity is the number of entries, a power of two of at least 1024; maxAttempts bounds every action's limit
+    public AttemptTable(int capacity, int maxAttempts) {
+        if (capacity < 1024 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Attempt table capacity must be a power of two of at least 1024: "
+                    + capacity);
+        }
+        if (maxAttempts <= 0 || maxAttempts > 255) {
+            throw new IllegalArgumentException("Attempts per key must be between 1 and 255: " + maxAttempts);
+        }
+        this.maxAttempts = maxAttempts;
+        this.stride = HEADER + maxAttempts;
+        this.segmentSlots = capacity / SEGMENTS;
+        this.segmentMask = segmentSlots - 1;
+        this.segmentLimit = segmentSlots / 4 * 3;
+        this.table = ByteBuffer.allocateDirect(Math.multiplyExact(capacity, stride) * Long.BYTES)
+                .order(ByteOrder.nativeOrder()).asLongBuffer();
+        for (int s = 0; s < SEGMENTS; s++) {
+            locks[s] = new Object();
+        }
+    }
+
+    // Records an attempt at now for the key if fewer than limit attempts fall within the last windowMillis
+    public boolean tryAcquire(long hi, long lo, int action, int limit, long windowMillis, long now) {
+        if (limit <= 0 || limit > maxAttempts) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + maxAttempts + ": " + limit);
+        }
+        long h = hash(hi, lo, action);
+        int segment = segment(h);
+        synchronized (locks[segment]) {
+            int entry = find(segment, h, hi, lo, action);
+            if (entry < 0) {
+                entry = insert(segment, h, hi, lo, action, limit, windowMillis, now);
+            }
+            long meta = table.get(entry + 2);
+            int next = (int) (meta >>> 8) & 0xFF;
+            int length = (int) (meta >>> 16) & 0xFF;
+            int ring = entry + HEADER;
+            table.put(entry + LAST_SEEN, now);
+            if (now - table.get(ring + next) < windowMillis) {
+                return false;
+            }
+            table.put(ring + next, now);
+            table.put(entry + WINDOW_END, now + windowMillis);
+            next = next + 1 == length ? 0 : next + 1;
+            table.put(entry + 2, (meta & ~0xFF00L) | (long) next << 8);
+            return true;
+        }
+    }
+
+    public boolean remove(long hi, long lo, int action) {
+        long h = hash(hi, lo, action);
+        int segment = segment(h);
+        synchronized (locks[segment]) {
+            int entry = find(segment, h, hi, lo, action);
+            if (entry < 0) {
+                return false;
+            }
+            delete(segment, slotOf(segment, entry));
+            return true;
+        }
+    }
+
+    // Drops entries whose latest attempt has left its action's window; returns how many were dropped
+    public int sweep(long now, long[] windowByAction) {
+        int removed = 0;
+        for (int segment = 0; segment < SEGMENTS; segment++) {
+            synchronized (locks[segment]) {
+                int slot = 0;
+                while (slot < segmentSlots) {
+                    int entry = entry(segment, slot);
+                    long meta = table.get(entry + 2);
+                    int action = (int) (meta & 0xFF) - 1;
+                    if (action >= 0 && now - newest(entry, meta) >= windowByAction[action]) {
+                        // Deleting may shift a later entry into this slot, so look at it again
+                        delete(segment, slot);
+                        removed++;
+                    } else {
+                        slot++;
+                    }
+                }
+            }
+        }
+        return removed;
+    }
+
+    public int size() {
+        int size = 0;
+        for (int segment = 0; segment < SEGMENTS; segment++) {
+            synchronized (locks[segment]) {
+                size += counts[segment];
+            }
+        }
+        return size;
+    }
+
+    private int find(int segment, long h, long hi, long lo, int action) {
+        int slot = (int) h & segmentMask;
+        for (int p = 0; p < segmentSlots; p++) {
+            int entry = entry(segment, slot);
+            long meta = table.get(entry + 2);
+            if ((meta & 0xFF) == 0) {
+                return -1;
+            }
+            if ((meta & 0xFF) == action + 1 && table.get(entry) == hi && table.get(entry + 1) == lo) {
+                return entry;
+            }
+            slot = (slot + 1) & segmentMask;
+        }
+        return -1;
+    }
+
+    private int insert(int segment, long h, long hi, long lo, int action, int limit, long windowMillis, long now) {
+        int slot = (int) h & segmentMask;
+        if (counts[segment] >= segmentLimit) {
+            // Full: among the first few entries on the probe path, forget one whose window has ended, else the one
+            // seen least recently
+            int victim = -1;
+            long oldest = Long.MAX_VALUE;
+            for (int p = 0, seen = 0; p < segmentSlots && seen < MAX_PROBES; p++) {
+                int candidate = entry(segment, slot);
+                if (table.get(candidate + 2) != 0) {
+                    seen++;
+                    if (table.get(candidate + WINDOW_END) <= now) {
+                        victim = slot;
+                        break;
+                    }
+                    long lastSeen = table.get(candidate + LAST_SEEN);
+                    if (lastSeen < oldest) {
+                        oldest = lastSeen;
+                        victim = slot;
+                    }
+                }
+                slot = (slot + 1) & segmentMask;
+            }
+            delete(segment, victim);
+            slot = (int) h & segmentMask;
+        }
+        while (table.get(entry(segment, slot) + 2) != 0) {
+            slot = (slot + 1) & segmentMask;
+        }
+        int entry = entry(segment, slot);
+        counts[segment]++;
+        table.put(entry, hi);
+        table.put(entry + 1, lo);
+        table.put(entry + 2, (long) limit << 16 | (action + 1));
+        table.put(entry + LAST_SEEN, now);
+        table.put(entry + WINDOW_END, now);
+        // Slots start out already outside the window
+        for (int i = 0; i < limit; i++) {
+            table.put(entry + HEADER + i, now - windowMillis);
+        }
+        return entry;
+    }
+
+    // Backward-shift deletion: later entries of the probe run move up so lookups still reach them
+    private void delete(int segment, int hole) {
+        int slot = hole;
+        while (true) {
+            slot = (slot + 1) & segmentMask;
+            int entry = entry(segment, slot);
+            long meta = table.get(entry + 2);
+            if ((meta & 0xFF) == 0) {
+                break;
+            }
+            long h = hash(table.get(entry), table.get(entry + 1), (int) (meta & 0xFF) - 1);
+            int home = (int) h & segmentMask;
+            // Move it only if its home is not cyclically inside (hole, slot]
+            if (((slot - home) & segmentMask) >= ((slot - hole) & segmentMask)) {
+                copy(entry(segment, slot), entry(segment, hole));
+                hole = slot;
+            }
+        }
+        table.put(entry(segment, hole) + 2, 0);
+        counts[segment]--;
+    }
+
+    private void copy(int from, int to) {
+        int length = HEADER + (int) (table.get(from + 2) >>> 16 & 0xFF);
+        for (int i = 0; i < length; i++) {
+            table.put(to + i, table.get(from + i));
+        }
+    }
+
+    // Time of the latest attempt in an entry's ring
+    private long newest(int entry, long meta) {
+        int next = (int) (meta >>> 8) & 0xFF;
+        int length = (int) (meta >>> 16) & 0xFF;
+        return table.get(entry + HEADER + (next == 0 ? length - 1 : next - 1));
+    }
+
+    private int entry(int segment, int slot) {
+        return (segment * segmentSlots + slot) * stride;
+    }
+
+    private int slotOf(int segment, int entry) {
+        return entry / stride - segment * segmentSlots;
+    }
+
+    private static int segment(long h) {
+        return (int) (h >>> 58);
+    }
+
+    private static long hash(long hi, long lo, int action) {
+        long h = hi * 0x9e3779b97f4a7c15L ^ lo ^ (long) action << 56;
+        h = (h ^ h >>> 33) * 0xff51afd7ed558ccdL;
+        h = (h ^ h >>> 33) * 0xc4ceb9fe1a85ec53L;
+        return h ^ h >>> 33;
+    }
+}
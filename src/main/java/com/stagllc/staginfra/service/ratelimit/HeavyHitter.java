@@ -0,0 +1,5 @@
+package com.stagllc.staginfra.service.ratelimit;
+
+// A client among the most frequent for a limit; count may overstate its true count by up to error
+public record HeavyHitter(String key, long count, long error) {
+}
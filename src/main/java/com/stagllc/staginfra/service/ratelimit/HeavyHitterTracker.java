@@ -0,0 +1,186 @@
+package com.stagllc.staginfra.service.ratelimit;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+// The clients with the most attempts and the most rejections per limit, over rolling windows, in fixed memory.
+// Each limit keeps a ring of time slices, and each slice a Space-Saving summary of attempts and one of rejections.
+// A query merges the summaries of the slices inside the window. Memory depends only on the number of limits, stripes,
+// slices and counters per summary, never on how many distinct clients show up.
+// Clients are split by hash across stripes, each with its own ring and monitor, so concurrent requests on one busy
+// limit don't all queue on a single lock. A client always lands in the same stripe.
+public class HeavyHitterTracker {
+    private final int capacity;
+    private final int stripes;
+    private final int sliceCount;
+    private final long sliceMillis;
+    private final LongSupplier clock;
+    private final Map<String, LimitSlices[]> limits = new ConcurrentHashMap<>();
+
+    public HeavyHitterTracker(int capacity, int stripes, int sliceCount, long sliceMillis) {
+        this(capacity, stripes, sliceCount, sliceMillis, () -> TimeUnit.NANOSECONDS.toMillis(System.nanoTime()));
+    }
+
+    HeavyHitterTracker(int capacity, int stripes, int sliceCount, long sliceMillis, LongSupplier clock) {
+        if (capacity <= 0 || stripes <= 0 || sliceCount <= 0 || sliceMillis <= 0) {
+            throw new IllegalArgumentException(
+                    "Heavy hitter capacity, stripe count, slice count and slice length must be positive");
+        }
+        this.capacity = capacity;
+        this.stripes = stripes;
+        this.sliceCount = sliceCount;
+        this.sliceMillis = sliceMillis;
+        this.clock = clock;
+    }
+
+    // Longest window that can be queried
+    public long getHorizonMillis() {
+        return sliceCount * sliceMillis;
+    }
+
+    public long getSliceMillis() {
+        return sliceMillis;
+    }
+
+    // Clients given by name are counted under a 128-bit hash of it and reported by name
+    public void record(String limit, String client, boolean allowed) {
+        record(limit, TokenBucketLimiter.nameHi(client), TokenBucketLimiter.nameLo(client), client, allowed);
+    }
+
+    // Clients given by IP address (see IpAddresses) are reported in its text form; recording allocates nothing
+    public void record(String limit, long addressHi, long addressLo, boolean allowed) {
+        record(limit, addressHi, addressLo, null, allowed);
+    }
+
+    private void record(String limit, long hi, long lo, String label, boolean allowed) {
+        LimitSlices[] striped = limits.get(limit);
+        if (striped == null) {
+            striped = limits.computeIfAbsent(limit, k -> newStripes());
+        }
+        LimitSlices slices = striped[stripe(hi, lo)];
+        long slice = clock.getAsLong() / sliceMillis;
+        synchronized (slices) {
+            Slice current = slices.current(slice, capacity);
+            current.attempts.add(hi, lo, label);
+            if (!allowed) {
+                current.rejections.add(hi, lo, label);
+            }
+        }
+    }
+
+    private LimitSlices[] newStripes() {
+        LimitSlices[] striped = new LimitSlices[stripes];
+        for (int i = 0; i < stripes; i++) {
+            striped[i] = new LimitSlices(sliceCount);
+        }
+        return striped;
+    }
+
+    private int stripe(long hi, long lo) {
+        // IPv4 keys differ only in the low bits of lo, so mix both halves before picking
+        long h = (hi * 0x9e3779b97f4a7c15L ^ lo) * 0xbf58476d1ce4e5b9L;
+        return (int) ((h >>> 32) % stripes);
+    }
+
+    public Set<String> getLimits() {
+        return new TreeSet<>(limits.keySet());
+    }
+
+    // Top clients of a limit by attempts over the last windowMillis, rounded up to whole slices
+    public List<HeavyHitter> topAttempts(String limit, int n, long windowMillis) {
+        return top(limit, n, windowMillis, false);
+    }
+
+    public List<HeavyHitter> topRejections(String limit, int n, long windowMillis) {
+        return top(limit, n, windowMillis, true);
+    }
+
+    private List<HeavyHitter> top(String limit, int n, long windowMillis, boolean rejections) {
+        if (windowMillis <= 0 || windowMillis > getHorizonMillis()) {
+            throw new IllegalArgumentException("Window must be between 1 ms and " + getHorizonMillis() + " ms");
+        }
+        LimitSlices[] striped = limits.get(limit);
+        if (striped == null) {
+            return List.of();
+        }
+        long newest = clock.getAsLong() / sliceMillis;
+        long oldest = newest - (windowMillis + sliceMillis - 1) / sliceMillis + 1;
+        List<HeavyHitter> hitters = new ArrayList<>();
+        for (LimitSlices slices : striped) {
+            merge(slices, oldest, newest, rejections, hitters);
+        }
+        hitters.sort(Comparator.comparingLong(HeavyHitter::count).reversed().thenComparing(HeavyHitter::key));
+        return hitters.size() > n ? new ArrayList<>(hitters.subList(0, n)) : hitters;
+    }
+
+    // Merges one stripe's slices into hitters. A key missing from a full summary may still have been seen there up to
+    // its smallest count, so each such slice adds that minimum to both the key's count and its error; that keeps
+    // count - error <= true count <= count. Stripes hold disjoint keys, so their results are simply appended.
+    private static void merge(LimitSlices slices, long oldest, long newest, boolean rejections,
+                              List<HeavyHitter> hitters) {
+        Map<String, long[]> merged = new HashMap<>();
+        long floors = 0;
+        synchronized (slices) {
+            for (Slice slice : slices.ring) {
+                if (slice == null || slice.index < oldest || slice.index > newest) {
+                    continue;
+                }
+                SpaceSaving summary = rejections ? slice.rejections : slice.attempts;
+                long floor = summary.minCount();
+                floors += floor;
+                for (int c = 0; c < summary.size(); c++) {
+                    String label = summary.label(c);
+                    String key = label != null ? label : IpAddresses.format(summary.keyHi(c), summary.keyLo(c));
+                    long[] total = merged.computeIfAbsent(key, k -> new long[2]);
+                    total[0] += summary.count(c) - floor;
+                    total[1] += summary.error(c) - floor;
+                }
+            }
+        }
+        long absent = floors;
+        merged.forEach((key, total) -> hitters.add(new HeavyHitter(key, total[0] + absent, total[1] + absent)));
+    }
+
+    // Slices of one stripe of a limit, reused as the ring comes around. Guarded by its own monitor.
+    private static final class LimitSlices {
+        final Slice[] ring;
+
+        LimitSlices(int sliceCount) {
+            ring = new Slice[sliceCount];
+        }
+
+        Slice current(long index, int capacity) {
+            int position = (int) Math.floorMod(index, (long) ring.length);
+            Slice slice = ring[position];
+            if (slice == null) {
+                slice = new Slice(capacity);
+                ring[position] = slice;
+            }
+            if (slice.index != index) {
+                slice.attempts.clear();
+                slice.rejections.clear();
+                slice.index = index;
+            }
+            return slice;
+        }
+    }
+
+    private static final class Slice {
+        final SpaceSaving attempts;
+        final SpaceSaving rejections;
+        long index = Long.MIN_VALUE;
+
+        Slice(int capacity) {
+            attempts = new SpaceSaving(capacity);
+            rejections = new SpaceSaving(capacity);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.stagllc.staginfra.service.ratelimit;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Backend for a single node, or for tests; counters live in this JVM only
+public class InMemoryRateLimitBackend implements RateLimitBackend {
+    private final Map<CounterKey, Counter> counters = new ConcurrentHashMap<>();
+
+    @Override
+    public int acquire(String key, long window, int requested, int limit, long expiresAtMillis) {
+        int[] granted = new int[1];
+        counters.compute(new CounterKey(key, window), (k, counter) -> {
+            Counter target = counter != null ? counter : new Counter(expiresAtMillis);
+            granted[0] = Math.max(0, Math.min(requested, limit - target.used));
+            target.used += granted[0];
+            return target;
+        });
+        return granted[0];
+    }
+
+    @Override
+    public void release(List<Release> releases) {
+        for (Release release : releases) {
+            counters.computeIfPresent(new CounterKey(release.key(), release.window()), (k, counter) -> {
+                counter.used = Math.max(0, counter.used - release.tokens());
+                return counter;
+            });
+        }
+    }
+
+    @Override
+    public void reset(String key) {
+        counters.keySet().removeIf(counterKey -> counterKey.key().equals(key));
+    }
+
+    @Override
+    public void expire(long nowMillis) {
+        counters.values().removeIf(counter -> counter.expiresAt < nowMillis);
+    }
+
+    int size() {
+        return counters.size();
+    }
+
+    private record CounterKey(String key, long window) {
+    }
+
+    // Only changed inside compute, which holds the entry's lock
+    private static final class Counter {
+        final long expiresAt;
+        int used;
+
+        Counter(long expiresAt) {
+            this.expiresAt = expiresAt;
+        }
+    }
+}
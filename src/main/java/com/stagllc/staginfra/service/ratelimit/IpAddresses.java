@@ -0,0 +1,233 @@
+package com.stagllc.staginfra.service.ratelimit;
+
+// IP addresses as two longs (the high and low 64 bits of an IPv6 address), parsed without allocating. IPv4 addresses
+// are stored IPv4-mapped (::ffff:a.b.c.d), so both families share one key space.
+public final class IpAddresses {
+    private static final long IPV4_MAPPED = 0xFFFFL << 32;
+
+    private IpAddresses() {
+    }
+
+    // Parses s[from, to) into out[0] (high bits) and out[1] (low bits). Accepts dotted IPv4, IPv6 (with :: and a
+    // dotted IPv4 tail), surrounding blanks, [IPv6] brackets, an IPv6 zone (%eth0) and a port after IPv4 or ].
+    // Returns false, leaving out unchanged, when the text is not an address.
+    public static boolean parse(CharSequence s, int from, int to, long[] out) {
+        while (from < to && isBlank(s.charAt(from))) {
+            from++;
+        }
+        while (to > from && isBlank(s.charAt(to - 1))) {
+            to--;
+        }
+        if (from == to) {
+            return false;
+        }
+        if (s.charAt(from) == '[') {
+            int close = indexOf(s, ']', from, to);
+            return close > 0 && (close + 1 == to || s.charAt(close + 1) == ':') && parse6(s, from + 1, close, out);
+        }
+        int colon = indexOf(s, ':', from, to);
+        if (colon < 0 || indexOf(s, ':', colon + 1, to) < 0) {
+            // a.b.c.d or a.b.c.d:port; IPv6 always has at least two colons
+            long address = parse4(s, from, colon < 0 ? to : colon);
+            if (address < 0) {
+                return false;
+            }
+            out[0] = 0;
+            out[1] = IPV4_MAPPED | address;
+            return true;
+        }
+        return parse6(s, from, to, out);
+    }
+
+    public static boolean parse(CharSequence s, long[] out) {
+        return parse(s, 0, s.length(), out);
+    }
+
+    public static boolean isIpv4(long hi, long lo) {
+        return hi == 0 && (lo & 0xFFFF_FFFF_0000_0000L) == IPV4_MAPPED;
+    }
+
+    // Dotted IPv4, or IPv6 in its shortest form (RFC 5952)
+    public static String format(long hi, long lo) {
+        StringBuilder text = new StringBuilder(39);
+        if (isIpv4(hi, lo)) {
+            return text.append((lo >>> 24) & 0xFF).append('.').append((lo >>> 16) & 0xFF).append('.')
+                    .append((lo >>> 8) & 0xFF).append('.').append(lo & 0xFF).toString();
+        }
+        // The first longest run of two or more zero groups becomes ::
+        int runStart = -1;
+        int runLength = 0;
+        for (int g = 0; g < 8; ) {
+            int end = g;
+            while (end < 8 && group(hi, lo, end) == 0) {
+                end++;
+            }
+            if (end - g > runLength && end - g >= 2) {
+                runStart = g;
+                runLength = end - g;
+            }
+            g = end == g ? g + 1 : end;
+        }
+        for (int g = 0; g < 8; g++) {
+            if (g == runStart) {
+                text.append("::");
+                g += runLength - 1;
+                continue;
+            }
+            if (g > 0 && g != runStart + runLength) {
+                text.append(':');
+            }
+            text.append(Integer.toHexString(group(hi, lo, g)));
+        }
+        return text.toString();
+    }
+
+    private static int group(long hi, long lo, int g) {
+        long half = g < 4 ? hi : lo;
+        return (int) (half >>> (48 - 16 * (g & 3))) & 0xFFFF;
+    }
+
+    // Value of a dotted IPv4 address, or -1
+    private static long parse4(CharSequence s, int from, int to) {
+        long address = 0;
+        int parts = 0;
+        int value = -1;
+        for (int i = from; i <= to; i++) {
+            char c = i < to ? s.charAt(i) : '.';
+            if (c >= '0' && c <= '9') {
+                value = value < 0 ? c - '0' : value * 10 + (c - '0');
+                if (value > 255) {
+                    return -1;
+                }
+            } else if (c == '.' && value >= 0 && parts < 4) {
+                address = address << 8 | value;
+                parts++;
+                value = -1;
+            } else {
+                return -1;
+            }
+        }
+        return parts == 4 ? address : -1;
+    }
+
+    private static boolean parse6(CharSequence s, int from, int to, long[] out) {
+        int zone = indexOf(s, '%', from, to);
+        if (zone >= 0) {
+            to = zone;
+        }
+        // Groups before :: shift into head, groups after it into tail
+        long headHi = 0;
+        long headLo = 0;
+        long tailHi = 0;
+        long tailLo = 0;
+        int head = 0;
+        int tail = 0;
+        boolean compressed = false;
+        int i = from;
+        if (to - from >= 2 && s.charAt(from) == ':' && s.charAt(from + 1) == ':') {
+            compressed = true;
+            i += 2;
+        } else if (from < to && s.charAt(from) == ':') {
+            return false;
+        }
+        while (i < to) {
+            int start = i;
+            boolean dotted = false;
+            while (i < to && s.charAt(i) != ':') {
+                dotted |= s.charAt(i) == '.';
+                i++;
+            }
+            if (i == start) {
+                return false;
+            }
+            long bits;
+            int groups;
+            if (dotted) {
+                // An IPv4 tail fills the last two groups
+                bits = i == to ? parse4(s, start, i) : -1;
+                groups = 2;
+            } else {
+                bits = i - start <= 4 ? parseHex(s, start, i) : -1;
+                groups = 1;
+            }
+            if (bits < 0) {
+                return false;
+            }
+            for (int g = 0; g < groups; g++) {
+                if (compressed) {
+                    tailHi = tailHi << 16 | tailLo >>> 48;
+                    tailLo <<= 16;
+                } else {
+                    headHi = headHi << 16 | headLo >>> 48;
+                    headLo <<= 16;
+                }
+            }
+            if (compressed) {
+                tailLo |= bits;
+                tail += groups;
+            } else {
+                headLo |= bits;
+                head += groups;
+            }
+            if (head + tail > 8) {
+                return false;
+            }
+            if (i < to) {
+                i++;
+                if (i == to) {
+                    return false;
+                }
+                if (s.charAt(i) == ':') {
+                    if (compressed) {
+                        return false;
+                    }
+                    compressed = true;
+                    i++;
+                }
+            }
+        }
+        if (compressed ? head + tail > 7 : head != 8) {
+            return false;
+        }
+        // Move the head groups to the top
+        for (int g = head; g < 8; g++) {
+            headHi = headHi << 16 | headLo >>> 48;
+            headLo <<= 16;
+        }
+        out[0] = headHi | tailHi;
+        out[1] = headLo | tailLo;
+        return true;
+    }
+
+    private static long parseHex(CharSequence s, int from, int to) {
+        long value = 0;
+        for (int i = from; i < to; i++) {
+            char c = s.charAt(i);
+            int digit;
+            if (c >= '0' && c <= '9') {
+                digit = c - '0';
+            } else if (c >= 'a' && c <= 'f') {
+                digit = c - 'a' + 10;
+            } else if (c >= 'A' && c <= 'F') {
+                digit = c - 'A' + 10;
+            } else {
+                return -1;
+            }
+            value = value << 4 | digit;
+        }
+        return value;
+    }
+
+    static int indexOf(CharSequence s, char c, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (s.charAt(i) == c) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean isBlank(char c) {
+        return c == ' ' || c == '\t';
+    }
+}
@@ -0,0 +1,155 @@
+package com.stagllc.staginfra.service.ratelimit;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+// Counters in a rate_limit_counters table shared by every node, on H2 or PostgreSQL. The table is created on startup.
+// An acquire inserts the window's row if it is missing, then locks it, so concurrent nodes never grant past the limit.
+public class JdbcRateLimitBackend implements RateLimitBackend {
+    private static final String CREATE_TABLE = "CREATE TABLE IF NOT EXISTS rate_limit_counters ("
+            + "counter_key VARCHAR(255) NOT NULL, "
+            + "window_id BIGINT NOT NULL, "
+            + "used INT NOT NULL, "
+            + "expires_at BIGINT NOT NULL, "
+            + "PRIMARY KEY (counter_key, window_id))";
+    private static final String INSERT_POSTGRES = "INSERT INTO rate_limit_counters "
+            + "(counter_key, window_id, used, expires_at) VALUES (?, ?, 0, ?) "
+            + "ON CONFLICT (counter_key, window_id) DO NOTHING";
+    private static final String INSERT_H2 = "MERGE INTO rate_limit_counters t USING (VALUES "
+            + "(CAST(? AS VARCHAR(255)), CAST(? AS BIGINT), CAST(? AS BIGINT))) s(counter_key, window_id, expires_at) "
+            + "ON t.counter_key = s.counter_key AND t.window_id = s.window_id "
+            + "WHEN NOT MATCHED THEN INSERT (counter_key, window_id, used, expires_at) "
+            + "VALUES (s.counter_key, s.window_id, 0, s.expires_at)";
+    private static final String LOCK = "SELECT used FROM rate_limit_counters "
+            + "WHERE counter_key = ? AND window_id = ? FOR UPDATE";
+    private static final String ADD = "UPDATE rate_limit_counters SET used = used + ? "
+            + "WHERE counter_key = ? AND window_id = ?";
+    private static final String RELEASE = "UPDATE rate_limit_counters SET used = used - ? "
+            + "WHERE counter_key = ? AND window_id = ? AND used >= ?";
+    private static final String RESET = "DELETE FROM rate_limit_counters WHERE counter_key = ?";
+    private static final String EXPIRE = "DELETE FROM rate_limit_counters WHERE expires_at < ?";
+    private static final String DUPLICATE_KEY = "23505";
+
+    private final DataSource dataSource;
+    private final String insert;
+
+    public JdbcRateLimitBackend(DataSource dataSource) {
+        this.dataSource = dataSource;
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            String product = connection.getMetaData().getDatabaseProductName();
+            if (product.equals("PostgreSQL")) {
+                insert = INSERT_POSTGRES;
+            } else if (product.equals("H2")) {
+                insert = INSERT_H2;
+            } else {
+                throw new IllegalStateException("Rate limit counters need H2 or PostgreSQL, not " + product);
+            }
+            statement.execute(CREATE_TABLE);
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not set up rate limit counters", e);
+        }
+    }
+
+    @Override
+    public int acquire(String key, long window, int requested, int limit, long expiresAtMillis) {
+        try (Connection connection = dataSource.getConnection()) {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try {
+                insertIfMissing(connection, key, window, expiresAtMillis);
+                int used;
+                try (PreparedStatement lock = connection.prepareStatement(LOCK)) {
+                    lock.setString(1, key);
+                    lock.setLong(2, window);
+                    try (ResultSet row = lock.executeQuery()) {
+                        row.next();
+                        used = row.getInt(1);
+                    }
+                }
+                int granted = Math.max(0, Math.min(requested, limit - used));
+                if (granted > 0) {
+                    try (PreparedStatement add = connection.prepareStatement(ADD)) {
+                        add.setInt(1, granted);
+                        add.setString(2, key);
+                        add.setLong(3, window);
+                        add.executeUpdate();
+                    }
+                }
+                connection.commit();
+                return granted;
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not acquire rate limit tokens for " + key, e);
+        }
+    }
+
+    private void insertIfMissing(Connection connection, String key, long window, long expiresAtMillis)
+            throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(insert)) {
+            statement.setString(1, key);
+            statement.setLong(2, window);
+            statement.setLong(3, expiresAtMillis);
+            statement.executeUpdate();
+        } catch (SQLException e) {
+            // H2's MERGE can race with another node inserting the same row; the row exists either way
+            if (!DUPLICATE_KEY.equals(e.getSQLState())) {
+                throw e;
+            }
+        }
+    }
+
+    @Override
+    public void release(List<Release> releases) {
+        if (releases.isEmpty()) {
+            return;
+        }
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(RELEASE)) {
+            for (Release release : releases) {
+                statement.setInt(1, release.tokens());
+                statement.setString(2, release.key());
+                statement.setLong(3, release.window());
+                statement.setInt(4, release.tokens());
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not release rate limit tokens", e);
+        }
+    }
+
+    @Override
+    public void reset(String key) {
+        update(RESET, statement -> statement.setString(1, key));
+    }
+
+    @Override
+    public void expire(long nowMillis) {
+        update(EXPIRE, statement -> statement.setLong(1, nowMillis));
+    }
+
+    private void update(String sql, Binder binder) {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+            binder.bind(statement);
+            statement.executeUpdate();
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not update rate limit counters", e);
+        }
+    }
+
+    private interface Binder {
+        void bind(PreparedStatement statement) throws SQLException;
+    }
+}
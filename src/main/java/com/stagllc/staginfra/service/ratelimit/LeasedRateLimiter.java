@@ -0,0 +1,185 @@
+package com.stagllc.staginfra.service.ratelimit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+// Cluster-wide limits over fixed windows, counted in a shared RateLimitBackend. A node takes tokens from the backend
+// in leases of up to leaseSize and spends them locally, so only one check in leaseSize goes to the backend. Leased
+// tokens count as used cluster-wide, so the limit is never exceeded within a window; flush() drops leases whose window
+// has ended and hands long-idle ones back in one batch so other nodes can use them.
+// Windows are fixed, so a client can spend its limit at the end of one window and again at the start of the next:
+// up to twice the limit within any windowMillis span, never more.
+// After a backend call fails, checks that need the backend fail at once for retryMillis instead of each waiting out
+// the backend's timeout while holding their lease. flush() still reaches the backend and ends the pause when it can.
+public class LeasedRateLimiter {
+    private static final Logger logger = LoggerFactory.getLogger(LeasedRateLimiter.class);
+
+    private final RateLimitBackend backend;
+    private final int leaseSize;
+    private final long retryMillis;
+    private final LongSupplier clock;
+    // Until when checks and resets skip the backend after a failure
+    private volatile long backendRetryAt = Long.MIN_VALUE;
+    // Leases per limit name, then per client
+    private final Map<String, Map<String, Lease>> leases = new ConcurrentHashMap<>();
+
+    public LeasedRateLimiter(RateLimitBackend backend, int leaseSize, long retryMillis) {
+        this(backend, leaseSize, retryMillis, System::currentTimeMillis);
+    }
+
+    // The clock reads wall-clock milliseconds, since windows must line up across nodes
+    LeasedRateLimiter(RateLimitBackend backend, int leaseSize, long retryMillis, LongSupplier clock) {
+        if (leaseSize <= 0) {
+            throw new IllegalArgumentException("Lease size must be positive: " + leaseSize);
+        }
+        if (retryMillis < 0) {
+            throw new IllegalArgumentException("Retry interval must not be negative: " + retryMillis);
+        }
+        this.backend = backend;
+        this.leaseSize = leaseSize;
+        this.retryMillis = retryMillis;
+        this.clock = clock;
+    }
+
+    // Allows at most limit calls per client and name in each window of windowMillis, across the cluster.
+    // Throws when a lease is needed and the backend can't be reached, or failed less than retryMillis ago.
+    public boolean tryAcquire(String name, String client, int limit, long windowMillis) {
+        Map<String, Lease> byClient = leases.get(name);
+        if (byClient == null) {
+            byClient = leases.computeIfAbsent(name, k -> new ConcurrentHashMap<>());
+        }
+        long now = clock.getAsLong();
+        long window = now / windowMillis;
+        while (true) {
+            Lease lease = byClient.get(client);
+            if (lease == null) {
+                lease = byClient.computeIfAbsent(client, k -> new Lease(name + ":" + client, windowMillis));
+            }
+            synchronized (lease) {
+                if (lease.retired) {
+                    continue;
+                }
+                if (lease.window != window) {
+                    // Tokens of an earlier window are worthless now
+                    lease.window = window;
+                    lease.remaining = 0;
+                }
+                lease.lastUsed = now;
+                if (lease.remaining > 0) {
+                    lease.remaining--;
+                    return true;
+                }
+                // Keep counters for one extra window so nodes with slightly skewed clocks still find them
+                long expiresAt = (window + 2) * windowMillis;
+                checkBackend(now);
+                int granted;
+                try {
+                    granted = backend.acquire(lease.key, window, Math.min(leaseSize, limit), limit, expiresAt);
+                } catch (RuntimeException e) {
+                    backendFailed(now);
+                    throw e;
+                }
+                if (granted == 0) {
+                    return false;
+                }
+                lease.remaining = granted - 1;
+                return true;
+            }
+        }
+    }
+
+    public void reset(String name, String client) {
+        Map<String, Lease> byClient = leases.get(name);
+        if (byClient != null) {
+            byClient.remove(client);
+        }
+        long now = clock.getAsLong();
+        checkBackend(now);
+        try {
+            backend.reset(name + ":" + client);
+        } catch (RuntimeException e) {
+            backendFailed(now);
+            throw e;
+        }
+    }
+
+    // Drops leases of past windows, returns unused tokens of leases idle for at least idleMillis in one batch and
+    // expires old counters in the backend. Returns how many tokens went back. Retiring a lease costs its client a
+    // backend round trip on the next check, so idleMillis should be well above the flush interval.
+    public int flush(long idleMillis) {
+        long now = clock.getAsLong();
+        List<RateLimitBackend.Release> releases = new ArrayList<>();
+        int tokens = 0;
+        for (Map<String, Lease> byClient : leases.values()) {
+            for (Map.Entry<String, Lease> entry : byClient.entrySet()) {
+                Lease lease = entry.getValue();
+                synchronized (lease) {
+                    boolean current = lease.window == now / lease.windowMillis;
+                    if (current && now - lease.lastUsed < idleMillis) {
+                        continue;
+                    }
+                    if (current && lease.remaining > 0) {
+                        releases.add(new RateLimitBackend.Release(lease.key, lease.window, lease.remaining));
+                        tokens += lease.remaining;
+                    }
+                    lease.remaining = 0;
+                    // Checks that already hold this lease see the flag and start over with a new one
+                    lease.retired = true;
+                }
+                byClient.remove(entry.getKey(), lease);
+            }
+        }
+        try {
+            backend.release(releases);
+            backend.expire(now);
+            backendRetryAt = Long.MIN_VALUE;
+        } catch (RuntimeException e) {
+            backendFailed(now);
+            // Unreturned tokens stay counted until their window ends, which only makes limits stricter
+            logger.warn("Could not flush {} rate limit tokens: {}", tokens, e.getMessage());
+            return 0;
+        }
+        return tokens;
+    }
+
+    private void checkBackend(long now) {
+        long retryAt = backendRetryAt;
+        if (now < retryAt) {
+            throw new IllegalStateException("Rate limit backend failed recently, retrying in "
+                    + (retryAt - now) + " ms");
+        }
+    }
+
+    private void backendFailed(long now) {
+        backendRetryAt = now + retryMillis;
+    }
+
+    int leaseCount() {
+        int count = 0;
+        for (Map<String, Lease> byClient : leases.values()) {
+            count += byClient.size();
+        }
+        return count;
+    }
+
+    // Tokens held by this node for one client in one window. Guarded by its own monitor.
+    private static final class Lease {
+        final String key;
+        final long windowMillis;
+        long window = -1;
+        int remaining;
+        long lastUsed;
+        boolean retired;
+
+        Lease(String key, long windowMillis) {
+            this.key = key;
+            this.windowMillis = windowMillis;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.stagllc.staginfra.service.ratelimit;
+
+import java.util.List;
+
+// Counters shared by every node of the cluster, one per limit key and fixed window. Nodes reserve tokens in batches
+// (see LeasedRateLimiter), so implementations are called about once per batch rather than once per request.
+public interface RateLimitBackend {
+
+    // Adds up to requested to the key's counter for the window without taking it past limit, and returns the
+    // amount added. The counter may be dropped once expiresAtMillis (wall-clock time) has passed.
+    int acquire(String key, long window, int requested, int limit, long expiresAtMillis);
+
+    // Gives back tokens that were acquired but not used
+    void release(List<Release> releases);
+
+    // Drops every window of the key
+    void reset(String key);
+
+    // Drops counters that expired before the given wall-clock time
+    void expire(long nowMillis);
+
+    record Release(String key, long window, int tokens) {
+    }
+}
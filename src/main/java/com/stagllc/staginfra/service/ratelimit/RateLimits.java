@@ -0,0 +1,38 @@
+package com.stagllc.staginfra.service.ratelimit;
+
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.core.env.Environment;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// The named limits used by @RateLimited endpoints, one token bucket table per name. A limit's permits and window
+// come from app.rate-limit.limits.<name>.permits and .window when set, otherwise from the annotation.
+public class RateLimits {
+    private final Environment environment;
+    private final boolean enabled;
+    private final int slots;
+    private final Map<String, TokenBucketLimiter> limiters = new ConcurrentHashMap<>();
+
+    public RateLimits(Environment environment) {
+        this.environment = environment;
+        this.enabled = environment.getProperty("app.rate-limit.enabled", Boolean.class, true);
+        this.slots = environment.getProperty("app.rate-limit.slots", Integer.class, 65536);
+        if (slots <= 0 || Integer.bitCount(slots) != 1) {
+            throw new IllegalStateException("app.rate-limit.slots must be a power of two: " + slots);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public TokenBucketLimiter limiter(String name, int defaultPermits, String defaultWindow) {
+        return limiters.computeIfAbsent(name, k -> {
+            String prefix = "app.rate-limit.limits." + name;
+            int permits = environment.getProperty(prefix + ".permits", Integer.class, defaultPermits);
+            String window = environment.getProperty(prefix + ".window", defaultWindow);
+            return new TokenBucketLimiter(permits, DurationStyle.detectAndParse(window).toMillis(), slots);
+        });
+    }
+}
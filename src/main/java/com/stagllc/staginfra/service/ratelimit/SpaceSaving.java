@@ -0,0 +1,184 @@
+package com.stagllc.staginfra.service.ratelimit;
+
+import java.util.Arrays;
+
+// Space-Saving summary: the most frequent keys of a stream in a fixed number of counters. When a new key arrives and
+// every counter is taken, it replaces the key with the smallest count and inherits that count as its error, so each
+// count overstates the key's true count by at most its error. Any key seen more than total / capacity times is
+// guaranteed to be present. Counters sit in a min-heap by count, so an update is O(log capacity). Not thread-safe.
+// Keys are 128-bit (an IP address, or a hash of a longer client id) with an optional label to report them by. The
+// key index is an open-addressing table of counter numbers, so an update allocates nothing.
+final class SpaceSaving {
+    private final long[] keyHi;
+    private final long[] keyLo;
+    private final String[] labels;
+    private final long[] counts;
+    private final long[] errors;
+    // Counter indexes ordered as a min-heap by count, and each counter's position in it
+    private final int[] heap;
+    private final int[] position;
+    // Counter number + 1 per slot, 0 when empty; linear probing, at most half full
+    private final int[] index;
+    private final int indexMask;
+    private int size;
+
+    SpaceSaving(int capacity) {
+        keyHi = new long[capacity];
+        keyLo = new long[capacity];
+        labels = new String[capacity];
+        counts = new long[capacity];
+        errors = new long[capacity];
+        heap = new int[capacity];
+        position = new int[capacity];
+        index = new int[Integer.highestOneBit(Math.max(1, capacity)) * 4];
+        indexMask = index.length - 1;
+    }
+
+    // The label, which may be null, is kept from the key's first arrival
+    void add(long hi, long lo, String label) {
+        int slot = slot(hi, lo);
+        while (index[slot] != 0) {
+            int counter = index[slot] - 1;
+            if (keyHi[counter] == hi && keyLo[counter] == lo) {
+                counts[counter]++;
+                siftDown(position[counter]);
+                return;
+            }
+            slot = (slot + 1) & indexMask;
+        }
+        int c;
+        boolean appended = size < counts.length;
+        if (appended) {
+            c = size;
+            heap[size] = c;
+            position[c] = size;
+            size++;
+            counts[c] = 0;
+            errors[c] = 0;
+        } else {
+            c = heap[0];
+            unindex(c);
+            errors[c] = counts[c];
+            // The evicted key's slot may have been on the new key's probe path
+            slot = slot(hi, lo);
+            while (index[slot] != 0) {
+                slot = (slot + 1) & indexMask;
+            }
+        }
+        keyHi[c] = hi;
+        keyLo[c] = lo;
+        labels[c] = label;
+        counts[c]++;
+        index[slot] = c + 1;
+        // A new counter at the bottom of the heap may be lighter than its parents; a reused root only gets heavier
+        if (appended) {
+            siftUp(position[c]);
+        } else {
+            siftDown(position[c]);
+        }
+    }
+
+    void clear() {
+        for (int c = 0; c < size; c++) {
+            labels[c] = null;
+        }
+        Arrays.fill(index, 0);
+        size = 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    // Upper bound on the count of any key the summary doesn't hold: 0 until it's full, then the smallest counter
+    long minCount() {
+        return size < counts.length ? 0 : counts[heap[0]];
+    }
+
+    long keyHi(int counter) {
+        return keyHi[counter];
+    }
+
+    long keyLo(int counter) {
+        return keyLo[counter];
+    }
+
+    String label(int counter) {
+        return labels[counter];
+    }
+
+    long count(int counter) {
+        return counts[counter];
+    }
+
+    long error(int counter) {
+        return errors[counter];
+    }
+
+    private int slot(long hi, long lo) {
+        long h = (hi * 0x9e3779b97f4a7c15L) ^ lo;
+        h *= 0xff51afd7ed558ccdL;
+        return (int) (h ^ h >>> 32) & indexMask;
+    }
+
+    // Removes a counter's key from the index, shifting later entries of its probe run back so lookups still find them
+    private void unindex(int counter) {
+        int hole = slot(keyHi[counter], keyLo[counter]);
+        while (index[hole] != counter + 1) {
+            hole = (hole + 1) & indexMask;
+        }
+        int slot = hole;
+        while (true) {
+            slot = (slot + 1) & indexMask;
+            if (index[slot] == 0) {
+                break;
+            }
+            int other = index[slot] - 1;
+            int home = slot(keyHi[other], keyLo[other]);
+            // Move it only if its home is not cyclically inside (hole, slot]
+            if (((slot - home) & indexMask) >= ((slot - hole) & indexMask)) {
+                index[hole] = index[slot];
+                hole = slot;
+            }
+        }
+        index[hole] = 0;
+    }
+
+    private void siftUp(int i) {
+        int counter = heap[i];
+        long count = counts[counter];
+        while (i > 0) {
+            int parent = (i - 1) / 2;
+            if (counts[heap[parent]] <= count) {
+                break;
+            }
+            heap[i] = heap[parent];
+            position[heap[i]] = i;
+            i = parent;
+        }
+        heap[i] = counter;
+        position[counter] = i;
+    }
+
+    private void siftDown(int i) {
+        int counter = heap[i];
+        long count = counts[counter];
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && counts[heap[child + 1]] < counts[heap[child]]) {
+                child++;
+            }
+            if (counts[heap[child]] >= count) {
+                break;
+            }
+            heap[i] = heap[child];
+            position[heap[i]] = i;
+            i = child;
+        }
+        heap[i] = counter;
+        position[counter] = i;
+    }
+}
@@ -0,0 +1,146 @@
+package com.stagllc.staginfra.service.ratelimit;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+
+// Token buckets for one limit, kept in a fixed table of atomic longs so memory doesn't grow with the number of
+// clients. Each bucket is stored as its theoretical arrival time (GCRA): the time at which the bucket would be full
+// again. A request is allowed when that time is at most one window minus one permit interval ahead of now, and moves
+// it one interval forward. Each slot packs a 16-bit client fingerprint with a 48-bit arrival time in microseconds
+// (about 8 years of uptime), so a check is a single compare-and-set and takes no locks.
+// Clients hash to a slot and probe a few neighbours. A slot whose bucket is full again is as good as empty and can be
+// taken over by any client; when every probed slot is in use the client shares its home slot's bucket, which can
+// only make the limit stricter.
+public final class TokenBucketLimiter {
+    private static final int PROBES = 4;
+    private static final long TIME_MASK = (1L << 48) - 1;
+    private static final long NAME_SEED_HI = 0x27d4eb2f165667c5L;
+    private static final long NAME_SEED_LO = 0x85ebca77c2b2ae63L;
+
+    private final int permits;
+    private final long windowMicros;
+    private final long intervalMicros;
+    private final long toleranceMicros;
+    private final AtomicLongArray slots;
+    private final int mask;
+    private final LongSupplier clock;
+    private final long origin;
+
+    public TokenBucketLimiter(int permits, long windowMillis, int slots) {
+        this(permits, windowMillis, slots, () -> TimeUnit.NANOSECONDS.toMicros(System.nanoTime()));
+    }
+
+    // The clock reads microseconds
+    TokenBucketLimiter(int permits, long windowMillis, int slots, LongSupplier clock) {
+        if (permits <= 0 || windowMillis <= 0) {
+            throw new IllegalArgumentException("A rate limit needs positive permits and window");
+        }
+        if (slots <= 0 || Integer.bitCount(slots) != 1) {
+            throw new IllegalArgumentException("Slot count must be a power of two: " + slots);
+        }
+        this.permits = permits;
+        this.windowMicros = TimeUnit.MILLISECONDS.toMicros(windowMillis);
+        this.intervalMicros = Math.max(1, windowMicros / permits);
+        this.toleranceMicros = windowMicros - intervalMicros;
+        this.slots = new AtomicLongArray(slots);
+        this.mask = slots - 1;
+        this.clock = clock;
+        // Empty slots (arrival time 0) are always in the past
+        this.origin = clock.getAsLong() - 1;
+    }
+
+    public int getPermits() {
+        return permits;
+    }
+
+    public long getWindowMillis() {
+        return TimeUnit.MICROSECONDS.toMillis(windowMicros);
+    }
+
+    // Takes a permit for the client with this hash. Returns 0 when allowed, otherwise the microseconds until
+    // the client's next permit.
+    public long tryAcquire(long clientHash) {
+        long fingerprint = clientHash >>> 48;
+        int home = (int) clientHash & mask;
+        while (true) {
+            long now = clock.getAsLong() - origin;
+            int slot = -1;
+            int idle = -1;
+            for (int p = 0; p < PROBES; p++) {
+                int i = (home + p) & mask;
+                long value = slots.get(i);
+                if (value >>> 48 == fingerprint) {
+                    slot = i;
+                    break;
+                }
+                if (idle < 0 && (value & TIME_MASK) <= now) {
+                    idle = i;
+                }
+            }
+            boolean shared = false;
+            if (slot < 0) {
+                slot = idle;
+            }
+            if (slot < 0) {
+                slot = home;
+                shared = true;
+            }
+
+            long value = slots.get(slot);
+            long owner = value >>> 48;
+            long arrival = value & TIME_MASK;
+            if (owner != fingerprint) {
+                if (arrival <= now) {
+                    // A full bucket; take it over
+                    owner = fingerprint;
+                } else if (!shared) {
+                    // Another client claimed the slot since the probe
+                    continue;
+                }
+            }
+            long start = Math.max(arrival, now);
+            if (start - now > toleranceMicros) {
+                return start - now - toleranceMicros;
+            }
+            if (slots.compareAndSet(slot, value, owner << 48 | (start + intervalMicros))) {
+                return 0;
+            }
+        }
+    }
+
+    // 64-bit hash of a client identifier, without copying it
+    public static long hash(CharSequence key, long seed) {
+        long h = seed ^ 0x9e3779b97f4a7c15L;
+        for (int i = 0; i < key.length(); i++) {
+            h = (h ^ key.charAt(i)) * 0x100000001b3L;
+        }
+        // MurmurHash3 finalizer, so the slot and fingerprint bits both depend on every character
+        return mix(h);
+    }
+
+    // 128-bit key of a client known by text rather than address (a user name, or a remote address that doesn't
+    // parse), in the same two-long form as IpAddresses keys. Every limiter and tracker keys text clients this way,
+    // so one client is one key everywhere.
+    public static long nameHi(CharSequence name) {
+        return hash(name, NAME_SEED_HI);
+    }
+
+    public static long nameLo(CharSequence name) {
+        return hash(name, NAME_SEED_LO);
+    }
+
+    // 64-bit hash of a 128-bit client key such as an IP address (see IpAddresses)
+    public static long hash(long hi, long lo, long seed) {
+        return mix(mix(seed ^ hi) ^ lo);
+    }
+
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
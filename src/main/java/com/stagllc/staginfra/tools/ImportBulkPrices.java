@@ -0,0 +1,36 @@
+package com.stagllc.staginfra.tools;
+
+import com.stagllc.staginfra.service.pricing.BulkPriceImporter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+// Command-line entry point for BulkPriceImporter, run outside the application (see the README).
+//
+// Usage: ImportBulkPrices <index file> <offer file>...
+public final class ImportBulkPrices {
+    private static final Logger logger = LoggerFactory.getLogger(ImportBulkPrices.class);
+
+    private ImportBulkPrices() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: ImportBulkPrices <index file> <offer file>...");
+            System.exit(2);
+        }
+        BulkPriceImporter importer = new BulkPriceImporter();
+        for (int i = 1; i < args.length; i++) {
+            try (InputStream in = Files.newInputStream(Path.of(args[i]))) {
+                importer.read(in);
+            }
+            logger.info("Imported {}", args[i]);
+        }
+        importer.write(Path.of(args[0]));
+        logger.info("Wrote price index {}", args[0]);
+    }
+}
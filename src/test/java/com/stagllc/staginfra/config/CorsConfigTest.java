@@ -12,7 +12,7 @@ import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 
 @WebMvcTest({CorsConfig.class, CostController.class})
-@Import(TestSecurityConfig.class)
+@Import(CostTestConfig.class)
 public class CorsConfigTest {
 
     @Autowired
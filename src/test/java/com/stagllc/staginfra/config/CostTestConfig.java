@@ -0,0 +1,32 @@
+package com.stagllc.staginfra.config;
+
+import com.stagllc.staginfra.service.cost.BatchCostService;
+import com.stagllc.staginfra.service.cost.CostEstimator;
+import com.stagllc.staginfra.service.cost.CostEventService;
+import com.stagllc.staginfra.service.cost.DesignDiffService;
+import com.stagllc.staginfra.service.cost.DesignStore;
+import com.stagllc.staginfra.service.cost.EstimateCache;
+import com.stagllc.staginfra.service.cost.ProjectionService;
+import com.stagllc.staginfra.service.cost.StreamingCostIngester;
+import com.stagllc.staginfra.service.cost.SweepService;
+import com.stagllc.staginfra.service.cost.calculator.CostCalculatorRegistry;
+import com.stagllc.staginfra.service.cost.calculator.DynamoDbCostCalculator;
+import com.stagllc.staginfra.service.cost.calculator.EbsCostCalculator;
+import com.stagllc.staginfra.service.cost.calculator.Ec2CostCalculator;
+import com.stagllc.staginfra.service.cost.calculator.LambdaCostCalculator;
+import com.stagllc.staginfra.service.cost.calculator.LoadBalancerCostCalculator;
+import com.stagllc.staginfra.service.cost.calculator.RdsCostCalculator;
+import com.stagllc.staginfra.service.cost.calculator.S3CostCalculator;
+import com.stagllc.staginfra.service.pricing.PriceCatalogService;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Import;
+
+// Cost engine beans needed by @WebMvcTest slices of the cost controllers
+@TestConfiguration
+@Import({TestSecurityConfig.class, PriceCatalogService.class, CostEstimator.class, DesignStore.class,
+        BatchCostService.class, StreamingCostIngester.class, EstimateCache.class, SweepService.class,
+        ProjectionService.class, CostEventService.class, DesignDiffService.class, CostCalculatorRegistry.class,
+        Ec2CostCalculator.class, S3CostCalculator.class, LambdaCostCalculator.class, RdsCostCalculator.class,
+        DynamoDbCostCalculator.class, EbsCostCalculator.class, LoadBalancerCostCalculator.class})
+public class CostTestConfig {
+}
@@ -1,8 +1,10 @@
 package com.stagllc.staginfra.controller;
 
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
 import com.stagllc.staginfra.config.ControllerTestConfig;
 import com.stagllc.staginfra.dto.UserDTO;
 import com.stagllc.staginfra.service.UserService;
+import com.stagllc.staginfra.service.cost.EstimateCache;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -23,6 +25,7 @@ import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(AdminController.class)
@@ -35,6 +38,9 @@ public class AdminControllerTest {
     @MockBean
     private UserService userService;
 
+    @MockBean
+    private EstimateCache estimateCache;
+
     private UserDTO testUser;
 
     @BeforeEach
@@ -96,4 +102,40 @@ public class AdminControllerTest {
         System.out.println("RESPONSE CONTENT TYPE: " + result.getResponse().getContentType());
         System.out.println("RESPONSE BODY: " + result.getResponse().getContentAsString());
     }
-}
\ No newline at end of file
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void testGetEstimateCacheStats() throws Exception {
+        when(estimateCache.isEnabled()).thenReturn(true);
+        when(estimateCache.size()).thenReturn(2L);
+        when(estimateCache.stats()).thenReturn(CacheStats.of(3, 1, 0, 0, 0, 0, 0));
+
+        mockMvc.perform(get("/api/admin/cost-cache"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.size").value(2))
+                .andExpect(jsonPath("$.hits").value(3))
+                .andExpect(jsonPath("$.misses").value(1))
+                .andExpect(jsonPath("$.hitRate").value(0.75));
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void testGetHeavyHitters() throws Exception {
+        // Admin requests are rate limited, so this one is recorded under the mock user's name
+        mockMvc.perform(get("/api/admin/rate-limits/heavy-hitters").param("window", "1m").param("top", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.windowSeconds").value(60))
+                .andExpect(jsonPath("$.limits.admin.attempts[0].key").value("user"))
+                .andExpect(jsonPath("$.limits.admin.rejections").isEmpty());
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void testGetHeavyHittersRejectsBadWindow() throws Exception {
+        mockMvc.perform(get("/api/admin/rate-limits/heavy-hitters").param("window", "1d"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").exists());
+        mockMvc.perform(get("/api/admin/rate-limits/heavy-hitters").param("window", "soon"))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -24,6 +24,7 @@ import java.util.Collections;
 import java.util.Optional;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
@@ -91,7 +92,7 @@ public class AuthControllerTest {
     @Test
     void testRegisterUserSuccess() throws Exception {
         // Setup
-        when(rateLimiterService.allowRegistration(anyString())).thenReturn(true);
+        when(rateLimiterService.allowRegistration(anyLong(), anyLong())).thenReturn(true);
         when(userService.registerUser(any(RegistrationRequest.class))).thenReturn(testUser);
 
         // Execute & Verify
@@ -106,7 +107,7 @@ public class AuthControllerTest {
     @Test
     void testRegisterUserRateLimitExceeded() throws Exception {
         // Setup
-        when(rateLimiterService.allowRegistration(anyString())).thenReturn(false);
+        when(rateLimiterService.allowRegistration(anyLong(), anyLong())).thenReturn(false);
 
         // Execute & Verify
         mockMvc.perform(post("/api/auth/register")
@@ -120,7 +121,7 @@ public class AuthControllerTest {
     @Test
     void testRegisterUserEmailAlreadyExists() throws Exception {
         // Setup
-        when(rateLimiterService.allowRegistration(anyString())).thenReturn(true);
+        when(rateLimiterService.allowRegistration(anyLong(), anyLong())).thenReturn(true);
         when(userService.registerUser(any(RegistrationRequest.class)))
                 .thenThrow(new IllegalArgumentException("Email already in use"));
 
@@ -165,7 +166,7 @@ public class AuthControllerTest {
     void testResendVerificationEmailSuccess() throws Exception {
         // Setup
         String email = "test@example.com";
-        when(rateLimiterService.allowRegistration(anyString())).thenReturn(true);
+        when(rateLimiterService.allowRegistration(anyLong(), anyLong())).thenReturn(true);
         when(userService.resendVerificationEmail(email)).thenReturn(true);
 
         // Execute & Verify
@@ -180,7 +181,7 @@ public class AuthControllerTest {
     void testResendVerificationEmailRateLimitExceeded() throws Exception {
         // Setup
         String email = "test@example.com";
-        when(rateLimiterService.allowRegistration(anyString())).thenReturn(false);
+        when(rateLimiterService.allowRegistration(anyLong(), anyLong())).thenReturn(false);
 
         // Execute & Verify
         mockMvc.perform(post("/api/auth/resend-verification")
@@ -194,7 +195,7 @@ public class AuthControllerTest {
     void testResendVerificationEmailFailed() throws Exception {
         // Setup
         String email = "test@example.com";
-        when(rateLimiterService.allowRegistration(anyString())).thenReturn(true);
+        when(rateLimiterService.allowRegistration(anyLong(), anyLong())).thenReturn(true);
         when(userService.resendVerificationEmail(email)).thenReturn(false);
 
         // Execute & Verify
@@ -212,7 +213,7 @@ public class AuthControllerTest {
         loginRequest.setEmail("test@example.com");
         loginRequest.setPassword("password123");
 
-        when(rateLimiterService.allowLogin(anyString())).thenReturn(true);
+        when(rateLimiterService.allowLogin(anyLong(), anyLong())).thenReturn(true);
         when(userService.loginUser(anyString(), anyString())).thenReturn(testUser);
         when(userService.generateToken(any(), any())).thenReturn("dummy-token");
 
@@ -1,9 +1,14 @@
 package com.stagllc.staginfra.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.stagllc.staginfra.config.TestSecurityConfig;
+import com.stagllc.staginfra.config.CostTestConfig;
 import com.stagllc.staginfra.dto.CostRequest;
+import com.stagllc.staginfra.dto.component.Component;
+import com.stagllc.staginfra.dto.component.Ec2Component;
+import com.stagllc.staginfra.dto.component.S3Component;
+import com.stagllc.staginfra.security.AnonymousClient;
 import com.stagllc.staginfra.security.JwtAuthenticationFilter;
+import jakarta.servlet.http.Cookie;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -15,8 +20,10 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultHandlers;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+import org.springframework.web.context.WebApplicationContext;
 
 import java.util.Collections;
 import java.util.HashMap;
@@ -24,16 +31,22 @@ import java.util.List;
 import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @WebMvcTest(CostController.class)
-@Import(TestSecurityConfig.class)
+@Import(CostTestConfig.class)
 @AutoConfigureMockMvc(addFilters = false)
 class CostControllerTest {
 
     @MockBean
     private JwtAuthenticationFilter jwtAuthenticationFilter;
 
+    // One anonymous browser for every request of a test, so its designs carry over between requests
+    private static final String CLIENT_ID = "AAAAAAAAAAAAAAAAAAAAAA";
+
     @Autowired
+    private WebApplicationContext context;
+
     private MockMvc mockMvc;
 
     @Autowired
@@ -41,6 +54,11 @@ class CostControllerTest {
 
     @BeforeEach
     void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context)
+                .defaultRequest(MockMvcRequestBuilders.get("/")
+                        .cookie(new Cookie(AnonymousClient.COOKIE_NAME, CLIENT_ID)))
+                .build();
+
         // Reset test state
         CostRequest emptyRequest = new CostRequest();
         try {
@@ -68,11 +86,8 @@ class CostControllerTest {
 
     @Test
     void testGetCost_SingleEC2_ReturnsCorrectCost() throws Exception {
-        Map<String, Object> ec2 = new HashMap<>();
-        ec2.put("type", "ec2");
-        ec2.put("instances", 2);
-        ec2.put("instance_type", "t2.micro");
-        List<Map<String, Object>> components = Collections.singletonList(ec2);
+        Component ec2 = new Ec2Component("web", 2, "t2.micro");
+        List<Component> components = Collections.singletonList(ec2);
 
         CostRequest costReq = new CostRequest();
         costReq.setComponents(components);
@@ -100,10 +115,8 @@ class CostControllerTest {
 
     @Test
     void testGetCost_SingleS3_ReturnsCorrectCost() throws Exception {
-        Map<String, Object> s3 = new HashMap<>();
-        s3.put("type", "s3");
-        s3.put("storage", 50);
-        List<Map<String, Object>> components = Collections.singletonList(s3);
+        Component s3 = new S3Component("assets", 50);
+        List<Component> components = Collections.singletonList(s3);
 
         CostRequest costReq = new CostRequest();
         costReq.setComponents(components);
@@ -153,4 +166,319 @@ class CostControllerTest {
         Map<String, Object> getResponseMap = objectMapper.readValue(getContent, Map.class);
         assertEquals(0.0, getResponseMap.get("total"));
     }
-}
\ No newline at end of file
+
+    @Test
+    void testEstimateCost_ReturnsTotalWithoutStoringDesign() throws Exception {
+        Component ec2 = new Ec2Component("web", 2, "t2.micro");
+
+        CostRequest costReq = new CostRequest();
+        costReq.setComponents(Collections.singletonList(ec2));
+
+        MvcResult estimateResult = mockMvc.perform(MockMvcRequestBuilders.post("/api/cost/estimate")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(costReq)))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn();
+
+        Map<String, Object> estimateMap = objectMapper.readValue(estimateResult.getResponse().getContentAsString(), Map.class);
+        assertEquals(17.0, estimateMap.get("total"));
+
+        MvcResult getResult = mockMvc.perform(MockMvcRequestBuilders.get("/api/cost")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn();
+
+        Map<String, Object> getResponseMap = objectMapper.readValue(getResult.getResponse().getContentAsString(), Map.class);
+        assertEquals(0.0, getResponseMap.get("total"));
+    }
+
+    @Test
+    void testGetCost_DesignsAreIsolatedByDesignId() throws Exception {
+        Component s3 = new S3Component("assets", 50);
+
+        CostRequest costReq = new CostRequest();
+        costReq.setComponents(Collections.singletonList(s3));
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/cost")
+                        .param("designId", "design-a")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(costReq)))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+
+        MvcResult designA = mockMvc.perform(MockMvcRequestBuilders.get("/api/cost")
+                        .param("designId", "design-a")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn();
+        MvcResult designB = mockMvc.perform(MockMvcRequestBuilders.get("/api/cost")
+                        .param("designId", "design-b")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn();
+
+        assertEquals(1.15, objectMapper.readValue(designA.getResponse().getContentAsString(), Map.class).get("total"));
+        assertEquals(0.0, objectMapper.readValue(designB.getResponse().getContentAsString(), Map.class).get("total"));
+    }
+
+    @Test
+    void testGetCost_AnonymousClientsDoNotShareDesigns() throws Exception {
+        CostRequest costReq = new CostRequest();
+        costReq.setComponents(Collections.singletonList(new S3Component("assets", 50)));
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/cost")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(costReq)))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+
+        // Another browser sees its own, empty default design
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/cost")
+                        .cookie(new Cookie(AnonymousClient.COOKIE_NAME, "BBBBBBBBBBBBBBBBBBBBBB")))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.total").value(0.0));
+
+        // A client without a cookie is issued a fresh ID instead of a shared owner
+        MockMvc noCookie = MockMvcBuilders.webAppContextSetup(context).build();
+        String setCookie = noCookie.perform(MockMvcRequestBuilders.get("/api/cost"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.total").value(0.0))
+                .andReturn().getResponse().getHeader("Set-Cookie");
+        assertTrue(setCookie.startsWith(AnonymousClient.COOKIE_NAME + "="), setCookie);
+        assertTrue(setCookie.contains("HttpOnly"), setCookie);
+    }
+
+    @Test
+    void testEstimateCost_AcceptsFloatingPointAndStringNumbers() throws Exception {
+        String body = "{\"components\": ["
+                + "{\"type\": \"ec2\", \"instances\": 2.0, \"instance_type\": \"t2.micro\", \"position\": {\"x\": 10, \"y\": 20}},"
+                + "{\"type\": \"s3\", \"storage\": \"50\"},"
+                + "{\"type\": \"vpc\", \"cidr_block\": \"10.0.0.0/16\"}"
+                + "]}";
+
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.post("/api/cost/estimate")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn();
+
+        Map<String, Object> responseMap = objectMapper.readValue(result.getResponse().getContentAsString(), Map.class);
+        assertEquals(18.15, responseMap.get("total"));
+    }
+
+    @Test
+    void testEstimateCost_WithBreakdown_ReturnsLineItemsAndTypeSubtotals() throws Exception {
+        String body = "{\"components\": ["
+                + "{\"id\": \"web\", \"type\": \"ec2\", \"instances\": 2},"
+                + "{\"id\": \"assets\", \"type\": \"s3\", \"storage\": 50},"
+                + "{\"id\": \"net\", \"type\": \"vpc\"}"
+                + "]}";
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/cost/estimate")
+                        .param("breakdown", "true")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.total").value(18.15))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.lineItems.length()").value(3))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.lineItems[0].id").value("web"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.lineItems[0].cost").value(17.0))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.lineItems[2].cost").value(0.0))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.byType.ec2").value(17.0))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.byType.s3").value(1.15))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.byType.vpc").doesNotExist());
+    }
+
+    @Test
+    void testEstimateCost_OutOfRangeTotal_ReturnsBadRequest() throws Exception {
+        StringBuilder body = new StringBuilder("{\"components\": [");
+        for (int i = 0; i < 6; i++) {
+            body.append(i > 0 ? "," : "").append("{\"type\": \"ec2\", \"instances\": 2147483647}");
+        }
+        body.append("]}");
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/cost/estimate")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body.toString()))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.error").exists());
+    }
+
+    @Test
+    void testEstimateCost_WithPurchaseOptions_ReturnsTotalPerOption() throws Exception {
+        String body = "{\"components\": ["
+                + "{\"id\": \"web\", \"type\": \"ec2\", \"instances\": 2},"
+                + "{\"id\": \"assets\", \"type\": \"s3\", \"storage\": 50}"
+                + "]}";
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/cost/estimate")
+                        .param("purchaseOptions", "true")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.total").value(18.15))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.purchaseOptions.onDemand").value(18.15))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.purchaseOptions.reserved").value(11.69))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.purchaseOptions.savingsPlan").value(13.39))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.purchaseOptions.spot").value(6.25))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.lineItems").doesNotExist());
+    }
+
+    @Test
+    void testCompareRegions_PricesDesignInEachRegion() throws Exception {
+        String body = "{\"components\": [{\"id\": \"web\", \"type\": \"ec2\", \"instances\": 2, \"region\": \"eu-west-1\"}]}";
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/cost/estimate/regions")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.defaultRegion").value("us-east-1"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.totals['us-east-1']").value(17.0))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.totals['eu-west-1']").value(19.04))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.cheapestRegion").value("us-east-1"));
+    }
+
+    @Test
+    void testEstimate_UnknownRegionIsBadRequest() throws Exception {
+        String body = "{\"components\": [{\"id\": \"web\", \"type\": \"ec2\", \"region\": \"moon-1\"}]}";
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/cost/estimate")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.error").exists());
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/cost/estimate/regions")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest());
+    }
+
+    @Test
+    void testSweep_ReturnsCostSurface() throws Exception {
+        String body = "{\"components\": ["
+                + "{\"id\": \"web\", \"type\": \"ec2\", \"instances\": 2},"
+                + "{\"id\": \"assets\", \"type\": \"s3\", \"storage\": 50}"
+                + "], \"axes\": ["
+                + "{\"componentId\": \"web\", \"field\": \"instance_type\", \"values\": [\"t2.micro\", \"t2.small\"]},"
+                + "{\"componentType\": \"ec2\", \"field\": \"instances\", \"values\": [1, 2, 3]}"
+                + "]}";
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/cost/sweep")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.shape[0]").value(2))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.shape[1]").value(3))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.baseTotal").value(1.15))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.totals[0]").value(9.65))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.totals[5]").value(52.15))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.max.values[0]").value("t2.small"));
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/cost/sweep")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"components\": [], \"axes\": []}"))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest());
+    }
+
+    @Test
+    void testDesignEvents_OpensAsyncEventStream() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/cost/designs/live/events")
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(MockMvcResultMatchers.request().asyncStarted());
+    }
+
+    @Test
+    void testDiff_ReturnsChangesWithCostDeltas() throws Exception {
+        String body = "{\"before\": ["
+                + "{\"id\": \"web\", \"type\": \"ec2\", \"instances\": 2},"
+                + "{\"id\": \"assets\", \"type\": \"s3\", \"storage\": 50}"
+                + "], \"after\": ["
+                + "{\"id\": \"web\", \"type\": \"ec2\", \"instances\": 3}"
+                + "]}";
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/cost/diff")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.changed[0].id").value("web"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.changed[0].delta").value(8.5))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.removed[0].id").value("assets"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.added").isEmpty())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.delta").value(7.35));
+    }
+
+    @Test
+    void testProjection_ReturnsMonthlySeries() throws Exception {
+        String body = "{\"months\": 3, \"components\": ["
+                + "{\"id\": \"web\", \"type\": \"ec2\", \"instances\": 2},"
+                + "{\"id\": \"assets\", \"type\": \"s3\", \"storage\": 50}"
+                + "], \"growth\": ["
+                + "{\"componentId\": \"web\", \"model\": \"linear\", \"rate\": 0.1}"
+                + "]}";
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/cost/projection")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.months").value(3))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.monthlyTotals[0]").value(18.15))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.monthlyTotals[2]").value(21.55))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.total").value(59.55));
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/cost/projection")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"months\": 120, \"components\": []}"))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest());
+    }
+
+    @Test
+    void testComponentDeltas_AdjustDesignTotal() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/cost/designs/delta/components")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"id\": \"web\", \"type\": \"ec2\", \"instances\": 2}"))
+                .andExpect(MockMvcResultMatchers.status().isCreated())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.total").value(17.0));
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/cost/designs/delta/components")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"id\": \"web\", \"type\": \"s3\"}"))
+                .andExpect(MockMvcResultMatchers.status().isConflict());
+
+        mockMvc.perform(MockMvcRequestBuilders.patch("/api/cost/designs/delta/components/web")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"instance_type\": \"t2.small\"}"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.total").value(34.0));
+
+        mockMvc.perform(MockMvcRequestBuilders.delete("/api/cost/designs/delta/components/web"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.total").value(0.0))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.componentCount").value(0));
+
+        mockMvc.perform(MockMvcRequestBuilders.delete("/api/cost/designs/delta/components/web"))
+                .andExpect(MockMvcResultMatchers.status().isNotFound());
+    }
+
+    @Test
+    void testEstimateBatch_StreamsNdjsonResults() throws Exception {
+        String body = "{\"id\": \"a\", \"components\": [{\"type\": \"ec2\", \"instances\": 2}]}\n"
+                + "{\"id\": \"b\", \"components\": [{\"type\": \"s3\", \"storage\": 50}]}\n";
+
+        MvcResult started = mockMvc.perform(MockMvcRequestBuilders.post("/api/cost/batch")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content(body))
+                .andExpect(MockMvcResultMatchers.request().asyncStarted())
+                .andReturn();
+
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(started))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn();
+
+        String[] lines = result.getResponse().getContentAsString().trim().split("\n");
+        Map<String, Object> totals = new HashMap<>();
+        for (String line : lines) {
+            Map<String, Object> lineMap = objectMapper.readValue(line, Map.class);
+            totals.put((String) lineMap.get("id"), lineMap.get("total"));
+        }
+        assertEquals(2, totals.size());
+        assertEquals(17.0, totals.get("a"));
+        assertEquals(1.15, totals.get("b"));
+    }
+}
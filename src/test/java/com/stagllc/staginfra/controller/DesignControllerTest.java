@@ -0,0 +1,82 @@
+package com.stagllc.staginfra.controller;
+
+import com.stagllc.staginfra.config.ControllerTestConfig;
+import com.stagllc.staginfra.dto.DesignSummary;
+import com.stagllc.staginfra.service.design.DesignService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(DesignController.class)
+@Import(ControllerTestConfig.class)
+public class DesignControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private DesignService designService;
+
+    @Test
+    @WithMockUser(username = "owner@example.com")
+    void testListDesigns() throws Exception {
+        LocalDateTime now = LocalDateTime.now();
+        when(designService.list("owner@example.com"))
+                .thenReturn(List.of(new DesignSummary(7L, "web tier", 3, now, now)));
+
+        mockMvc.perform(get("/api/designs"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(7))
+                .andExpect(jsonPath("$[0].name").value("web tier"))
+                .andExpect(jsonPath("$[0].componentCount").value(3))
+                .andExpect(jsonPath("$[0].components").doesNotExist());
+    }
+
+    @Test
+    @WithMockUser(username = "owner@example.com")
+    void testCreateDesign() throws Exception {
+        LocalDateTime now = LocalDateTime.now();
+        when(designService.create(eq("owner@example.com"), eq("web tier"), any()))
+                .thenReturn(new DesignSummary(7L, "web tier", 1, now, now));
+        when(designService.create(eq("owner@example.com"), eq(" "), any()))
+                .thenThrow(new IllegalArgumentException("Design name is required"));
+
+        mockMvc.perform(post("/api/designs")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": \"web tier\", \"components\": [{\"type\": \"ec2\", \"id\": \"web\"}]}"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.id").value(7));
+
+        mockMvc.perform(post("/api/designs")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": \" \", \"components\": []}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Design name is required"));
+    }
+
+    @Test
+    @WithMockUser(username = "owner@example.com")
+    void testGetMissingDesignReturnsNotFound() throws Exception {
+        when(designService.get(eq("owner@example.com"), any())).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/api/designs/99"))
+                .andExpect(status().isNotFound());
+    }
+}
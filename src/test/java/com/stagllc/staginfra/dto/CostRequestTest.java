@@ -1,11 +1,11 @@
 package com.stagllc.staginfra.dto;
 
+import com.stagllc.staginfra.dto.component.Component;
+import com.stagllc.staginfra.dto.component.S3Component;
 import org.junit.jupiter.api.Test;
 
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
@@ -17,7 +17,7 @@ class CostRequestTest {
         CostRequest request = new CostRequest();
         assertNull(request.getComponents());
 
-        List<Map<String, Object>> components = Collections.singletonList(new HashMap<>());
+        List<Component> components = Collections.singletonList(new S3Component("bucket", 10));
         request.setComponents(components);
         assertEquals(components, request.getComponents());
     }
@@ -0,0 +1,132 @@
+package com.stagllc.staginfra.dto.component;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.stagllc.staginfra.dto.CostRequest;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ComponentDeserializerTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void testBindsEachTypeToItsRecord() throws Exception {
+        String json = "{\"components\": ["
+                + "{\"id\": \"web\", \"type\": \"ec2\", \"instances\": 3, \"instance_type\": \"t2.small\"},"
+                + "{\"type\": \"rds\", \"instance_class\": \"db.m5.large\", \"allocated_storage\": 100, \"multi_az\": true},"
+                + "{\"type\": \"ebs\", \"volume_type\": \"io1\", \"size\": 50, \"iops\": 1000},"
+                + "{\"type\": \"subnet\", \"id\": \"subnet-1\"},"
+                + "{\"type\": \"cloudfront\", \"id\": \"cdn\"}"
+                + "]}";
+
+        List<Component> components = objectMapper.readValue(json, CostRequest.class).getComponents();
+
+        assertEquals(new Ec2Component("web", 3, "t2.small"), components.get(0));
+        assertEquals(new RdsComponent(null, "db.m5.large", 100, true), components.get(1));
+        assertEquals(new EbsComponent(null, 50, "io1", 1000), components.get(2));
+        assertEquals(new NetworkComponent("subnet-1", ComponentType.SUBNET), components.get(3));
+        assertEquals(new UnknownComponent("cdn", "cloudfront"), components.get(4));
+    }
+
+    @Test
+    void testMissingAndNullFieldsUseDefaults() throws Exception {
+        Component component = objectMapper.readValue(
+                "{\"type\": \"dynamodb\", \"read_capacity\": null}", Component.class);
+
+        assertEquals(new DynamoDbComponent(null, "PROVISIONED", 5, 5), component);
+    }
+
+    @Test
+    void testUsageProfileIsBound() throws Exception {
+        List<Component> components = objectMapper.readValue("["
+                + "{\"type\": \"lambda\", \"id\": \"fn\", \"memory\": 256, \"invocations\": 2000000, \"duration_ms\": 120},"
+                + "{\"type\": \"dynamodb\", \"billing_mode\": \"PAY_PER_REQUEST\", \"read_requests\": 3e6},"
+                + "{\"type\": \"loadBalancer\", \"lcus\": 1.5},"
+                + "{\"type\": \"lambda\", \"memory\": 512}"
+                + "]", new TypeReference<>() {
+        });
+
+        assertEquals(new LambdaComponent("fn", 256, 2_000_000, 120, null), components.get(0));
+        assertEquals(new DynamoDbComponent(null, "PAY_PER_REQUEST", 5, 5, 3_000_000,
+                DynamoDbComponent.DEFAULT_WRITE_REQUESTS, null), components.get(1));
+        assertEquals(new LoadBalancerComponent(null, "application", 1.5, null), components.get(2));
+        // Usage not given falls back to the standard assumptions
+        assertEquals(new LambdaComponent(null, 512), components.get(3));
+    }
+
+    @Test
+    void testRegionIsBoundForEveryType() throws Exception {
+        List<Component> components = objectMapper.readValue("["
+                + "{\"type\": \"ec2\", \"id\": \"web\", \"region\": \"eu-west-1\"},"
+                + "{\"type\": \"vpc\", \"id\": \"main\", \"region\": \"eu-west-1\"},"
+                + "{\"type\": \"s3\", \"id\": \"assets\"}"
+                + "]", new TypeReference<>() {
+        });
+
+        assertEquals(new Ec2Component("web", 1, "t2.micro", "eu-west-1"), components.get(0));
+        assertEquals("eu-west-1", components.get(1).region());
+        assertNull(components.get(2).region());
+        assertFalse(objectMapper.writeValueAsString(components.get(2)).contains("region"));
+    }
+
+    @Test
+    void testNumericFieldsAcceptAnyJsonNumber() throws Exception {
+        Component component = objectMapper.readValue(
+                "{\"instances\": 4.0, \"type\": \"ec2\", \"id\": 17}", Component.class);
+
+        assertEquals(new Ec2Component("17", 4, "t2.micro"), component);
+    }
+
+    @Test
+    void testValuesThatDontBindAreRejected() {
+        for (String json : List.of(
+                "{\"type\": \"ec2\", \"instances\": \"four\"}",
+                "{\"type\": \"ec2\", \"instances\": -1}",
+                "{\"type\": \"ec2\", \"instances\": 3000000000}",
+                "{\"type\": \"ec2\", \"instances\": true}",
+                "{\"type\": \"s3\", \"storage\": \"-5\"}",
+                "{\"type\": \"s3\", \"storage\": \"NaN\"}",
+                "{\"type\": \"rds\", \"multi_az\": \"yes\"}",
+                "{\"type\": \"rds\", \"multi_az\": 1}",
+                "{\"type\": \"load_balancer\", \"lcus\": -0.5}")) {
+            assertThrows(JsonMappingException.class, () -> objectMapper.readValue(json, Component.class), json);
+        }
+    }
+
+    @Test
+    void testBooleanStringsAreBound() throws Exception {
+        Component component = objectMapper.readValue(
+                "{\"type\": \"rds\", \"id\": \"db\", \"multi_az\": \"TRUE\"}", Component.class);
+
+        assertEquals(new RdsComponent("db", "db.t2.micro", 20, true), component);
+    }
+
+    @Test
+    void testNestedDesignerAttributesAreSkipped() throws Exception {
+        Component component = objectMapper.readValue(
+                "{\"type\": \"s3\", \"position\": {\"x\": 1, \"y\": [2, {\"storage\": 99}]}, \"storage\": 40}",
+                Component.class);
+
+        assertEquals(new S3Component(null, 40), component);
+    }
+
+    @Test
+    void testSerializedComponentsRoundTrip() throws Exception {
+        List<Component> components = List.of(
+                new Ec2Component("web", 2, "t2.micro"),
+                new LoadBalancerComponent("lb", "network"),
+                new NetworkComponent("vpc-1", ComponentType.VPC));
+
+        String json = objectMapper.writeValueAsString(components);
+        List<Component> read = objectMapper.readValue(json, new TypeReference<List<Component>>() {
+        });
+
+        assertEquals(components, read);
+        assertFalse(json.contains("kind"));
+    }
+}
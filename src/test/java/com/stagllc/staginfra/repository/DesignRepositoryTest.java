@@ -0,0 +1,81 @@
+package com.stagllc.staginfra.repository;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.stagllc.staginfra.dto.DesignSummary;
+import com.stagllc.staginfra.model.Design;
+import com.stagllc.staginfra.model.User;
+import com.stagllc.staginfra.service.design.DesignCodec;
+import jakarta.persistence.PersistenceUnitUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+class DesignRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private DesignRepository designRepository;
+
+    private User owner;
+    private User other;
+
+    @BeforeEach
+    void setUp() {
+        owner = entityManager.persist(new User("owner@example.com", "password", "Owner", "One"));
+        other = entityManager.persist(new User("other@example.com", "password", "Other", "Two"));
+    }
+
+    @Test
+    void testSummariesListOnlyTheOwnersDesigns() {
+        save(owner, "web tier", 3);
+        save(owner, "data tier", 1);
+        save(other, "someone else's", 2);
+        entityManager.clear();
+
+        List<DesignSummary> summaries = designRepository.findSummariesByOwnerId(owner.getId());
+
+        assertEquals(2, summaries.size());
+        assertTrue(summaries.stream().anyMatch(s -> s.getName().equals("web tier") && s.getComponentCount() == 3));
+        assertTrue(summaries.stream().noneMatch(s -> s.getName().equals("someone else's")));
+    }
+
+    @Test
+    void testPayloadIsLoadedLazily() {
+        Long id = save(owner, "web tier", 3).getId();
+        entityManager.clear();
+
+        Design design = designRepository.findByIdAndOwnerId(id, owner.getId()).orElseThrow();
+        PersistenceUnitUtil util = entityManager.getEntityManager().getEntityManagerFactory().getPersistenceUnitUtil();
+        assertFalse(util.isLoaded(design, "payload"));
+
+        assertEquals(3, DesignCodec.decodeTree(design.getPayload().getComponents()).size());
+        assertTrue(designRepository.findByIdAndOwnerId(id, other.getId()).isEmpty());
+    }
+
+    private Design save(User user, String name, int componentCount) {
+        Design design = new Design(user, name);
+        // Stored as DesignService stores it: the component JSON as the client sent it
+        ArrayNode components = new ObjectMapper().createArrayNode();
+        for (int i = 0; i < componentCount; i++) {
+            components.addObject()
+                    .put("id", "web-" + i)
+                    .put("type", "ec2")
+                    .put("instance_type", "t2.micro")
+                    .put("instances", 2);
+        }
+        design.setComponents(DesignCodec.encode(components), components.size());
+        return entityManager.persistFlushFind(design);
+    }
+}
@@ -0,0 +1,39 @@
+package com.stagllc.staginfra.security;
+
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AnonymousClientTest {
+
+    @Test
+    void issuesAnIdAndReadsItBack() {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        String id = AnonymousClient.id(new MockHttpServletRequest(), response);
+        assertTrue(AnonymousClient.isValid(id), id);
+        String setCookie = response.getHeader("Set-Cookie");
+        assertTrue(setCookie.startsWith(AnonymousClient.COOKIE_NAME + "=" + id), setCookie);
+        assertTrue(setCookie.contains("HttpOnly") && setCookie.contains("SameSite=Strict"), setCookie);
+
+        MockHttpServletRequest returning = new MockHttpServletRequest();
+        returning.setCookies(new Cookie(AnonymousClient.COOKIE_NAME, id));
+        MockHttpServletResponse noCookie = new MockHttpServletResponse();
+        assertEquals(id, AnonymousClient.id(returning, noCookie));
+        assertNull(noCookie.getHeader("Set-Cookie"));
+
+        assertNotEquals(id, AnonymousClient.id(new MockHttpServletRequest(), new MockHttpServletResponse()));
+    }
+
+    @Test
+    void replacesIdsItDidNotIssue() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setCookies(new Cookie(AnonymousClient.COOKIE_NAME, "anonymous"));
+        String id = AnonymousClient.id(request, new MockHttpServletResponse());
+        assertNotEquals("anonymous", id);
+        assertTrue(AnonymousClient.isValid(id));
+        assertFalse(AnonymousClient.isValid("AAAAAAAAAAAAAAAAAAAAA="));
+    }
+}
@@ -0,0 +1,79 @@
+package com.stagllc.staginfra.security;
+
+import com.stagllc.staginfra.service.ratelimit.IpAddresses;
+import com.stagllc.staginfra.service.ratelimit.TokenBucketLimiter;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClientAddressResolverTest {
+
+    private final ClientAddressResolver resolver =
+            new ClientAddressResolver(List.of("10.0.0.0/8", "fd00::/8", "198.51.100.7"));
+
+    private String resolve(String remoteAddr, String forwardedFor) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRemoteAddr(remoteAddr);
+        if (forwardedFor != null) {
+            request.addHeader("X-Forwarded-For", forwardedFor);
+        }
+        return resolver.clientIp(request);
+    }
+
+    @Test
+    void ignoresForwardedForFromUntrustedPeers() {
+        assertEquals("203.0.113.5", resolve("203.0.113.5", null));
+        assertEquals("203.0.113.5", resolve("203.0.113.5", "1.2.3.4"));
+    }
+
+    @Test
+    void takesTheFirstUntrustedHopFromTheRight() {
+        assertEquals("1.2.3.4", resolve("10.0.0.1", "1.2.3.4"));
+        // The client can prepend anything; only what our proxies appended counts
+        assertEquals("5.6.7.8", resolve("10.0.0.1", "1.2.3.4, 5.6.7.8, 10.20.0.3"));
+        assertEquals("5.6.7.8", resolve("fd12::1", "1.2.3.4,5.6.7.8 , 198.51.100.7"));
+        assertEquals("2001:db8::9", resolve("10.0.0.1", "[2001:db8::9]:1234"));
+        // Nothing but proxies: the leftmost is as far as we can see
+        assertEquals("10.9.9.9", resolve("10.0.0.1", "10.9.9.9, 10.0.0.2"));
+    }
+
+    @Test
+    void stopsAtGarbledHops() {
+        assertEquals("10.0.0.2", resolve("10.0.0.1", "1.2.3.4, unknown, 10.0.0.2"));
+        assertEquals("10.0.0.1", resolve("10.0.0.1", ""));
+        assertEquals("10.0.0.1", resolve("10.0.0.1", "1.2.3.4,"));
+    }
+
+    @Test
+    void keysNonAddressPeersLikeEveryOtherTextClient() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRemoteAddr("unix:/run/app.sock");
+        long[] client = resolver.resolve(request);
+        assertEquals(TokenBucketLimiter.nameHi("unix:/run/app.sock"), client[0]);
+        assertEquals(TokenBucketLimiter.nameLo("unix:/run/app.sock"), client[1]);
+    }
+
+    @Test
+    void matchesNetworksByPrefix() {
+        long[] address = new long[2];
+        IpAddresses.parse("10.255.255.255", address);
+        assertTrue(resolver.isTrusted(address[0], address[1]));
+        IpAddresses.parse("11.0.0.0", address);
+        assertFalse(resolver.isTrusted(address[0], address[1]));
+        IpAddresses.parse("198.51.100.8", address);
+        assertFalse(resolver.isTrusted(address[0], address[1]));
+        IpAddresses.parse("fdff:ffff::1", address);
+        assertTrue(resolver.isTrusted(address[0], address[1]));
+        IpAddresses.parse("fe00::1", address);
+        assertFalse(resolver.isTrusted(address[0], address[1]));
+        // An IPv4 network doesn't match IPv6 addresses sharing its low bits
+        IpAddresses.parse("::a00:1", address);
+        assertFalse(resolver.isTrusted(address[0], address[1]));
+
+        assertThrows(IllegalArgumentException.class, () -> new ClientAddressResolver(List.of("10.0.0.0/33")));
+        assertThrows(IllegalArgumentException.class, () -> new ClientAddressResolver(List.of("proxy.local")));
+    }
+}
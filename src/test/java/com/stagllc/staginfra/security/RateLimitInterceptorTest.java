@@ -0,0 +1,148 @@
+package com.stagllc.staginfra.security;
+
+import com.stagllc.staginfra.service.ratelimit.HeavyHitter;
+import com.stagllc.staginfra.service.ratelimit.HeavyHitterTracker;
+import com.stagllc.staginfra.service.ratelimit.RateLimits;
+import jakarta.servlet.DispatcherType;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimitInterceptorTest {
+
+    @RateLimited(key = "test", permits = 2)
+    static class LimitedController {
+        public void limited() {
+        }
+
+        @RateLimited(key = "strict", permits = 1, window = "1h")
+        public void strict() {
+        }
+    }
+
+    static class OpenController {
+        public void open() {
+        }
+    }
+
+    private final MockEnvironment environment = new MockEnvironment();
+    private final HeavyHitterTracker heavyHitters = new HeavyHitterTracker(10, 4, 60, 60_000);
+    private final ClientAddressResolver addresses = new ClientAddressResolver(List.of("192.168.0.0/16"));
+
+    private boolean call(RateLimitInterceptor interceptor, Object controller, String method, String ip,
+                         MockHttpServletResponse response) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRemoteAddr(ip);
+        return interceptor.preHandle(request, response, new HandlerMethod(controller, method));
+    }
+
+    @Test
+    void rejectsWithRetryAfterOnceClassLimitIsUsedUp() throws Exception {
+        RateLimitInterceptor interceptor = new RateLimitInterceptor(new RateLimits(environment), heavyHitters,
+                addresses);
+        LimitedController controller = new LimitedController();
+
+        assertTrue(call(interceptor, controller, "limited", "10.0.0.1", new MockHttpServletResponse()));
+        assertTrue(call(interceptor, controller, "limited", "10.0.0.1", new MockHttpServletResponse()));
+
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+        assertFalse(call(interceptor, controller, "limited", "10.0.0.1", rejected));
+        assertEquals(429, rejected.getStatus());
+        assertEquals("30", rejected.getHeader("Retry-After"));
+        assertTrue(rejected.getContentAsString().contains("error"));
+
+        // Other clients are unaffected
+        assertTrue(call(interceptor, controller, "limited", "10.0.0.2", new MockHttpServletResponse()));
+
+        assertEquals(List.of(new HeavyHitter("10.0.0.1", 3, 0), new HeavyHitter("10.0.0.2", 1, 0)),
+                heavyHitters.topAttempts("test", 10, 60_000));
+        assertEquals(List.of(new HeavyHitter("10.0.0.1", 1, 0)), heavyHitters.topRejections("test", 10, 60_000));
+    }
+
+    @Test
+    void methodAnnotationOverridesClassAnnotation() throws Exception {
+        RateLimitInterceptor interceptor = new RateLimitInterceptor(new RateLimits(environment), heavyHitters,
+                addresses);
+        LimitedController controller = new LimitedController();
+
+        assertTrue(call(interceptor, controller, "strict", "10.0.0.1", new MockHttpServletResponse()));
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+        assertFalse(call(interceptor, controller, "strict", "10.0.0.1", rejected));
+        assertEquals("3600", rejected.getHeader("Retry-After"));
+    }
+
+    @Test
+    void propertiesOverrideAnnotationLimits() throws Exception {
+        environment.setProperty("app.rate-limit.limits.test.permits", "1");
+        RateLimitInterceptor interceptor = new RateLimitInterceptor(new RateLimits(environment), heavyHitters,
+                addresses);
+        LimitedController controller = new LimitedController();
+
+        assertTrue(call(interceptor, controller, "limited", "10.0.0.1", new MockHttpServletResponse()));
+        assertFalse(call(interceptor, controller, "limited", "10.0.0.1", new MockHttpServletResponse()));
+    }
+
+    @Test
+    void unannotatedHandlersAndDisabledLimitsPassThrough() throws Exception {
+        RateLimitInterceptor interceptor = new RateLimitInterceptor(new RateLimits(environment), heavyHitters,
+                addresses);
+        for (int i = 0; i < 10; i++) {
+            assertTrue(call(interceptor, new OpenController(), "open", "10.0.0.1", new MockHttpServletResponse()));
+        }
+
+        environment.setProperty("app.rate-limit.enabled", "false");
+        RateLimitInterceptor disabled = new RateLimitInterceptor(new RateLimits(environment), heavyHitters, addresses);
+        for (int i = 0; i < 10; i++) {
+            assertTrue(call(disabled, new LimitedController(), "limited", "10.0.0.1", new MockHttpServletResponse()));
+        }
+    }
+
+    @Test
+    void forwardedForOnlyCountsBehindTrustedProxies() throws Exception {
+        RateLimitInterceptor interceptor = new RateLimitInterceptor(new RateLimits(environment), heavyHitters,
+                addresses);
+        LimitedController controller = new LimitedController();
+
+        // A client rotating spoofed headers still shares one bucket
+        for (int i = 0; i < 3; i++) {
+            MockHttpServletRequest request = new MockHttpServletRequest();
+            request.setRemoteAddr("203.0.113.5");
+            request.addHeader("X-Forwarded-For", "198.51.100." + i);
+            assertEquals(i < 2, interceptor.preHandle(request, new MockHttpServletResponse(),
+                    new HandlerMethod(controller, "limited")));
+        }
+
+        // Behind the proxy, each forwarded client gets its own
+        for (int i = 0; i < 3; i++) {
+            MockHttpServletRequest request = new MockHttpServletRequest();
+            request.setRemoteAddr("192.168.0.10");
+            request.addHeader("X-Forwarded-For", "198.51.100." + i);
+            assertTrue(interceptor.preHandle(request, new MockHttpServletResponse(),
+                    new HandlerMethod(controller, "limited")));
+        }
+        assertEquals(new HeavyHitter("203.0.113.5", 3, 0), heavyHitters.topAttempts("test", 1, 60_000).get(0));
+    }
+
+    @Test
+    void asyncRedispatchesAreNotCountedAgain() throws Exception {
+        RateLimitInterceptor interceptor = new RateLimitInterceptor(new RateLimits(environment), heavyHitters,
+                addresses);
+        LimitedController controller = new LimitedController();
+
+        assertTrue(call(interceptor, controller, "strict", "10.0.0.1", new MockHttpServletResponse()));
+        // The stream the first request started completes on an async dispatch of the same request
+        MockHttpServletRequest redispatch = new MockHttpServletRequest();
+        redispatch.setRemoteAddr("10.0.0.1");
+        redispatch.setDispatcherType(DispatcherType.ASYNC);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        assertTrue(interceptor.preHandle(redispatch, response, new HandlerMethod(controller, "strict")));
+        assertEquals(200, response.getStatus());
+        assertEquals(List.of(new HeavyHitter("10.0.0.1", 1, 0)), heavyHitters.topAttempts("strict", 10, 60_000));
+    }
+}
@@ -1,8 +1,17 @@
 // src/test/java/com/stagllc/staginfra/service/RateLimiterServiceTest.java
 package com.stagllc.staginfra.service;
 
+import com.stagllc.staginfra.service.ratelimit.HeavyHitter;
+import com.stagllc.staginfra.service.ratelimit.HeavyHitterTracker;
+import com.stagllc.staginfra.service.ratelimit.InMemoryRateLimitBackend;
+import com.stagllc.staginfra.service.ratelimit.LeasedRateLimiter;
+import com.stagllc.staginfra.service.ratelimit.RateLimitBackend;
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 public class RateLimiterServiceTest {
@@ -89,4 +98,126 @@ public class RateLimiterServiceTest {
         // Registration should be allowed again
         assertTrue(rateLimiter.allowRegistration(ip));
     }
-}
\ No newline at end of file
+
+    @Test
+    void testAttemptsLeaveTheWindow() {
+        AtomicLong now = new AtomicLong(1_000_000);
+        RateLimiterService rateLimiter = new RateLimiterService(0, now::get);
+        String ip = "192.168.1.1";
+
+        // Two attempts now, three more ten minutes later
+        assertTrue(rateLimiter.allowLogin(ip));
+        assertTrue(rateLimiter.allowLogin(ip));
+        now.addAndGet(TimeUnit.MINUTES.toMillis(10));
+        for (int i = 0; i < 3; i++) {
+            assertTrue(rateLimiter.allowLogin(ip));
+        }
+        assertFalse(rateLimiter.allowLogin(ip));
+
+        // After 15 minutes only the first two have left the window
+        now.addAndGet(TimeUnit.MINUTES.toMillis(5));
+        assertTrue(rateLimiter.allowLogin(ip));
+        assertTrue(rateLimiter.allowLogin(ip));
+        assertFalse(rateLimiter.allowLogin(ip));
+    }
+
+    @Test
+    void testSweepDropsIdleKeys() {
+        AtomicLong now = new AtomicLong(1_000_000);
+        RateLimiterService rateLimiter = new RateLimiterService(0, now::get);
+
+        assertTrue(rateLimiter.allowLogin("192.168.1.1"));
+        assertTrue(rateLimiter.allowRegistration("192.168.1.1"));
+        assertTrue(rateLimiter.allowLogin("192.168.1.2"));
+        assertEquals(3, rateLimiter.trackedKeys());
+
+        // Nothing is idle yet
+        assertEquals(0, rateLimiter.sweep());
+
+        // Login attempts leave their 15 minute window, registrations stay for an hour
+        now.addAndGet(TimeUnit.MINUTES.toMillis(15));
+        assertEquals(2, rateLimiter.sweep());
+        assertEquals(1, rateLimiter.trackedKeys());
+
+        now.addAndGet(TimeUnit.MINUTES.toMillis(45));
+        assertEquals(1, rateLimiter.sweep());
+        assertEquals(0, rateLimiter.trackedKeys());
+
+        // A swept key starts over with a full allowance
+        for (int i = 0; i < 5; i++) {
+            assertTrue(rateLimiter.allowLogin("192.168.1.1"));
+        }
+        assertFalse(rateLimiter.allowLogin("192.168.1.1"));
+    }
+
+    @Test
+    void testLimitsAreSharedAcrossNodes() {
+        InMemoryRateLimitBackend backend = new InMemoryRateLimitBackend();
+        RateLimiterService node1 = new RateLimiterService(0, () -> 1_000_000L,
+                new LeasedRateLimiter(backend, 2, 5_000), 0, null);
+        RateLimiterService node2 = new RateLimiterService(0, () -> 1_000_000L,
+                new LeasedRateLimiter(backend, 2, 5_000), 0, null);
+        String ip = "192.168.1.1";
+
+        int allowed = 0;
+        for (int i = 0; i < 5; i++) {
+            allowed += node1.allowLogin(ip) ? 1 : 0;
+            allowed += node2.allowLogin(ip) ? 1 : 0;
+        }
+        assertEquals(5, allowed);
+
+        // A successful login on one node resets the limit everywhere
+        node1.resetLimiter(ip, "LOGIN");
+        assertTrue(node2.allowLogin(ip));
+    }
+
+    @Test
+    void testFallsBackToLocalLimitsWhenBackendFails() {
+        RateLimitBackend broken = new RateLimitBackend() {
+            @Override
+            public int acquire(String key, long window, int requested, int limit, long expiresAtMillis) {
+                throw new IllegalStateException("database down");
+            }
+
+            @Override
+            public void release(List<Release> releases) {
+            }
+
+            @Override
+            public void reset(String key) {
+                throw new IllegalStateException("database down");
+            }
+
+            @Override
+            public void expire(long nowMillis) {
+            }
+        };
+        RateLimiterService rateLimiter = new RateLimiterService(0, () -> 1_000_000L,
+                new LeasedRateLimiter(broken, 2, 5_000), 0, null);
+
+        for (int i = 0; i < 5; i++) {
+            assertTrue(rateLimiter.allowLogin("192.168.1.1"));
+        }
+        assertFalse(rateLimiter.allowLogin("192.168.1.1"));
+        rateLimiter.resetLimiter("192.168.1.1", "LOGIN");
+        assertTrue(rateLimiter.allowLogin("192.168.1.1"));
+        // Only the first of the eight failures was logged
+        assertEquals(7, rateLimiter.suppressedBackendWarnings());
+    }
+
+    @Test
+    void testDecisionsReachHeavyHitterTracker() {
+        HeavyHitterTracker heavyHitters = new HeavyHitterTracker(10, 4, 60, 60_000);
+        RateLimiterService rateLimiter = new RateLimiterService(0, () -> 1_000_000L, null, 0, heavyHitters);
+
+        for (int i = 0; i < 7; i++) {
+            rateLimiter.allowLogin("192.168.1.1");
+        }
+        rateLimiter.allowLogin("192.168.1.2");
+
+        assertEquals(List.of(new HeavyHitter("192.168.1.1", 7, 0), new HeavyHitter("192.168.1.2", 1, 0)),
+                heavyHitters.topAttempts("LOGIN", 10, 60_000));
+        assertEquals(List.of(new HeavyHitter("192.168.1.1", 2, 0)), heavyHitters.topRejections("LOGIN", 10, 60_000));
+        assertEquals(List.of(), heavyHitters.topAttempts("REGISTRATION", 10, 60_000));
+    }
+}
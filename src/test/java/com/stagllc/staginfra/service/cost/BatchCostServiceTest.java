@@ -0,0 +1,133 @@
+package com.stagllc.staginfra.service.cost;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.stagllc.staginfra.service.cost.calculator.CostCalculatorRegistry;
+import com.stagllc.staginfra.service.pricing.PriceCatalogService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BatchCostServiceTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private BatchCostService batchCostService;
+
+    @BeforeEach
+    void setUp() {
+        CostEstimator costEstimator = new CostEstimator(new PriceCatalogService("", false), CostCalculatorRegistry.withDefaults());
+        batchCostService = new BatchCostService(costEstimator, objectMapper, 4, 8);
+    }
+
+    @AfterEach
+    void tearDown() {
+        batchCostService.shutdown();
+    }
+
+    @Test
+    void testNdjsonInputProducesOneLinePerDesign() throws Exception {
+        StringBuilder input = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            input.append("{\"id\": \"d").append(i).append("\", \"components\": [")
+                    .append("{\"type\": \"ec2\", \"instances\": ").append(i).append("}]}\n");
+        }
+
+        Map<String, Double> totals = run(input.toString());
+
+        assertEquals(100, totals.size());
+        assertEquals(0.0, totals.get("d0"));
+        assertEquals(8.5, totals.get("d1"));
+        assertEquals(841.5, totals.get("d99"));
+    }
+
+    @Test
+    void testJsonArrayInputAndPositionalIds() throws Exception {
+        Map<String, Double> totals = run("[{\"components\": [{\"type\": \"s3\", \"storage\": 50}]},"
+                + " {\"id\": \"named\", \"components\": []}]");
+
+        assertEquals(1.15, totals.get("0"));
+        assertEquals(0.0, totals.get("named"));
+    }
+
+    @Test
+    void testMalformedInputReportsErrorAfterAcceptedDesigns() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        int count = batchCostService.estimate(new ByteArrayInputStream(
+                "{\"id\": \"ok\", \"components\": []}\n{\"id\": ".getBytes(StandardCharsets.UTF_8)), out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(1, count);
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].contains("\"ok\""));
+        assertTrue(lines[1].contains("\"error\""));
+    }
+
+    @Test
+    void testSlowReaderDoesNotStallOtherBatches() throws Exception {
+        BatchCostService singleThreaded = new BatchCostService(new CostEstimator(new PriceCatalogService("", false),
+                CostCalculatorRegistry.withDefaults()), objectMapper, 1, 8);
+        CountDownLatch release = new CountDownLatch(1);
+        OutputStream stuck = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    throw new InterruptedIOException();
+                }
+            }
+        };
+        Thread slow = new Thread(() -> {
+            try {
+                singleThreaded.estimate(new ByteArrayInputStream(
+                        "{\"id\": \"slow\", \"components\": []}".getBytes(StandardCharsets.UTF_8)), stuck);
+            } catch (IOException e) {
+                // Not expected; the assertions below are what matter
+            }
+        });
+        slow.start();
+        try {
+            // The only pricing thread must be free for another request while the first one can't write
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            ExecutorService caller = Executors.newSingleThreadExecutor();
+            Future<Integer> other = caller.submit(() -> singleThreaded.estimate(new ByteArrayInputStream(
+                    "{\"id\": \"fast\", \"components\": []}".getBytes(StandardCharsets.UTF_8)), out));
+            assertEquals(1, other.get(10, TimeUnit.SECONDS));
+            assertTrue(out.toString(StandardCharsets.UTF_8).contains("\"fast\""));
+            caller.shutdown();
+        } finally {
+            release.countDown();
+            slow.join(10_000);
+            singleThreaded.shutdown();
+        }
+    }
+
+    private Map<String, Double> run(String input) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        batchCostService.estimate(new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)), out);
+
+        Map<String, Double> totals = new HashMap<>();
+        for (String line : out.toString(StandardCharsets.UTF_8).split("\n")) {
+            Map<?, ?> result = objectMapper.readValue(line, Map.class);
+            assertNull(result.get("error"));
+            totals.put((String) result.get("id"), ((Number) result.get("total")).doubleValue());
+        }
+        return totals;
+    }
+}
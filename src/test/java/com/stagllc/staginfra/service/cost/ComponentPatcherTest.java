@@ -0,0 +1,66 @@
+package com.stagllc.staginfra.service.cost;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.stagllc.staginfra.dto.component.Ec2Component;
+import com.stagllc.staginfra.dto.component.RdsComponent;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ComponentPatcherTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void testPatchOverridesOnlyGivenFields() throws Exception {
+        RdsComponent rds = new RdsComponent("db", "db.t2.micro", 20, false);
+
+        assertEquals(new RdsComponent("db", "db.t2.micro", 100, true),
+                ComponentPatcher.apply(rds, objectMapper.readTree("{\"allocated_storage\": 100, \"multi_az\": true}")));
+    }
+
+    @Test
+    void testPatchCannotChangeId() throws Exception {
+        Ec2Component ec2 = new Ec2Component("web", 1, "t2.micro");
+
+        assertEquals(new Ec2Component("web", 3, "t2.micro"),
+                ComponentPatcher.apply(ec2, objectMapper.readTree("{\"id\": \"other\", \"instances\": 3}")));
+    }
+
+    @Test
+    void testPatchNeverSetsAnId() throws Exception {
+        Ec2Component ec2 = new Ec2Component(null, 1, "t2.micro");
+
+        assertEquals(new Ec2Component(null, 3, "t2.micro"),
+                ComponentPatcher.apply(ec2, objectMapper.readTree("{\"id\": \"web\", \"instances\": 3}")));
+    }
+
+    @Test
+    void testPatchValuesBindLikeRequestJson() throws Exception {
+        Ec2Component ec2 = new Ec2Component("web", 4, "m5.large", "eu-west-1");
+
+        // Numeric strings are numbers, null restores the default and unknown fields are ignored
+        assertEquals(new Ec2Component("web", 2, "t2.micro", "eu-west-1"), ComponentPatcher.apply(ec2,
+                objectMapper.readTree("{\"instances\": \"2\", \"instance_type\": null, \"label\": \"Web\"}")));
+    }
+
+    @Test
+    void testPatchValuesThatDontBindAreRejected() throws Exception {
+        RdsComponent rds = new RdsComponent("db", "db.t2.micro", 20, false);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> ComponentPatcher.apply(rds, objectMapper.readTree("{\"allocated_storage\": \"lots\"}")));
+        assertThrows(IllegalArgumentException.class,
+                () -> ComponentPatcher.apply(rds, objectMapper.readTree("{\"allocated_storage\": -20}")));
+        assertThrows(IllegalArgumentException.class,
+                () -> ComponentPatcher.apply(rds, objectMapper.readTree("{\"multi_az\": \"yes\"}")));
+    }
+
+    @Test
+    void testPatchMustBeObject() throws Exception {
+        Ec2Component ec2 = new Ec2Component("web", 1, "t2.micro");
+
+        assertThrows(IllegalArgumentException.class,
+                () -> ComponentPatcher.apply(ec2, objectMapper.readTree("[1, 2]")));
+    }
+}
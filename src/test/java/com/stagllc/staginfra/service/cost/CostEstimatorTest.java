@@ -0,0 +1,72 @@
+package com.stagllc.staginfra.service.cost;
+
+import com.stagllc.staginfra.dto.CostEstimateResponse;
+import com.stagllc.staginfra.dto.RegionComparisonResponse;
+import com.stagllc.staginfra.dto.component.Component;
+import com.stagllc.staginfra.dto.component.Ec2Component;
+import com.stagllc.staginfra.dto.component.S3Component;
+import com.stagllc.staginfra.service.cost.calculator.CostCalculatorRegistry;
+import com.stagllc.staginfra.service.pricing.PriceCatalogService;
+import com.stagllc.staginfra.service.pricing.UnknownRegionException;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CostEstimatorTest {
+
+    private final CostEstimator costEstimator =
+            new CostEstimator(new PriceCatalogService("", false), CostCalculatorRegistry.withDefaults());
+
+    @Test
+    void testComponentsArePricedInTheirOwnRegion() {
+        assertEquals(new BigDecimal("17.00"), costEstimator.estimate(List.of(new Ec2Component("web", 2, "t2.micro"))));
+        assertEquals(new BigDecimal("19.04"), costEstimator.estimate(List.of(new Ec2Component("web", 2, "t2.micro", "eu-west-1"))));
+    }
+
+    @Test
+    void testUnknownRegionsAreRejected() {
+        List<Component> design = List.of(new Ec2Component("web", 2, "t2.micro", "moon-1"));
+
+        assertThrows(UnknownRegionException.class, () -> costEstimator.estimate(design));
+        assertThrows(UnknownRegionException.class, () -> costEstimator.compareRegions(design));
+    }
+
+    @Test
+    void testCompareRegionsPricesWholeDesignInEveryRegion() {
+        List<Component> design = List.of(
+                new Ec2Component("web", 2, "t2.micro", "eu-west-1"),
+                new S3Component("assets", 50, "sa-east-1"));
+
+        RegionComparisonResponse comparison = costEstimator.compareRegions(design);
+
+        assertEquals(costEstimator.getCatalog().regionCount(), comparison.getTotals().size());
+        assertEquals("us-east-1", comparison.getDefaultRegion());
+        assertEquals(new BigDecimal("18.15"), comparison.getTotals().get("us-east-1"));
+        // 26.86 + 2.025 rounds half up
+        assertEquals(new BigDecimal("28.89"), comparison.getTotals().get("sa-east-1"));
+        assertEquals("us-east-1", comparison.getCheapestRegion());
+    }
+
+    @Test
+    void testPurchaseOptionsDiscountOnlyCoveredPrices() {
+        List<Component> design = List.of(
+                new Ec2Component("web", 2, "t2.micro"),
+                new S3Component("assets", 50));
+
+        CostEstimateResponse response = costEstimator.estimateWithPurchaseOptions(design, true, costEstimator.getCatalog());
+
+        assertEquals(new BigDecimal("18.15"), response.getTotal());
+        assertEquals(List.of("onDemand", "reserved", "savingsPlan", "spot"), List.copyOf(response.getPurchaseOptions().keySet()));
+        assertEquals(new BigDecimal("18.15"), response.getPurchaseOptions().get("onDemand"));
+        // 8.50 * 0.62 per instance; S3 storage has no reserved pricing
+        assertEquals(new BigDecimal("11.69"), response.getPurchaseOptions().get("reserved"));
+        assertEquals(new BigDecimal("13.39"), response.getPurchaseOptions().get("savingsPlan"));
+        assertEquals(new BigDecimal("6.25"), response.getPurchaseOptions().get("spot"));
+        // The breakdown is the on-demand one
+        assertEquals(new BigDecimal("17.00"), response.getLineItems().get(0).getCost());
+        assertEquals(costEstimator.estimateWithBreakdown(design).getByType(), response.getByType());
+    }
+}
@@ -0,0 +1,299 @@
+package com.stagllc.staginfra.service.cost;
+
+import com.stagllc.staginfra.dto.CostUpdateEvent;
+import com.stagllc.staginfra.dto.component.Ec2Component;
+import com.stagllc.staginfra.service.cost.calculator.CostCalculatorRegistry;
+import com.stagllc.staginfra.service.pricing.PriceCatalogService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CostEventServiceTest {
+
+    private final CostEstimator costEstimator =
+            new CostEstimator(new PriceCatalogService("", false), CostCalculatorRegistry.withDefaults());
+    private final DesignStore designStore = new DesignStore(costEstimator);
+    private final ManualScheduler scheduler = new ManualScheduler();
+    private final AtomicLong now = new AtomicLong();
+    private final CostEventService costEventService =
+            new CostEventService(designStore, costEstimator, 100, 60000, 50, 4, scheduler, now::get);
+    private final DesignKey key = new DesignKey("alice@example.com", "web");
+
+    @AfterEach
+    void tearDown() {
+        costEventService.shutdown();
+    }
+
+    @Test
+    void testSubscriberReceivesCurrentStateOnConnect() throws Exception {
+        designStore.replace(key, List.of(new Ec2Component("web", 2, "t2.micro")));
+        CapturingEmitter emitter = new CapturingEmitter();
+
+        costEventService.register(key, emitter, () -> { });
+        scheduler.runPending();
+
+        assertTrue(emitter.await(1));
+        CostUpdateEvent event = emitter.events.get(0);
+        assertEquals("web", event.getDesignId());
+        assertEquals(1, event.getVersion());
+        assertEquals(new BigDecimal("17.00"), event.getTotal());
+        assertEquals(1, event.getLineItems().size());
+    }
+
+    @Test
+    void testBurstOfEditsProducesOneEvent() throws Exception {
+        CapturingEmitter emitter = new CapturingEmitter();
+        costEventService.register(key, emitter, () -> { });
+        scheduler.runPending();
+        assertTrue(emitter.await(1));
+
+        for (int i = 0; i < 10; i++) {
+            designStore.addComponent(key, new Ec2Component("web-" + i, 1, "t2.micro"));
+        }
+
+        // The whole burst falls in one coalescing window
+        assertEquals(1, scheduler.runPending());
+        assertTrue(emitter.await(1));
+        assertEquals(0, scheduler.runPending());
+        assertEquals(2, emitter.events.size());
+        CostUpdateEvent event = emitter.events.get(1);
+        assertEquals(10, event.getVersion());
+        assertEquals(new BigDecimal("85.00"), event.getTotal());
+        assertEquals(10, event.getLineItems().size());
+    }
+
+    @Test
+    void testEveryDesignSubscriberIsNotifiedAndLeavesOnCompletion() throws Exception {
+        CapturingEmitter first = new CapturingEmitter();
+        CapturingEmitter second = new CapturingEmitter();
+        costEventService.register(key, first, () -> { });
+        costEventService.register(key, second, () -> { });
+        assertEquals(2, costEventService.subscriberCount(key));
+        scheduler.runPending();
+        assertTrue(first.await(1));
+        assertTrue(second.await(1));
+
+        designStore.addComponent(key, new Ec2Component("web", 1, "t2.micro"));
+        scheduler.runPending();
+
+        assertTrue(first.await(1));
+        assertTrue(second.await(1));
+        first.completion.run();
+        second.completion.run();
+        assertEquals(0, costEventService.subscriberCount(key));
+    }
+
+    @Test
+    void testBlockedSubscriberIsDroppedWithoutDelayingOthers() throws Exception {
+        BlockingEmitter stuck = new BlockingEmitter();
+        CapturingEmitter healthy = new CapturingEmitter();
+        costEventService.register(key, stuck, stuck.closed::countDown);
+        costEventService.register(key, healthy, () -> { });
+        scheduler.runPending();
+        assertTrue(stuck.sending.await(5, TimeUnit.SECONDS));
+        assertTrue(healthy.await(1));
+
+        // The healthy stream's writes start later, so only the stuck one is over the timeout below
+        now.set(30);
+        designStore.addComponent(key, new Ec2Component("web", 1, "t2.micro"));
+        scheduler.runPending();
+        assertTrue(healthy.await(1));
+        now.set(51);
+        designStore.addComponent(key, new Ec2Component("worker", 1, "t2.micro"));
+        scheduler.runPending();
+
+        assertTrue(healthy.await(1));
+        assertEquals(2, healthy.events.get(2).getVersion());
+        // The stuck stream's first write outlived the send timeout, so it was dropped at the next event and its
+        // response closed, failing the write
+        assertEquals(1, costEventService.subscriberCount(key));
+        assertEquals(0, stuck.closed.getCount());
+    }
+
+    @Test
+    void testBlockedSubscriberOfAQuietDesignIsDropped() throws Exception {
+        BlockingEmitter stuck = new BlockingEmitter();
+        costEventService.register(key, stuck, stuck.closed::countDown);
+        scheduler.runPending();
+        assertTrue(stuck.sending.await(5, TimeUnit.SECONDS));
+
+        costEventService.dropStuckSubscribers();
+        assertEquals(1, costEventService.subscriberCount(key));
+
+        now.addAndGet(51);
+        costEventService.dropStuckSubscribers();
+        assertEquals(0, costEventService.subscriberCount(key));
+        assertEquals(0, stuck.closed.getCount());
+    }
+
+    @Test
+    void testEventsUseTheStoredComponentCosts() throws Exception {
+        designStore.replace(key, List.of(new Ec2Component("web", 2, "t2.micro"), new Ec2Component("db", 1, "t2.micro")));
+        CapturingEmitter emitter = new CapturingEmitter();
+
+        costEventService.register(key, emitter, () -> { });
+        scheduler.runPending();
+
+        assertTrue(emitter.await(1));
+        CostUpdateEvent event = emitter.events.get(0);
+        assertEquals(designStore.get(key).getTotal(), event.getTotal());
+        assertEquals(List.of("web", "db"), event.getLineItems().stream().map(item -> item.getId()).toList());
+    }
+
+    // Records the cost events it is sent instead of writing to a response
+    private static final class CapturingEmitter extends SseEmitter {
+        final List<CostUpdateEvent> events = new CopyOnWriteArrayList<>();
+        final Semaphore received = new Semaphore(0);
+        Runnable completion;
+
+        // Waits for the next count events
+        boolean await(int count) throws InterruptedException {
+            return received.tryAcquire(count, 5, TimeUnit.SECONDS);
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            for (ResponseBodyEmitter.DataWithMediaType part : builder.build()) {
+                if (part.getData() instanceof CostUpdateEvent event) {
+                    events.add(event);
+                    received.release();
+                }
+            }
+        }
+
+        @Override
+        public synchronized void onCompletion(Runnable callback) {
+            this.completion = callback;
+        }
+    }
+
+    // A client that never reads: every write blocks until the response is closed, then fails
+    private static final class BlockingEmitter extends SseEmitter {
+        final CountDownLatch sending = new CountDownLatch(1);
+        final CountDownLatch closed = new CountDownLatch(1);
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            sending.countDown();
+            try {
+                closed.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            throw new IOException("Connection closed");
+        }
+    }
+
+    // Runs scheduled tasks only when told to, whatever their delay; periodic tasks are never run
+    private static final class ManualScheduler extends AbstractExecutorService implements ScheduledExecutorService {
+        private final List<Runnable> pending = new ArrayList<>();
+
+        // Runs everything queued so far, including tasks those schedule, and returns how many ran
+        int runPending() {
+            int ran = 0;
+            while (true) {
+                Runnable task;
+                synchronized (this) {
+                    if (pending.isEmpty()) {
+                        return ran;
+                    }
+                    task = pending.remove(0);
+                }
+                task.run();
+                ran++;
+            }
+        }
+
+        @Override
+        public synchronized void execute(Runnable command) {
+            pending.add(command);
+        }
+
+        @Override
+        public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
+            Task<Void> task = new Task<>(() -> {
+                command.run();
+                return null;
+            });
+            execute(task);
+            return task;
+        }
+
+        @Override
+        public <V> ScheduledFuture<V> schedule(Callable<V> callable, long delay, TimeUnit unit) {
+            Task<V> task = new Task<>(callable);
+            execute(task);
+            return task;
+        }
+
+        @Override
+        public ScheduledFuture<?> scheduleAtFixedRate(Runnable command, long initialDelay, long period, TimeUnit unit) {
+            return new Task<>(() -> null);
+        }
+
+        @Override
+        public ScheduledFuture<?> scheduleWithFixedDelay(Runnable command, long initialDelay, long delay,
+                                                         TimeUnit unit) {
+            return new Task<>(() -> null);
+        }
+
+        @Override
+        public void shutdown() {
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            return List.of();
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return false;
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return false;
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) {
+            return true;
+        }
+
+        private static final class Task<V> extends FutureTask<V> implements ScheduledFuture<V> {
+            Task(Callable<V> callable) {
+                super(callable);
+            }
+
+            @Override
+            public long getDelay(TimeUnit unit) {
+                return 0;
+            }
+
+            @Override
+            public int compareTo(Delayed other) {
+                return 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.stagllc.staginfra.service.cost;
+
+import com.stagllc.staginfra.dto.component.Component;
+import com.stagllc.staginfra.dto.component.ComponentType;
+import com.stagllc.staginfra.dto.component.DynamoDbComponent;
+import com.stagllc.staginfra.dto.component.EbsComponent;
+import com.stagllc.staginfra.dto.component.Ec2Component;
+import com.stagllc.staginfra.dto.component.LambdaComponent;
+import com.stagllc.staginfra.dto.component.LoadBalancerComponent;
+import com.stagllc.staginfra.dto.component.NetworkComponent;
+import com.stagllc.staginfra.dto.component.RdsComponent;
+import com.stagllc.staginfra.dto.component.S3Component;
+import com.stagllc.staginfra.service.cost.calculator.CostCalculatorRegistry;
+import com.stagllc.staginfra.service.pricing.PriceCatalog;
+import com.stagllc.staginfra.service.pricing.PriceCatalogService;
+import com.stagllc.staginfra.service.pricing.PurchaseOption;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CostPlanTest {
+
+    private static final String[] REGIONS = {null, "us-east-1", "eu-west-1", "sa-east-1"};
+
+    private final CostEstimator costEstimator =
+            new CostEstimator(new PriceCatalogService("", false), CostCalculatorRegistry.withDefaults());
+    private final PriceCatalog catalog = costEstimator.getCatalog();
+
+    @Test
+    void testPlanMatchesEstimatorExactly() {
+        List<Component> design = randomDesign(20_000, 7);
+
+        CostPlan plan = costEstimator.compile(design);
+
+        assertEquals(design.size(), plan.componentCount());
+        assertEquals(costEstimator.estimateMicros(design, catalog), plan.evaluate(plan.prices(catalog)));
+        long[] costs = new long[plan.componentCount()];
+        plan.evaluate(plan.prices(catalog), plan.quantities(), costs);
+        for (int c = 0; c < costs.length; c++) {
+            assertEquals(costEstimator.componentMicros(design.get(c), catalog), costs[c], "component " + c);
+        }
+    }
+
+    @Test
+    void testPricesAreSharedAcrossComponents() {
+        List<Component> design = List.of(
+                new Ec2Component("a", 2, "t2.micro"),
+                new Ec2Component("b", 3, "t2.micro"),
+                new Ec2Component("c", 1, "t2.micro", "eu-west-1"),
+                new NetworkComponent("vpc", ComponentType.VPC));
+
+        CostPlan plan = costEstimator.compile(design);
+
+        // The constant 1, t2.micro in the default region and t2.micro in eu-west-1
+        assertEquals(3, plan.priceCount());
+        assertEquals(3, plan.termCount());
+        assertEquals(plan.termEnd(3), plan.termStart(3));
+    }
+
+    @Test
+    void testRegionPricesMatchPricingEveryComponentThere() {
+        List<Component> design = randomDesign(2_000, 11);
+        CostPlan plan = costEstimator.compile(design);
+        double[] prices = new double[plan.priceCount()];
+
+        for (int region = 0; region < catalog.regionCount(); region++) {
+            plan.prices(catalog, region, prices);
+            String name = catalog.getRegions().get(region);
+            List<Component> moved = randomDesign(2_000, 11, name);
+            assertEquals(costEstimator.estimateMicros(moved, catalog), plan.evaluate(prices), name);
+        }
+    }
+
+    @Test
+    void testEditedQuantitiesReprice() {
+        List<Component> design = List.of(
+                new Ec2Component("web", 2, "t2.micro"),
+                new S3Component("assets", 50));
+        CostPlan plan = costEstimator.compile(design);
+        double[] prices = plan.prices(catalog);
+        double[] quantities = plan.quantities();
+
+        quantities[plan.termStart(0)] = 6;
+
+        assertEquals(costEstimator.estimateMicros(List.of(new Ec2Component("web", 6, "t2.micro"),
+                new S3Component("assets", 50)), catalog), plan.evaluate(prices, quantities));
+        // The plan's own quantities are untouched
+        assertEquals(costEstimator.estimateMicros(design, catalog), plan.evaluate(prices));
+    }
+
+    @Test
+    void testAllPurchaseOptionsInOnePassMatchSeparateEvaluations() {
+        List<Component> design = randomDesign(20_000, 13);
+        CostPlan plan = costEstimator.compile(design);
+        double[][] optionPrices = plan.optionPrices(catalog);
+        long[] costs = new long[plan.componentCount()];
+
+        long[] totals = plan.evaluateOptions(optionPrices, costs);
+
+        assertEquals(PurchaseOption.values().length, totals.length);
+        assertEquals(costEstimator.estimateMicros(design, catalog), totals[PurchaseOption.ON_DEMAND.ordinal()]);
+        for (PurchaseOption option : PurchaseOption.values()) {
+            assertEquals(plan.evaluate(optionPrices[option.ordinal()]), totals[option.ordinal()], option.name());
+        }
+        assertTrue(totals[PurchaseOption.SPOT.ordinal()] < totals[PurchaseOption.ON_DEMAND.ordinal()]);
+        assertEquals(costEstimator.componentMicros(design.get(0), catalog), costs[0]);
+    }
+
+    static List<Component> randomDesign(int size, long seed) {
+        return randomDesign(size, seed, null);
+    }
+
+    // Every priced type and branch; region is random unless given
+    private static List<Component> randomDesign(int size, long seed, String fixedRegion) {
+        SplittableRandom random = new SplittableRandom(seed);
+        String[] instanceTypes = {"t2.nano", "t2.micro", "t2.large", "m7g.metal"};
+        String[] dbClasses = {"db.t2.micro", "db.m5.large", "db.unknown"};
+        String[] volumeTypes = {"gp2", "gp3", "io1", "standard"};
+        String[] lbTypes = {"application", "network", "classic"};
+        List<Component> components = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            String id = "c-" + i;
+            String region = REGIONS[random.nextInt(REGIONS.length)];
+            if (fixedRegion != null) {
+                region = fixedRegion;
+            }
+            components.add(switch (random.nextInt(8)) {
+                case 0 -> new Ec2Component(id, 1 + random.nextInt(8), instanceTypes[random.nextInt(4)], region);
+                case 1 -> new EbsComponent(id, 8 + random.nextInt(2000), volumeTypes[random.nextInt(4)],
+                        100 + random.nextInt(5000), region);
+                case 2 -> new S3Component(id, 1 + random.nextInt(10000), region);
+                case 3 -> new LambdaComponent(id, 128 << random.nextInt(5), 1 + random.nextLong(10_000_000),
+                        1 + random.nextInt(3000), region);
+                case 4 -> new RdsComponent(id, dbClasses[random.nextInt(3)], 20 + random.nextInt(500),
+                        random.nextBoolean(), region);
+                case 5 -> new DynamoDbComponent(id, random.nextBoolean() ? "PAY_PER_REQUEST" : "PROVISIONED",
+                        1 + random.nextInt(100), 1 + random.nextInt(100), random.nextLong(100_000_000),
+                        random.nextLong(50_000_000), region);
+                case 6 -> new LoadBalancerComponent(id, lbTypes[random.nextInt(3)], random.nextDouble() * 10, region);
+                default -> new NetworkComponent(id, ComponentType.SUBNET);
+            });
+        }
+        return components;
+    }
+}
@@ -0,0 +1,102 @@
+package com.stagllc.staginfra.service.cost;
+
+import com.stagllc.staginfra.dto.ComponentChange;
+import com.stagllc.staginfra.dto.DiffResponse;
+import com.stagllc.staginfra.dto.component.Component;
+import com.stagllc.staginfra.dto.component.EbsComponent;
+import com.stagllc.staginfra.dto.component.Ec2Component;
+import com.stagllc.staginfra.dto.component.S3Component;
+import com.stagllc.staginfra.service.cost.calculator.CostCalculatorRegistry;
+import com.stagllc.staginfra.service.pricing.PriceCatalogService;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DesignDiffServiceTest {
+
+    private final CostEstimator costEstimator =
+            new CostEstimator(new PriceCatalogService("", false), CostCalculatorRegistry.withDefaults());
+    private final DesignDiffService diffService = new DesignDiffService(costEstimator);
+
+    @Test
+    void testComponentsAreMatchedById() {
+        List<Component> before = List.of(
+                new Ec2Component("web", 2, "t2.micro"),
+                new S3Component("assets", 50),
+                new Ec2Component("batch", 1, "t2.micro"));
+        List<Component> after = List.of(
+                new S3Component("assets", 50),
+                new Ec2Component("web", 4, "t2.micro"),
+                new EbsComponent("data", 100, "gp2", 100));
+
+        DiffResponse diff = diffService.diff(before, after);
+
+        assertEquals(1, diff.getUnchanged());
+        assertEquals(1, diff.getChanged().size());
+        ComponentChange web = diff.getChanged().get(0);
+        assertEquals("web", web.getId());
+        assertEquals(new BigDecimal("17.00"), web.getDelta());
+        assertEquals(2, ((Ec2Component) web.getBefore()).instances());
+
+        assertEquals(List.of("data"), ids(diff.getAdded()));
+        assertNull(diff.getAdded().get(0).getBefore());
+        assertEquals(List.of("batch"), ids(diff.getRemoved()));
+        assertEquals(new BigDecimal("-8.50"), diff.getRemoved().get(0).getDelta());
+
+        assertEquals(costEstimator.estimate(before), diff.getBeforeTotal());
+        assertEquals(costEstimator.estimate(after), diff.getAfterTotal());
+        assertEquals(diff.getAfterTotal().subtract(diff.getBeforeTotal()), diff.getDelta());
+    }
+
+    @Test
+    void testUnnamedComponentsAreMatchedByAttributes() {
+        List<Component> before = List.of(
+                new S3Component(null, 50),
+                new S3Component(null, 50),
+                new Ec2Component(null, 1, "t2.micro"));
+        List<Component> after = List.of(
+                new S3Component(null, 50),
+                new Ec2Component(null, 2, "t2.micro"));
+
+        DiffResponse diff = diffService.diff(before, after);
+
+        assertEquals(1, diff.getUnchanged());
+        assertTrue(diff.getChanged().isEmpty());
+        assertEquals(1, diff.getAdded().size());
+        assertEquals(2, diff.getRemoved().size());
+        assertEquals(new BigDecimal("7.35"), diff.getDelta());
+    }
+
+    @Test
+    void testLargeDesignsDiffComponentByComponent() {
+        List<Component> before = new ArrayList<>();
+        List<Component> after = new ArrayList<>();
+        for (int i = 0; i < 100_000; i++) {
+            before.add(new Ec2Component("web-" + i, 1, "t2.micro"));
+            // Every tenth instance doubles, and the order is reversed
+            after.add(new Ec2Component("web-" + (99_999 - i), (99_999 - i) % 10 == 0 ? 2 : 1, "t2.micro"));
+        }
+
+        DiffResponse diff = diffService.diff(before, after);
+
+        assertEquals(90_000, diff.getUnchanged());
+        assertEquals(10_000, diff.getChanged().size());
+        assertEquals(new BigDecimal("85000.00"), diff.getDelta());
+    }
+
+    @Test
+    void testDuplicateIdsAreRejected() {
+        List<Component> duplicated = List.of(new S3Component("a", 1), new S3Component("a", 2));
+
+        assertThrows(IllegalArgumentException.class, () -> diffService.diff(duplicated, List.of()));
+        assertThrows(IllegalArgumentException.class, () -> diffService.diff(List.of(), duplicated));
+    }
+
+    private static List<String> ids(List<ComponentChange> changes) {
+        return changes.stream().map(ComponentChange::getId).toList();
+    }
+}
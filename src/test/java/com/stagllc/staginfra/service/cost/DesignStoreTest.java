@@ -0,0 +1,214 @@
+package com.stagllc.staginfra.service.cost;
+
+import com.stagllc.staginfra.dto.component.Component;
+import com.stagllc.staginfra.dto.component.Ec2Component;
+import com.stagllc.staginfra.dto.component.S3Component;
+import com.stagllc.staginfra.service.cost.calculator.CostCalculatorRegistry;
+import com.stagllc.staginfra.service.pricing.PriceCatalogService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DesignStoreTest {
+
+    private DesignStore designStore;
+
+    @BeforeEach
+    void setUp() {
+        designStore = new DesignStore(new CostEstimator(new PriceCatalogService("", false), CostCalculatorRegistry.withDefaults()));
+    }
+
+    @Test
+    void testUnknownDesignIsEmpty() {
+        DesignKey key = new DesignKey("alice@example.com", "missing");
+        DesignSnapshot snapshot = designStore.get(key);
+
+        assertEquals(new BigDecimal("0.00"), snapshot.getTotal());
+        assertEquals(0, snapshot.getComponentCount());
+        assertEquals(0, snapshot.getVersion());
+        assertTrue(designStore.getComponents(key).isEmpty());
+    }
+
+    @Test
+    void testReplacePublishesNewSnapshot() {
+        DesignKey key = new DesignKey("alice@example.com", "web");
+        List<Component> components = new ArrayList<>();
+        components.add(new S3Component("a", 50));
+
+        DesignSnapshot first = designStore.replace(key, components);
+        components.add(new S3Component("b", 100));
+        DesignSnapshot second = designStore.replace(key, components);
+
+        assertEquals(1, first.getComponentCount());
+        assertEquals(new BigDecimal("1.15"), first.getTotal());
+        assertEquals(1, first.getVersion());
+
+        assertEquals(2, second.getComponentCount());
+        assertEquals(new BigDecimal("3.45"), second.getTotal());
+        assertEquals(2, second.getVersion());
+        assertSame(second, designStore.get(key));
+        assertEquals(components, designStore.getComponents(key));
+    }
+
+    @Test
+    void testReplaceRejectsDuplicateIds() {
+        DesignKey key = new DesignKey("alice@example.com", "web");
+
+        assertThrows(IllegalArgumentException.class, () -> designStore.replace(key,
+                List.of(new S3Component("a", 50), new S3Component("a", 10))));
+    }
+
+    @Test
+    void testComponentsWithoutIdsAreListedButNotAddressable() {
+        DesignKey key = new DesignKey("alice@example.com", "web");
+        List<Component> components = List.of(new S3Component(null, 50), new S3Component("#0", 100),
+                new S3Component(null, 10));
+
+        DesignSnapshot snapshot = designStore.replace(key, components);
+
+        assertEquals(3, snapshot.getComponentCount());
+        assertEquals(new BigDecimal("3.68"), snapshot.getTotal());
+        assertEquals(components, designStore.getComponents(key));
+        // "#0" is only ever the component that has that id
+        Optional<DesignSnapshot> removed = designStore.removeComponent(key, "#0");
+        assertTrue(removed.isPresent());
+        assertEquals(new BigDecimal("1.38"), removed.get().getTotal());
+        assertTrue(designStore.removeComponent(key, "#0").isEmpty());
+        assertTrue(designStore.updateComponent(key, "#1", c -> c).isEmpty());
+        assertEquals(List.of(new S3Component(null, 50), new S3Component(null, 10)), designStore.getComponents(key));
+    }
+
+    @Test
+    void testOwnersDoNotShareDesigns() {
+        designStore.replace(new DesignKey("alice@example.com", "default"), List.of(new S3Component("a", 50)));
+
+        assertEquals(new BigDecimal("0.00"), designStore.get(new DesignKey("bob@example.com", "default")).getTotal());
+    }
+
+    @Test
+    void testDeltaEditsAdjustRunningTotal() {
+        DesignKey key = new DesignKey("alice@example.com", "web");
+
+        designStore.addComponent(key, new Ec2Component("web", 2, "t2.micro"));
+        designStore.addComponent(key, new S3Component("assets", 50));
+        assertEquals(new BigDecimal("18.15"), designStore.get(key).getTotal());
+
+        Optional<DesignSnapshot> patched = designStore.updateComponent(key, "web",
+                c -> new Ec2Component("web", 1, "t2.large"));
+        assertTrue(patched.isPresent());
+        assertEquals(new BigDecimal("69.15"), patched.get().getTotal());
+
+        Optional<DesignSnapshot> removed = designStore.removeComponent(key, "assets");
+        assertTrue(removed.isPresent());
+        assertEquals(new BigDecimal("68.00"), removed.get().getTotal());
+        assertEquals(1, removed.get().getComponentCount());
+        assertEquals(4, removed.get().getVersion());
+    }
+
+    @Test
+    void testDeltaEditsOnMissingComponents() {
+        DesignKey key = new DesignKey("alice@example.com", "web");
+        designStore.addComponent(key, new S3Component("assets", 50));
+
+        assertThrows(IllegalStateException.class, () -> designStore.addComponent(key, new S3Component("assets", 5)));
+        assertThrows(IllegalArgumentException.class, () -> designStore.addComponent(key, new S3Component(null, 5)));
+        assertTrue(designStore.updateComponent(key, "nope", c -> c).isEmpty());
+        assertTrue(designStore.removeComponent(key, "nope").isEmpty());
+        assertTrue(designStore.removeComponent(new DesignKey("bob@example.com", "web"), "assets").isEmpty());
+    }
+
+    @Test
+    void testOverflowingEditIsRejectedAndLeavesTheDesignUnchanged() {
+        DesignKey key = new DesignKey("alice@example.com", "fleet");
+        List<Component> components = new ArrayList<>();
+        // Each of these costs about $18 billion a month
+        for (int i = 0; i < 5; i++) {
+            components.add(new Ec2Component("web-" + i, Integer.MAX_VALUE, "t2.micro"));
+        }
+        DesignSnapshot before = designStore.replace(key, components);
+
+        assertThrows(CostOverflowException.class,
+                () -> designStore.addComponent(key, new Ec2Component("web-5", Integer.MAX_VALUE, "t2.micro")));
+        List<Component> more = new ArrayList<>(components);
+        more.add(new Ec2Component("web-5", Integer.MAX_VALUE, "t2.micro"));
+        assertThrows(CostOverflowException.class, () -> designStore.replace(key, more));
+
+        assertEquals(before.getTotalMicros(), designStore.get(key).getTotalMicros());
+        assertEquals(5, designStore.getComponents(key).size());
+    }
+
+    @Test
+    void testIdleDesignsAreEvicted() {
+        AtomicLong now = new AtomicLong(1_000_000);
+        DesignStore store = new DesignStore(
+                new CostEstimator(new PriceCatalogService("", false), CostCalculatorRegistry.withDefaults()),
+                100, 100, 60 * 60_000, now::get);
+        DesignKey idle = new DesignKey("alice@example.com", "idle");
+        DesignKey active = new DesignKey("alice@example.com", "active");
+        store.replace(idle, List.of(new S3Component("a", 50)));
+        store.replace(active, List.of(new S3Component("a", 50)));
+
+        now.addAndGet(59 * 60_000);
+        store.get(active);
+        now.addAndGet(60_000);
+        assertEquals(1, store.evict(now.get()));
+        assertEquals(0, store.get(idle).getComponentCount());
+        assertEquals(1, store.get(active).getComponentCount());
+    }
+
+    @Test
+    void testFullStoreEvictsLeastRecentlyUsedDesign() {
+        AtomicLong now = new AtomicLong(1_000_000);
+        DesignStore store = new DesignStore(
+                new CostEstimator(new PriceCatalogService("", false), CostCalculatorRegistry.withDefaults()),
+                3, 3, 60 * 60_000, now::get);
+        for (int i = 0; i < 3; i++) {
+            store.replace(new DesignKey("user" + i + "@example.com", "default"), List.of(new S3Component("a", 50)));
+            now.incrementAndGet();
+        }
+        // Reading design 0 makes design 1 the least recently used
+        store.get(new DesignKey("user0@example.com", "default"));
+        now.incrementAndGet();
+
+        store.replace(new DesignKey("user3@example.com", "default"), List.of(new S3Component("a", 50)));
+        assertEquals(3, store.size());
+        assertEquals(1, store.get(new DesignKey("user0@example.com", "default")).getComponentCount());
+        assertEquals(0, store.get(new DesignKey("user1@example.com", "default")).getComponentCount());
+        assertEquals(1, store.get(new DesignKey("user3@example.com", "default")).getComponentCount());
+    }
+
+    @Test
+    void testAnonymousDesignsOnlyEvictEachOther() {
+        AtomicLong now = new AtomicLong(1_000_000);
+        DesignStore store = new DesignStore(
+                new CostEstimator(new PriceCatalogService("", false), CostCalculatorRegistry.withDefaults()),
+                10, 2, 60 * 60_000, now::get);
+        DesignKey user = new DesignKey("alice@example.com", "default");
+        store.replace(user, List.of(new S3Component("a", 50)));
+        now.incrementAndGet();
+
+        // Each call without a cookie gets a new anonymous ID; only the two most recent designs are kept
+        for (int i = 0; i < 5; i++) {
+            store.replace(DesignKey.anonymous("client" + i, "default"), List.of(new S3Component("a", 50)));
+            now.incrementAndGet();
+        }
+        assertEquals(3, store.size());
+        assertEquals(1, store.get(user).getComponentCount());
+        assertEquals(0, store.get(DesignKey.anonymous("client2", "default")).getComponentCount());
+        assertEquals(1, store.get(DesignKey.anonymous("client3", "default")).getComponentCount());
+        assertEquals(1, store.get(DesignKey.anonymous("client4", "default")).getComponentCount());
+
+        // A removed anonymous design frees its place
+        assertTrue(store.remove(DesignKey.anonymous("client3", "default")));
+        store.replace(DesignKey.anonymous("client5", "default"), List.of(new S3Component("a", 50)));
+        assertEquals(1, store.get(DesignKey.anonymous("client4", "default")).getComponentCount());
+        assertEquals(3, store.size());
+    }
+}
@@ -0,0 +1,124 @@
+package com.stagllc.staginfra.service.cost;
+
+import com.stagllc.staginfra.dto.CostEstimateResponse;
+import com.stagllc.staginfra.dto.component.Component;
+import com.stagllc.staginfra.dto.component.Ec2Component;
+import com.stagllc.staginfra.dto.component.S3Component;
+import com.stagllc.staginfra.service.cost.calculator.CostCalculatorRegistry;
+import com.stagllc.staginfra.service.pricing.PriceCatalog;
+import com.stagllc.staginfra.service.pricing.PriceCatalogLoader;
+import com.stagllc.staginfra.service.pricing.PriceCatalogService;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EstimateCacheTest {
+
+    private final CostEstimator costEstimator =
+            new CostEstimator(new PriceCatalogService("", false), CostCalculatorRegistry.withDefaults());
+
+    @Test
+    void testRepeatedDesignIsServedFromCache() {
+        EstimateCache cache = new EstimateCache(costEstimator, 100);
+        List<Component> design = List.of(new Ec2Component("web", 2, "t2.micro"), new S3Component("assets", 50));
+
+        CostEstimateResponse first = cache.estimate(design, false);
+        CostEstimateResponse second = cache.estimate(List.copyOf(design), false);
+
+        assertEquals(new BigDecimal("18.15"), first.getTotal());
+        assertSame(first, second);
+        assertEquals(1, cache.stats().hitCount());
+        assertEquals(1, cache.stats().missCount());
+    }
+
+    @Test
+    void testTotalsIgnoreOrderButBreakdownsDoNot() {
+        EstimateCache cache = new EstimateCache(costEstimator, 100);
+        Component web = new Ec2Component("web", 2, "t2.micro");
+        Component assets = new S3Component("assets", 50);
+
+        cache.estimate(List.of(web, assets), false);
+        cache.estimate(List.of(assets, web), false);
+        assertEquals(1, cache.stats().hitCount());
+
+        CostEstimateResponse forward = cache.estimate(List.of(web, assets), true);
+        CostEstimateResponse reversed = cache.estimate(List.of(assets, web), true);
+        assertEquals("web", forward.getLineItems().get(0).getId());
+        assertEquals("assets", reversed.getLineItems().get(0).getId());
+        assertEquals(1, cache.stats().hitCount());
+    }
+
+    @Test
+    void testDifferentAttributesProduceDifferentKeys() {
+        EstimateCache cache = new EstimateCache(costEstimator, 100);
+
+        assertEquals(new BigDecimal("17.00"), cache.estimate(List.of(new Ec2Component("web", 2, "t2.micro")), false).getTotal());
+        assertEquals(new BigDecimal("25.50"), cache.estimate(List.of(new Ec2Component("web", 3, "t2.micro")), false).getTotal());
+        assertEquals(0, cache.stats().hitCount());
+    }
+
+    @Test
+    void testKeysMatchOnlyEqualDesigns() {
+        EstimateCache cache = new EstimateCache(costEstimator, 100);
+        PriceCatalog catalog = costEstimator.getCatalog();
+        Component web = new Ec2Component("web", 2, "t2.micro");
+        Component assets = new S3Component("assets", 50);
+
+        assertEquals(cache.keyFor(List.of(web, assets, web), false, false, catalog),
+                cache.keyFor(List.of(web, web, assets), false, false, catalog));
+        // Same components, different multiplicities
+        assertNotEquals(cache.keyFor(List.of(web, assets, assets), false, false, catalog),
+                cache.keyFor(List.of(web, web, assets), false, false, catalog));
+        assertNotEquals(cache.keyFor(List.of(web, assets), true, false, catalog),
+                cache.keyFor(List.of(assets, web), true, false, catalog));
+        assertNotEquals(cache.keyFor(List.of(web), false, false, catalog),
+                cache.keyFor(List.of(web), false, true, catalog));
+    }
+
+    @Test
+    void testSizeIsBoundedByComponents() {
+        // Each single-component design weighs 2
+        EstimateCache cache = new EstimateCache(costEstimator, 4);
+        for (int i = 1; i <= 10; i++) {
+            cache.estimate(List.of(new S3Component("bucket", i)), false);
+        }
+
+        assertTrue(cache.size() <= 2);
+    }
+
+    @Test
+    void testDesignsLargerThanTheCacheAreNotCached() {
+        EstimateCache cache = new EstimateCache(costEstimator, 4);
+        List<Component> design = List.of(new S3Component("a", 1), new S3Component("b", 2),
+                new S3Component("c", 3), new S3Component("d", 4));
+
+        assertEquals(costEstimator.estimate(design), cache.estimate(design, false).getTotal());
+        cache.estimate(design, false);
+
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.stats().hitCount());
+    }
+
+    @Test
+    void testKeysDifferAcrossCatalogsWithTheSameVersion() {
+        EstimateCache cache = new EstimateCache(costEstimator, 100);
+        PriceCatalog before = PriceCatalogLoader.loadDefault();
+        PriceCatalog after = PriceCatalogLoader.loadDefault();
+        List<Component> design = List.of(new Ec2Component("web", 2, "t2.micro"));
+
+        assertEquals(before.getVersion(), after.getVersion());
+        assertNotEquals(cache.keyFor(design, false, false, before), cache.keyFor(design, false, false, after));
+    }
+
+    @Test
+    void testZeroSizeDisablesCache() {
+        EstimateCache cache = new EstimateCache(costEstimator, 0);
+
+        assertFalse(cache.isEnabled());
+        assertEquals(new BigDecimal("17.00"), cache.estimate(List.of(new Ec2Component("web", 2, "t2.micro")), false).getTotal());
+        assertEquals(0, cache.stats().requestCount());
+    }
+}
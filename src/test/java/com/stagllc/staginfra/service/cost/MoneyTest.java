@@ -0,0 +1,63 @@
+package com.stagllc.staginfra.service.cost;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoneyTest {
+
+    @Test
+    void testToDecimalRoundsHalfAwayFromZero() {
+        assertEquals(new BigDecimal("0.01"), Money.toDecimal(Money.MICROS_PER_CENT / 2));
+        assertEquals(new BigDecimal("0.00"), Money.toDecimal(Money.MICROS_PER_CENT / 2 - 1));
+        assertEquals(new BigDecimal("-0.01"), Money.toDecimal(-Money.MICROS_PER_CENT / 2));
+        assertEquals(new BigDecimal("17.00"), Money.toDecimal(Money.fromDollars(17.0)));
+    }
+
+    @Test
+    void testFromDollarsQuantizesToMicroCents() {
+        assertEquals(11_500_000L, Money.fromDollars(0.115));
+        assertEquals(1L, Money.fromDollars(0.00000001));
+        assertEquals(0.115, Money.toDollars(Money.fromDollars(0.115)));
+    }
+
+    @Test
+    void testSumsAreExactAndOrderIndependent() {
+        // A million tenth-of-a-cent costs: a double accumulator drifts, the fixed-point sum does not
+        long component = Money.fromDollars(0.001);
+        long forward = 0;
+        for (int i = 0; i < 1_000_000; i++) {
+            forward += component;
+        }
+        assertEquals(new BigDecimal("1000.00"), Money.toDecimal(forward));
+
+        long[] costs = {Money.fromDollars(0.1), Money.fromDollars(0.2), Money.fromDollars(0.3), Money.fromDollars(1e9)};
+        long ascending = 0;
+        for (long cost : costs) {
+            ascending += cost;
+        }
+        long descending = 0;
+        for (int i = costs.length - 1; i >= 0; i--) {
+            descending += costs[i];
+        }
+        assertEquals(ascending, descending);
+        assertEquals(new BigDecimal("1000000000.60"), Money.toDecimal(ascending));
+    }
+
+    @Test
+    void testOutOfRangeAmountsAreRejected() {
+        assertThrows(CostOverflowException.class, () -> Money.fromDollars(Double.NaN));
+        assertThrows(CostOverflowException.class, () -> Money.fromDollars(Double.POSITIVE_INFINITY));
+        assertThrows(CostOverflowException.class, () -> Money.fromDollars(1e11));
+        assertThrows(CostOverflowException.class, () -> Money.fromMicros(-0x1p63));
+        assertEquals(Long.MAX_VALUE - 1023, Money.fromMicros(Math.nextDown(0x1p63)));
+
+        long large = Money.fromDollars(5e10);
+        assertThrows(CostOverflowException.class, () -> Money.add(large, large));
+        assertThrows(CostOverflowException.class, () -> Money.subtract(-large, large));
+        assertThrows(CostOverflowException.class, () -> Money.multiply(large, 2));
+        assertEquals(3 * Money.fromDollars(1e9), Money.multiply(Money.fromDollars(1e9), 3));
+    }
+}
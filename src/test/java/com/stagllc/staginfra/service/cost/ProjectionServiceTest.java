@@ -0,0 +1,125 @@
+package com.stagllc.staginfra.service.cost;
+
+import com.stagllc.staginfra.dto.GrowthCurve;
+import com.stagllc.staginfra.dto.ProjectionResponse;
+import com.stagllc.staginfra.dto.component.Component;
+import com.stagllc.staginfra.dto.component.Ec2Component;
+import com.stagllc.staginfra.dto.component.LambdaComponent;
+import com.stagllc.staginfra.dto.component.S3Component;
+import com.stagllc.staginfra.service.cost.calculator.CostCalculatorRegistry;
+import com.stagllc.staginfra.service.pricing.PriceCatalogService;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProjectionServiceTest {
+
+    private final CostEstimator costEstimator =
+            new CostEstimator(new PriceCatalogService("", false), CostCalculatorRegistry.withDefaults());
+    private final ProjectionService projectionService = new ProjectionService(costEstimator, 60);
+
+    // $17.00 of EC2 plus $1.15 of S3 per month
+    private final List<Component> design = List.of(
+            new Ec2Component("web", 2, "t2.micro"),
+            new S3Component("assets", 50));
+
+    @Test
+    void testFlatProjectionRepeatsTheMonthlyCost() {
+        ProjectionResponse response = projectionService.project(design, 3, null);
+
+        assertEquals(3, response.getMonths());
+        for (BigDecimal month : response.getMonthlyTotals()) {
+            assertEquals(costEstimator.estimate(design), month);
+        }
+        assertEquals(new BigDecimal("54.45"), response.getTotal());
+    }
+
+    @Test
+    void testGrowthModels() {
+        assertSeries(curve("web", null, "linear", 0.1, null), "18.15", "19.85", "21.55", "23.25");
+        assertSeries(curve("web", null, "compound", 0.1, null), "18.15", "19.85", "21.72", "23.78");
+        assertSeries(curve("web", null, "step", 1.0, 2), "18.15", "18.15", "35.15", "35.15");
+        // Shrinking usage bottoms out at zero
+        assertSeries(curve("web", null, "linear", -0.5, null), "18.15", "9.65", "1.15", "1.15");
+    }
+
+    @Test
+    void testIdCurveTakesPrecedenceOverTypeCurve() {
+        List<Component> components = List.of(
+                new Ec2Component("web", 2, "t2.micro"),
+                new Ec2Component("worker", 2, "t2.micro"));
+
+        ProjectionResponse response = projectionService.project(components, 2, List.of(
+                curve(null, "ec2", "linear", 1.0, null),
+                curve("web", null, "linear", 0, null)));
+
+        assertEquals(new BigDecimal("34.00"), response.getMonthlyTotals()[0]);
+        assertEquals(new BigDecimal("51.00"), response.getMonthlyTotals()[1]);
+    }
+
+    @Test
+    void testUsageProfileDrivesBaseCost() {
+        ProjectionResponse defaults = projectionService.project(List.of(new LambdaComponent("fn", 1024)), 1, null);
+        ProjectionResponse doubled = projectionService.project(
+                List.of(new LambdaComponent("fn", 1024, 2 * LambdaComponent.DEFAULT_INVOCATIONS,
+                        LambdaComponent.DEFAULT_DURATION_MS, null)), 1, null);
+
+        // 50,000 vs 100,000 GB-seconds a month
+        assertEquals(new BigDecimal("0.83"), defaults.getTotal());
+        assertEquals(new BigDecimal("1.67"), doubled.getTotal());
+    }
+
+    @Test
+    void testHorizonTotalIsTheSumOfTheSeries() {
+        ProjectionResponse response = projectionService.project(design, 60,
+                List.of(curve(null, "s3", "compound", 0.037, null)));
+
+        BigDecimal sum = BigDecimal.ZERO;
+        for (BigDecimal month : response.getMonthlyTotals()) {
+            sum = sum.add(month);
+        }
+        assertEquals(60, response.getMonthlyTotals().length);
+        assertEquals(sum, response.getTotal());
+    }
+
+    @Test
+    void testInvalidRequestsAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> projectionService.project(design, 0, null));
+        assertThrows(IllegalArgumentException.class, () -> projectionService.project(design, 61, null));
+        assertThrows(IllegalArgumentException.class,
+                () -> projectionService.project(design, 12, List.of(curve("web", null, "quadratic", 0.1, null))));
+        assertThrows(IllegalArgumentException.class,
+                () -> projectionService.project(design, 12, List.of(curve("web", null, "step", 0.1, null))));
+        assertThrows(IllegalArgumentException.class,
+                () -> projectionService.project(design, 12, List.of(curve("missing", null, "linear", 0.1, null))));
+        assertThrows(IllegalArgumentException.class,
+                () -> projectionService.project(design, 12, List.of(curve("web", "ec2", "linear", 0.1, null))));
+    }
+
+    @Test
+    void testRunawayGrowthIsRejectedInsteadOfSaturating() {
+        // 1000% a month for five years is far beyond what a long of micro-cents can hold
+        assertThrows(CostOverflowException.class,
+                () -> projectionService.project(design, 60, List.of(curve("web", null, "compound", 10, null))));
+    }
+
+    private void assertSeries(GrowthCurve curve, String... expected) {
+        BigDecimal[] totals = projectionService.project(design, expected.length, List.of(curve)).getMonthlyTotals();
+        for (int m = 0; m < expected.length; m++) {
+            assertEquals(new BigDecimal(expected[m]), totals[m], "month " + m);
+        }
+    }
+
+    private static GrowthCurve curve(String componentId, String componentType, String model, double rate, Integer every) {
+        GrowthCurve curve = new GrowthCurve();
+        curve.setComponentId(componentId);
+        curve.setComponentType(componentType);
+        curve.setModel(model);
+        curve.setRate(rate);
+        curve.setEvery(every);
+        return curve;
+    }
+}
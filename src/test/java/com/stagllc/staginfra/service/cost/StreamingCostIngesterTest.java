@@ -0,0 +1,78 @@
+package com.stagllc.staginfra.service.cost;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.stagllc.staginfra.service.cost.calculator.CostCalculatorRegistry;
+import com.stagllc.staginfra.service.pricing.PriceCatalogService;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StreamingCostIngesterTest {
+
+    private final CostEstimator costEstimator = new CostEstimator(new PriceCatalogService("", false), CostCalculatorRegistry.withDefaults());
+
+    @Test
+    void testFoldsComponentsIntoTotal() throws IOException {
+        StreamingCostIngester ingester = ingester(100, 1_000_000);
+
+        StreamingEstimate estimate = ingester.estimate(stream("{\"name\": \"web\", \"tags\": {\"env\": \"prod\"},"
+                + " \"components\": [{\"type\": \"ec2\", \"instances\": 2}, {\"type\": \"s3\", \"storage\": 50},"
+                + " {\"type\": \"vpc\"}]}"));
+
+        assertEquals(new BigDecimal("18.15"), estimate.total());
+        assertEquals(3, estimate.componentCount());
+    }
+
+    @Test
+    void testAcceptsBareComponentArray() throws IOException {
+        StreamingEstimate estimate = ingester(100, 1_000_000).estimate(stream("[{\"type\": \"s3\", \"storage\": 50}]"));
+
+        assertEquals(new BigDecimal("1.15"), estimate.total());
+    }
+
+    @Test
+    void testComponentLimitIsEnforced() {
+        StreamingCostIngester ingester = ingester(2, 1_000_000);
+
+        assertThrows(CostInputLimitException.class, () -> ingester.estimate(stream(
+                "{\"components\": [{\"type\": \"s3\"}, {\"type\": \"s3\"}, {\"type\": \"s3\"}]}")));
+    }
+
+    @Test
+    void testByteLimitIsEnforcedWhileStreaming() {
+        StreamingCostIngester ingester = ingester(Long.MAX_VALUE, 64 * 1024);
+
+        // An endless stream of components must fail once the byte budget is spent
+        byte[] prefix = "{\"components\": [".getBytes(StandardCharsets.UTF_8);
+        byte[] element = "{\"type\": \"s3\", \"storage\": 10},".getBytes(StandardCharsets.UTF_8);
+        InputStream endless = new InputStream() {
+            private long position;
+
+            @Override
+            public int read() {
+                long index = position++;
+                if (index < prefix.length) {
+                    return prefix[(int) index];
+                }
+                return element[(int) ((index - prefix.length) % element.length)];
+            }
+        };
+
+        assertThrows(CostInputLimitException.class, () -> ingester.estimate(endless));
+    }
+
+    private StreamingCostIngester ingester(long maxComponents, long maxBytes) {
+        return new StreamingCostIngester(costEstimator, new ObjectMapper(), maxComponents, maxBytes);
+    }
+
+    private static InputStream stream(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,192 @@
+package com.stagllc.staginfra.service.cost;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.IntNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+import com.stagllc.staginfra.dto.SweepAxis;
+import com.stagllc.staginfra.dto.SweepResponse;
+import com.stagllc.staginfra.dto.component.Component;
+import com.stagllc.staginfra.dto.component.EbsComponent;
+import com.stagllc.staginfra.dto.component.Ec2Component;
+import com.stagllc.staginfra.dto.component.RdsComponent;
+import com.stagllc.staginfra.dto.component.S3Component;
+import com.stagllc.staginfra.service.cost.calculator.CostCalculatorRegistry;
+import com.stagllc.staginfra.service.pricing.PriceCatalogService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SweepServiceTest {
+
+    private final CostEstimator costEstimator =
+            new CostEstimator(new PriceCatalogService("", false), CostCalculatorRegistry.withDefaults());
+    private final SweepService sweepService = new SweepService(costEstimator, 2, 100000, 1000000);
+
+    private final List<Component> design = List.of(
+            new Ec2Component("web", 2, "t2.micro"),
+            new Ec2Component("worker", 2, "t2.micro"),
+            new RdsComponent("db", "db.t2.micro", 20, false),
+            new EbsComponent("data", 100, "gp2", 100),
+            new S3Component("assets", 50));
+
+    @AfterEach
+    void tearDown() {
+        sweepService.shutdown();
+    }
+
+    @Test
+    void testGridMatchesRepostingEachVariant() {
+        List<SweepAxis> axes = List.of(
+                axis(null, "ec2", "instance_type", text("t2.nano", "t2.micro", "t2.small", "t2.medium", "t2.large")),
+                axis("web", null, "instances", ints(1, 2, 3, 4, 5)),
+                axis("db", null, "multi_az", List.of(JsonNodeFactory.instance.booleanNode(false),
+                        JsonNodeFactory.instance.booleanNode(true))),
+                axis(null, "ebs", "volume_type", text("gp2", "gp3")));
+
+        SweepResponse response = sweepService.sweep(design, axes);
+
+        assertEquals(List.of(5, 5, 2, 2), response.getShape());
+        assertEquals(100, response.getTotals().length);
+        // Only the S3 bucket is untouched by every axis
+        assertEquals(new BigDecimal("1.15"), response.getBaseTotal());
+        for (int p = 0; p < 100; p++) {
+            assertEquals(bruteForce(axes, response.getShape(), p), response.getTotals()[p], "grid point " + p);
+        }
+        assertEquals("t2.nano", response.getMin().getValues().get(0).asText());
+        assertEquals(1, response.getMin().getValues().get(1).asInt());
+        assertEquals("t2.large", response.getMax().getValues().get(0).asText());
+        assertTrue(response.getMax().getValues().get(2).asBoolean());
+    }
+
+    @Test
+    void testLargeGridIsEvaluatedInParallelChunks() {
+        List<Integer> counts = new ArrayList<>();
+        for (int i = 1; i <= 100; i++) {
+            counts.add(i);
+        }
+        List<SweepAxis> axes = List.of(
+                axis("web", null, "instances", ints(counts)),
+                axis("worker", null, "instances", ints(counts)));
+
+        SweepResponse response = sweepService.sweep(design, axes);
+
+        assertEquals(10000, response.getTotals().length);
+        for (int p = 0; p < 10000; p += 997) {
+            assertEquals(bruteForce(axes, response.getShape(), p), response.getTotals()[p], "grid point " + p);
+        }
+    }
+
+    @Test
+    void testRejectsInvalidAxes() {
+        assertThrows(IllegalArgumentException.class, () -> sweepService.sweep(design, List.of()));
+        assertThrows(IllegalArgumentException.class,
+                () -> sweepService.sweep(design, List.of(axis("web", "ec2", "instances", ints(1, 2)))));
+        assertThrows(IllegalArgumentException.class,
+                () -> sweepService.sweep(design, List.of(axis("web", null, "id", text("a", "b")))));
+        assertThrows(IllegalArgumentException.class,
+                () -> sweepService.sweep(design, List.of(axis("missing", null, "instances", ints(1, 2)))));
+    }
+
+    @Test
+    void testRejectsUnknownFieldsAndValuesThatDontBind() {
+        assertThrows(IllegalArgumentException.class,
+                () -> sweepService.sweep(design, List.of(axis("web", null, "instnaces", ints(1, 2)))));
+        assertThrows(IllegalArgumentException.class,
+                () -> sweepService.sweep(design, List.of(axis("web", null, "instances", text("1", "two")))));
+        assertThrows(IllegalArgumentException.class,
+                () -> sweepService.sweep(design, List.of(axis("web", null, "instances", ints(1, -1)))));
+        assertThrows(IllegalArgumentException.class,
+                () -> sweepService.sweep(design, List.of(axis("db", null, "multi_az", text("no", "yes")))));
+    }
+
+    @Test
+    void testGridSizeIsLimited() {
+        SweepService limited = new SweepService(costEstimator, 1, 10, 1000000);
+        try {
+            assertThrows(IllegalArgumentException.class, () -> limited.sweep(design, List.of(
+                    axis("web", null, "instances", ints(1, 2, 3, 4)),
+                    axis("worker", null, "instances", ints(1, 2, 3)))));
+        } finally {
+            limited.shutdown();
+        }
+    }
+
+    @Test
+    void testComponentEvaluationsAreLimited() {
+        List<Component> fleet = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            fleet.add(new Ec2Component("web-" + i, 1 + i, "t2.micro"));
+        }
+        List<SweepAxis> axes = List.of(axis(null, "ec2", "instance_type", text("t2.micro", "t2.small", "m5.large")));
+        // 3 cells, but 150 component prices
+        SweepService limited = new SweepService(costEstimator, 1, 10, 100);
+        try {
+            assertThrows(IllegalArgumentException.class, () -> limited.sweep(fleet, axes));
+            assertEquals(3, sweepService.sweep(fleet, axes).getTotals().length);
+        } finally {
+            limited.shutdown();
+        }
+    }
+
+    // Applies the grid point's values to a copy of the design and prices it from scratch
+    private BigDecimal bruteForce(List<SweepAxis> axes, List<Integer> shape, int point) {
+        List<Component> variant = new ArrayList<>(design);
+        int remainder = point;
+        int[] indexes = new int[axes.size()];
+        for (int a = axes.size() - 1; a >= 0; a--) {
+            indexes[a] = remainder % shape.get(a);
+            remainder /= shape.get(a);
+        }
+        for (int a = 0; a < axes.size(); a++) {
+            SweepAxis axis = axes.get(a);
+            ObjectNode patch = JsonNodeFactory.instance.objectNode();
+            patch.set(axis.getField(), axis.getValues().get(indexes[a]));
+            for (int i = 0; i < variant.size(); i++) {
+                Component component = variant.get(i);
+                boolean targeted = axis.getComponentId() != null
+                        ? axis.getComponentId().equals(component.id())
+                        : axis.getComponentType().equals(component.type());
+                if (targeted) {
+                    variant.set(i, ComponentPatcher.apply(component, patch));
+                }
+            }
+        }
+        return costEstimator.estimate(variant);
+    }
+
+    private static SweepAxis axis(String componentId, String componentType, String field, List<JsonNode> values) {
+        SweepAxis axis = new SweepAxis();
+        axis.setComponentId(componentId);
+        axis.setComponentType(componentType);
+        axis.setField(field);
+        axis.setValues(values);
+        return axis;
+    }
+
+    private static List<JsonNode> text(String... values) {
+        List<JsonNode> nodes = new ArrayList<>();
+        for (String value : values) {
+            nodes.add(TextNode.valueOf(value));
+        }
+        return nodes;
+    }
+
+    private static List<JsonNode> ints(Integer... values) {
+        return ints(List.of(values));
+    }
+
+    private static List<JsonNode> ints(List<Integer> values) {
+        List<JsonNode> nodes = new ArrayList<>();
+        for (int value : values) {
+            nodes.add(IntNode.valueOf(value));
+        }
+        return nodes;
+    }
+}
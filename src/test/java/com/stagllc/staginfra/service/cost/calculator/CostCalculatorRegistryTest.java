@@ -0,0 +1,64 @@
+package com.stagllc.staginfra.service.cost.calculator;
+
+import com.stagllc.staginfra.dto.component.ComponentType;
+import com.stagllc.staginfra.dto.component.Ec2Component;
+import com.stagllc.staginfra.dto.component.NetworkComponent;
+import com.stagllc.staginfra.dto.component.RdsComponent;
+import com.stagllc.staginfra.dto.component.S3Component;
+import com.stagllc.staginfra.dto.component.UnknownComponent;
+import com.stagllc.staginfra.service.cost.CostTerms;
+import com.stagllc.staginfra.service.pricing.PriceCatalog;
+import com.stagllc.staginfra.service.pricing.PriceCatalogLoader;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CostCalculatorRegistryTest {
+
+    private final PriceCatalog catalog = PriceCatalogLoader.loadDefault();
+    private final CostCalculatorRegistry registry = CostCalculatorRegistry.withDefaults();
+
+    @Test
+    void dispatchesToCalculatorForComponentType() {
+        assertEquals(17.0, registry.monthlyCost(new Ec2Component("web", 2, "t2.micro"), catalog), 1e-9);
+        assertEquals(1.15, registry.monthlyCost(new S3Component("assets", 50), catalog), 1e-9);
+        // Multi-AZ doubles the instance charge but not storage
+        double single = registry.monthlyCost(new RdsComponent("db", "db.t2.micro", 20, false), catalog);
+        double multiAz = registry.monthlyCost(new RdsComponent("db", "db.t2.micro", 20, true), catalog);
+        assertEquals(catalog.getRds().price("db.t2.micro"), multiAz - single, 1e-9);
+    }
+
+    @Test
+    void unpricedTypesCostNothing() {
+        assertFalse(registry.isPriced(ComponentType.VPC));
+        assertEquals(0.0, registry.monthlyCost(new NetworkComponent("vpc-1", ComponentType.VPC), catalog));
+        assertEquals(0.0, registry.monthlyCost(new UnknownComponent("x", "cloudfront"), catalog));
+    }
+
+    @Test
+    void rejectsTwoCalculatorsForOneType() {
+        assertThrows(IllegalStateException.class,
+                () -> new CostCalculatorRegistry(List.of(new Ec2CostCalculator(), new Ec2CostCalculator())));
+    }
+
+    @Test
+    void additionalCalculatorPricesPreviouslyFreeType() {
+        CostCalculator<NetworkComponent> vpcCalculator = new CostCalculator<>() {
+            @Override
+            public ComponentType getType() {
+                return ComponentType.VPC;
+            }
+
+            @Override
+            public void compile(NetworkComponent component, CostTerms terms) {
+                terms.fixed(32.85);
+            }
+        };
+        CostCalculatorRegistry extended = new CostCalculatorRegistry(List.of(new Ec2CostCalculator(), vpcCalculator));
+
+        assertTrue(extended.isPriced(ComponentType.VPC));
+        assertEquals(32.85, extended.monthlyCost(new NetworkComponent("vpc-1", ComponentType.VPC), catalog));
+    }
+}
@@ -0,0 +1,86 @@
+package com.stagllc.staginfra.service.design;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.stagllc.staginfra.dto.component.Component;
+import com.stagllc.staginfra.dto.component.ComponentType;
+import com.stagllc.staginfra.dto.component.DynamoDbComponent;
+import com.stagllc.staginfra.dto.component.EbsComponent;
+import com.stagllc.staginfra.dto.component.Ec2Component;
+import com.stagllc.staginfra.dto.component.LambdaComponent;
+import com.stagllc.staginfra.dto.component.LoadBalancerComponent;
+import com.stagllc.staginfra.dto.component.NetworkComponent;
+import com.stagllc.staginfra.dto.component.RdsComponent;
+import com.stagllc.staginfra.dto.component.S3Component;
+import com.stagllc.staginfra.dto.component.UnknownComponent;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DesignCodecTest {
+
+    @Test
+    void testEveryComponentTypeRoundTrips() {
+        List<Component> components = List.of(
+                new Ec2Component("web", 3, "t2.small", "eu-west-1"),
+                new S3Component("assets", 250),
+                new LambdaComponent("fn", 512, 2_000_000, 120, null),
+                new RdsComponent("db", "db.m5.large", 100, true),
+                new DynamoDbComponent("table", "PAY_PER_REQUEST", 5, 5, 3_000_000, 100_000, null),
+                new EbsComponent("data", 50, "io1", 1000),
+                new LoadBalancerComponent("lb", "network", 1.5, "ap-south-1"),
+                new NetworkComponent("vpc-1", ComponentType.VPC),
+                new UnknownComponent("cdn", "cloudfront"));
+
+        // The tree the API returns for these components, which is what a client saves back
+        ObjectMapper json = new ObjectMapper();
+        JsonNode tree = json.valueToTree(components);
+
+        assertEquals(components, DesignCodec.components(DesignCodec.decodeTree(DesignCodec.encode(tree))));
+        JsonNode empty = json.createArrayNode();
+        assertEquals(List.of(), DesignCodec.components(DesignCodec.decodeTree(DesignCodec.encode(empty))));
+    }
+
+    @Test
+    void testDesignerAttributesSurviveTheRoundTrip() throws Exception {
+        JsonNode tree = new ObjectMapper().readTree("["
+                + "{\"id\": \"web\", \"type\": \"ec2\", \"instance_type\": \"t2.small\", \"instances\": 2,"
+                + " \"label\": \"Web tier\", \"position\": {\"x\": 120, \"y\": 40}, \"connections\": [\"db\"]},"
+                + "{\"id\": \"db\", \"type\": \"rds\", \"multi_az\": true, \"tags\": {\"team\": [\"data\"]}}]");
+
+        JsonNode decoded = DesignCodec.decodeTree(DesignCodec.encode(tree));
+
+        assertEquals(tree, decoded);
+        // Pricing still sees the typed components
+        assertEquals(List.of(new Ec2Component("web", 2, "t2.small"), new RdsComponent("db", "db.t2.micro", 20, true)),
+                DesignCodec.components(decoded));
+    }
+
+    @Test
+    void testRejectsTreesThatAreNotComponents() throws Exception {
+        ObjectMapper json = new ObjectMapper();
+        assertThrows(IllegalArgumentException.class, () -> DesignCodec.components(json.readTree("{\"id\": \"web\"}")));
+        assertThrows(IllegalArgumentException.class, () -> DesignCodec.components(json.readTree("[1, 2]")));
+    }
+
+    @Test
+    void testEncodingIsSmallerThanJson() throws Exception {
+        List<Component> components = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            components.add(new Ec2Component("web-" + i, 1 + i % 4, i % 2 == 0 ? "t2.micro" : "m5.large", "us-east-1"));
+            components.add(new EbsComponent("vol-" + i, 100, "gp2", 100));
+        }
+
+        ObjectMapper mapper = new ObjectMapper();
+        JsonNode tree = mapper.valueToTree(components);
+
+        byte[] encoded = DesignCodec.encode(tree);
+        byte[] json = mapper.writeValueAsBytes(tree);
+
+        assertTrue(encoded.length < json.length, encoded.length + " >= " + json.length);
+        assertEquals(components, DesignCodec.components(DesignCodec.decodeTree(encoded)));
+    }
+}
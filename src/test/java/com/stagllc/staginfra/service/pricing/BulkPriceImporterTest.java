@@ -0,0 +1,125 @@
+package com.stagllc.staginfra.service.pricing;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BulkPriceImporterTest {
+
+    // Trimmed-down EC2 offer file in the AWS bulk pricing layout
+    static final String EC2_OFFER = """
+            {
+              "formatVersion": "v1.0",
+              "offerCode": "AmazonEC2",
+              "version": "20240501000000",
+              "products": {
+                "SKU1": {"sku": "SKU1", "productFamily": "Compute Instance", "attributes": {
+                  "regionCode": "us-east-1", "instanceType": "t3.micro", "operatingSystem": "Linux",
+                  "tenancy": "Shared", "preInstalledSw": "NA", "capacitystatus": "Used"}},
+                "SKU2": {"sku": "SKU2", "productFamily": "Compute Instance", "attributes": {
+                  "regionCode": "eu-west-1", "instanceType": "t3.micro", "operatingSystem": "Linux",
+                  "tenancy": "Shared", "preInstalledSw": "NA", "capacitystatus": "Used"}},
+                "SKU3": {"sku": "SKU3", "productFamily": "Compute Instance", "attributes": {
+                  "regionCode": "us-east-1", "instanceType": "t3.micro", "operatingSystem": "Windows",
+                  "tenancy": "Shared", "preInstalledSw": "NA", "capacitystatus": "Used"}},
+                "SKU4": {"sku": "SKU4", "productFamily": "Storage", "attributes": {
+                  "regionCode": "us-east-1", "volumeApiName": "gp3"}},
+                "SKU5": {"sku": "SKU5", "productFamily": "Data Transfer", "attributes": {}}
+              },
+              "terms": {
+                "OnDemand": {
+                  "SKU1": {"SKU1.JRTCKXETXF": {"priceDimensions": {"SKU1.JRTCKXETXF.6YS6EN2CT7": {
+                    "unit": "Hrs", "pricePerUnit": {"USD": "0.0104000000"}}}}},
+                  "SKU2": {"SKU2.JRTCKXETXF": {"priceDimensions": {"SKU2.JRTCKXETXF.6YS6EN2CT7": {
+                    "unit": "Hrs", "pricePerUnit": {"USD": "0.0114000000"}}}}},
+                  "SKU3": {"SKU3.JRTCKXETXF": {"priceDimensions": {"SKU3.JRTCKXETXF.6YS6EN2CT7": {
+                    "unit": "Hrs", "pricePerUnit": {"USD": "0.0196000000"}}}}},
+                  "SKU4": {"SKU4.JRTCKXETXF": {"priceDimensions": {"SKU4.JRTCKXETXF.6YS6EN2CT7": {
+                    "unit": "GB-Mo", "pricePerUnit": {"USD": "0.0800000000"}}}}},
+                  "SKU5": {"SKU5.JRTCKXETXF": {"priceDimensions": {}}}
+                },
+                "Reserved": {
+                  "SKU1": {"SKU1.4NA7Y494T4": {"priceDimensions": {}}}
+                }
+              }
+            }
+            """;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testImportKeepsLinuxSharedInstancesAndVolumes() throws IOException {
+        BulkPriceImporter importer = importOffer(EC2_OFFER);
+
+        assertEquals(1, importer.size("ec2"));
+        assertEquals(1, importer.size("ebs"));
+        assertEquals(0, importer.size("rds"));
+    }
+
+    @Test
+    void testIndexRoundTripsImportedPrices() throws IOException {
+        Path file = tempDir.resolve("prices.idx");
+        importOffer(EC2_OFFER).write(file);
+
+        MappedPriceIndex index = MappedPriceIndex.open(file);
+        assertEquals("AmazonEC2:20240501000000", index.getVersion());
+        assertEquals(List.of("eu-west-1", "us-east-1"), index.getRegions());
+
+        MappedPriceIndex.Table ec2 = index.table("ec2");
+        int entry = ec2.find("t3.micro");
+        assertEquals("t3.micro", ec2.sku(entry));
+        assertEquals(0.0104 * 730, ec2.price(entry, index.getRegions().indexOf("us-east-1")), 1e-9);
+        assertEquals(0.0114 * 730, ec2.price(entry, index.getRegions().indexOf("eu-west-1")), 1e-9);
+        assertEquals(-1, ec2.find("t3.nano"));
+        assertEquals(-1, ec2.find(null));
+
+        MappedPriceIndex.Table ebs = index.table("ebs");
+        int gp3 = ebs.find("gp3");
+        assertEquals(0.08, ebs.price(gp3, index.getRegions().indexOf("us-east-1")), 1e-9);
+        // gp3 has no eu-west-1 price in this offer
+        assertTrue(Double.isNaN(ebs.price(gp3, index.getRegions().indexOf("eu-west-1"))));
+        assertNull(index.table("rds"));
+    }
+
+    @Test
+    void testLargeTableFindsEverySku() throws IOException {
+        Map<String, double[]> skus = new LinkedHashMap<>();
+        for (int i = 0; i < 5000; i++) {
+            skus.put("sku-" + i, new double[]{i});
+        }
+        Path file = tempDir.resolve("large.idx");
+        MappedPriceIndex.write(file, "test", List.of("us-east-1"), Map.of("ec2", skus));
+
+        MappedPriceIndex.Table table = MappedPriceIndex.open(file).table("ec2");
+        assertEquals(5000, table.size());
+        for (int i = 0; i < 5000; i++) {
+            assertEquals(i, table.price(table.find("sku-" + i), 0));
+        }
+        assertEquals(-1, table.find("sku-5000"));
+    }
+
+    @Test
+    void testRejectsFileThatIsNotAnIndex() throws IOException {
+        Path file = tempDir.resolve("catalog.json");
+        Files.writeString(file, "{\"version\": \"2024-05-01\"}");
+
+        assertThrows(IllegalArgumentException.class, () -> MappedPriceIndex.open(file));
+    }
+
+    static BulkPriceImporter importOffer(String offer) throws IOException {
+        BulkPriceImporter importer = new BulkPriceImporter();
+        importer.read(new ByteArrayInputStream(offer.getBytes(StandardCharsets.UTF_8)));
+        return importer;
+    }
+}
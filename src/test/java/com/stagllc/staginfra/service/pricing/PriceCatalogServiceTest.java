@@ -0,0 +1,166 @@
+package com.stagllc.staginfra.service.pricing;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PriceCatalogServiceTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testBundledCatalogMatchesLegacyPrices() {
+        PriceCatalog catalog = new PriceCatalogService("", false).getCatalog();
+
+        assertEquals(8.5, catalog.getEc2().price("t2.micro"));
+        assertEquals(68.0, catalog.getEc2().price("t2.large"));
+        assertEquals(138.7, catalog.getRds().price("db.m5.large"));
+        assertEquals(0.08, catalog.getEbs().price("gp3"));
+        assertEquals(0.023, catalog.getRate(Rate.S3_STORAGE_GB_MONTH));
+        assertEquals(730.0, catalog.getRate(Rate.HOURS_PER_MONTH));
+    }
+
+    @Test
+    void testUnknownSkuFallsBackToTableDefault() {
+        PriceCatalog catalog = PriceCatalogLoader.loadDefault();
+
+        assertEquals(8.5, catalog.getEc2().price("m7g.metal"));
+        assertEquals(8.5, catalog.getEc2().price(null));
+        assertEquals(12.41, catalog.getRds().price("db.unknown"));
+        assertEquals(0.10, catalog.getEbs().price("standard"));
+    }
+
+    @Test
+    void testRegionalPricesScaleByFactorUnlessGivenExplicitly() {
+        PriceCatalog catalog = PriceCatalogLoader.loadDefault();
+        int euWest = catalog.regionIndex("eu-west-1");
+        int saEast = catalog.regionIndex("sa-east-1");
+
+        assertEquals("us-east-1", catalog.getDefaultRegion());
+        assertEquals(catalog.regionIndex("us-east-1"), catalog.regionIndex(null));
+        assertThrows(UnknownRegionException.class, () -> catalog.regionIndex("mars-north-1"));
+        assertEquals(8.5 * 1.12, catalog.getEc2().price("t2.micro", euWest), 1e-9);
+        assertEquals(catalog.getEc2().priceAt(catalog.getEc2().slot("t2.micro"), euWest),
+                catalog.getEc2().price("t2.micro", euWest));
+        // S3 has explicit regional prices; regions it omits are scaled from the default
+        assertEquals(0.0405, catalog.getRate(Rate.S3_STORAGE_GB_MONTH, saEast));
+        assertEquals(0.023 * 1.12, catalog.getRate(Rate.S3_STORAGE_GB_MONTH, euWest), 1e-9);
+        // Hours in a month are the same everywhere
+        assertEquals(730.0, catalog.getRate(Rate.HOURS_PER_MONTH, saEast));
+    }
+
+    @Test
+    void testPurchaseOptionCoefficients() throws IOException {
+        PriceCatalog catalog = PriceCatalogLoader.loadDefault();
+
+        assertEquals(1.0, catalog.getCoefficient(PurchaseOption.ON_DEMAND, "ec2"));
+        assertEquals(0.62, catalog.getCoefficient(PurchaseOption.RESERVED, "ec2"));
+        assertEquals(0.83, catalog.getCoefficient(PurchaseOption.SAVINGS_PLAN, Rate.LAMBDA_GB_SECOND.getKey()));
+        // Prices an option doesn't cover keep their on-demand price
+        assertEquals(1.0, catalog.getCoefficient(PurchaseOption.SPOT, "rds"));
+
+        String unknownKey = readBundledCatalog().replace("\"spot\": {", "\"spot\": {\"fargate\": 0.3, ");
+        assertThrows(IllegalArgumentException.class,
+                () -> PriceCatalogLoader.load(new ByteArrayInputStream(unknownKey.getBytes())));
+    }
+
+    @Test
+    void testCatalogWithoutRegionsHasSingleDefaultRegion() throws IOException {
+        String withoutRegions = readBundledCatalog().replaceAll("(?s)\"defaultRegion\".*?\"tables\"", "\"tables\"")
+                .replaceAll("(?s)\"s3.storage_gb_month\": \\{.*?\\}", "\"s3.storage_gb_month\": 0.023");
+
+        PriceCatalog catalog = PriceCatalogLoader.load(new ByteArrayInputStream(withoutRegions.getBytes()));
+
+        assertEquals(1, catalog.regionCount());
+        assertEquals(PriceCatalogLoader.DEFAULT_REGION, catalog.getDefaultRegion());
+        assertEquals(8.5, catalog.getEc2().price("t2.micro", catalog.regionIndex(null)));
+        assertThrows(UnknownRegionException.class, () -> catalog.regionIndex("eu-west-1"));
+    }
+
+    @Test
+    void testReloadSwapsCatalogFromFile() throws IOException {
+        Path file = tempDir.resolve("catalog.json");
+        String bundled = readBundledCatalog();
+        Files.writeString(file, bundled);
+
+        PriceCatalogService service = new PriceCatalogService(file.toString(), false);
+        assertEquals("2024-05-01", service.getCatalog().getVersion());
+
+        Files.writeString(file, bundled
+                .replace("\"2024-05-01\"", "\"2024-06-01\"")
+                .replace("\"t2.micro\": 8.5", "\"t2.micro\": 9.0"));
+
+        assertTrue(service.reload());
+        assertEquals("2024-06-01", service.getCatalog().getVersion());
+        assertEquals(9.0, service.getCatalog().getEc2().price("t2.micro"));
+    }
+
+    @Test
+    void testBrokenFileKeepsCurrentCatalog() throws IOException {
+        Path file = tempDir.resolve("catalog.json");
+        Files.writeString(file, readBundledCatalog());
+
+        PriceCatalogService service = new PriceCatalogService(file.toString(), false);
+        PriceCatalog before = service.getCatalog();
+
+        Files.writeString(file, "{\"version\": \"broken\"}");
+
+        assertFalse(service.reload());
+        assertSame(before, service.getCatalog());
+    }
+
+    @Test
+    void testBulkIndexOverlaysCatalogTables() throws IOException {
+        Path index = tempDir.resolve("prices.idx");
+        BulkPriceImporterTest.importOffer(BulkPriceImporterTest.EC2_OFFER).write(index);
+        Path file = tempDir.resolve("catalog.json");
+        Files.writeString(file, readBundledCatalog());
+
+        PriceCatalogService service = new PriceCatalogService(file.toString(), false, index.toString());
+        PriceCatalog catalog = service.getCatalog();
+        int euWest = catalog.regionIndex("eu-west-1");
+        int saEast = catalog.regionIndex("sa-east-1");
+
+        assertEquals("2024-05-01+AmazonEC2:20240501000000", catalog.getVersion());
+        assertEquals(0.0104 * 730, catalog.getEc2().price("t3.micro"), 1e-9);
+        assertEquals(0.0114 * 730, catalog.getEc2().price("t3.micro", euWest), 1e-9);
+        assertEquals(catalog.getEc2().price("t3.micro", euWest),
+                catalog.getEc2().priceAt(catalog.getEc2().slot("t3.micro"), euWest));
+        // SKUs and regions the index doesn't cover keep catalog prices
+        assertEquals(8.5, catalog.getEc2().price("t2.micro"));
+        assertEquals(8.5 * 1.12, catalog.getEc2().priceAt(catalog.getEc2().slot("t2.micro"), euWest), 1e-9);
+        assertEquals(PriceCatalogLoader.loadDefault().getEbs().price("gp3", saEast), catalog.getEbs().price("gp3", saEast));
+        assertEquals(138.7, catalog.getRds().price("db.m5.large"));
+        // An indexed SKU the catalog doesn't know, in a region the index lacks, keeps its own default-region price
+        // rather than becoming the catalog's default instance type
+        assertEquals(0.0104 * 730, catalog.getEc2().price("t3.micro", saEast), 1e-9);
+
+        // Reloaded catalogs get the same overlay
+        assertTrue(service.reload());
+        assertEquals(catalog.getVersion(), service.getCatalog().getVersion());
+        assertEquals(0.0104 * 730, service.getCatalog().getEc2().price("t3.micro"), 1e-9);
+    }
+
+    @Test
+    void testMissingBulkIndexUsesCatalogOnly() {
+        PriceCatalog catalog = new PriceCatalogService("", false, tempDir.resolve("missing.idx").toString()).getCatalog();
+
+        assertEquals("2024-05-01", catalog.getVersion());
+        assertEquals(8.5, catalog.getEc2().price("t2.micro"));
+    }
+
+    private String readBundledCatalog() throws IOException {
+        try (InputStream in = getClass().getClassLoader().getResourceAsStream(PriceCatalogLoader.DEFAULT_RESOURCE)) {
+            assertNotNull(in);
+            return new String(in.readAllBytes());
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.stagllc.staginfra.service.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AttemptTableTest {
+
+    private static final long WINDOW = 60_000;
+
+    @Test
+    void allowsLimitAttemptsPerKeyAndAction() {
+        AttemptTable table = new AttemptTable(1024, 5);
+        for (int i = 0; i < 3; i++) {
+            assertTrue(table.tryAcquire(0, 1, 0, 3, WINDOW, 1000 + i));
+        }
+        assertFalse(table.tryAcquire(0, 1, 0, 3, WINDOW, 1003));
+        // Other addresses and actions are separate keys
+        assertTrue(table.tryAcquire(0, 2, 0, 3, WINDOW, 1003));
+        assertTrue(table.tryAcquire(0, 1, 1, 3, WINDOW, 1003));
+        assertTrue(table.tryAcquire(1, 1, 0, 3, WINDOW, 1003));
+        // The oldest attempt leaves the window first
+        assertTrue(table.tryAcquire(0, 1, 0, 3, WINDOW, 1000 + WINDOW));
+        assertFalse(table.tryAcquire(0, 1, 0, 3, WINDOW, 1000 + WINDOW));
+        assertEquals(4, table.size());
+
+        assertTrue(table.remove(0, 1, 0));
+        assertFalse(table.remove(0, 1, 0));
+        assertTrue(table.tryAcquire(0, 1, 0, 3, WINDOW, 1000 + WINDOW));
+    }
+
+    @Test
+    void matchesAReferenceModelThroughRemovesAndSweeps() {
+        AttemptTable table = new AttemptTable(4096, 5);
+        Map<Long, Integer> used = new HashMap<>();
+        Random random = new Random(11);
+        long now = 1_000_000;
+        // 1000 keys never fill a segment, so nothing is evicted and every count must be exact
+        for (int i = 0; i < 50_000; i++) {
+            long key = random.nextInt(1000);
+            if (random.nextInt(10) == 0) {
+                assertEquals(used.remove(key) != null, table.remove(key >>> 3, key, 0), "remove " + key);
+            } else {
+                int count = used.getOrDefault(key, 0);
+                assertEquals(count < 5, table.tryAcquire(key >>> 3, key, 0, 5, WINDOW, now), "acquire " + key);
+                used.put(key, Math.min(5, count + 1));
+            }
+        }
+        assertEquals(used.size(), table.size());
+        assertEquals(0, table.sweep(now + WINDOW - 1, new long[] {WINDOW}));
+        assertEquals(used.size(), table.sweep(now + WINDOW, new long[] {WINDOW}));
+        assertEquals(0, table.size());
+    }
+
+    @Test
+    void fullSegmentsForgetTheLeastRecentlyActiveKeys() {
+        AttemptTable table = new AttemptTable(1024, 1);
+        // Far more keys than slots: the table stays within its capacity
+        for (long key = 0; key < 10_000; key++) {
+            assertTrue(table.tryAcquire(0, key, 0, 1, WINDOW, key));
+        }
+        assertTrue(table.size() <= 1024 * 3 / 4);
+        // The latest key is still limited
+        assertFalse(table.tryAcquire(0, 9_999, 0, 1, WINDOW, 10_000));
+    }
+
+    @Test
+    void blockedKeysOutliveAFloodOfNewKeys() {
+        AttemptTable table = new AttemptTable(1024, 1);
+        assertTrue(table.tryAcquire(0, -1, 0, 1, WINDOW, 0));
+        // The flood fills every segment; the blocked key keeps retrying and must stay blocked
+        for (long key = 0; key < 10_000; key++) {
+            assertTrue(table.tryAcquire(0, key, 0, 1, WINDOW, 1 + key));
+            assertFalse(table.tryAcquire(0, -1, 0, 1, WINDOW, 1 + key), "after " + key + " new keys");
+        }
+        assertTrue(table.size() <= 1024 * 3 / 4);
+    }
+
+    @Test
+    void rejectsInvalidSizes() {
+        assertThrows(IllegalArgumentException.class, () -> new AttemptTable(1000, 5));
+        assertThrows(IllegalArgumentException.class, () -> new AttemptTable(512, 5));
+        assertThrows(IllegalArgumentException.class, () -> new AttemptTable(1024, 0));
+        AttemptTable table = new AttemptTable(1024, 5);
+        assertThrows(IllegalArgumentException.class, () -> table.tryAcquire(0, 1, 0, 6, WINDOW, 0));
+    }
+}
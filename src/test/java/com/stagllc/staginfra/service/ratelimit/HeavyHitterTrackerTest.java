@@ -0,0 +1,156 @@
+package com.stagllc.staginfra.service.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HeavyHitterTrackerTest {
+
+    private static final long MINUTE = 60_000;
+
+    private final AtomicLong now = new AtomicLong(1000 * MINUTE);
+
+    @Test
+    void findsHeavyHittersAmongManyDistinctClients() {
+        HeavyHitterTracker tracker = new HeavyHitterTracker(100, 1, 60, MINUTE, now::get);
+        Random random = new Random(7);
+        // 100,000 one-off addresses interleaved with three attackers
+        for (int i = 0; i < 100_000; i++) {
+            tracker.record("LOGIN", "10." + random.nextInt(256) + "." + random.nextInt(256) + "." + i % 256, true);
+            if (i % 20 == 0) {
+                tracker.record("LOGIN", "203.0.113.7", false);
+            }
+            if (i % 40 == 0) {
+                tracker.record("LOGIN", "198.51.100.2", false);
+            }
+            if (i % 50 == 0) {
+                tracker.record("LOGIN", "192.0.2.1", true);
+            }
+        }
+
+        List<HeavyHitter> top = tracker.topAttempts("LOGIN", 3, MINUTE);
+        assertEquals(List.of("203.0.113.7", "198.51.100.2", "192.0.2.1"), top.stream().map(HeavyHitter::key).toList());
+        for (HeavyHitter hitter : top) {
+            long trueCount = switch (hitter.key()) {
+                case "203.0.113.7" -> 5000;
+                case "198.51.100.2" -> 2500;
+                default -> 2000;
+            };
+            assertTrue(hitter.count() >= trueCount && hitter.count() - hitter.error() <= trueCount, hitter.toString());
+        }
+
+        // Rejections only count refused requests
+        assertEquals(List.of(new HeavyHitter("203.0.113.7", 5000, 0), new HeavyHitter("198.51.100.2", 2500, 0)),
+                tracker.topRejections("LOGIN", 5, MINUTE));
+    }
+
+    @Test
+    void windowsCoverOnlyRecentSlices() {
+        HeavyHitterTracker tracker = new HeavyHitterTracker(10, 1, 60, MINUTE, now::get);
+        for (int i = 0; i < 5; i++) {
+            tracker.record("LOGIN", "10.0.0.1", true);
+        }
+        now.addAndGet(10 * MINUTE);
+        for (int i = 0; i < 3; i++) {
+            tracker.record("LOGIN", "10.0.0.2", true);
+        }
+        tracker.record("LOGIN", "10.0.0.1", true);
+
+        assertEquals(List.of(new HeavyHitter("10.0.0.2", 3, 0), new HeavyHitter("10.0.0.1", 1, 0)),
+                tracker.topAttempts("LOGIN", 10, 5 * MINUTE));
+        assertEquals(List.of(new HeavyHitter("10.0.0.1", 6, 0), new HeavyHitter("10.0.0.2", 3, 0)),
+                tracker.topAttempts("LOGIN", 10, 15 * MINUTE));
+
+        // After the horizon the old slices are reused and start empty
+        now.addAndGet(60 * MINUTE);
+        tracker.record("LOGIN", "10.0.0.3", true);
+        assertEquals(List.of(new HeavyHitter("10.0.0.3", 1, 0)), tracker.topAttempts("LOGIN", 10, 60 * MINUTE));
+    }
+
+    @Test
+    void heavyKeyArrivingFirstSurvivesEviction() {
+        HeavyHitterTracker tracker = new HeavyHitterTracker(3, 1, 60, MINUTE, now::get);
+        for (int i = 0; i < 5; i++) {
+            tracker.record("LOGIN", "203.0.113.7", false);
+        }
+        tracker.record("LOGIN", "10.0.0.1", true);
+        tracker.record("LOGIN", "10.0.0.2", true);
+        tracker.record("LOGIN", "10.0.0.3", true);
+
+        // The newcomer takes over one of the light keys, never the heavy one
+        List<HeavyHitter> top = tracker.topAttempts("LOGIN", 3, MINUTE);
+        assertEquals(new HeavyHitter("203.0.113.7", 5, 0), top.get(0));
+        assertEquals(new HeavyHitter("10.0.0.3", 2, 1), top.get(1));
+        assertEquals(1, top.get(2).count());
+    }
+
+    @Test
+    void keysEvictedFromAnOlderSliceStayWithinTheirError() {
+        HeavyHitterTracker tracker = new HeavyHitterTracker(3, 1, 60, MINUTE, now::get);
+        // Two attempts from the attacker, then pushed out of a full summary whose smallest counter ends at 5
+        tracker.record("LOGIN", "203.0.113.7", true);
+        tracker.record("LOGIN", "203.0.113.7", true);
+        for (String client : new String[] {"10.0.0.1", "10.0.0.2", "10.0.0.3"}) {
+            for (int i = 0; i < 5; i++) {
+                tracker.record("LOGIN", client, true);
+            }
+        }
+        now.addAndGet(MINUTE);
+        for (int i = 0; i < 10; i++) {
+            tracker.record("LOGIN", "203.0.113.7", true);
+        }
+
+        // 12 real attempts; the minute it was missing from may have held up to 5 of them
+        HeavyHitter attacker = tracker.topAttempts("LOGIN", 1, 2 * MINUTE).get(0);
+        assertEquals(new HeavyHitter("203.0.113.7", 15, 5), attacker);
+        assertTrue(attacker.count() - attacker.error() <= 12 && attacker.count() >= 12);
+    }
+
+    @Test
+    void stripedClientsAreCountedExactlyUnderConcurrency() throws InterruptedException {
+        HeavyHitterTracker tracker = new HeavyHitterTracker(100, 8, 60, MINUTE, now::get);
+        Thread[] threads = new Thread[8];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    tracker.record("LOGIN", "10.0.0." + i % 20, i % 2 == 0);
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        List<HeavyHitter> top = tracker.topAttempts("LOGIN", 100, MINUTE);
+        assertEquals(20, top.size());
+        for (HeavyHitter hitter : top) {
+            assertEquals(4000, hitter.count(), hitter.key());
+            assertEquals(0, hitter.error(), hitter.key());
+        }
+        assertEquals(10, tracker.topRejections("LOGIN", 100, MINUTE).size());
+    }
+
+    @Test
+    void limitsAreTrackedSeparately() {
+        HeavyHitterTracker tracker = new HeavyHitterTracker(10, 1, 60, MINUTE, now::get);
+        tracker.record("LOGIN", "10.0.0.1", true);
+        tracker.record("cost", "alice@example.com", false);
+
+        assertEquals(List.of("LOGIN", "cost"), List.copyOf(tracker.getLimits()));
+        assertEquals(List.of(new HeavyHitter("alice@example.com", 1, 0)), tracker.topRejections("cost", 10, MINUTE));
+        assertEquals(List.of(), tracker.topRejections("LOGIN", 10, MINUTE));
+        assertEquals(List.of(), tracker.topAttempts("admin", 10, MINUTE));
+    }
+
+    @Test
+    void rejectsWindowsBeyondTheHorizon() {
+        HeavyHitterTracker tracker = new HeavyHitterTracker(10, 1, 60, MINUTE, now::get);
+        assertThrows(IllegalArgumentException.class, () -> tracker.topAttempts("LOGIN", 10, 61 * MINUTE));
+        assertThrows(IllegalArgumentException.class, () -> tracker.topAttempts("LOGIN", 10, 0));
+    }
+}
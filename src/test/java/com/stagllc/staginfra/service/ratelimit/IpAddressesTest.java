@@ -0,0 +1,65 @@
+package com.stagllc.staginfra.service.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IpAddressesTest {
+
+    private static String roundTrip(String text) {
+        long[] address = new long[2];
+        assertTrue(IpAddresses.parse(text, address), text);
+        return IpAddresses.format(address[0], address[1]);
+    }
+
+    @Test
+    void parsesIpv4AsMappedAddresses() {
+        long[] address = new long[2];
+        assertTrue(IpAddresses.parse("192.168.1.20", address));
+        assertEquals(0, address[0]);
+        assertEquals(0xFFFF_C0A8_0114L, address[1]);
+        assertTrue(IpAddresses.isIpv4(address[0], address[1]));
+
+        assertEquals("192.168.1.20", roundTrip(" 192.168.1.20:8443 "));
+        assertEquals("0.0.0.0", roundTrip("0.0.0.0"));
+        assertEquals("255.255.255.255", roundTrip("255.255.255.255"));
+        // The mapped IPv6 form is the same key
+        assertEquals("10.1.2.3", roundTrip("::ffff:10.1.2.3"));
+    }
+
+    @Test
+    void parsesIpv6InEveryNotation() {
+        assertEquals("2001:db8::1", roundTrip("2001:0db8:0000:0000:0000:0000:0000:0001"));
+        assertEquals("2001:db8::1", roundTrip("[2001:DB8::1]:443"));
+        assertEquals("::1", roundTrip("::1"));
+        assertEquals("::", roundTrip("::"));
+        assertEquals("fe80::1", roundTrip("fe80::1%eth0"));
+        assertEquals("1::", roundTrip("1::"));
+        assertEquals("2001:db8:0:1:1:1:1:1", roundTrip("2001:db8:0:1:1:1:1:1"));
+        // The longest run of zeros is compressed, the first one on a tie
+        assertEquals("1:0:0:2::3", roundTrip("1:0:0:2:0:0:0:3"));
+        assertEquals("1::2:0:0:3:4", roundTrip("1:0:0:2:0:0:3:4"));
+        assertEquals("64:ff9b::c000:201", roundTrip("64:ff9b::192.0.2.1"));
+    }
+
+    @Test
+    void rejectsAnythingElse() {
+        long[] address = {7, 7};
+        for (String text : new String[] {"", "  ", "unknown", "1.2.3", "1.2.3.4.5", "256.1.1.1", "1..2.3",
+                "1.2.3.4x", ":1", "1:::2", "1::2::3", "1:2:3:4:5:6:7:8:9", "12345::", "g::1", "[::1", "[::1]x",
+                "1:2:3:4:5:6:7", "::1.2.3", "1.2.3.4::"}) {
+            assertFalse(IpAddresses.parse(text, address), text);
+        }
+        assertArrayEquals(new long[] {7, 7}, address);
+    }
+
+    @Test
+    void parsesPartOfALongerText() {
+        String header = "203.0.113.9, 10.0.0.2";
+        long[] address = new long[2];
+        assertTrue(IpAddresses.parse(header, header.indexOf(',') + 1, header.length(), address));
+        assertEquals("10.0.0.2", IpAddresses.format(address[0], address[1]));
+        assertTrue(IpAddresses.parse(header, 0, header.indexOf(','), address));
+        assertEquals("203.0.113.9", IpAddresses.format(address[0], address[1]));
+    }
+}
@@ -0,0 +1,71 @@
+package com.stagllc.staginfra.service.ratelimit;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JdbcRateLimitBackendTest {
+
+    private JdbcRateLimitBackend backend;
+
+    @BeforeEach
+    void setUp() {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:ratelimit" + System.nanoTime() + ";DB_CLOSE_DELAY=-1");
+        dataSource.setUser("sa");
+        backend = new JdbcRateLimitBackend(dataSource);
+    }
+
+    @Test
+    void grantsUpToTheLimit() {
+        assertEquals(2, backend.acquire("LOGIN:10.0.0.1", 7, 2, 5, Long.MAX_VALUE));
+        assertEquals(2, backend.acquire("LOGIN:10.0.0.1", 7, 2, 5, Long.MAX_VALUE));
+        assertEquals(1, backend.acquire("LOGIN:10.0.0.1", 7, 2, 5, Long.MAX_VALUE));
+        assertEquals(0, backend.acquire("LOGIN:10.0.0.1", 7, 2, 5, Long.MAX_VALUE));
+
+        // Other windows and keys have their own counters
+        assertEquals(2, backend.acquire("LOGIN:10.0.0.1", 8, 2, 5, Long.MAX_VALUE));
+        assertEquals(2, backend.acquire("LOGIN:10.0.0.2", 7, 2, 5, Long.MAX_VALUE));
+    }
+
+    @Test
+    void releaseResetAndExpire() {
+        assertEquals(5, backend.acquire("LOGIN:10.0.0.1", 7, 5, 5, 1000));
+        backend.release(List.of(new RateLimitBackend.Release("LOGIN:10.0.0.1", 7, 3)));
+        assertEquals(3, backend.acquire("LOGIN:10.0.0.1", 7, 5, 5, 1000));
+
+        backend.reset("LOGIN:10.0.0.1");
+        assertEquals(5, backend.acquire("LOGIN:10.0.0.1", 7, 5, 5, 1000));
+
+        backend.expire(1001);
+        assertEquals(5, backend.acquire("LOGIN:10.0.0.1", 7, 5, 5, 1000));
+    }
+
+    @Test
+    void concurrentAcquiresNeverExceedTheLimit() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        AtomicInteger granted = new AtomicInteger();
+        try {
+            List<Future<?>> futures = new java.util.ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                futures.add(executor.submit(() -> granted.addAndGet(
+                        backend.acquire("LOGIN:10.0.0.1", 7, 2, 50, Long.MAX_VALUE))));
+            }
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(50, granted.get());
+    }
+}
@@ -0,0 +1,198 @@
+package com.stagllc.staginfra.service.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LeasedRateLimiterTest {
+
+    private static final long WINDOW = 60_000;
+
+    private final AtomicLong now = new AtomicLong(10 * WINDOW);
+    private final AtomicInteger acquires = new AtomicInteger();
+    private final AtomicBoolean down = new AtomicBoolean();
+    private final InMemoryRateLimitBackend shared = new InMemoryRateLimitBackend();
+    private final RateLimitBackend backend = new RateLimitBackend() {
+        @Override
+        public int acquire(String key, long window, int requested, int limit, long expiresAtMillis) {
+            acquires.incrementAndGet();
+            checkUp();
+            return shared.acquire(key, window, requested, limit, expiresAtMillis);
+        }
+
+        @Override
+        public void release(List<Release> releases) {
+            shared.release(releases);
+        }
+
+        @Override
+        public void reset(String key) {
+            shared.reset(key);
+        }
+
+        @Override
+        public void expire(long nowMillis) {
+            checkUp();
+            shared.expire(nowMillis);
+        }
+
+        private void checkUp() {
+            if (down.get()) {
+                throw new IllegalStateException("database down");
+            }
+        }
+    };
+
+    private LeasedRateLimiter node(int leaseSize) {
+        return new LeasedRateLimiter(backend, leaseSize, 5_000, now::get);
+    }
+
+    @Test
+    void spendsLeasedTokensWithoutAskingTheBackend() {
+        LeasedRateLimiter node = node(5);
+        for (int i = 0; i < 10; i++) {
+            assertTrue(node.tryAcquire("LOGIN", "10.0.0.1", 10, WINDOW));
+        }
+        assertFalse(node.tryAcquire("LOGIN", "10.0.0.1", 10, WINDOW));
+        // Two leases of five, then one refused request
+        assertEquals(3, acquires.get());
+    }
+
+    @Test
+    void limitHoldsAcrossNodes() {
+        LeasedRateLimiter first = node(2);
+        LeasedRateLimiter second = node(2);
+        LeasedRateLimiter third = node(2);
+
+        int allowed = 0;
+        for (int i = 0; i < 4; i++) {
+            for (LeasedRateLimiter node : List.of(first, second, third)) {
+                if (node.tryAcquire("LOGIN", "10.0.0.1", 5, WINDOW)) {
+                    allowed++;
+                }
+            }
+        }
+        assertEquals(5, allowed);
+    }
+
+    @Test
+    void flushReturnsIdleLeasesToOtherNodes() {
+        LeasedRateLimiter first = node(4);
+        LeasedRateLimiter second = node(4);
+
+        // The first node leases four tokens but uses one; the second can only lease the last one
+        assertTrue(first.tryAcquire("LOGIN", "10.0.0.1", 5, WINDOW));
+        assertTrue(second.tryAcquire("LOGIN", "10.0.0.1", 5, WINDOW));
+        assertFalse(second.tryAcquire("LOGIN", "10.0.0.1", 5, WINDOW));
+
+        // Recently used leases are kept
+        assertEquals(0, first.flush(1000));
+        now.addAndGet(1000);
+        assertEquals(3, first.flush(1000));
+        assertEquals(0, first.leaseCount());
+
+        for (int i = 0; i < 3; i++) {
+            assertTrue(second.tryAcquire("LOGIN", "10.0.0.1", 5, WINDOW));
+        }
+        assertFalse(second.tryAcquire("LOGIN", "10.0.0.1", 5, WINDOW));
+    }
+
+    @Test
+    void leasesOfEndedWindowsAreDroppedWhileBusyOnesAreKept() {
+        LeasedRateLimiter node = node(4);
+        assertTrue(node.tryAcquire("LOGIN", "10.0.0.1", 5, WINDOW));
+        assertTrue(node.tryAcquire("LOGIN", "10.0.0.2", 5, WINDOW));
+
+        // A flush every second doesn't take leases away from clients that paused for a moment
+        now.addAndGet(1000);
+        assertEquals(0, node.flush(60_000));
+        assertEquals(2, node.leaseCount());
+
+        // Once the window is over the leases are worthless, however recently they were used
+        now.addAndGet(WINDOW - 1000);
+        assertTrue(node.tryAcquire("LOGIN", "10.0.0.1", 5, WINDOW));
+        now.addAndGet(WINDOW);
+        assertEquals(0, node.flush(60_000));
+        assertEquals(0, node.leaseCount());
+    }
+
+    @Test
+    void newWindowStartsOver() {
+        LeasedRateLimiter node = node(2);
+        for (int i = 0; i < 3; i++) {
+            assertTrue(node.tryAcquire("REGISTRATION", "10.0.0.1", 3, WINDOW));
+        }
+        assertFalse(node.tryAcquire("REGISTRATION", "10.0.0.1", 3, WINDOW));
+
+        now.addAndGet(WINDOW);
+        assertTrue(node.tryAcquire("REGISTRATION", "10.0.0.1", 3, WINDOW));
+
+        // Counters of ended windows are dropped on flush
+        now.addAndGet(3 * WINDOW);
+        node.flush(0);
+        assertEquals(0, shared.size());
+    }
+
+    @Test
+    void resetClearsLeaseAndSharedCounter() {
+        LeasedRateLimiter first = node(2);
+        LeasedRateLimiter second = node(2);
+        for (int i = 0; i < 2; i++) {
+            assertTrue(first.tryAcquire("LOGIN", "10.0.0.1", 2, WINDOW));
+        }
+        assertFalse(second.tryAcquire("LOGIN", "10.0.0.1", 2, WINDOW));
+
+        first.reset("LOGIN", "10.0.0.1");
+        assertTrue(second.tryAcquire("LOGIN", "10.0.0.1", 2, WINDOW));
+    }
+
+    @Test
+    void namesAndClientsAreIndependent() {
+        LeasedRateLimiter node = node(2);
+        assertTrue(node.tryAcquire("LOGIN", "10.0.0.1", 1, WINDOW));
+        assertFalse(node.tryAcquire("LOGIN", "10.0.0.1", 1, WINDOW));
+        assertTrue(node.tryAcquire("REGISTRATION", "10.0.0.1", 1, WINDOW));
+        assertTrue(node.tryAcquire("LOGIN", "10.0.0.2", 1, WINDOW));
+    }
+
+    @Test
+    void skipsTheBackendForAWhileAfterAFailure() {
+        LeasedRateLimiter node = node(2);
+        assertTrue(node.tryAcquire("LOGIN", "10.0.0.1", 5, WINDOW));
+        down.set(true);
+
+        // The lease is still spent locally, then the first backend call fails and the next ones don't happen
+        assertTrue(node.tryAcquire("LOGIN", "10.0.0.1", 5, WINDOW));
+        assertThrows(IllegalStateException.class, () -> node.tryAcquire("LOGIN", "10.0.0.1", 5, WINDOW));
+        assertThrows(IllegalStateException.class, () -> node.tryAcquire("LOGIN", "10.0.0.2", 5, WINDOW));
+        assertEquals(2, acquires.get());
+
+        // Once the pause is over the backend is tried again
+        now.addAndGet(5_000);
+        assertThrows(IllegalStateException.class, () -> node.tryAcquire("LOGIN", "10.0.0.1", 5, WINDOW));
+        assertEquals(3, acquires.get());
+    }
+
+    @Test
+    void successfulFlushEndsThePause() {
+        LeasedRateLimiter node = node(2);
+        down.set(true);
+        assertThrows(IllegalStateException.class, () -> node.tryAcquire("LOGIN", "10.0.0.1", 5, WINDOW));
+
+        // A failed flush keeps the pause going, one that gets through ends it
+        now.addAndGet(1000);
+        node.flush(60_000);
+        now.addAndGet(4_500);
+        assertThrows(IllegalStateException.class, () -> node.tryAcquire("LOGIN", "10.0.0.1", 5, WINDOW));
+        assertEquals(1, acquires.get());
+
+        down.set(false);
+        node.flush(60_000);
+        assertTrue(node.tryAcquire("LOGIN", "10.0.0.1", 5, WINDOW));
+    }
+}
@@ -0,0 +1,103 @@
+package com.stagllc.staginfra.service.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBucketLimiterTest {
+
+    private final AtomicLong micros = new AtomicLong(5_000_000);
+
+    private long hash(String client) {
+        return TokenBucketLimiter.hash(client, 0);
+    }
+
+    @Test
+    void allowsBurstOfPermitsThenRejects() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(5, 60_000, 1024, micros::get);
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, limiter.tryAcquire(hash("10.0.0.1")), "Request " + (i + 1) + " should be allowed");
+        }
+        // One permit comes back every 12 seconds
+        assertEquals(TimeUnit.SECONDS.toMicros(12), limiter.tryAcquire(hash("10.0.0.1")));
+    }
+
+    @Test
+    void refillsOnePermitPerInterval() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(5, 60_000, 1024, micros::get);
+        for (int i = 0; i < 5; i++) {
+            limiter.tryAcquire(hash("10.0.0.1"));
+        }
+
+        micros.addAndGet(TimeUnit.SECONDS.toMicros(12));
+        assertEquals(0, limiter.tryAcquire(hash("10.0.0.1")));
+        assertTrue(limiter.tryAcquire(hash("10.0.0.1")) > 0);
+
+        // A full window later the whole burst is available again
+        micros.addAndGet(TimeUnit.SECONDS.toMicros(60));
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, limiter.tryAcquire(hash("10.0.0.1")));
+        }
+        assertTrue(limiter.tryAcquire(hash("10.0.0.1")) > 0);
+    }
+
+    @Test
+    void clientsHaveSeparateBuckets() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(2, 60_000, 1024, micros::get);
+        for (int i = 0; i < 2; i++) {
+            assertEquals(0, limiter.tryAcquire(hash("10.0.0.1")));
+        }
+        assertTrue(limiter.tryAcquire(hash("10.0.0.1")) > 0);
+
+        for (int i = 0; i < 100; i++) {
+            assertEquals(0, limiter.tryAcquire(hash("10.0.1." + i)));
+        }
+    }
+
+    @Test
+    void fullTableSharesBucketsInsteadOfResettingThem() {
+        // One slot: the second client can neither take over the first one's bucket nor get a fresh one
+        TokenBucketLimiter limiter = new TokenBucketLimiter(2, 60_000, 1, micros::get);
+        assertEquals(0, limiter.tryAcquire(hash("10.0.0.1")));
+        assertEquals(0, limiter.tryAcquire(hash("10.0.0.2")));
+        assertTrue(limiter.tryAcquire(hash("10.0.0.2")) > 0);
+        assertTrue(limiter.tryAcquire(hash("10.0.0.1")) > 0);
+
+        // Once the bucket is full again the slot goes to whoever asks next
+        micros.addAndGet(TimeUnit.SECONDS.toMicros(60));
+        assertEquals(0, limiter.tryAcquire(hash("10.0.0.2")));
+        assertEquals(0, limiter.tryAcquire(hash("10.0.0.2")));
+        assertTrue(limiter.tryAcquire(hash("10.0.0.2")) > 0);
+    }
+
+    @Test
+    void concurrentRequestsNeverExceedPermits() throws InterruptedException {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(1000, 3_600_000, 64, micros::get);
+        AtomicLong allowed = new AtomicLong();
+        Thread[] threads = new Thread[8];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 500; i++) {
+                    if (limiter.tryAcquire(hash("10.0.0.1")) == 0) {
+                        allowed.incrementAndGet();
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(1000, allowed.get());
+    }
+
+    @Test
+    void rejectsTableSizesThatAreNotPowersOfTwo() {
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucketLimiter(5, 60_000, 1000));
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucketLimiter(0, 60_000, 1024));
+    }
+}